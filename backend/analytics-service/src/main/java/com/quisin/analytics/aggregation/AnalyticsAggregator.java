@@ -0,0 +1,234 @@
+package com.quisin.analytics.aggregation;
+
+import com.quisin.analytics.event.OrderEventPayload;
+import com.quisin.analytics.event.PaymentEventPayload;
+import com.quisin.analytics.event.ReservationEventPayload;
+import com.quisin.analytics.event.ReviewEventPayload;
+import com.quisin.analytics.model.AnalyticsPeriod;
+import com.quisin.analytics.repository.ProcessedEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Folds analytics events into per-restaurant, per-period rollups and adds them onto the
+ * analytics tables in micro-batches.
+ *
+ * Events are only queued as they arrive. A flush folds the queued events into rollups holding
+ * what they add to each window, and adds those onto the rows with additive upserts, so every
+ * instance contributes the events of its own partitions and none overwrites another's totals.
+ * The event ids are recorded in the same transaction, and an event whose id is already recorded
+ * is left out, so a redelivered event is never counted twice. The deliveries are acknowledged
+ * only once the flush has committed, so offsets never run ahead of what is in the tables; a
+ * flush that fails keeps its events and acknowledgments for the next one.
+ */
+@Slf4j
+@Component
+public class AnalyticsAggregator {
+    private static final String ORDER_PENDING = "PENDING";
+    private static final String ORDER_COMPLETED = "COMPLETED";
+    private static final String PAYMENT_SUCCESSFUL = "SUCCESSFUL";
+    private static final String RESERVATION_CANCELLED = "RESERVATION_CANCELLED";
+    private static final String REVIEW_CREATED = "REVIEW_CREATED";
+
+    private final RollupWriter rollupWriter;
+    private final ProcessedEventRepository processedEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration processedEventRetention;
+
+    // Queued since the last successful flush; guarded by this
+    private List<QueuedEvent> queuedEvents = new ArrayList<>();
+    private List<Acknowledgment> queuedAcknowledgments = new ArrayList<>();
+
+    // Payment events only carry the order id, so payments are attributed through the orders seen recently
+    private final Map<String, String> orderRestaurants;
+
+    public AnalyticsAggregator(RollupWriter rollupWriter,
+                               ProcessedEventRepository processedEventRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${analytics.aggregation.tracked-orders:100000}") int trackedOrders,
+                               @Value("${analytics.aggregation.processed-event-retention:P7D}") Duration processedEventRetention) {
+        this.rollupWriter = rollupWriter;
+        this.processedEventRepository = processedEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.processedEventRetention = processedEventRetention;
+        this.orderRestaurants = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > trackedOrders;
+            }
+        });
+    }
+
+    public void foldOrder(OrderEventPayload event, LocalDateTime at) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        if (event.getOrderId() != null) {
+            orderRestaurants.put(event.getOrderId(), event.getRestaurantId());
+        }
+        int hour = at.getHour();
+        boolean newOrder = ORDER_PENDING.equals(event.getStatus());
+        boolean completed = ORDER_COMPLETED.equals(event.getStatus());
+
+        queue(event.getEventId(), rollups -> {
+            for (AnalyticsPeriod period : AnalyticsPeriod.values()) {
+                RollupKey key = RollupKey.of(event.getRestaurantId(), period, at);
+                rollups.performance(key).addOrderStatus(event.getStatus(), newOrder, hour);
+                if (completed) {
+                    rollups.sales(key).addCompletedOrder(event.getCustomerId(), event.getTotalAmount(), hour, event.getItems());
+                }
+            }
+        });
+    }
+
+    public void foldPayment(PaymentEventPayload event) {
+        if (!PAYMENT_SUCCESSFUL.equals(event.getStatus()) || event.getOrderId() == null) {
+            return;
+        }
+        String restaurantId = orderRestaurants.get(event.getOrderId());
+        if (restaurantId == null) {
+            log.debug("Skipping payment {} for unknown order {}", event.getPaymentId(), event.getOrderId());
+            return;
+        }
+        LocalDateTime at = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+        queue(event.getEventId(), rollups -> {
+            for (AnalyticsPeriod period : AnalyticsPeriod.values()) {
+                rollups.sales(RollupKey.of(restaurantId, period, at)).addPayment(event.getPaymentMethod(), event.getAmount());
+            }
+        });
+    }
+
+    public void foldReservation(ReservationEventPayload event) {
+        if (!RESERVATION_CANCELLED.equals(event.getEventType()) || event.getRestaurantId() == null) {
+            return;
+        }
+        LocalDateTime at = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+        queue(event.getEventId(), rollups -> {
+            for (AnalyticsPeriod period : AnalyticsPeriod.values()) {
+                rollups.performance(RollupKey.of(event.getRestaurantId(), period, at)).addCancelledReservation();
+            }
+        });
+    }
+
+    public void foldReview(ReviewEventPayload event) {
+        if (!REVIEW_CREATED.equals(event.getEventType()) || event.getRestaurantId() == null || event.getRating() == null) {
+            return;
+        }
+        LocalDateTime at = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+        queue(event.getEventId(), rollups -> {
+            for (AnalyticsPeriod period : AnalyticsPeriod.values()) {
+                rollups.performance(RollupKey.of(event.getRestaurantId(), period, at)).addReview(event.getRating());
+            }
+        });
+    }
+
+    /**
+     * Acknowledges a delivery once everything queued so far has been flushed. Called after the
+     * delivery's event has been folded, or skipped.
+     */
+    public synchronized void acknowledgeAfterFlush(Acknowledgment acknowledgment) {
+        queuedAcknowledgments.add(acknowledgment);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.aggregation.flush-interval:5000}")
+    public void flush() {
+        List<QueuedEvent> events;
+        List<Acknowledgment> acknowledgments;
+        synchronized (this) {
+            events = queuedEvents;
+            acknowledgments = queuedAcknowledgments;
+            queuedEvents = new ArrayList<>();
+            queuedAcknowledgments = new ArrayList<>();
+        }
+        if (events.isEmpty() && acknowledgments.isEmpty()) {
+            return;
+        }
+
+        Rollups rollups;
+        try {
+            rollups = events.isEmpty() ? new Rollups() : transactionTemplate.execute(status -> write(events));
+        } catch (RuntimeException e) {
+            // Put back in front of anything queued since, for the next flush to retry
+            synchronized (this) {
+                events.addAll(queuedEvents);
+                acknowledgments.addAll(queuedAcknowledgments);
+                queuedEvents = events;
+                queuedAcknowledgments = acknowledgments;
+            }
+            log.error("Failed to flush {} analytics events, retrying on the next flush", events.size(), e);
+            return;
+        }
+
+        acknowledgments.forEach(Acknowledgment::acknowledge);
+        if (!events.isEmpty()) {
+            log.debug("Flushed {} analytics events into {} sales and {} performance rollups",
+                    events.size(), rollups.sales.size(), rollups.performance.size());
+        }
+    }
+
+    @Scheduled(cron = "${analytics.aggregation.processed-event-cleanup-cron:0 30 * * * *}")
+    @Transactional
+    public void purgeProcessedEvents() {
+        int deleted = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(processedEventRetention));
+        if (deleted > 0) {
+            log.info("Purged {} processed analytics event ids", deleted);
+        }
+    }
+
+    private synchronized void queue(String eventId, Consumer<Rollups> fold) {
+        queuedEvents.add(new QueuedEvent(eventId, fold));
+    }
+
+    private Rollups write(List<QueuedEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> eventIds = new LinkedHashSet<>();
+        events.stream().map(QueuedEvent::eventId).filter(Objects::nonNull).forEach(eventIds::add);
+        Set<String> unseen = rollupWriter.claimEvents(eventIds, now);
+
+        // Events without an id can't be told apart and are always folded
+        Rollups rollups = new Rollups();
+        for (QueuedEvent event : events) {
+            if (event.eventId() == null || unseen.remove(event.eventId())) {
+                event.fold().accept(rollups);
+            }
+        }
+        rollups.sales.values().forEach(rollup -> rollupWriter.addSales(rollup, now));
+        rollups.performance.values().forEach(rollup -> rollupWriter.addPerformance(rollup, now));
+        return rollups;
+    }
+
+    private record QueuedEvent(String eventId, Consumer<Rollups> fold) {
+    }
+
+    private static class Rollups {
+        private final Map<RollupKey, SalesRollup> sales = new TreeMap<>(RollupKey.WRITE_ORDER);
+        private final Map<RollupKey, PerformanceRollup> performance = new TreeMap<>(RollupKey.WRITE_ORDER);
+
+        SalesRollup sales(RollupKey key) {
+            return sales.computeIfAbsent(key, SalesRollup::new);
+        }
+
+        PerformanceRollup performance(RollupKey key) {
+            return performance.computeIfAbsent(key, PerformanceRollup::new);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.quisin.analytics.aggregation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operational counters of one analytics window folded since the last flush, which adds them
+ * onto the persisted row.
+ */
+class PerformanceRollup {
+    private final RollupKey key;
+    private int reviews;
+    private long ratingSum;
+    private int cancelledReservations;
+    private final Map<Integer, Integer> ratingDistribution = new HashMap<>();
+    private final Map<String, Integer> orderStatusDistribution = new HashMap<>();
+    private final Map<Integer, Integer> peakHours = new HashMap<>();
+
+    PerformanceRollup(RollupKey key) {
+        this.key = key;
+    }
+
+    void addOrderStatus(String status, boolean newOrder, int hour) {
+        if (status != null) {
+            orderStatusDistribution.merge(status, 1, Integer::sum);
+        }
+        if (newOrder) {
+            peakHours.merge(hour, 1, Integer::sum);
+        }
+    }
+
+    void addReview(int rating) {
+        reviews++;
+        ratingSum += rating;
+        ratingDistribution.merge(rating, 1, Integer::sum);
+    }
+
+    void addCancelledReservation() {
+        cancelledReservations++;
+    }
+
+    RollupKey key() {
+        return key;
+    }
+
+    int reviews() {
+        return reviews;
+    }
+
+    long ratingSum() {
+        return ratingSum;
+    }
+
+    int cancelledReservations() {
+        return cancelledReservations;
+    }
+
+    Map<Integer, Integer> ratingDistribution() {
+        return ratingDistribution;
+    }
+
+    Map<String, Integer> orderStatusDistribution() {
+        return orderStatusDistribution;
+    }
+
+    Map<Integer, Integer> peakHours() {
+        return peakHours;
+    }
+}
@@ -0,0 +1,43 @@
+package com.quisin.analytics.aggregation;
+
+import com.quisin.analytics.model.AnalyticsPeriod;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
+
+/**
+ * Identifies one analytics window: a restaurant, a period granularity and the window start.
+ */
+public record RollupKey(String restaurantId, AnalyticsPeriod period, LocalDateTime startDate) {
+    // The order flushes write windows in, so instances adding to the same rows can't deadlock
+    static final Comparator<RollupKey> WRITE_ORDER = Comparator.comparing(RollupKey::restaurantId)
+            .thenComparing(RollupKey::period)
+            .thenComparing(RollupKey::startDate);
+
+    public static RollupKey of(String restaurantId, AnalyticsPeriod period, LocalDateTime at) {
+        return new RollupKey(restaurantId, period, windowStart(period, at));
+    }
+
+    public LocalDateTime endDate() {
+        return switch (period) {
+            case HOURLY -> startDate.plusHours(1);
+            case DAILY -> startDate.plusDays(1);
+            case WEEKLY -> startDate.plusWeeks(1);
+            case MONTHLY -> startDate.plusMonths(1);
+            case YEARLY -> startDate.plusYears(1);
+        };
+    }
+
+    static LocalDateTime windowStart(AnalyticsPeriod period, LocalDateTime at) {
+        return switch (period) {
+            case HOURLY -> at.truncatedTo(ChronoUnit.HOURS);
+            case DAILY -> at.truncatedTo(ChronoUnit.DAYS);
+            case WEEKLY -> at.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHLY -> at.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            case YEARLY -> at.truncatedTo(ChronoUnit.DAYS).withDayOfYear(1);
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package com.quisin.analytics.aggregation;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adds flushed rollups onto the analytics rows with additive upserts, so every instance adds
+ * its own share of a window and none overwrites another's. Runs in the flush transaction.
+ */
+@Component
+class RollupWriter {
+    private static final String CLAIM_EVENTS = """
+            INSERT INTO analytics_processed_events (event_id, processed_at)
+            SELECT unnest(?::varchar[]), ?
+            ON CONFLICT (event_id) DO NOTHING
+            RETURNING event_id
+            """;
+
+    private static final String ADD_SALES = """
+            INSERT INTO sales_analytics (restaurant_id, period, start_date, end_date, total_revenue, total_orders,
+                    average_order_value, unique_customers, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, ?)
+            ON CONFLICT (restaurant_id, period, start_date) DO UPDATE SET
+                total_revenue = sales_analytics.total_revenue + EXCLUDED.total_revenue,
+                total_orders = sales_analytics.total_orders + EXCLUDED.total_orders,
+                updated_at = EXCLUDED.updated_at
+            RETURNING id
+            """;
+
+    // Counts only the customers the window had not seen, on any instance
+    private static final String ADD_CUSTOMERS = """
+            WITH added AS (
+                INSERT INTO sales_analytics_customers (sales_analytics_id, customer_id)
+                SELECT ?, unnest(?::varchar[])
+                ON CONFLICT DO NOTHING
+                RETURNING 1
+            )
+            UPDATE sales_analytics SET
+                unique_customers = unique_customers + (SELECT COUNT(*) FROM added),
+                average_order_value = CASE WHEN total_orders = 0 THEN 0 ELSE ROUND(total_revenue / total_orders, 2) END
+            WHERE id = ?
+            """;
+
+    // The rating sum is carried in the score as score * reviews
+    private static final String ADD_PERFORMANCE = """
+            INSERT INTO performance_analytics (restaurant_id, period, start_date, end_date, average_preparation_time,
+                    average_delivery_time, order_completion_rate, customer_satisfaction_score, total_reviews,
+                    table_utilization_rate, cancelled_reservations, created_at, updated_at)
+            VALUES (?, ?, ?, ?, 0, 0, 0, ?, ?, 0, ?, ?, ?)
+            ON CONFLICT (restaurant_id, period, start_date) DO UPDATE SET
+                customer_satisfaction_score = CASE
+                    WHEN performance_analytics.total_reviews + EXCLUDED.total_reviews = 0 THEN 0
+                    ELSE (performance_analytics.customer_satisfaction_score * performance_analytics.total_reviews
+                            + EXCLUDED.customer_satisfaction_score * EXCLUDED.total_reviews)
+                        / (performance_analytics.total_reviews + EXCLUDED.total_reviews) END,
+                total_reviews = performance_analytics.total_reviews + EXCLUDED.total_reviews,
+                cancelled_reservations = performance_analytics.cancelled_reservations + EXCLUDED.cancelled_reservations,
+                updated_at = EXCLUDED.updated_at
+            RETURNING id
+            """;
+
+    private static final String UPDATE_COMPLETION_RATE = """
+            UPDATE performance_analytics SET order_completion_rate = COALESCE((
+                SELECT SUM(CASE WHEN status = 'COMPLETED' THEN count ELSE 0 END)::float8 / NULLIF(SUM(count), 0)
+                FROM order_status_distribution
+                WHERE performance_analytics_id = ? AND status IN ('COMPLETED', 'CANCELLED')
+            ), 0)
+            WHERE id = ?
+            """;
+
+    private static final String ADD_TO_MAP = """
+            INSERT INTO %1$s (%2$s, %3$s, %4$s)
+            SELECT ?, k, v FROM unnest(?::%5$s[], ?::%6$s[]) AS t(k, v)
+            ON CONFLICT (%2$s, %3$s) DO UPDATE SET %4$s = %1$s.%4$s + EXCLUDED.%4$s
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    RollupWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records the events as processed and returns the ids that were not recorded yet; the
+     * others were already added to the rows, by this instance or another.
+     */
+    Set<String> claimEvents(Collection<String> eventIds, LocalDateTime now) {
+        if (eventIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(jdbcTemplate.query(
+                connection -> {
+                    var statement = connection.prepareStatement(CLAIM_EVENTS);
+                    statement.setArray(1, connection.createArrayOf("varchar", eventIds.toArray()));
+                    statement.setObject(2, now);
+                    return statement;
+                },
+                (row, rowNum) -> row.getString(1)));
+    }
+
+    void addSales(SalesRollup rollup, LocalDateTime now) {
+        RollupKey key = rollup.key();
+        Long id = jdbcTemplate.queryForObject(ADD_SALES, Long.class,
+                key.restaurantId(), key.period().name(), key.startDate(), key.endDate(),
+                rollup.revenue(), rollup.orders(), now, now);
+        addToMap("sales_by_payment_method", "sales_analytics_id", "payment_method", "amount",
+                "varchar", "numeric", id, rollup.salesByPaymentMethod());
+        addToMap("top_selling_items", "sales_analytics_id", "item_id", "quantity",
+                "varchar", "integer", id, rollup.itemQuantities());
+        addToMap("hourly_sales_distribution", "sales_analytics_id", "hour", "amount",
+                "integer", "numeric", id, rollup.hourlySales());
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(ADD_CUSTOMERS);
+            statement.setLong(1, id);
+            statement.setArray(2, connection.createArrayOf("varchar", rollup.customers().toArray()));
+            statement.setLong(3, id);
+            return statement;
+        });
+    }
+
+    void addPerformance(PerformanceRollup rollup, LocalDateTime now) {
+        RollupKey key = rollup.key();
+        double score = rollup.reviews() == 0 ? 0.0 : (double) rollup.ratingSum() / rollup.reviews();
+        Long id = jdbcTemplate.queryForObject(ADD_PERFORMANCE, Long.class,
+                key.restaurantId(), key.period().name(), key.startDate(), key.endDate(),
+                score, rollup.reviews(), rollup.cancelledReservations(), now, now);
+        addToMap("rating_distribution", "performance_analytics_id", "rating", "count",
+                "integer", "integer", id, rollup.ratingDistribution());
+        addToMap("order_status_distribution", "performance_analytics_id", "status", "count",
+                "varchar", "integer", id, rollup.orderStatusDistribution());
+        addToMap("peak_hours", "performance_analytics_id", "hour", "order_count",
+                "integer", "integer", id, rollup.peakHours());
+        if (!rollup.orderStatusDistribution().isEmpty()) {
+            jdbcTemplate.update(UPDATE_COMPLETION_RATE, id, id);
+        }
+    }
+
+    // One statement per map: the entries are passed as a key array and a value array
+    private void addToMap(String table, String ownerColumn, String keyColumn, String valueColumn,
+                          String keyType, String valueType, long ownerId, Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        String sql = ADD_TO_MAP.formatted(table, ownerColumn, keyColumn, valueColumn, keyType, valueType);
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(sql);
+            Array keys = connection.createArrayOf(keyType, entries.keySet().toArray());
+            Array values = connection.createArrayOf(valueType, entries.values().toArray());
+            statement.setLong(1, ownerId);
+            statement.setArray(2, keys);
+            statement.setArray(3, values);
+            return statement;
+        });
+    }
+}
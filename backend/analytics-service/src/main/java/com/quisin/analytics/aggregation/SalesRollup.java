@@ -0,0 +1,80 @@
+package com.quisin.analytics.aggregation;
+
+import com.quisin.analytics.event.OrderEventPayload;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sales of one analytics window folded since the last flush, which adds them onto the
+ * persisted row.
+ */
+class SalesRollup {
+    private final RollupKey key;
+    private BigDecimal revenue = BigDecimal.ZERO;
+    private int orders;
+    private final Set<String> customers = new HashSet<>();
+    private final Map<String, BigDecimal> salesByPaymentMethod = new HashMap<>();
+    private final Map<String, Integer> itemQuantities = new HashMap<>();
+    private final Map<Integer, BigDecimal> hourlySales = new HashMap<>();
+
+    SalesRollup(RollupKey key) {
+        this.key = key;
+    }
+
+    void addCompletedOrder(String customerId, BigDecimal amount, int hour,
+                           List<OrderEventPayload.OrderItemPayload> items) {
+        BigDecimal orderAmount = amount != null ? amount : BigDecimal.ZERO;
+        revenue = revenue.add(orderAmount);
+        orders++;
+        if (customerId != null) {
+            customers.add(customerId);
+        }
+        hourlySales.merge(hour, orderAmount, BigDecimal::add);
+        if (items != null) {
+            for (OrderEventPayload.OrderItemPayload item : items) {
+                if (item.getMenuItemId() != null && item.getQuantity() != null) {
+                    itemQuantities.merge(item.getMenuItemId(), item.getQuantity(), Integer::sum);
+                }
+            }
+        }
+    }
+
+    void addPayment(String paymentMethod, BigDecimal amount) {
+        if (paymentMethod != null && amount != null) {
+            salesByPaymentMethod.merge(paymentMethod, amount, BigDecimal::add);
+        }
+    }
+
+    RollupKey key() {
+        return key;
+    }
+
+    BigDecimal revenue() {
+        return revenue;
+    }
+
+    int orders() {
+        return orders;
+    }
+
+    Set<String> customers() {
+        return customers;
+    }
+
+    Map<String, BigDecimal> salesByPaymentMethod() {
+        return salesByPaymentMethod;
+    }
+
+    Map<String, Integer> itemQuantities() {
+        return itemQuantities;
+    }
+
+    Map<Integer, BigDecimal> hourlySales() {
+        return hourlySales;
+    }
+}
@@ -1,9 +1,13 @@
 package com.quisin.analytics.event;
 
+import com.quisin.analytics.aggregation.AnalyticsAggregator;
 import com.quisin.analytics.service.AnalyticsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.stream.annotation.StreamListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
@@ -12,28 +16,38 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class AnalyticsEventConsumer {
     private final AnalyticsService analyticsService;
+    // Offsets are committed once the folded events are in the analytics tables
+    private final AnalyticsAggregator analyticsAggregator;
 
     @StreamListener("orderEvents-in-0")
-    public void handleOrderEvent(@Payload String event) {
-        log.info("Received order event: {}", event);
+    public void handleOrderEvent(@Payload String event,
+                                 @Header(KafkaHeaders.ACKNOWLEDGMENT) Acknowledgment acknowledgment) {
+        log.debug("Received order event: {}", event);
         analyticsService.processOrderEvent(event);
+        analyticsAggregator.acknowledgeAfterFlush(acknowledgment);
     }
 
     @StreamListener("paymentEvents-in-0")
-    public void handlePaymentEvent(@Payload String event) {
-        log.info("Received payment event: {}", event);
+    public void handlePaymentEvent(@Payload String event,
+                                   @Header(KafkaHeaders.ACKNOWLEDGMENT) Acknowledgment acknowledgment) {
+        log.debug("Received payment event: {}", event);
         analyticsService.processPaymentEvent(event);
+        analyticsAggregator.acknowledgeAfterFlush(acknowledgment);
     }
 
     @StreamListener("reservationEvents-in-0")
-    public void handleReservationEvent(@Payload String event) {
-        log.info("Received reservation event: {}", event);
+    public void handleReservationEvent(@Payload String event,
+                                       @Header(KafkaHeaders.ACKNOWLEDGMENT) Acknowledgment acknowledgment) {
+        log.debug("Received reservation event: {}", event);
         analyticsService.processReservationEvent(event);
+        analyticsAggregator.acknowledgeAfterFlush(acknowledgment);
     }
 
     @StreamListener("reviewEvents-in-0")
-    public void handleReviewEvent(@Payload String event) {
-        log.info("Received review event: {}", event);
+    public void handleReviewEvent(@Payload String event,
+                                  @Header(KafkaHeaders.ACKNOWLEDGMENT) Acknowledgment acknowledgment) {
+        log.debug("Received review event: {}", event);
         analyticsService.processReviewEvent(event);
+        analyticsAggregator.acknowledgeAfterFlush(acknowledgment);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.quisin.analytics.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderEventPayload {
+    private String eventId;
+    private String orderId;
+    private String restaurantId;
+    private String customerId;
+    private String waiterId;
+    private String status;
+    private BigDecimal totalAmount;
+    private List<OrderItemPayload> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class OrderItemPayload {
+        private String menuItemId;
+        private String menuItemName;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal subtotal;
+    }
+}
@@ -0,0 +1,28 @@
+package com.quisin.analytics.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PaymentEventPayload {
+    private String eventId;
+    private String eventType;
+    private String paymentId;
+    private String orderId;
+    private String userId;
+    private String status;
+    private BigDecimal amount;
+    private String currency;
+    private String paymentMethod;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,27 @@
+package com.quisin.analytics.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ReservationEventPayload {
+    private String eventId;
+    private String eventType;
+    private Long reservationId;
+    private String restaurantId;
+    private String userId;
+    private LocalDateTime reservationTime;
+    private Integer partySize;
+    private String tableId;
+    private String status;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,26 @@
+package com.quisin.analytics.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ReviewEventPayload {
+    private String eventId;
+    private String eventType;
+    private Long reviewId;
+    private String restaurantId;
+    private String userId;
+    private String orderId;
+    private Integer rating;
+    private String status;
+    private LocalDateTime timestamp;
+}
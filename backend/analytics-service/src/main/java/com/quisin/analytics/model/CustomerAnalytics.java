@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.math.BigDecimal;
 import java.util.Map;
@@ -15,7 +17,9 @@ import java.util.Map;
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "customer_analytics")
+@Table(name = "customer_analytics", indexes = {
+        @Index(name = "idx_customer_analytics_window", columnList = "restaurant_id, period, start_date")
+})
 @EqualsAndHashCode(callSuper = true)
 public class CustomerAnalytics extends BaseAnalytics {
     @Column(nullable = false)
@@ -34,18 +38,21 @@ public class CustomerAnalytics extends BaseAnalytics {
     private Double customerChurnRate;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "customer_segments")
     @MapKeyColumn(name = "segment")
     @Column(name = "count")
     private Map<String, Integer> customerSegments;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "customer_preferences")
     @MapKeyColumn(name = "category")
     @Column(name = "count")
     private Map<String, Integer> customerPreferences;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "customer_frequency")
     @MapKeyColumn(name = "visits")
     @Column(name = "count")
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.math.BigDecimal;
 import java.util.Map;
@@ -15,7 +17,9 @@ import java.util.Map;
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "performance_analytics")
+@Table(name = "performance_analytics", indexes = {
+        @Index(name = "idx_performance_analytics_window", columnList = "restaurant_id, period, start_date", unique = true)
+})
 @EqualsAndHashCode(callSuper = true)
 public class PerformanceAnalytics extends BaseAnalytics {
     @Column(nullable = false)
@@ -34,18 +38,21 @@ public class PerformanceAnalytics extends BaseAnalytics {
     private Integer totalReviews;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "rating_distribution")
     @MapKeyColumn(name = "rating")
     @Column(name = "count")
     private Map<Integer, Integer> ratingDistribution;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "order_status_distribution")
     @MapKeyColumn(name = "status")
     @Column(name = "count")
     private Map<String, Integer> orderStatusDistribution;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "peak_hours")
     @MapKeyColumn(name = "hour")
     @Column(name = "order_count")
@@ -0,0 +1,40 @@
+package com.quisin.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event already folded into the persisted rollups, recorded in the same transaction as
+ * the rollups so a redelivered event is never counted twice.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "analytics_processed_events", indexes = {
+        @Index(name = "idx_analytics_processed_events_processed_at", columnList = "processed_at")
+})
+public class ProcessedEvent implements Persistable<String> {
+    @Id
+    @Column(name = "event_id", nullable = false, length = 64)
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    @Override
+    public String getId() {
+        return eventId;
+    }
+
+    // Only ever inserted, so saving skips the lookup a merge would do
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.math.BigDecimal;
 import java.util.Map;
@@ -15,7 +17,9 @@ import java.util.Map;
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "sales_analytics")
+@Table(name = "sales_analytics", indexes = {
+        @Index(name = "idx_sales_analytics_window", columnList = "restaurant_id, period, start_date", unique = true)
+})
 @EqualsAndHashCode(callSuper = true)
 public class SalesAnalytics extends BaseAnalytics {
     @Column(nullable = false)
@@ -31,24 +35,28 @@ public class SalesAnalytics extends BaseAnalytics {
     private Integer uniqueCustomers;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "sales_by_payment_method")
     @MapKeyColumn(name = "payment_method")
     @Column(name = "amount")
     private Map<String, BigDecimal> salesByPaymentMethod;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "sales_by_category")
     @MapKeyColumn(name = "category")
     @Column(name = "amount")
     private Map<String, BigDecimal> salesByCategory;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "top_selling_items")
     @MapKeyColumn(name = "item_id")
     @Column(name = "quantity")
     private Map<String, Integer> topSellingItems;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "hourly_sales_distribution")
     @MapKeyColumn(name = "hour")
     @Column(name = "amount")
@@ -0,0 +1,36 @@
+package com.quisin.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * A customer counted in the unique customers of a sales window. Inserted by the aggregator's
+ * flush, which adds only the customers it inserted, so every instance counts a customer once.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(SalesAnalyticsCustomer.Key.class)
+@Table(name = "sales_analytics_customers")
+public class SalesAnalyticsCustomer {
+    @Id
+    @Column(name = "sales_analytics_id", nullable = false)
+    private Long salesAnalyticsId;
+
+    @Id
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long salesAnalyticsId;
+        private String customerId;
+    }
+}
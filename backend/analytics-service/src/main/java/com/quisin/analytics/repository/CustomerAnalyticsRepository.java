@@ -16,6 +16,13 @@ public interface CustomerAnalyticsRepository extends JpaRepository<CustomerAnaly
         LocalDateTime startDate
     );
 
+    List<CustomerAnalytics> findByRestaurantIdAndPeriodAndStartDateGreaterThanEqualAndStartDateLessThanOrderByStartDateAsc(
+        String restaurantId,
+        AnalyticsPeriod period,
+        LocalDateTime startDate,
+        LocalDateTime endDate
+    );
+
     CustomerAnalytics findFirstByRestaurantIdAndPeriodOrderByEndDateDesc(
         String restaurantId,
         AnalyticsPeriod period
@@ -16,6 +16,19 @@ public interface PerformanceAnalyticsRepository extends JpaRepository<Performanc
         LocalDateTime startDate
     );
 
+    PerformanceAnalytics findByRestaurantIdAndPeriodAndStartDate(
+        String restaurantId,
+        AnalyticsPeriod period,
+        LocalDateTime startDate
+    );
+
+    List<PerformanceAnalytics> findByRestaurantIdAndPeriodAndStartDateGreaterThanEqualAndStartDateLessThanOrderByStartDateAsc(
+        String restaurantId,
+        AnalyticsPeriod period,
+        LocalDateTime startDate,
+        LocalDateTime endDate
+    );
+
     PerformanceAnalytics findFirstByRestaurantIdAndPeriodOrderByEndDateDesc(
         String restaurantId,
         AnalyticsPeriod period
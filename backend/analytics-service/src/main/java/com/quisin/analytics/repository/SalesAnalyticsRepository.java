@@ -16,6 +16,19 @@ public interface SalesAnalyticsRepository extends JpaRepository<SalesAnalytics,
         LocalDateTime startDate
     );
 
+    SalesAnalytics findByRestaurantIdAndPeriodAndStartDate(
+        String restaurantId,
+        AnalyticsPeriod period,
+        LocalDateTime startDate
+    );
+
+    List<SalesAnalytics> findByRestaurantIdAndPeriodAndStartDateGreaterThanEqualAndStartDateLessThanOrderByStartDateAsc(
+        String restaurantId,
+        AnalyticsPeriod period,
+        LocalDateTime startDate,
+        LocalDateTime endDate
+    );
+
     SalesAnalytics findFirstByRestaurantIdAndPeriodOrderByEndDateDesc(
         String restaurantId,
         AnalyticsPeriod period
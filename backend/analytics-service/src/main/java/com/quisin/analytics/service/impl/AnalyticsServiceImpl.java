@@ -1,20 +1,26 @@
 package com.quisin.analytics.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quisin.analytics.aggregation.AnalyticsAggregator;
 import com.quisin.analytics.dto.AnalyticsRequest;
 import com.quisin.analytics.dto.AnalyticsResponse;
+import com.quisin.analytics.event.OrderEventPayload;
+import com.quisin.analytics.event.PaymentEventPayload;
+import com.quisin.analytics.event.ReservationEventPayload;
+import com.quisin.analytics.event.ReviewEventPayload;
 import com.quisin.analytics.model.*;
 import com.quisin.analytics.repository.*;
 import com.quisin.analytics.service.AnalyticsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,10 +30,10 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     private final SalesAnalyticsRepository salesAnalyticsRepository;
     private final PerformanceAnalyticsRepository performanceAnalyticsRepository;
     private final CustomerAnalyticsRepository customerAnalyticsRepository;
+    private final AnalyticsAggregator analyticsAggregator;
     private final ObjectMapper objectMapper;
 
     @Override
-    @Cacheable(value = "analyticsCache", key = "#request.toString()")
     public AnalyticsResponse getAnalytics(AnalyticsRequest request) {
         log.info("Fetching analytics for restaurant: {} with period: {}", 
                 request.getRestaurantId(), request.getPeriod());
@@ -38,6 +44,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .startDate(request.getStartDate())
                 .endDate(request.getEndDate());
 
+        // The latest window holds what every instance has flushed so far
         if (request.isIncludeSales()) {
             SalesAnalytics salesAnalytics = salesAnalyticsRepository
                     .findFirstByRestaurantIdAndPeriodOrderByEndDateDesc(
@@ -63,6 +70,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AnalyticsResponse> getAnalyticsHistory(
             String restaurantId,
             AnalyticsPeriod period,
@@ -71,75 +79,73 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         log.info("Fetching analytics history for restaurant: {} from {} to {}", 
                 restaurantId, startDate, endDate);
 
+        // One windowed query per series; element collections are loaded by subselect for the whole window
         List<SalesAnalytics> salesHistory = salesAnalyticsRepository
-                .findByRestaurantIdAndPeriodAndStartDateGreaterThanEqual(
-                        restaurantId, period, startDate);
+                .findByRestaurantIdAndPeriodAndStartDateGreaterThanEqualAndStartDateLessThanOrderByStartDateAsc(
+                        restaurantId, period, startDate, endDate);
+        Map<LocalDateTime, PerformanceAnalytics> performanceByWindow = performanceAnalyticsRepository
+                .findByRestaurantIdAndPeriodAndStartDateGreaterThanEqualAndStartDateLessThanOrderByStartDateAsc(
+                        restaurantId, period, startDate, endDate)
+                .stream()
+                .collect(Collectors.toMap(PerformanceAnalytics::getStartDate, Function.identity(), (a, b) -> b));
+        Map<LocalDateTime, CustomerAnalytics> customerByWindow = customerAnalyticsRepository
+                .findByRestaurantIdAndPeriodAndStartDateGreaterThanEqualAndStartDateLessThanOrderByStartDateAsc(
+                        restaurantId, period, startDate, endDate)
+                .stream()
+                .collect(Collectors.toMap(CustomerAnalytics::getStartDate, Function.identity(), (a, b) -> b));
 
         return salesHistory.stream()
-                .map(sales -> {
-                    PerformanceAnalytics performance = performanceAnalyticsRepository
-                            .findFirstByRestaurantIdAndPeriodOrderByEndDateDesc(
-                                    restaurantId, period);
-                    CustomerAnalytics customer = customerAnalyticsRepository
-                            .findFirstByRestaurantIdAndPeriodOrderByEndDateDesc(
-                                    restaurantId, period);
-
-                    return AnalyticsResponse.builder()
-                            .restaurantId(restaurantId)
-                            .period(period)
-                            .startDate(sales.getStartDate())
-                            .endDate(sales.getEndDate())
-                            .sales(mapSalesAnalytics(sales))
-                            .performance(mapPerformanceAnalytics(performance))
-                            .customer(mapCustomerAnalytics(customer))
-                            .build();
-                })
+                .map(sales -> AnalyticsResponse.builder()
+                        .restaurantId(restaurantId)
+                        .period(period)
+                        .startDate(sales.getStartDate())
+                        .endDate(sales.getEndDate())
+                        .sales(mapSalesAnalytics(sales))
+                        .performance(mapPerformanceAnalytics(performanceByWindow.get(sales.getStartDate())))
+                        .customer(mapCustomerAnalytics(customerByWindow.get(sales.getStartDate())))
+                        .build())
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional
     public void processOrderEvent(String event) {
         try {
-            // Process order event and update analytics
-            log.info("Processing order event: {}", event);
-            // Implementation details for order event processing
+            OrderEventPayload orderEvent = objectMapper.readValue(event, OrderEventPayload.class);
+            log.debug("Processing order event for order {} with status {}", orderEvent.getOrderId(), orderEvent.getStatus());
+            analyticsAggregator.foldOrder(orderEvent, LocalDateTime.now());
         } catch (Exception e) {
             log.error("Error processing order event: {}", e.getMessage(), e);
         }
     }
 
     @Override
-    @Transactional
     public void processPaymentEvent(String event) {
         try {
-            // Process payment event and update analytics
-            log.info("Processing payment event: {}", event);
-            // Implementation details for payment event processing
+            PaymentEventPayload paymentEvent = objectMapper.readValue(event, PaymentEventPayload.class);
+            log.debug("Processing payment event for payment {} with status {}", paymentEvent.getPaymentId(), paymentEvent.getStatus());
+            analyticsAggregator.foldPayment(paymentEvent);
         } catch (Exception e) {
             log.error("Error processing payment event: {}", e.getMessage(), e);
         }
     }
 
     @Override
-    @Transactional
     public void processReservationEvent(String event) {
         try {
-            // Process reservation event and update analytics
-            log.info("Processing reservation event: {}", event);
-            // Implementation details for reservation event processing
+            ReservationEventPayload reservationEvent = objectMapper.readValue(event, ReservationEventPayload.class);
+            log.debug("Processing {} for reservation {}", reservationEvent.getEventType(), reservationEvent.getReservationId());
+            analyticsAggregator.foldReservation(reservationEvent);
         } catch (Exception e) {
             log.error("Error processing reservation event: {}", e.getMessage(), e);
         }
     }
 
     @Override
-    @Transactional
     public void processReviewEvent(String event) {
         try {
-            // Process review event and update analytics
-            log.info("Processing review event: {}", event);
-            // Implementation details for review event processing
+            ReviewEventPayload reviewEvent = objectMapper.readValue(event, ReviewEventPayload.class);
+            log.debug("Processing {} for review {}", reviewEvent.getEventType(), reviewEvent.getReviewId());
+            analyticsAggregator.foldReview(reviewEvent);
         } catch (Exception e) {
             log.error("Error processing review event: {}", e.getMessage(), e);
         }
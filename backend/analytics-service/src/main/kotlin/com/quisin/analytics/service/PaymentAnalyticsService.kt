@@ -1,15 +1,18 @@
 package com.quisin.analytics.service
 
 import com.quisin.payments.domain.PaymentMethod
-import com.quisin.payments.domain.PaymentStatus
+import com.quisin.payments.repository.PaymentDailyRollupRepository
+import com.quisin.payments.repository.PaymentMethodTotals
 import com.quisin.payments.repository.PaymentRepository
 import org.springframework.stereotype.Service
+import org.springframework.transaction.annotation.Transactional
 import java.math.BigDecimal
 import java.time.LocalDateTime
 
 @Service
 class PaymentAnalyticsService(
-    private val paymentRepository: PaymentRepository
+    private val paymentRepository: PaymentRepository,
+    private val paymentDailyRollupRepository: PaymentDailyRollupRepository
 ) {
     data class PaymentMethodAnalytics(
         val method: PaymentMethod,
@@ -18,31 +21,50 @@ class PaymentAnalyticsService(
         val successRate: Double
     )
 
+    @Transactional(readOnly = true)
     fun getPaymentMethodAnalytics(
         startDate: LocalDateTime = LocalDateTime.now().minusMonths(1),
         endDate: LocalDateTime = LocalDateTime.now()
     ): List<PaymentMethodAnalytics> {
-        // Retrieve all payments within the specified date range
-        val payments = paymentRepository.findAll()
-            .filter { 
-                it.createdAt != null && 
-                it.createdAt!! >= startDate && 
-                it.createdAt!! <= endDate 
-            }
-
-        // Group payments by method and calculate analytics
-        return payments.groupBy { it.paymentMethod }
-            .map { (method, methodPayments) ->
+        return aggregateByPaymentMethod(startDate, endDate)
+            .filter { it.totalTransactions > 0 }
+            .map { totals ->
                 PaymentMethodAnalytics(
-                    method = method,
-                    totalTransactions = methodPayments.size,
-                    totalAmount = methodPayments.sumOf { it.amount },
-                    successRate = methodPayments.count { it.status == PaymentStatus.SUCCESSFUL }.toDouble() / methodPayments.size
+                    method = totals.paymentMethod,
+                    totalTransactions = totals.totalTransactions.toInt(),
+                    totalAmount = totals.totalAmount,
+                    successRate = totals.successfulTransactions.toDouble() / totals.totalTransactions
                 )
             }
             .sortedByDescending { it.totalAmount }
     }
 
+    // Whole days come from the daily rollup; only the partial days at either edge hit the payments table
+    private fun aggregateByPaymentMethod(startDate: LocalDateTime, endDate: LocalDateTime): Collection<PaymentMethodTotals> {
+        if (!startDate.isBefore(endDate)) {
+            return emptyList()
+        }
+
+        val firstWholeDay = if (startDate == startDate.toLocalDate().atStartOfDay()) {
+            startDate.toLocalDate()
+        } else {
+            startDate.toLocalDate().plusDays(1)
+        }
+        val endDay = endDate.toLocalDate()
+
+        val parts = if (firstWholeDay.isBefore(endDay)) {
+            paymentRepository.aggregateByPaymentMethod(startDate, firstWholeDay.atStartOfDay()) +
+                paymentDailyRollupRepository.aggregateByPaymentMethod(firstWholeDay, endDay) +
+                paymentRepository.aggregateByPaymentMethod(endDay.atStartOfDay(), endDate)
+        } else {
+            paymentRepository.aggregateByPaymentMethod(startDate, endDate)
+        }
+
+        return parts.groupBy { it.paymentMethod }
+            .values
+            .map { it.reduce(PaymentMethodTotals::plus) }
+    }
+
     fun getTopPaymentMethods(limit: Int = 5): List<PaymentMethodAnalytics> {
         return getPaymentMethodAnalytics().take(limit)
     }
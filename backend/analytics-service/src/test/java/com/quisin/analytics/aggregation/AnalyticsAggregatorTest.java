@@ -0,0 +1,241 @@
+package com.quisin.analytics.aggregation;
+
+import com.quisin.analytics.event.OrderEventPayload;
+import com.quisin.analytics.event.PaymentEventPayload;
+import com.quisin.analytics.event.ReviewEventPayload;
+import com.quisin.analytics.model.AnalyticsPeriod;
+import com.quisin.analytics.repository.ProcessedEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsAggregatorTest {
+
+    @Mock
+    private RollupWriter rollupWriter;
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AnalyticsAggregator aggregator;
+
+    private static final String RESTAURANT_ID = "restaurant-1";
+    private static final LocalDateTime AT = LocalDateTime.of(2024, 3, 14, 12, 30);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // Every id is new unless a test says otherwise
+        lenient().when(rollupWriter.claimEvents(anyCollection(), any()))
+                .thenAnswer(invocation -> new HashSet<>(invocation.<Collection<String>>getArgument(0)));
+        aggregator = new AnalyticsAggregator(rollupWriter, processedEventRepository, transactionManager,
+                1000, Duration.ofDays(7));
+    }
+
+    @Test
+    void flush_AddsOnlyWhatTheBatchFolded() {
+        // Arrange
+        aggregator.foldOrder(completedOrder("event-1", "order-1", "customer-1", "20.00"), AT);
+        aggregator.foldOrder(completedOrder("event-2", "order-2", "customer-1", "5.50"), AT);
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        SalesRollup daily = salesWritten().get(AnalyticsPeriod.DAILY);
+        assertThat(daily.revenue()).isEqualByComparingTo("25.50");
+        assertThat(daily.orders()).isEqualTo(2);
+        assertThat(daily.customers()).containsExactly("customer-1");
+        assertThat(daily.hourlySales()).containsOnlyKeys(12);
+        assertThat(daily.key().startDate()).isEqualTo(AT.toLocalDate().atStartOfDay());
+    }
+
+    @Test
+    void flush_AcknowledgesDeliveriesOnlyOnceWritten() {
+        // Arrange
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+        aggregator.foldOrder(completedOrder("event-1", "order-1", "customer-1", "20.00"), AT);
+        aggregator.acknowledgeAfterFlush(acknowledgment);
+        doThrow(new IllegalStateException("database down")).when(rollupWriter).addSales(any(), any());
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        verify(acknowledgment, never()).acknowledge();
+
+        // Arrange
+        reset(rollupWriter);
+        when(rollupWriter.claimEvents(anyCollection(), any())).thenReturn(new HashSet<>(Set.of("event-1")));
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        verify(acknowledgment).acknowledge();
+        verify(rollupWriter, times(AnalyticsPeriod.values().length)).addSales(any(), any());
+    }
+
+    @Test
+    void flush_AcknowledgesSkippedDeliveriesWithoutWriting() {
+        // Arrange
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+        aggregator.foldReview(ReviewEventPayload.builder().eventType("REVIEW_UPDATED").restaurantId(RESTAURANT_ID).build());
+        aggregator.acknowledgeAfterFlush(acknowledgment);
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(rollupWriter, transactionManager);
+    }
+
+    @Test
+    void flush_LeavesOutEventsAlreadyAddedElsewhere() {
+        // Arrange
+        aggregator.foldOrder(completedOrder("event-1", "order-1", "customer-1", "20.00"), AT);
+        aggregator.foldOrder(completedOrder("event-2", "order-2", "customer-2", "7.00"), AT);
+        when(rollupWriter.claimEvents(anyCollection(), any())).thenReturn(new HashSet<>(Set.of("event-2")));
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        SalesRollup daily = salesWritten().get(AnalyticsPeriod.DAILY);
+        assertThat(daily.revenue()).isEqualByComparingTo("7.00");
+        assertThat(daily.customers()).containsExactly("customer-2");
+    }
+
+    @Test
+    void flush_CountsAnEventDeliveredTwiceInOneBatchOnce() {
+        // Arrange
+        aggregator.foldOrder(completedOrder("event-1", "order-1", "customer-1", "20.00"), AT);
+        aggregator.foldOrder(completedOrder("event-1", "order-1", "customer-1", "20.00"), AT);
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        assertThat(salesWritten().get(AnalyticsPeriod.DAILY).orders()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_AttributesPaymentsThroughTheirOrder() {
+        // Arrange
+        aggregator.foldOrder(completedOrder("event-1", "order-1", "customer-1", "20.00"), AT);
+        aggregator.foldPayment(PaymentEventPayload.builder()
+                .eventId("event-2")
+                .orderId("order-1")
+                .status("SUCCESSFUL")
+                .paymentMethod("CARD")
+                .amount(new BigDecimal("20.00"))
+                .timestamp(AT)
+                .build());
+        aggregator.foldPayment(PaymentEventPayload.builder()
+                .eventId("event-3")
+                .orderId("order-unknown")
+                .status("SUCCESSFUL")
+                .paymentMethod("CASH")
+                .amount(new BigDecimal("9.00"))
+                .timestamp(AT)
+                .build());
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        assertThat(salesWritten().get(AnalyticsPeriod.DAILY).salesByPaymentMethod())
+                .containsOnlyKeys("CARD")
+                .containsEntry("CARD", new BigDecimal("20.00"));
+    }
+
+    @Test
+    void flush_AddsReviewsToThePerformanceRollups() {
+        // Arrange
+        aggregator.foldReview(review("event-1", 5));
+        aggregator.foldReview(review("event-2", 3));
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        ArgumentCaptor<PerformanceRollup> written = ArgumentCaptor.forClass(PerformanceRollup.class);
+        verify(rollupWriter, times(AnalyticsPeriod.values().length)).addPerformance(written.capture(), any());
+        PerformanceRollup hourly = written.getAllValues().stream()
+                .filter(rollup -> rollup.key().period() == AnalyticsPeriod.HOURLY)
+                .findFirst()
+                .orElseThrow();
+        assertThat(hourly.reviews()).isEqualTo(2);
+        assertThat(hourly.ratingSum()).isEqualTo(8);
+        assertThat(hourly.ratingDistribution()).isEqualTo(Map.of(5, 1, 3, 1));
+        verify(rollupWriter, never()).addSales(any(), any());
+    }
+
+    @Test
+    void flush_StartsAfreshAfterASuccessfulFlush() {
+        // Arrange
+        aggregator.foldOrder(completedOrder("event-1", "order-1", "customer-1", "20.00"), AT);
+        aggregator.flush();
+        reset(rollupWriter);
+
+        // Act
+        aggregator.flush();
+
+        // Assert
+        verifyNoInteractions(rollupWriter);
+    }
+
+    private Map<AnalyticsPeriod, SalesRollup> salesWritten() {
+        ArgumentCaptor<SalesRollup> written = ArgumentCaptor.forClass(SalesRollup.class);
+        verify(rollupWriter, atLeastOnce()).addSales(written.capture(), any());
+        List<SalesRollup> rollups = written.getAllValues();
+        assertThat(rollups).hasSize(AnalyticsPeriod.values().length);
+        return rollups.stream().collect(java.util.stream.Collectors.toMap(rollup -> rollup.key().period(), rollup -> rollup));
+    }
+
+    private static OrderEventPayload completedOrder(String eventId, String orderId, String customerId, String amount) {
+        return OrderEventPayload.builder()
+                .eventId(eventId)
+                .orderId(orderId)
+                .restaurantId(RESTAURANT_ID)
+                .customerId(customerId)
+                .status("COMPLETED")
+                .totalAmount(new BigDecimal(amount))
+                .build();
+    }
+
+    private static ReviewEventPayload review(String eventId, int rating) {
+        return ReviewEventPayload.builder()
+                .eventId(eventId)
+                .eventType("REVIEW_CREATED")
+                .restaurantId(RESTAURANT_ID)
+                .rating(rating)
+                .timestamp(AT)
+                .build();
+    }
+}
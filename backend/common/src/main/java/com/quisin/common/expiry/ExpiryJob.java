@@ -0,0 +1,43 @@
+package com.quisin.common.expiry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A set of rows that leave their current status once they are old enough, swept by
+ * {@link ExpirySweeper} in id order.
+ *
+ * @param <T> the entity being expired
+ * @param <K> the entity's id
+ */
+public interface ExpiryJob<T, K> {
+
+    /**
+     * Name used in logs and as the {@code job} metric tag.
+     */
+    String name();
+
+    /**
+     * Locks and returns up to {@code limit} expired rows with an id above {@code afterId},
+     * ordered by id; {@code afterId} is null for the first batch of a run. Rows locked by another
+     * transaction are skipped.
+     */
+    List<T> claim(K afterId, int limit);
+
+    K idOf(T row);
+
+    /**
+     * When the row became eligible for expiry; used to report how far the sweeper is behind.
+     */
+    LocalDateTime dueAt(T row);
+
+    /**
+     * Applies the status change to the claimed rows, inside the batch transaction.
+     */
+    int expire(List<T> rows);
+
+    /**
+     * Called once the batch has committed.
+     */
+    void onExpired(List<T> rows);
+}
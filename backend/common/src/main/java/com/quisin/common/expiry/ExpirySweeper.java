@@ -0,0 +1,117 @@
+package com.quisin.common.expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs an {@link ExpiryJob} in bounded batches. Each batch claims the next rows after the last
+ * id seen, expires them with a single set-based update in its own short transaction and hands
+ * them to the job once committed, so a large backlog never turns into one long transaction.
+ * A run stops after {@code maxBatchesPerRun} batches; the next run carries on.
+ *
+ * Not a component: each service declares its own sweeper bean, sized from its own
+ * {@code <service>.expiry.*} properties.
+ */
+@Slf4j
+public class ExpirySweeper {
+
+    private final TransactionTemplate batchTransaction;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Map<String, JobMetrics> metrics = new ConcurrentHashMap<>();
+
+    public ExpirySweeper(
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        int batchSize,
+        int maxBatchesPerRun
+    ) {
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Sweeps the job and returns the number of rows expired.
+     */
+    public <T, K> int sweep(ExpiryJob<T, K> job) {
+        JobMetrics jobMetrics = metrics.computeIfAbsent(job.name(), JobMetrics::new);
+        long startedAt = System.nanoTime();
+        K afterId = null;
+        int expired = 0;
+        LocalDateTime oldestDue = null;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            K fromId = afterId;
+            List<T> rows = batchTransaction.execute(status -> {
+                List<T> claimed = job.claim(fromId, batchSize);
+                if (!claimed.isEmpty()) {
+                    job.expire(claimed);
+                }
+                return claimed;
+            });
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            // Rows come in id order, which need not be due order
+            for (T row : rows) {
+                LocalDateTime dueAt = job.dueAt(row);
+                if (oldestDue == null || dueAt.isBefore(oldestDue)) {
+                    oldestDue = dueAt;
+                }
+            }
+            job.onExpired(rows);
+            expired += rows.size();
+            jobMetrics.rows.increment(rows.size());
+            afterId = job.idOf(rows.get(rows.size() - 1));
+            if (rows.size() < batchSize) {
+                break;
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        long rowsPerSecond = elapsed.isZero() ? 0 : expired * 1_000_000_000L / elapsed.toNanos();
+        jobMetrics.rowsPerSecond.set(rowsPerSecond);
+        jobMetrics.lagSeconds.set(oldestDue == null ? 0
+            : Math.max(0, Duration.between(oldestDue, LocalDateTime.now()).toSeconds()));
+        if (expired > 0) {
+            log.info("Expired {} rows for {} in {} ms ({} rows/s)",
+                expired, job.name(), elapsed.toMillis(), rowsPerSecond);
+        }
+        return expired;
+    }
+
+    private final class JobMetrics {
+        private final Counter rows;
+        private final AtomicLong rowsPerSecond = new AtomicLong();
+        private final AtomicLong lagSeconds = new AtomicLong();
+
+        private JobMetrics(String job) {
+            rows = Counter.builder("expiry.sweeper.rows")
+                .description("Rows expired by the sweeper")
+                .tag("job", job)
+                .register(meterRegistry);
+            Gauge.builder("expiry.sweeper.rows.per.second", rowsPerSecond, AtomicLong::get)
+                .description("Throughput of the last sweep")
+                .tag("job", job)
+                .register(meterRegistry);
+            Gauge.builder("expiry.sweeper.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("How long the oldest row expired by the last sweep had been due")
+                .tag("job", job)
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.quisin.common.expiry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ExpirySweeperTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void sweep_Backlog_ExpiresInIdOrderedBatches() {
+        // Given
+        FakeJob job = new FakeJob(7);
+        ExpirySweeper sweeper = new ExpirySweeper(mock(PlatformTransactionManager.class), meterRegistry, 3, 10);
+
+        // When
+        int expired = sweeper.sweep(job);
+
+        // Then
+        assertEquals(7, expired);
+        assertTrue(job.pending.isEmpty());
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L), List.of(7L)), job.batches);
+        assertEquals(7.0, meterRegistry.get("expiry.sweeper.rows").tag("job", "fake").counter().count());
+        assertTrue(meterRegistry.get("expiry.sweeper.lag.seconds").tag("job", "fake").gauge().value() >= 60);
+    }
+
+    @Test
+    void sweep_MaxBatchesReached_LeavesRestForNextRun() {
+        // Given
+        FakeJob job = new FakeJob(7);
+        ExpirySweeper sweeper = new ExpirySweeper(mock(PlatformTransactionManager.class), meterRegistry, 3, 1);
+
+        // When
+        int expired = sweeper.sweep(job);
+
+        // Then
+        assertEquals(3, expired);
+        assertEquals(4, job.pending.size());
+    }
+
+    @Test
+    void sweep_OldestRowHasHighestId_ReportsLagFromOldestRow() {
+        // Given
+        FakeJob job = new FakeJob(4);
+        job.pending.put(4L, LocalDateTime.now().minusHours(2));
+        ExpirySweeper sweeper = new ExpirySweeper(mock(PlatformTransactionManager.class), meterRegistry, 2, 10);
+
+        // When
+        sweeper.sweep(job);
+
+        // Then
+        assertTrue(meterRegistry.get("expiry.sweeper.lag.seconds").tag("job", "fake").gauge().value() >= 7200);
+    }
+
+    private static final class FakeJob implements ExpiryJob<Long, Long> {
+        private final TreeMap<Long, LocalDateTime> pending = new TreeMap<>();
+        private final List<List<Long>> batches = new ArrayList<>();
+
+        private FakeJob(int rows) {
+            for (long id = 1; id <= rows; id++) {
+                pending.put(id, LocalDateTime.now().minusMinutes(rows - id + 1));
+            }
+        }
+
+        @Override
+        public String name() {
+            return "fake";
+        }
+
+        @Override
+        public List<Long> claim(Long afterId, int limit) {
+            return (afterId == null ? pending : pending.tailMap(afterId, false)).keySet().stream().limit(limit).collect(Collectors.toList());
+        }
+
+        @Override
+        public Long idOf(Long row) {
+            return row;
+        }
+
+        @Override
+        public LocalDateTime dueAt(Long row) {
+            return pending.get(row);
+        }
+
+        @Override
+        public int expire(List<Long> rows) {
+            return rows.size();
+        }
+
+        @Override
+        public void onExpired(List<Long> rows) {
+            batches.add(rows);
+            rows.forEach(pending::remove);
+        }
+    }
+}
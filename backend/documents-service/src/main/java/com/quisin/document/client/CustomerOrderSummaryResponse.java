@@ -0,0 +1,18 @@
+package com.quisin.document.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CustomerOrderSummaryResponse {
+    private Long customerId;
+    private Long orderCount;
+    private BigDecimal totalSpent;
+    private LocalDateTime lastOrderAt;
+}
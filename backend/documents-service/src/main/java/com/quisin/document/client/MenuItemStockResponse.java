@@ -0,0 +1,16 @@
+package com.quisin.document.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MenuItemStockResponse {
+    private String name;
+    private BigDecimal price;
+    private Integer currentStock;
+}
@@ -0,0 +1,15 @@
+package com.quisin.document.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.List;
+
+// menu-service serves its /api/menu-items controller under the /api context path
+@FeignClient(name = "menu-service", path = "/api/api/menu-items")
+public interface MenuServiceClient {
+
+    @GetMapping("/restaurant/{restaurantId}")
+    List<MenuItemStockResponse> getMenuItemsByRestaurant(@PathVariable("restaurantId") String restaurantId);
+}
@@ -0,0 +1,29 @@
+package com.quisin.document.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@FeignClient(name = "order-service", path = "/api/v1/orders")
+public interface OrderServiceClient {
+
+    @GetMapping("/restaurant/{restaurantId}/by-date")
+    PageResponse<OrderSummaryResponse> getRestaurantOrdersByDateRange(
+            @PathVariable("restaurantId") String restaurantId,
+            @RequestParam("startDate") String startDate,
+            @RequestParam("endDate") String endDate,
+            @RequestParam("page") int page,
+            @RequestParam("size") int size,
+            @RequestParam("sort") List<String> sort);
+
+    @GetMapping("/restaurant/{restaurantId}/customers")
+    PageResponse<CustomerOrderSummaryResponse> getRestaurantCustomerSummaries(
+            @PathVariable("restaurantId") String restaurantId,
+            @RequestParam("startDate") String startDate,
+            @RequestParam("endDate") String endDate,
+            @RequestParam("page") int page,
+            @RequestParam("size") int size);
+}
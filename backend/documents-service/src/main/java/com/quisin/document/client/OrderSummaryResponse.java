@@ -0,0 +1,27 @@
+package com.quisin.document.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderSummaryResponse {
+    private Long id;
+    private String status;
+    private BigDecimal totalAmount;
+    private List<Item> items = List.of();
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        private Integer quantity;
+    }
+}
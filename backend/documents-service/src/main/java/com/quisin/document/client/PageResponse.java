@@ -0,0 +1,18 @@
+package com.quisin.document.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a Spring Data {@code Page} as the owning services serialize it.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PageResponse<T> {
+    private List<T> content = List.of();
+    private boolean last = true;
+}
@@ -10,6 +10,12 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 @RestController
 @RequiredArgsConstructor
@@ -73,6 +79,41 @@ public class DocumentController {
                 .body(response.getContent());
     }
 
+    @GetMapping("/report/{restaurantId}/{type}/stream")
+    public ResponseEntity<StreamingResponseBody> streamReport(
+            @PathVariable String restaurantId,
+            @PathVariable DocumentType type,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "PDF") String format) {
+
+        String contentType = switch (format.toUpperCase()) {
+            case "PDF" -> MediaType.APPLICATION_PDF_VALUE;
+            case "EXCEL" -> "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            case "CSV" -> "text/csv";
+            default -> throw new IllegalArgumentException("Unsupported format: " + format);
+        };
+        String extension = format.equalsIgnoreCase("EXCEL") ? "xlsx" : format.toLowerCase();
+        String fileName = String.format("%s_report_%s.%s",
+                type.toString().toLowerCase(),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")),
+                extension);
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(outputStream -> {
+                    // The body is written on another thread; the report's calls still need the caller's credentials
+                    RequestContextHolder.setRequestAttributes(requestAttributes);
+                    try {
+                        documentService.streamReport(restaurantId, type, format, startDate, endDate, outputStream);
+                    } finally {
+                        RequestContextHolder.resetRequestAttributes();
+                    }
+                });
+    }
+
     @GetMapping("/credentials/{restaurantId}")
     public ResponseEntity<byte[]> generateRestaurantCredentials(@PathVariable String restaurantId) {
         byte[] content = documentService.generateRestaurantCredentials(restaurantId);
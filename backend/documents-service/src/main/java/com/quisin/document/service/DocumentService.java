@@ -4,6 +4,9 @@ import com.quisin.document.dto.DocumentRequest;
 import com.quisin.document.dto.DocumentResponse;
 import com.quisin.document.model.DocumentType;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface DocumentService {
     DocumentResponse generateDocument(DocumentRequest request);
     byte[] generateQRCodePDF(String restaurantId, String tableNumber);
@@ -11,6 +14,8 @@ public interface DocumentService {
     byte[] generateExcelReport(String restaurantId, DocumentType type, String startDate, String endDate);
     byte[] generatePDFReport(String restaurantId, DocumentType type, String startDate, String endDate);
     byte[] generateCSVReport(String restaurantId, DocumentType type, String startDate, String endDate);
+    void streamReport(String restaurantId, DocumentType type, String format, String startDate, String endDate,
+                      OutputStream outputStream) throws IOException;
     byte[] generateRestaurantCredentials(String restaurantId);
     byte[] generateAuditReport(String restaurantId, String startDate, String endDate);
     byte[] generateAnalyticsReport(String restaurantId, String startDate, String endDate, String format);
@@ -1,9 +1,15 @@
 package com.quisin.document.service.impl;
 
 import com.itextpdf.text.*;
+import com.itextpdf.text.Font;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
+import com.quisin.document.client.CustomerOrderSummaryResponse;
+import com.quisin.document.client.MenuItemStockResponse;
+import com.quisin.document.client.MenuServiceClient;
+import com.quisin.document.client.OrderServiceClient;
+import com.quisin.document.client.OrderSummaryResponse;
 import com.quisin.document.client.QRCodeServiceClient;
 import com.quisin.document.dto.DocumentRequest;
 import com.quisin.document.dto.DocumentResponse;
@@ -12,7 +18,8 @@ import com.quisin.document.service.DocumentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -20,17 +27,36 @@ import org.supercsv.io.CsvListWriter;
 import org.supercsv.io.ICsvListWriter;
 import org.supercsv.prefs.CsvPreference;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DocumentServiceImpl implements DocumentService {
 
+    // Report rows are read in this order, so paging through them is stable
+    private static final List<String> ORDER_REPORT_SORT = List.of("createdAt,asc", "id,asc");
+    private static final DateTimeFormatter REPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final LocalTime END_OF_DAY = LocalTime.MAX.truncatedTo(ChronoUnit.MICROS);
+
     private final QRCodeServiceClient qrCodeServiceClient;
+    private final OrderServiceClient orderServiceClient;
+    private final MenuServiceClient menuServiceClient;
 
     @Value("${quisin.document.brand-color}")
     private String brandColor;
@@ -38,6 +64,12 @@ public class DocumentServiceImpl implements DocumentService {
     @Value("${quisin.document.brand-name}")
     private String brandName;
 
+    @Value("${quisin.document.reports.page-size:500}")
+    private int reportPageSize;
+
+    @Value("${quisin.document.reports.excel-row-window:100}")
+    private int excelRowWindow;
+
     @Override
     public DocumentResponse generateDocument(DocumentRequest request) {
         try {
@@ -146,12 +178,70 @@ public class DocumentServiceImpl implements DocumentService {
 
     @Override
     public byte[] generateExcelReport(String restaurantId, DocumentType type, String startDate, String endDate) {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet(type.toString() + " Report");
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            writeExcelReport(restaurantId, type, startDate, endDate, outputStream);
+            return outputStream.toByteArray();
+        } catch (Exception e) {
+            log.error("Error generating Excel report", e);
+            throw new RuntimeException("Error generating Excel report", e);
+        }
+    }
+
+    @Override
+    public byte[] generatePDFReport(String restaurantId, DocumentType type, String startDate, String endDate) {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            writePDFReport(restaurantId, type, startDate, endDate, outputStream);
+            return outputStream.toByteArray();
+        } catch (Exception e) {
+            log.error("Error generating PDF report", e);
+            throw new RuntimeException("Error generating PDF report", e);
+        }
+    }
+
+    @Override
+    public byte[] generateCSVReport(String restaurantId, DocumentType type, String startDate, String endDate) {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            writeCSVReport(restaurantId, type, startDate, endDate, outputStream);
+            return outputStream.toByteArray();
+        } catch (Exception e) {
+            log.error("Error generating CSV report", e);
+            throw new RuntimeException("Error generating CSV report", e);
+        }
+    }
+
+    @Override
+    public void streamReport(String restaurantId, DocumentType type, String format, String startDate, String endDate,
+                             OutputStream outputStream) throws IOException {
+        if ("EXCEL".equalsIgnoreCase(format)) {
+            writeExcelReport(restaurantId, type, startDate, endDate, outputStream);
+        } else if ("CSV".equalsIgnoreCase(format)) {
+            writeCSVReport(restaurantId, type, startDate, endDate, outputStream);
+        } else if ("PDF".equalsIgnoreCase(format)) {
+            writePDFReport(restaurantId, type, startDate, endDate, outputStream);
+        } else {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
+
+    /**
+     * Writes the report through a streaming workbook: only {@code excelRowWindow} rows are kept in
+     * memory, older rows are flushed to a compressed temp file until the workbook is written out.
+     */
+    private void writeExcelReport(String restaurantId, DocumentType type, String startDate, String endDate,
+                                  OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(excelRowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet(type.toString() + " Report");
+            // Widths are tracked as rows are flushed, so auto-sizing does not need the whole sheet in memory
+            sheet.trackAllColumnsForAutoSizing();
 
             // Create header style
             CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
+            org.apache.poi.ss.usermodel.Font headerFont = workbook.createFont();
             headerFont.setBold(true);
             headerFont.setColor(IndexedColors.WHITE.getIndex());
             headerStyle.setFont(headerFont);
@@ -162,71 +252,85 @@ public class DocumentServiceImpl implements DocumentService {
             Row headerRow = sheet.createRow(0);
             createHeaders(headerRow, headerStyle, type);
 
-            // TODO: Add data based on report type
+            int rowIndex = 1;
+            for (int page = 0; ; page++) {
+                List<String[]> rows = fetchReportRows(restaurantId, type, startDate, endDate, page, reportPageSize);
+                for (String[] values : rows) {
+                    Row row = sheet.createRow(rowIndex++);
+                    for (int i = 0; i < values.length; i++) {
+                        row.createCell(i).setCellValue(values[i]);
+                    }
+                }
+                if (rows.size() < reportPageSize) {
+                    break;
+                }
+            }
 
             // Auto-size columns
             for (int i = 0; i < headerRow.getLastCellNum(); i++) {
                 sheet.autoSizeColumn(i);
             }
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            log.error("Error generating Excel report", e);
-            throw new RuntimeException("Error generating Excel report", e);
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
-    @Override
-    public byte[] generatePDFReport(String restaurantId, DocumentType type, String startDate, String endDate) {
+    /**
+     * Writes the report straight to the stream. The data table is added to the document in
+     * chunks of one page of rows, so iText can flush completed pages instead of holding the
+     * whole table.
+     */
+    private void writePDFReport(String restaurantId, DocumentType type, String startDate, String endDate,
+                                OutputStream outputStream) throws IOException {
+        Document document = new Document(PageSize.A4);
         try {
-            Document document = new Document(PageSize.A4);
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, outputStream);
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false);
 
             document.open();
             addBrandingHeader(document);
             addReportTitle(document, type);
             addDateRange(document, startDate, endDate);
-            addReportContent(document, type);
-            document.close();
-
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            log.error("Error generating PDF report", e);
-            throw new RuntimeException("Error generating PDF report", e);
+            addReportContent(document, restaurantId, type, startDate, endDate);
+        } catch (DocumentException e) {
+            throw new IOException("Error writing PDF report", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
         }
     }
 
-    @Override
-    public byte[] generateCSVReport(String restaurantId, DocumentType type, String startDate, String endDate) {
-        try {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            CSVWriter writer = new CSVWriter(new OutputStreamWriter(outputStream));
-
-            // Write headers and data based on document type
-            switch (type) {
-                case SALES_REPORT:
-                    writeSalesReportCSV(writer, restaurantId, startDate, endDate);
-                    break;
-                case INVENTORY_REPORT:
-                    writeInventoryReportCSV(writer, restaurantId);
-                    break;
-                case CUSTOMER_REPORT:
-                    writeCustomerReportCSV(writer, restaurantId, startDate, endDate);
-                    break;
-                // Add more cases for other report types
-                default:
-                    throw new IllegalArgumentException("Unsupported document type for CSV: " + type);
-            }
+    private void writeCSVReport(String restaurantId, DocumentType type, String startDate, String endDate,
+                                OutputStream outputStream) throws IOException {
+        ICsvListWriter writer = new CsvListWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)),
+                CsvPreference.STANDARD_PREFERENCE);
 
-            writer.close();
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            log.error("Error generating CSV report", e);
-            throw new RuntimeException("Error generating CSV report", e);
+        // Write headers and data based on document type
+        switch (type) {
+            case SALES_REPORT:
+                writeSalesReportCSV(writer, restaurantId, startDate, endDate);
+                break;
+            case INVENTORY_REPORT:
+                writeInventoryReportCSV(writer, restaurantId);
+                break;
+            case CUSTOMER_REPORT:
+                writeCustomerReportCSV(writer, restaurantId, startDate, endDate);
+                break;
+            case ORDER_REPORT:
+                writer.write(getHeadersForReportType(DocumentType.ORDER_REPORT));
+                writeCSVRows(writer, restaurantId, DocumentType.ORDER_REPORT, startDate, endDate);
+                break;
+            // Add more cases for other report types
+            default:
+                throw new IllegalArgumentException("Unsupported document type for CSV: " + type);
         }
+
+        // Flush rather than close so a response stream stays under the container's control
+        writer.flush();
     }
 
     @Override
@@ -437,7 +541,7 @@ public class DocumentServiceImpl implements DocumentService {
         Paragraph header = new Paragraph();
         header.setAlignment(Element.ALIGN_CENTER);
         
-        Font brandFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 24, BaseColor.decode(brandColor));
+        Font brandFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 24, brandBaseColor());
         header.add(new Chunk(brandName, brandFont));
         header.add(Chunk.NEWLINE);
         header.add(Chunk.NEWLINE);
@@ -463,21 +567,151 @@ public class DocumentServiceImpl implements DocumentService {
         }
     }
 
-    private void addReportContent(Document document, DocumentType type) throws DocumentException {
+    private void addReportContent(Document document, String restaurantId, DocumentType type,
+                                  String startDate, String endDate) throws DocumentException {
         // Create table with appropriate columns based on report type
         PdfPTable table = createTableForReportType(type);
         table.setWidthPercentage(100);
         table.setSpacingBefore(10f);
         table.setSpacingAfter(10f);
+        table.setHeaderRows(1);
+        // Incomplete tables are written out and released each time they are added to the document
+        table.setComplete(false);
 
         // Add table headers
         addTableHeaders(table, type);
 
-        // TODO: Add actual data rows based on report type
+        Font cellFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
+        for (int page = 0; ; page++) {
+            List<String[]> rows = fetchReportRows(restaurantId, type, startDate, endDate, page, reportPageSize);
+            for (String[] values : rows) {
+                for (String value : values) {
+                    table.addCell(new Phrase(value, cellFont));
+                }
+            }
+            document.add(table);
+            if (rows.size() < reportPageSize) {
+                break;
+            }
+        }
 
+        table.setComplete(true);
         document.add(table);
     }
 
+    /**
+     * Fetches one page of report rows, in the column order of {@link #getHeadersForReportType}.
+     * Returning fewer than {@code pageSize} rows ends the report.
+     */
+    private List<String[]> fetchReportRows(String restaurantId, DocumentType type, String startDate, String endDate,
+                                           int page, int pageSize) {
+        switch (type) {
+            case SALES_REPORT:
+                return fetchOrders(restaurantId, startDate, endDate, page, pageSize).stream()
+                        .map(order -> new String[]{
+                                formatDateTime(order.getCreatedAt()),
+                                String.valueOf(countItems(order)),
+                                formatAmount(order.getTotalAmount()),
+                                order.getStatus()})
+                        .toList();
+            case ORDER_REPORT:
+                return fetchOrders(restaurantId, startDate, endDate, page, pageSize).stream()
+                        .map(order -> new String[]{
+                                String.valueOf(order.getId()),
+                                String.valueOf(countItems(order)),
+                                formatAmount(order.getTotalAmount()),
+                                order.getStatus()})
+                        .toList();
+            case CUSTOMER_REPORT:
+                return orderServiceClient.getRestaurantCustomerSummaries(restaurantId,
+                                rangeStart(startDate), rangeEnd(endDate), page, pageSize)
+                        .getContent().stream()
+                        .map(customer -> new String[]{
+                                String.valueOf(customer.getCustomerId()),
+                                String.valueOf(customer.getOrderCount()),
+                                formatAmount(customer.getTotalSpent()),
+                                formatDateTime(customer.getLastOrderAt())})
+                        .toList();
+            case INVENTORY_REPORT:
+                // A restaurant's menu comes in a single call, so it is all on the first page
+                if (page > 0) {
+                    return List.of();
+                }
+                return menuServiceClient.getMenuItemsByRestaurant(restaurantId).stream()
+                        .sorted(Comparator.comparing(MenuItemStockResponse::getName,
+                                Comparator.nullsLast(Comparator.naturalOrder())))
+                        .map(item -> {
+                            int stock = Objects.requireNonNullElse(item.getCurrentStock(), 0);
+                            BigDecimal price = Objects.requireNonNullElse(item.getPrice(), BigDecimal.ZERO);
+                            return new String[]{
+                                    item.getName(),
+                                    String.valueOf(stock),
+                                    formatAmount(price),
+                                    formatAmount(price.multiply(BigDecimal.valueOf(stock)))};
+                        })
+                        .toList();
+            default:
+                throw new IllegalArgumentException("Unsupported document type for report: " + type);
+        }
+    }
+
+    private List<OrderSummaryResponse> fetchOrders(String restaurantId, String startDate, String endDate,
+                                                   int page, int pageSize) {
+        return orderServiceClient.getRestaurantOrdersByDateRange(restaurantId, rangeStart(startDate), rangeEnd(endDate),
+                page, pageSize, ORDER_REPORT_SORT).getContent();
+    }
+
+    private static int countItems(OrderSummaryResponse order) {
+        return order.getItems().stream()
+                .map(OrderSummaryResponse.Item::getQuantity)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    private static String rangeStart(String date) {
+        return toDateTime(date, false);
+    }
+
+    private static String rangeEnd(String date) {
+        return toDateTime(date, true);
+    }
+
+    // Accepts a date, taken as the whole day, or a date-time, and returns it as an ISO date-time.
+    // A day ends at the last microsecond, as the database rounds finer times up to the next day.
+    private static String toDateTime(String value, boolean endOfRange) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("startDate and endDate are required for this report");
+        }
+        if (value.length() == 10) {
+            LocalDate day = LocalDate.parse(value);
+            return (endOfRange ? day.atTime(END_OF_DAY) : day.atStartOfDay()).toString();
+        }
+        return LocalDateTime.parse(value).toString();
+    }
+
+    private static String formatDateTime(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.format(REPORT_DATE_FORMAT) : "";
+    }
+
+    private static String formatAmount(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).toPlainString() : "";
+    }
+
+    private void writeCSVRows(ICsvListWriter writer, String restaurantId, DocumentType type, String startDate, String endDate)
+            throws IOException {
+        for (int page = 0; ; page++) {
+            List<String[]> rows = fetchReportRows(restaurantId, type, startDate, endDate, page, reportPageSize);
+            for (String[] row : rows) {
+                writer.write(row);
+            }
+            writer.flush();
+            if (rows.size() < reportPageSize) {
+                break;
+            }
+        }
+    }
+
     private PdfPTable createTableForReportType(DocumentType type) {
         switch (type) {
             case SALES_REPORT:
@@ -493,7 +727,7 @@ public class DocumentServiceImpl implements DocumentService {
 
     private void addTableHeaders(PdfPTable table, DocumentType type) {
         Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
-        BaseColor headerBackground = BaseColor.decode(brandColor);
+        BaseColor headerBackground = brandBaseColor();
 
         String[] headers = getHeadersForReportType(type);
         for (String header : headers) {
@@ -505,6 +739,12 @@ public class DocumentServiceImpl implements DocumentService {
         }
     }
 
+    // The brand color is configured as a hex string such as "#FF6B00"
+    private BaseColor brandBaseColor() {
+        int rgb = Integer.decode(brandColor);
+        return new BaseColor((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+    }
+
     private String[] getHeadersForReportType(DocumentType type) {
         switch (type) {
             case SALES_REPORT:
@@ -546,25 +786,27 @@ public class DocumentServiceImpl implements DocumentService {
                         .substring(1);
     }
 
-    private void writeSalesReportCSV(CSVWriter writer, String restaurantId, String startDate, String endDate) {
+    private void writeSalesReportCSV(ICsvListWriter writer, String restaurantId, String startDate, String endDate)
+            throws IOException {
         // Write headers
-        writer.writeNext(new String[]{"Date", "Order ID", "Total", "Items", "Status"});
-        
-        // TODO: Fetch and write sales data
+        writer.write(getHeadersForReportType(DocumentType.SALES_REPORT));
+
+        writeCSVRows(writer, restaurantId, DocumentType.SALES_REPORT, startDate, endDate);
     }
 
-    private void writeInventoryReportCSV(CSVWriter writer, String restaurantId) {
+    private void writeInventoryReportCSV(ICsvListWriter writer, String restaurantId) throws IOException {
         // Write headers
-        writer.writeNext(new String[]{"Item", "Quantity", "Unit", "Min Threshold", "Cost"});
-        
-        // TODO: Fetch and write inventory data
+        writer.write(getHeadersForReportType(DocumentType.INVENTORY_REPORT));
+
+        writeCSVRows(writer, restaurantId, DocumentType.INVENTORY_REPORT, null, null);
     }
 
-    private void writeCustomerReportCSV(CSVWriter writer, String restaurantId, String startDate, String endDate) {
+    private void writeCustomerReportCSV(ICsvListWriter writer, String restaurantId, String startDate, String endDate)
+            throws IOException {
         // Write headers
-        writer.writeNext(new String[]{"Customer", "Orders", "Total Spent", "Last Visit"});
-        
-        // TODO: Fetch and write customer data
+        writer.write(getHeadersForReportType(DocumentType.CUSTOMER_REPORT));
+
+        writeCSVRows(writer, restaurantId, DocumentType.CUSTOMER_REPORT, startDate, endDate);
     }
 
     private void addRestaurantCredentialsContent(Document document, String restaurantId) throws DocumentException {
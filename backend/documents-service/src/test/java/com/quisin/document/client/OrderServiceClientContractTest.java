@@ -0,0 +1,176 @@
+package com.quisin.document.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import feign.Feign;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the requests OrderServiceClient sends against order-service's OrderController (served
+ * under order-service's /api/v1 context path), and that the pages it returns bind.
+ */
+class OrderServiceClientContractTest {
+
+    private static final String RESTAURANT_ID = "5b7c1f2e-3f44-4c1d-9a55-0d3b0a7c6e11";
+
+    // A Page as order-service serializes it; only content and last are read
+    private static final String PAGE_JSON = """
+            {
+              "content": [%s],
+              "pageable": {"pageNumber": 0, "pageSize": 500, "offset": 0, "paged": true, "unpaged": false,
+                           "sort": {"sorted": true, "unsorted": false, "empty": false}},
+              "last": %s,
+              "totalPages": 1,
+              "totalElements": 1,
+              "size": 500,
+              "number": 0,
+              "sort": {"sorted": true, "unsorted": false, "empty": false},
+              "first": true,
+              "numberOfElements": 1,
+              "empty": false
+            }""";
+
+    // An OrderResponse as order-service serializes it
+    private static final String ORDER_JSON = """
+            {
+              "id": 42,
+              "restaurantId": "%s",
+              "customerId": 7,
+              "waiterId": null,
+              "tableId": 3,
+              "type": "DINE_IN",
+              "status": "COMPLETED",
+              "totalAmount": 25.50,
+              "items": [
+                {"id": 1, "menuItemId": "0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d01", "menuItemName": "Nyama Choma",
+                 "quantity": 2, "unitPrice": 10.00, "subtotal": 20.00, "specialInstructions": null, "status": "SERVED"},
+                {"id": 2, "menuItemId": "0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d02", "menuItemName": "Chapati",
+                 "quantity": 1, "unitPrice": 5.50, "subtotal": 5.50, "specialInstructions": null, "status": "SERVED"}
+              ],
+              "specialInstructions": null,
+              "groupOrderId": null,
+              "isWaiterAssignmentRequested": false,
+              "waiterAssignmentStatus": null,
+              "createdAt": "2024-03-02T18:30:15.123456",
+              "updatedAt": "2024-03-02T19:00:00",
+              "completedAt": "2024-03-02T19:00:00"
+            }""";
+
+    // A CustomerOrderSummary as order-service serializes it
+    private static final String CUSTOMER_JSON = """
+            {"customerId": 7, "orderCount": 3, "totalSpent": 64.50, "lastOrderAt": "2024-03-20T19:45:00"}""";
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private List<Request> requests;
+    private String responseBody;
+    private OrderServiceClient orderServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        requests = new ArrayList<>();
+        orderServiceClient = Feign.builder()
+                .contract(new SpringMvcContract())
+                .decoder((response, type) ->
+                        objectMapper.readValue(response.body().asInputStream(), objectMapper.constructType(type)))
+                .client((request, options) -> {
+                    requests.add(request);
+                    return Response.builder()
+                            .status(200)
+                            .reason("OK")
+                            .request(request)
+                            .headers(Map.of("Content-Type", List.of("application/json")))
+                            .body(responseBody, StandardCharsets.UTF_8)
+                            .build();
+                })
+                .target(OrderServiceClient.class, "http://order-service/api/v1/orders");
+    }
+
+    @Test
+    void getRestaurantOrdersByDateRange_GetsByDateWithIsoRangeAndSort() {
+        // Arrange
+        responseBody = PAGE_JSON.formatted(ORDER_JSON.formatted(RESTAURANT_ID), "true");
+
+        // Act
+        PageResponse<OrderSummaryResponse> page = orderServiceClient.getRestaurantOrdersByDateRange(RESTAURANT_ID,
+                "2024-03-01T00:00", "2024-03-31T23:59:59.999999", 0, 500, List.of("createdAt,asc", "id,asc"));
+
+        // Assert
+        assertThat(requests).singleElement().satisfies(request -> {
+            assertThat(request.httpMethod()).isEqualTo(Request.HttpMethod.GET);
+            assertThat(path(request)).isEqualTo("/api/v1/orders/restaurant/" + RESTAURANT_ID + "/by-date");
+            assertThat(query(request)).containsExactlyInAnyOrder(
+                    "startDate=2024-03-01T00:00",
+                    "endDate=2024-03-31T23:59:59.999999",
+                    "page=0",
+                    "size=500",
+                    "sort=createdAt,asc",
+                    "sort=id,asc");
+        });
+
+        assertThat(page.isLast()).isTrue();
+        assertThat(page.getContent()).singleElement().satisfies(order -> {
+            assertThat(order.getId()).isEqualTo(42L);
+            assertThat(order.getStatus()).isEqualTo("COMPLETED");
+            assertThat(order.getTotalAmount()).isEqualByComparingTo(new BigDecimal("25.50"));
+            assertThat(order.getItems()).extracting(OrderSummaryResponse.Item::getQuantity).containsExactly(2, 1);
+            assertThat(order.getCreatedAt()).isEqualTo(LocalDateTime.parse("2024-03-02T18:30:15.123456"));
+        });
+    }
+
+    @Test
+    void getRestaurantCustomerSummaries_GetsCustomersWithIsoRange() {
+        // Arrange
+        responseBody = PAGE_JSON.formatted(CUSTOMER_JSON, "false");
+
+        // Act
+        PageResponse<CustomerOrderSummaryResponse> page = orderServiceClient.getRestaurantCustomerSummaries(
+                RESTAURANT_ID, "2024-03-01T00:00", "2024-03-31T23:59:59.999999", 1, 500);
+
+        // Assert
+        assertThat(requests).singleElement().satisfies(request -> {
+            assertThat(request.httpMethod()).isEqualTo(Request.HttpMethod.GET);
+            assertThat(path(request)).isEqualTo("/api/v1/orders/restaurant/" + RESTAURANT_ID + "/customers");
+            assertThat(query(request)).containsExactlyInAnyOrder(
+                    "startDate=2024-03-01T00:00",
+                    "endDate=2024-03-31T23:59:59.999999",
+                    "page=1",
+                    "size=500");
+        });
+
+        assertThat(page.isLast()).isFalse();
+        assertThat(page.getContent()).singleElement().satisfies(customer -> {
+            assertThat(customer.getCustomerId()).isEqualTo(7L);
+            assertThat(customer.getOrderCount()).isEqualTo(3L);
+            assertThat(customer.getTotalSpent()).isEqualByComparingTo(new BigDecimal("64.50"));
+            assertThat(customer.getLastOrderAt()).isEqualTo(LocalDateTime.parse("2024-03-20T19:45:00"));
+        });
+    }
+
+    private static String path(Request request) {
+        return URI.create(request.url()).getPath();
+    }
+
+    // Decoded, as order-service's request binding sees them
+    private static List<String> query(Request request) {
+        return Arrays.stream(URI.create(request.url()).getRawQuery().split("&"))
+                .map(parameter -> URLDecoder.decode(parameter, StandardCharsets.UTF_8))
+                .toList();
+    }
+}
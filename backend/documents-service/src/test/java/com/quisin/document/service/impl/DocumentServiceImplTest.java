@@ -0,0 +1,233 @@
+package com.quisin.document.service.impl;
+
+import com.quisin.document.client.CustomerOrderSummaryResponse;
+import com.quisin.document.client.MenuItemStockResponse;
+import com.quisin.document.client.MenuServiceClient;
+import com.quisin.document.client.OrderServiceClient;
+import com.quisin.document.client.OrderSummaryResponse;
+import com.quisin.document.client.PageResponse;
+import com.quisin.document.client.QRCodeServiceClient;
+import com.quisin.document.model.DocumentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentServiceImplTest {
+
+    private static final String RESTAURANT_ID = "5b7c1f2e-3f44-4c1d-9a55-0d3b0a7c6e11";
+    private static final List<String> ORDER_REPORT_SORT = List.of("createdAt,asc", "id,asc");
+    private static final String MARCH_START = "2024-03-01T00:00";
+    private static final String MARCH_END = "2024-03-31T23:59:59.999999";
+
+    private OrderServiceClient orderServiceClient;
+    private MenuServiceClient menuServiceClient;
+    private DocumentServiceImpl documentService;
+
+    @BeforeEach
+    void setUp() {
+        orderServiceClient = mock(OrderServiceClient.class);
+        menuServiceClient = mock(MenuServiceClient.class);
+        documentService = new DocumentServiceImpl(mock(QRCodeServiceClient.class), orderServiceClient, menuServiceClient);
+        ReflectionTestUtils.setField(documentService, "brandColor", "#FF6B00");
+        ReflectionTestUtils.setField(documentService, "brandName", "Quisin");
+        ReflectionTestUtils.setField(documentService, "reportPageSize", 2);
+        ReflectionTestUtils.setField(documentService, "excelRowWindow", 100);
+    }
+
+    @Test
+    void streamReport_SalesReport_WritesFormattedRows() throws IOException {
+        // Arrange
+        whenOrdersPage(0, order(1L, "2024-03-02T18:30:15", "20.005", "COMPLETED", 2, 1));
+
+        // Act
+        List<String> lines = csv(DocumentType.SALES_REPORT, "2024-03-01", "2024-03-31");
+
+        // Assert
+        assertThat(lines).containsExactly(
+                "Date,Items,Amount,Status",
+                "2024-03-02 18:30,3,20.01,COMPLETED");
+    }
+
+    @Test
+    void streamReport_OrderReport_WritesIdsAndSkipsItemsWithoutQuantity() throws IOException {
+        // Arrange
+        whenOrdersPage(0, order(42L, "2024-03-02T18:30:00", "7", "PENDING", 2, null));
+
+        // Act
+        List<String> lines = csv(DocumentType.ORDER_REPORT, "2024-03-01", "2024-03-31");
+
+        // Assert
+        assertThat(lines).containsExactly(
+                "Order ID,Items,Total,Status",
+                "42,2,7.00,PENDING");
+    }
+
+    @Test
+    void streamReport_FullPages_FetchesUntilShortPage() throws IOException {
+        // Arrange
+        whenOrdersPage(0,
+                order(1L, "2024-03-01T10:00:00", "10", "COMPLETED", 1),
+                order(2L, "2024-03-01T11:00:00", "10", "COMPLETED", 1));
+        whenOrdersPage(1,
+                order(3L, "2024-03-02T10:00:00", "10", "COMPLETED", 1),
+                order(4L, "2024-03-02T11:00:00", "10", "COMPLETED", 1));
+        whenOrdersPage(2, order(5L, "2024-03-03T10:00:00", "10", "COMPLETED", 1));
+
+        // Act
+        List<String> lines = csv(DocumentType.ORDER_REPORT, "2024-03-01", "2024-03-31");
+
+        // Assert
+        assertThat(lines).hasSize(6);
+        assertThat(lines.subList(1, 6)).extracting(line -> line.split(",")[0])
+                .containsExactly("1", "2", "3", "4", "5");
+        for (int page = 0; page <= 2; page++) {
+            verify(orderServiceClient).getRestaurantOrdersByDateRange(
+                    RESTAURANT_ID, MARCH_START, MARCH_END, page, 2, ORDER_REPORT_SORT);
+        }
+        verify(orderServiceClient, times(3)).getRestaurantOrdersByDateRange(
+                anyString(), anyString(), anyString(), anyInt(), anyInt(), anyList());
+    }
+
+    @Test
+    void streamReport_DateTimeRange_PassedThroughAsIsoDateTimes() throws IOException {
+        // Arrange
+        whenOrdersPage("2024-03-01T10:15", "2024-03-01T22:00:30", 0);
+
+        // Act
+        csv(DocumentType.SALES_REPORT, "2024-03-01T10:15", "2024-03-01T22:00:30");
+
+        // Assert
+        verify(orderServiceClient).getRestaurantOrdersByDateRange(
+                RESTAURANT_ID, "2024-03-01T10:15", "2024-03-01T22:00:30", 0, 2, ORDER_REPORT_SORT);
+    }
+
+    @Test
+    void streamReport_MissingStartDate_Throws() {
+        // Act & Assert
+        assertThatThrownBy(() -> csv(DocumentType.SALES_REPORT, null, "2024-03-31"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("startDate");
+        verify(orderServiceClient, never()).getRestaurantOrdersByDateRange(
+                anyString(), anyString(), anyString(), anyInt(), anyInt(), anyList());
+    }
+
+    @Test
+    void streamReport_CustomerReport_WritesCustomerSummaries() throws IOException {
+        // Arrange
+        CustomerOrderSummaryResponse regular = customer(7L, 3L, "64.5", "2024-03-20T19:45:00");
+        CustomerOrderSummaryResponse newcomer = customer(9L, 1L, "12", null);
+        when(orderServiceClient.getRestaurantCustomerSummaries(RESTAURANT_ID, MARCH_START, MARCH_END, 0, 2))
+                .thenReturn(page(regular, newcomer));
+        when(orderServiceClient.getRestaurantCustomerSummaries(RESTAURANT_ID, MARCH_START, MARCH_END, 1, 2))
+                .thenReturn(page());
+
+        // Act
+        List<String> lines = csv(DocumentType.CUSTOMER_REPORT, "2024-03-01", "2024-03-31");
+
+        // Assert
+        assertThat(lines).containsExactly(
+                "Customer,Orders,Total Spent,Last Visit",
+                "7,3,64.50,2024-03-20 19:45",
+                "9,1,12.00,");
+        verify(orderServiceClient, times(2)).getRestaurantCustomerSummaries(
+                anyString(), anyString(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void streamReport_InventoryReport_SortsByNameAndFetchesMenuOnce() throws IOException {
+        // Arrange
+        when(menuServiceClient.getMenuItemsByRestaurant(RESTAURANT_ID)).thenReturn(List.of(
+                menuItem("Ugali", 10, "1.5"),
+                menuItem(null, 1, "3"),
+                menuItem("Nyama Choma", null, "12.50"),
+                menuItem("Chapati", 4, null)));
+
+        // Act
+        List<String> lines = csv(DocumentType.INVENTORY_REPORT, null, null);
+
+        // Assert
+        assertThat(lines).containsExactly(
+                "Item,Quantity,Price,Value",
+                "Chapati,4,0.00,0.00",
+                "Nyama Choma,0,12.50,0.00",
+                "Ugali,10,1.50,15.00",
+                ",1,3.00,3.00");
+        verify(menuServiceClient, times(1)).getMenuItemsByRestaurant(RESTAURANT_ID);
+    }
+
+    private List<String> csv(DocumentType type, String startDate, String endDate) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        documentService.streamReport(RESTAURANT_ID, type, "CSV", startDate, endDate, outputStream);
+        return Arrays.asList(outputStream.toString(StandardCharsets.UTF_8).split("\r?\n"));
+    }
+
+    private void whenOrdersPage(int page, OrderSummaryResponse... orders) {
+        whenOrdersPage(MARCH_START, MARCH_END, page, orders);
+    }
+
+    private void whenOrdersPage(String start, String end, int page, OrderSummaryResponse... orders) {
+        when(orderServiceClient.getRestaurantOrdersByDateRange(
+                eq(RESTAURANT_ID), eq(start), eq(end), eq(page), eq(2), eq(ORDER_REPORT_SORT)))
+                .thenReturn(page(orders));
+    }
+
+    @SafeVarargs
+    private static <T> PageResponse<T> page(T... content) {
+        PageResponse<T> page = new PageResponse<>();
+        page.setContent(List.of(content));
+        return page;
+    }
+
+    private static OrderSummaryResponse order(Long id, String createdAt, String total, String status,
+                                              Integer... quantities) {
+        OrderSummaryResponse order = new OrderSummaryResponse();
+        order.setId(id);
+        order.setCreatedAt(LocalDateTime.parse(createdAt));
+        order.setTotalAmount(new BigDecimal(total));
+        order.setStatus(status);
+        order.setItems(Arrays.stream(quantities).map(quantity -> {
+            OrderSummaryResponse.Item item = new OrderSummaryResponse.Item();
+            item.setQuantity(quantity);
+            return item;
+        }).toList());
+        return order;
+    }
+
+    private static CustomerOrderSummaryResponse customer(Long customerId, Long orderCount, String totalSpent,
+                                                         String lastOrderAt) {
+        CustomerOrderSummaryResponse customer = new CustomerOrderSummaryResponse();
+        customer.setCustomerId(customerId);
+        customer.setOrderCount(orderCount);
+        customer.setTotalSpent(new BigDecimal(totalSpent));
+        customer.setLastOrderAt(lastOrderAt != null ? LocalDateTime.parse(lastOrderAt) : null);
+        return customer;
+    }
+
+    private static MenuItemStockResponse menuItem(String name, Integer currentStock, String price) {
+        MenuItemStockResponse item = new MenuItemStockResponse();
+        item.setName(name);
+        item.setCurrentStock(currentStock);
+        item.setPrice(price != null ? new BigDecimal(price) : null);
+        return item;
+    }
+}
@@ -0,0 +1,42 @@
+package com.quisin.hailwaiter.config
+
+import org.apache.kafka.clients.admin.NewTopic
+import org.apache.kafka.clients.consumer.ConsumerConfig
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.context.annotation.Bean
+import org.springframework.context.annotation.Configuration
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory
+import org.springframework.kafka.config.TopicBuilder
+import org.springframework.kafka.core.ConsumerFactory
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory
+import org.springframework.kafka.listener.ContainerProperties
+
+/**
+ * The board topic and its listener. Every instance assigns itself all of the topic's partitions
+ * without joining a consumer group, so instances come and go without leaving groups behind, and
+ * nothing is committed: a restarted instance reloads its boards from the database instead.
+ */
+@Configuration
+class WaiterRequestBoardConfig(
+    @Value("\${hail-waiter.board.topic:waiter-request-changes}") private val topic: String,
+    @Value("\${hail-waiter.board.partitions:1}") private val partitions: Int
+) {
+    @Bean
+    fun waiterRequestBoardTopic(): NewTopic = TopicBuilder.name(topic).partitions(partitions).build()
+
+    // Must cover every partition of the topic; changes on any other partition are never read
+    @Bean
+    fun waiterRequestBoardPartitions(): Array<String> = Array(partitions) { it.toString() }
+
+    @Bean
+    fun waiterRequestBoardListenerFactory(
+        consumerFactory: ConsumerFactory<String, String>
+    ): ConcurrentKafkaListenerContainerFactory<String, String> {
+        return ConcurrentKafkaListenerContainerFactory<String, String>().apply {
+            setConsumerFactory(DefaultKafkaConsumerFactory(
+                consumerFactory.configurationProperties - ConsumerConfig.GROUP_ID_CONFIG))
+            // Never acknowledged, so the container never commits offsets for the missing group
+            containerProperties.ackMode = ContainerProperties.AckMode.MANUAL
+        }
+    }
+}
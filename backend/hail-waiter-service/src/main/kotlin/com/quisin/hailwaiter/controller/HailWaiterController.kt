@@ -0,0 +1,59 @@
+package com.quisin.hailwaiter.controller
+
+import com.quisin.hailwaiter.dto.CreateWaiterRequestRequest
+import com.quisin.hailwaiter.dto.UpdateWaiterRequestRequest
+import com.quisin.hailwaiter.dto.WaiterRequestResponse
+import com.quisin.hailwaiter.service.HailWaiterService
+import io.swagger.v3.oas.annotations.Operation
+import io.swagger.v3.oas.annotations.tags.Tag
+import jakarta.validation.Valid
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
+import org.springframework.web.bind.annotation.*
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter
+import java.util.UUID
+
+@RestController
+@RequestMapping("/api/v1/hail-waiter")
+@Tag(name = "Hail Waiter", description = "APIs for requesting and handling waiter assistance")
+class HailWaiterController(private val hailWaiterService: HailWaiterService) {
+
+    @PostMapping("/request")
+    @Operation(summary = "Hail a waiter", description = "Request waiter assistance at a table")
+    fun createWaiterRequest(
+        @Valid @RequestBody request: CreateWaiterRequestRequest
+    ): ResponseEntity<WaiterRequestResponse> {
+        val response = hailWaiterService.createWaiterRequest(request)
+        return ResponseEntity.ok(response)
+    }
+
+    @PutMapping("/request/{requestId}")
+    @Operation(summary = "Update a waiter request", description = "Update the status or assigned waiter of a request")
+    fun updateWaiterRequest(
+        @PathVariable requestId: UUID,
+        @RequestBody request: UpdateWaiterRequestRequest
+    ): ResponseEntity<WaiterRequestResponse> {
+        val response = hailWaiterService.updateWaiterRequest(requestId, request)
+        return ResponseEntity.ok(response)
+    }
+
+    @GetMapping("/restaurant/{restaurantId}/active")
+    @Operation(summary = "Get active waiter requests", description = "Retrieve the pending waiter requests of a restaurant")
+    fun getActiveWaiterRequests(
+        @PathVariable restaurantId: UUID
+    ): ResponseEntity<List<WaiterRequestResponse>> {
+        val requests = hailWaiterService.getActiveWaiterRequests(restaurantId)
+        return ResponseEntity.ok(requests)
+    }
+
+    @GetMapping("/restaurant/{restaurantId}/stream", produces = [MediaType.TEXT_EVENT_STREAM_VALUE])
+    @Operation(
+        summary = "Stream waiter requests",
+        description = "Server-sent events with a snapshot of a restaurant's open waiter requests, then each change as it happens"
+    )
+    fun streamWaiterRequests(
+        @PathVariable restaurantId: UUID
+    ): SseEmitter {
+        return hailWaiterService.subscribeToWaiterRequests(restaurantId)
+    }
+}
@@ -23,7 +23,10 @@ enum class WaiterRequestReason {
 }
 
 @Entity
-@Table(name = "waiter_requests")
+@Table(
+    name = "waiter_requests",
+    indexes = [Index(name = "idx_waiter_requests_restaurant_status", columnList = "restaurant_id, status")]
+)
 @EntityListeners(AuditingEntityListener::class)
 data class WaiterRequest(
     @Id
@@ -49,8 +52,7 @@ data class WaiterRequest(
     @Column(length = 500)
     val additionalDetails: String? = null,
 
-    @Column(nullable = false)
-    val assignedWaiterId: UUID? = null,
+    var assignedWaiterId: UUID? = null,
 
     @CreatedDate
     @Column(nullable = false, updatable = false)
@@ -14,6 +14,11 @@ interface WaiterRequestRepository : JpaRepository<WaiterRequest, UUID> {
     fun findByUserIdAndRestaurantId(userId: UUID, restaurantId: UUID): List<WaiterRequest>
     
     fun findByStatus(status: WaiterRequestStatus): List<WaiterRequest>
+
+    fun findByRestaurantIdAndStatusIn(
+        restaurantId: UUID,
+        statuses: Collection<WaiterRequestStatus>
+    ): List<WaiterRequest>
     
     fun findByReasonAndStatus(reason: WaiterRequestReason, status: WaiterRequestStatus): List<WaiterRequest>
 }
@@ -8,12 +8,14 @@ import com.quisin.hailwaiter.dto.WaiterRequestResponse
 import com.quisin.hailwaiter.repository.WaiterRequestRepository
 import org.springframework.stereotype.Service
 import org.springframework.transaction.annotation.Transactional
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter
 import java.util.UUID
 
 @Service
 class HailWaiterService(
     private val waiterRequestRepository: WaiterRequestRepository,
-    private val notificationService: NotificationService
+    private val notificationService: NotificationService,
+    private val waiterRequestBoard: WaiterRequestBoard
 ) {
     @Transactional
     fun createWaiterRequest(request: CreateWaiterRequestRequest): WaiterRequestResponse {
@@ -33,7 +35,9 @@ class HailWaiterService(
             message = "New waiter request at table ${savedRequest.tableId} - ${savedRequest.reason}"
         )
 
-        return mapToResponse(savedRequest)
+        val response = savedRequest.toResponse()
+        waiterRequestBoard.publishAfterCommit(response)
+        return response
     }
 
     @Transactional
@@ -46,34 +50,39 @@ class HailWaiterService(
 
         val updatedRequest = waiterRequestRepository.save(waiterRequest)
 
-        return mapToResponse(updatedRequest)
+        val response = updatedRequest.toResponse()
+        waiterRequestBoard.publishAfterCommit(response)
+        return response
     }
 
     fun getWaiterRequestsByTable(restaurantId: UUID, tableId: UUID): List<WaiterRequestResponse> {
         return waiterRequestRepository.findByRestaurantIdAndTableId(restaurantId, tableId)
-            .map { mapToResponse(it) }
+            .map { it.toResponse() }
     }
 
     fun getActiveWaiterRequests(restaurantId: UUID): List<WaiterRequestResponse> {
-        return waiterRequestRepository.findByStatus(WaiterRequestStatus.PENDING)
-            .filter { it.restaurantId == restaurantId }
-            .map { mapToResponse(it) }
+        return waiterRequestBoard.openRequests(restaurantId)
+            .filter { it.status == WaiterRequestStatus.PENDING }
     }
 
-    private fun mapToResponse(waiterRequest: WaiterRequest): WaiterRequestResponse {
-        return WaiterRequestResponse(
-            id = waiterRequest.id!!,
-            userId = waiterRequest.userId,
-            restaurantId = waiterRequest.restaurantId,
-            tableId = waiterRequest.tableId,
-            reason = waiterRequest.reason,
-            status = waiterRequest.status,
-            additionalDetails = waiterRequest.additionalDetails,
-            assignedWaiterId = waiterRequest.assignedWaiterId,
-            createdAt = waiterRequest.createdAt!!,
-            updatedAt = waiterRequest.updatedAt
-        )
+    fun subscribeToWaiterRequests(restaurantId: UUID): SseEmitter {
+        return waiterRequestBoard.subscribe(restaurantId)
     }
 }
 
+fun WaiterRequest.toResponse(): WaiterRequestResponse {
+    return WaiterRequestResponse(
+        id = id!!,
+        userId = userId,
+        restaurantId = restaurantId,
+        tableId = tableId,
+        reason = reason,
+        status = status,
+        additionalDetails = additionalDetails,
+        assignedWaiterId = assignedWaiterId,
+        createdAt = createdAt!!,
+        updatedAt = updatedAt
+    )
+}
+
 class WaiterRequestException(message: String) : RuntimeException(message)
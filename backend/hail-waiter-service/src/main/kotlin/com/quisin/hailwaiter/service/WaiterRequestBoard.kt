@@ -0,0 +1,204 @@
+package com.quisin.hailwaiter.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.quisin.hailwaiter.domain.WaiterRequestStatus
+import com.quisin.hailwaiter.dto.WaiterRequestResponse
+import com.quisin.hailwaiter.repository.WaiterRequestRepository
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.kafka.annotation.KafkaListener
+import org.springframework.kafka.annotation.TopicPartition
+import org.springframework.kafka.core.KafkaTemplate
+import org.springframework.stereotype.Component
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter
+import java.io.IOException
+import java.time.Duration
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+
+/**
+ * Per-restaurant board of open waiter requests, pushed to staff dashboards over server-sent events.
+ *
+ * A restaurant's board is loaded from the database on first use and kept current from request
+ * changes. Each change is applied and pushed to this instance's subscribers as soon as its
+ * transaction commits, and is broadcast on `hail-waiter.board.topic`, keyed by restaurant, so every
+ * other instance pushes it to its own subscribers too. Each instance reads every partition of the
+ * topic from its end, without a consumer group (see `WaiterRequestBoardConfig`), and skips the
+ * changes it sent itself.
+ *
+ * Boards are still reloaded once older than `hail-waiter.board.max-age`, and a subscriber gets a
+ * fresh snapshot whenever it reconnects, which covers any broadcast that was lost.
+ *
+ * Events: `snapshot` (every open request), `request` (a request was opened or changed) and
+ * `closed` (a request was resolved or cancelled).
+ */
+@Component
+class WaiterRequestBoard(
+    private val waiterRequestRepository: WaiterRequestRepository,
+    private val kafkaTemplate: KafkaTemplate<String, String>,
+    private val objectMapper: ObjectMapper,
+    @Value("\${hail-waiter.board.topic:waiter-request-changes}") private val topic: String,
+    @Value("\${hail-waiter.board.max-age:PT1M}") maxAge: Duration,
+    @Value("\${hail-waiter.stream.timeout:PT30M}") private val streamTimeout: Duration
+) {
+    private val logger = LoggerFactory.getLogger(WaiterRequestBoard::class.java)
+
+    private class Board {
+        // Guarded by the board's monitor; in creation order
+        val open = LinkedHashMap<UUID, WaiterRequestResponse>()
+        val subscribers = CopyOnWriteArrayList<SseEmitter>()
+        var loadedAt = 0L
+        var loaded = false
+    }
+
+    // A change broadcast to the other instances; `origin` lets the sender skip its own
+    internal data class BoardChange(val origin: String, val request: WaiterRequestResponse)
+
+    private val maxAgeNanos = maxAge.toNanos()
+    private val boards = ConcurrentHashMap<UUID, Board>()
+    private val instanceId = UUID.randomUUID().toString()
+
+    fun openRequests(restaurantId: UUID): List<WaiterRequestResponse> {
+        val board = board(restaurantId)
+        return synchronized(board) { board.open.values.toList() }
+    }
+
+    fun subscribe(restaurantId: UUID): SseEmitter {
+        val emitter = SseEmitter(streamTimeout.toMillis())
+        val board = board(restaurantId)
+        emitter.onCompletion { board.subscribers.remove(emitter) }
+        emitter.onTimeout { board.subscribers.remove(emitter) }
+        emitter.onError { board.subscribers.remove(emitter) }
+        synchronized(board) {
+            if (send(emitter, SNAPSHOT, board.open.values.toList())) {
+                board.subscribers += emitter
+            }
+        }
+        return emitter
+    }
+
+    /**
+     * Applies a created or updated request to its restaurant's board, and pushes it to the
+     * subscribers, once the current transaction commits.
+     */
+    fun publishAfterCommit(request: WaiterRequestResponse) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(request)
+            broadcast(request)
+            return
+        }
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCommit() {
+                apply(request)
+                broadcast(request)
+            }
+        })
+    }
+
+    // Assigned rather than subscribed, so every instance receives every change
+    @KafkaListener(
+        topicPartitions = [TopicPartition(
+            topic = "\${hail-waiter.board.topic:waiter-request-changes}",
+            partitions = ["#{@waiterRequestBoardPartitions}"]
+        )],
+        containerFactory = "waiterRequestBoardListenerFactory",
+        properties = ["auto.offset.reset=latest"]
+    )
+    fun onBoardChange(payload: String) {
+        val change = try {
+            objectMapper.readValue(payload, BoardChange::class.java)
+        } catch (e: Exception) {
+            logger.warn("Ignoring unreadable waiter request change: {}", e.message)
+            return
+        }
+        if (change.origin != instanceId) {
+            apply(change.request)
+        }
+    }
+
+    private fun broadcast(request: WaiterRequestResponse) {
+        try {
+            val payload = objectMapper.writeValueAsString(BoardChange(instanceId, request))
+            kafkaTemplate.send(topic, request.restaurantId.toString(), payload)
+                .whenComplete { _, e ->
+                    if (e != null) {
+                        logger.warn("Failed to broadcast waiter request {}: {}", request.id, e.message)
+                    }
+                }
+        } catch (e: Exception) {
+            // The other instances catch up on their next reload
+            logger.warn("Failed to broadcast waiter request {}: {}", request.id, e.message)
+        }
+    }
+
+    private fun apply(request: WaiterRequestResponse) {
+        // A board that isn't loaded yet will read the request from the database
+        val board = boards[request.restaurantId] ?: return
+        synchronized(board) {
+            if (!board.loaded) {
+                return
+            }
+            val current = board.open[request.id]
+            if (current?.updatedAt != null && request.updatedAt != null && current.updatedAt.isAfter(request.updatedAt)) {
+                // A broadcast that arrived after a newer change to the same request
+                return
+            }
+            val open = request.status in OPEN_STATUSES
+            if (open) {
+                board.open[request.id] = request
+            } else if (board.open.remove(request.id) == null) {
+                return
+            }
+            board.subscribers.forEach { send(it, if (open) REQUEST else CLOSED, request) }
+        }
+    }
+
+    private fun board(restaurantId: UUID): Board {
+        val board = boards.computeIfAbsent(restaurantId) { Board() }
+        synchronized(board) {
+            if (!board.loaded || System.nanoTime() - board.loadedAt > maxAgeNanos) {
+                reload(restaurantId, board)
+            }
+        }
+        return board
+    }
+
+    private fun reload(restaurantId: UUID, board: Board) {
+        val open = waiterRequestRepository.findByRestaurantIdAndStatusIn(restaurantId, OPEN_STATUSES)
+            .sortedBy { it.createdAt }
+            .map { it.toResponse() }
+        val changed = board.loaded && open != board.open.values.toList()
+        board.open.clear()
+        open.forEach { board.open[it.id] = it }
+        board.loadedAt = System.nanoTime()
+        board.loaded = true
+        if (changed) {
+            board.subscribers.forEach { send(it, SNAPSHOT, open) }
+        }
+    }
+
+    // Returns false, and drops the subscriber, if the client has gone away
+    private fun send(emitter: SseEmitter, event: String, data: Any): Boolean {
+        return try {
+            emitter.send(SseEmitter.event().name(event).data(data))
+            true
+        } catch (e: IOException) {
+            logger.debug("Dropping waiter request subscriber: {}", e.message)
+            emitter.completeWithError(e)
+            false
+        } catch (e: IllegalStateException) {
+            // Already completed
+            false
+        }
+    }
+
+    private companion object {
+        const val SNAPSHOT = "snapshot"
+        const val REQUEST = "request"
+        const val CLOSED = "closed"
+        val OPEN_STATUSES = listOf(WaiterRequestStatus.PENDING, WaiterRequestStatus.IN_PROGRESS)
+    }
+}
@@ -0,0 +1,194 @@
+package com.quisin.hailwaiter.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.quisin.hailwaiter.anyOf
+import com.quisin.hailwaiter.captureOf
+import com.quisin.hailwaiter.domain.WaiterRequest
+import com.quisin.hailwaiter.domain.WaiterRequestReason
+import com.quisin.hailwaiter.domain.WaiterRequestStatus
+import com.quisin.hailwaiter.eqOf
+import com.quisin.hailwaiter.dto.WaiterRequestResponse
+import com.quisin.hailwaiter.repository.WaiterRequestRepository
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
+import org.mockito.Mockito.*
+import org.springframework.kafka.core.KafkaTemplate
+import org.springframework.kafka.support.SendResult
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+import java.util.concurrent.CompletableFuture
+
+class WaiterRequestBoardTest {
+
+    private lateinit var waiterRequestRepository: WaiterRequestRepository
+    private lateinit var kafkaTemplate: KafkaTemplate<String, String>
+    private lateinit var board: WaiterRequestBoard
+
+    private val objectMapper = ObjectMapper().findAndRegisterModules()
+    private val restaurantId = UUID.randomUUID()
+    private val opened = LocalDateTime.now().minusMinutes(10)
+    private val openStatuses = listOf(WaiterRequestStatus.PENDING, WaiterRequestStatus.IN_PROGRESS)
+
+    @BeforeEach
+    @Suppress("UNCHECKED_CAST")
+    fun setup() {
+        waiterRequestRepository = mock(WaiterRequestRepository::class.java)
+        kafkaTemplate = mock(KafkaTemplate::class.java) as KafkaTemplate<String, String>
+        `when`(kafkaTemplate.send(anyOf(String::class.java), anyOf(String::class.java), anyOf(String::class.java)))
+            .thenReturn(CompletableFuture<SendResult<String, String>>())
+        board = board(Duration.ofMinutes(5))
+    }
+
+    @Test
+    fun `should load the open requests of a restaurant in creation order`() {
+        // Given
+        val later = stored(opened.plusMinutes(5))
+        val earlier = stored(opened)
+        loaded(later, earlier)
+
+        // Then
+        assertEquals(listOf(earlier.id, later.id), board.openRequests(restaurantId).map { it.id })
+    }
+
+    @Test
+    fun `should add, update and close requests of a loaded board`() {
+        // Given
+        boardLoaded()
+        val request = response(UUID.randomUUID(), WaiterRequestStatus.PENDING, opened)
+
+        // When
+        board.publishAfterCommit(request)
+        board.publishAfterCommit(request.copy(status = WaiterRequestStatus.IN_PROGRESS, updatedAt = opened.plusMinutes(1)))
+
+        // Then
+        assertEquals(listOf(WaiterRequestStatus.IN_PROGRESS), board.openRequests(restaurantId).map { it.status })
+
+        // When
+        board.publishAfterCommit(request.copy(status = WaiterRequestStatus.RESOLVED, updatedAt = opened.plusMinutes(2)))
+
+        // Then
+        assertTrue(board.openRequests(restaurantId).isEmpty())
+        verify(waiterRequestRepository, times(1)).findByRestaurantIdAndStatusIn(eqOf(restaurantId), eqOf(openStatuses))
+    }
+
+    @Test
+    fun `should leave a board that is not loaded to read the change from the database`() {
+        // When
+        board.publishAfterCommit(response(UUID.randomUUID(), WaiterRequestStatus.PENDING, opened))
+        loaded()
+
+        // Then
+        assertTrue(board.openRequests(restaurantId).isEmpty())
+    }
+
+    @Test
+    fun `should apply a change broadcast by another instance`() {
+        // Given
+        boardLoaded()
+        val request = response(UUID.randomUUID(), WaiterRequestStatus.PENDING, opened)
+
+        // When
+        board.onBoardChange(change("another-instance", request))
+
+        // Then
+        assertEquals(listOf(request), board.openRequests(restaurantId))
+    }
+
+    @Test
+    fun `should ignore a broadcast older than the change the board already has`() {
+        // Given
+        val request = response(UUID.randomUUID(), WaiterRequestStatus.IN_PROGRESS, opened.plusMinutes(2))
+        boardLoaded()
+        board.publishAfterCommit(request)
+
+        // When
+        board.onBoardChange(change("another-instance", request.copy(status = WaiterRequestStatus.PENDING, updatedAt = opened.plusMinutes(1))))
+
+        // Then
+        assertEquals(listOf(WaiterRequestStatus.IN_PROGRESS), board.openRequests(restaurantId).map { it.status })
+    }
+
+    @Test
+    fun `should skip its own broadcast when it comes back`() {
+        // Given
+        boardLoaded()
+        val request = response(UUID.randomUUID(), WaiterRequestStatus.PENDING, opened)
+        board.publishAfterCommit(request)
+        val payload = ArgumentCaptor.forClass(String::class.java)
+        verify(kafkaTemplate).send(anyOf(String::class.java), eqOf(restaurantId.toString()), captureOf(payload))
+        board.publishAfterCommit(request.copy(status = WaiterRequestStatus.CANCELLED, updatedAt = opened.plusMinutes(1)))
+
+        // When
+        board.onBoardChange(payload.value)
+
+        // Then
+        assertTrue(board.openRequests(restaurantId).isEmpty())
+    }
+
+    @Test
+    fun `should ignore an unreadable broadcast`() {
+        // Given
+        boardLoaded()
+
+        // When
+        board.onBoardChange("{not json")
+
+        // Then
+        assertTrue(board.openRequests(restaurantId).isEmpty())
+    }
+
+    @Test
+    fun `should reload a board once it is older than the maximum age`() {
+        // Given
+        board = board(Duration.ZERO)
+        loaded()
+        assertTrue(board.openRequests(restaurantId).isEmpty())
+        val request = stored(opened)
+        loaded(request)
+
+        // Then
+        assertEquals(listOf(request.id), board.openRequests(restaurantId).map { it.id })
+    }
+
+    private fun board(maxAge: Duration) = WaiterRequestBoard(
+        waiterRequestRepository, kafkaTemplate, objectMapper, "waiter-request-changes", maxAge, Duration.ofMinutes(30)
+    )
+
+    private fun boardLoaded(vararg requests: WaiterRequest) {
+        loaded(*requests)
+        board.openRequests(restaurantId)
+    }
+
+    private fun loaded(vararg requests: WaiterRequest) {
+        `when`(waiterRequestRepository.findByRestaurantIdAndStatusIn(eqOf(restaurantId), eqOf(openStatuses)))
+            .thenReturn(requests.toList())
+    }
+
+    private fun change(origin: String, request: WaiterRequestResponse) =
+        objectMapper.writeValueAsString(WaiterRequestBoard.BoardChange(origin, request))
+
+    private fun stored(createdAt: LocalDateTime) = WaiterRequest(
+        id = UUID.randomUUID(),
+        userId = UUID.randomUUID(),
+        restaurantId = restaurantId,
+        tableId = UUID.randomUUID(),
+        reason = WaiterRequestReason.BILL_REQUEST,
+        createdAt = createdAt
+    )
+
+    private fun response(id: UUID, status: WaiterRequestStatus, updatedAt: LocalDateTime) = WaiterRequestResponse(
+        id = id,
+        userId = UUID.randomUUID(),
+        restaurantId = restaurantId,
+        tableId = UUID.randomUUID(),
+        reason = WaiterRequestReason.BILL_REQUEST,
+        status = status,
+        additionalDetails = null,
+        assignedWaiterId = null,
+        createdAt = opened,
+        updatedAt = updatedAt
+    )
+}
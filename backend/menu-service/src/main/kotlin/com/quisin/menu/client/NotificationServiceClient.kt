@@ -34,7 +34,9 @@ enum class NotificationType {
     MENU_ITEM_DELETED,
     MENU_CATEGORY_CREATED,
     MENU_CATEGORY_UPDATED,
-    MENU_CATEGORY_DELETED
+    MENU_CATEGORY_DELETED,
+    LOW_STOCK,
+    OUT_OF_STOCK
 }
 
 enum class NotificationStatus {
@@ -1,8 +1,12 @@
 package com.quisin.menu.controller
 
 import com.quisin.menu.domain.InventoryTransactionType
+import com.quisin.menu.dto.BatchStockDecrementRequest
 import com.quisin.menu.dto.InventoryTransactionRequest
 import com.quisin.menu.dto.InventoryTransactionResponse
+import com.quisin.menu.dto.StockLevelResponse
+import com.quisin.menu.dto.StockReservationRequest
+import com.quisin.menu.dto.StockReservationResponse
 import com.quisin.menu.service.InventoryService
 import io.swagger.v3.oas.annotations.Operation
 import io.swagger.v3.oas.annotations.tags.Tag
@@ -29,6 +33,54 @@ class InventoryController(
         return ResponseEntity.status(HttpStatus.CREATED).body(transaction)
     }
 
+    @PostMapping("/stock-out")
+    @Operation(
+        summary = "Take stock for an order",
+        description = "Decrement the stock of several menu items at once; nothing is taken if any item is short"
+    )
+    fun decrementStock(
+        @Valid @RequestBody request: BatchStockDecrementRequest
+    ): ResponseEntity<List<StockLevelResponse>> {
+        val stockLevels = inventoryService.decrementStock(request)
+        return ResponseEntity.ok(stockLevels)
+    }
+
+    @PostMapping("/reservations")
+    @Operation(
+        summary = "Reserve stock for an order",
+        description = "Hold the stock of several menu items at once; nothing is held if any item is short"
+    )
+    fun reserveStock(
+        @Valid @RequestBody request: StockReservationRequest
+    ): ResponseEntity<StockReservationResponse> {
+        val reservation = inventoryService.reserveStock(request)
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation)
+    }
+
+    @GetMapping("/reservations/{reservationId}")
+    @Operation(summary = "Get stock reservation", description = "Retrieve a stock reservation by its ID")
+    fun getStockReservation(
+        @PathVariable reservationId: UUID
+    ): ResponseEntity<StockReservationResponse> {
+        return ResponseEntity.ok(inventoryService.getStockReservation(reservationId))
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    @Operation(summary = "Commit stock reservation", description = "Record the held stock as taken once the order is completed")
+    fun commitStockReservation(
+        @PathVariable reservationId: UUID
+    ): ResponseEntity<StockReservationResponse> {
+        return ResponseEntity.ok(inventoryService.commitStockReservation(reservationId))
+    }
+
+    @PostMapping("/reservations/{reservationId}/release")
+    @Operation(summary = "Release stock reservation", description = "Return the held stock once the order is cancelled")
+    fun releaseStockReservation(
+        @PathVariable reservationId: UUID
+    ): ResponseEntity<StockReservationResponse> {
+        return ResponseEntity.ok(inventoryService.releaseStockReservation(reservationId))
+    }
+
     @GetMapping("/restaurant/{restaurantId}")
     @Operation(summary = "Get inventory transactions for a restaurant", description = "Retrieve all inventory transactions for a specific restaurant")
     fun getInventoryTransactionsByRestaurant(
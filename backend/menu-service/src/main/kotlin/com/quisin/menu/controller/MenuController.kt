@@ -1,25 +1,31 @@
 package com.quisin.menu.controller
 
 import com.quisin.menu.dto.*
+import com.quisin.menu.service.CustomerMenuService
 import com.quisin.menu.service.MenuService
 import io.swagger.v3.oas.annotations.Operation
 import io.swagger.v3.oas.annotations.responses.ApiResponse
 import io.swagger.v3.oas.annotations.security.SecurityRequirement
 import io.swagger.v3.oas.annotations.tags.Tag
 import jakarta.validation.Valid
+import org.springframework.http.CacheControl
+import org.springframework.http.HttpHeaders
 import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
 import org.springframework.http.ResponseEntity
 import org.springframework.security.access.prepost.PreAuthorize
 import org.springframework.security.core.annotation.AuthenticationPrincipal
 import org.springframework.security.oauth2.jwt.Jwt
 import org.springframework.web.bind.annotation.*
+import java.util.UUID
 
 @RestController
 @RequestMapping("/api/v1/menus")
 @Tag(name = "Menu Management", description = "APIs for managing restaurant menus")
 @SecurityRequirement(name = "bearer-key")
 class MenuController(
-    private val menuService: MenuService
+    private val menuService: MenuService,
+    private val customerMenuService: CustomerMenuService
 ) {
 
     @PostMapping
@@ -80,4 +86,47 @@ class MenuController(
         val response = menuService.searchMenus(request)
         return ResponseEntity.ok(response)
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/restaurant/{restaurantId}/customer")
+    @Operation(summary = "Get the customer menu of a restaurant", description = "Served from memory, with ETag revalidation and gzip")
+    fun getCustomerMenu(
+        @PathVariable restaurantId: UUID,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH, required = false) ifNoneMatch: String?,
+        @RequestHeader(HttpHeaders.ACCEPT_ENCODING, required = false) acceptEncoding: String?
+    ): ResponseEntity<ByteArray> {
+        val menu = customerMenuService.getMenu(restaurantId)
+        val notModified = ifNoneMatch != null && matchesEtag(ifNoneMatch, menu.etag)
+        val response = ResponseEntity.status(if (notModified) HttpStatus.NOT_MODIFIED else HttpStatus.OK)
+            .eTag(menu.etag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+
+        if (notModified) {
+            return response.build()
+        }
+        if (menu.gzip != null && acceptsGzip(acceptEncoding)) {
+            return response.contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(menu.gzip)
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(menu.json)
+    }
+
+    // Weak comparison, as If-None-Match calls for
+    private fun matchesEtag(ifNoneMatch: String, etag: String): Boolean {
+        val opaque = etag.removePrefix("W/")
+        return ifNoneMatch.split(',').map { it.trim() }.any { it == "*" || it.removePrefix("W/") == opaque }
+    }
+
+    private fun acceptsGzip(acceptEncoding: String?): Boolean {
+        return acceptEncoding?.split(',')?.any { coding ->
+            val parts = coding.split(';').map { it.trim() }
+            parts[0].equals("gzip", ignoreCase = true) &&
+                parts.drop(1).none { it.replace(" ", "").matches(ZERO_QUALITY) }
+        } == true
+    }
+
+    private companion object {
+        val ZERO_QUALITY = Regex("q=0(\\.0*)?")
+    }
+}
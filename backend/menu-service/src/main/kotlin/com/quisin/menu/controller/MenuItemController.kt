@@ -1,5 +1,6 @@
 package com.quisin.menu.controller
 
+import com.quisin.menu.domain.DietaryInfo
 import com.quisin.menu.domain.MenuItemCategory
 import com.quisin.menu.domain.MenuItemStatus
 import com.quisin.menu.dto.CreateMenuItemRequest
@@ -48,6 +49,16 @@ class MenuItemController(
         return ResponseEntity.ok(menuItems)
     }
 
+    @PostMapping("/restaurant/{restaurantId}/batch")
+    @Operation(summary = "Get menu items by IDs", description = "Retrieve a batch of menu items of a restaurant in a single call")
+    fun getMenuItemsByIds(
+        @PathVariable restaurantId: UUID,
+        @RequestBody menuItemIds: List<UUID>
+    ): ResponseEntity<List<MenuItemResponse>> {
+        val menuItems = menuItemService.getMenuItemsByIds(restaurantId, menuItemIds)
+        return ResponseEntity.ok(menuItems)
+    }
+
     @PutMapping("/{menuItemId}")
     @Operation(summary = "Update a menu item", description = "Update details of an existing menu item")
     fun updateMenuItem(
@@ -68,7 +79,7 @@ class MenuItemController(
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search menu items", description = "Search menu items with various filters")
+    @Operation(summary = "Search menu items", description = "Search menu items with any combination of filters")
     fun searchMenuItems(
         @RequestParam restaurantId: UUID,
         @RequestParam(required = false) category: MenuItemCategory?,
@@ -76,16 +87,19 @@ class MenuItemController(
         @RequestParam(required = false) minPrice: BigDecimal?,
         @RequestParam(required = false) maxPrice: BigDecimal?,
         @RequestParam(required = false) searchTerm: String?,
-        @RequestParam(required = false) tag: String?
+        @RequestParam(required = false) tag: String?,
+        @RequestParam(required = false) excludeAllergens: Set<String>?,
+        @RequestParam(required = false) dietaryInfo: Set<DietaryInfo>?
     ): ResponseEntity<List<MenuItemResponse>> {
         val menuItems = menuItemService.searchMenuItems(
-            restaurantId, category, status, minPrice, maxPrice, searchTerm, tag
+            restaurantId, category, status, minPrice, maxPrice, searchTerm, tag,
+            excludeAllergens.orEmpty(), dietaryInfo.orEmpty()
         )
         return ResponseEntity.ok(menuItems)
     }
 
     @GetMapping("/low-stock/{restaurantId}")
-    @Operation(summary = "Get low stock menu items", description = "Retrieve menu items with stock below 20% of max stock")
+    @Operation(summary = "Get low stock menu items", description = "Retrieve menu items that are out of stock or below the low-stock share of their max stock")
     fun getLowStockItems(
         @PathVariable restaurantId: UUID
     ): ResponseEntity<List<MenuItemResponse>> {
@@ -0,0 +1,31 @@
+package com.quisin.menu.domain
+
+import jakarta.persistence.*
+import java.time.LocalDateTime
+import java.util.UUID
+
+enum class LowStockLevel {
+    LOW_STOCK,
+    OUT_OF_STOCK
+}
+
+/**
+ * The highest stock level a menu item has been alerted at since it was last back in stock. Shared
+ * by every instance, so an alert is sent once, by whichever instance claims it first.
+ */
+@Entity
+@Table(name = "low_stock_alerts")
+data class LowStockAlert(
+    @Id
+    val menuItemId: UUID,
+
+    @Column(nullable = false)
+    val restaurantId: UUID,
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    val level: LowStockLevel,
+
+    @Column(nullable = false)
+    val alertedAt: LocalDateTime
+)
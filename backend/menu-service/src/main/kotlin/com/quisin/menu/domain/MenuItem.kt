@@ -1,6 +1,7 @@
 package com.quisin.menu.domain
 
 import jakarta.persistence.*
+import org.hibernate.annotations.DynamicUpdate
 import org.springframework.data.annotation.CreatedDate
 import org.springframework.data.annotation.LastModifiedDate
 import org.springframework.data.jpa.domain.support.AuditingEntityListener
@@ -25,6 +26,8 @@ enum class MenuItemStatus {
 @Entity
 @Table(name = "menu_items")
 @EntityListeners(AuditingEntityListener::class)
+// Only changed columns are written, so editing an item can't overwrite stock taken meanwhile
+@DynamicUpdate
 data class MenuItem(
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -0,0 +1,62 @@
+package com.quisin.menu.domain
+
+import jakarta.persistence.*
+import java.time.LocalDateTime
+import java.util.UUID
+
+/**
+ * Stock held for an order until it is committed (the order was served) or released (cancelled or
+ * expired). Held quantities are already taken off the items' current stock.
+ */
+@Entity
+@Table(
+    name = "stock_reservations",
+    indexes = [Index(name = "idx_stock_reservations_status_expires", columnList = "status, expires_at")]
+)
+data class StockReservation(
+    // Chosen by the caller, so a retried reservation finds the first one
+    @Id
+    val id: UUID,
+
+    @Column(nullable = false)
+    val restaurantId: UUID,
+
+    @Column
+    val employeeId: UUID? = null,
+
+    @Column
+    val reference: String? = null,
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    var status: StockReservationStatus = StockReservationStatus.HELD,
+
+    @ElementCollection
+    @CollectionTable(name = "stock_reservation_lines", joinColumns = [JoinColumn(name = "reservation_id")])
+    val lines: List<StockReservationLine> = listOf(),
+
+    @Column(nullable = false)
+    val expiresAt: LocalDateTime,
+
+    @Column(nullable = false)
+    val createdAt: LocalDateTime = LocalDateTime.now(),
+
+    @Column(nullable = false)
+    var updatedAt: LocalDateTime = LocalDateTime.now()
+)
+
+@Embeddable
+data class StockReservationLine(
+    @Column(nullable = false)
+    val menuItemId: UUID,
+
+    @Column(nullable = false)
+    val quantity: Int
+)
+
+enum class StockReservationStatus {
+    HELD,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
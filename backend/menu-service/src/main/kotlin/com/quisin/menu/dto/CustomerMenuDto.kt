@@ -0,0 +1,38 @@
+package com.quisin.menu.dto
+
+import java.math.BigDecimal
+import java.util.UUID
+
+/**
+ * Shape of the customer menu document served by `GET /api/v1/menus/restaurant/{restaurantId}/customer`.
+ * The document itself is assembled from pre-serialized fragments by CustomerMenuService.
+ */
+data class CustomerMenuDto(
+    val restaurantId: UUID,
+    val menus: List<CustomerMenuSummaryDto>,
+    val categories: List<CustomerMenuCategoryDto>
+)
+
+data class CustomerMenuSummaryDto(
+    val id: String?,
+    val name: String,
+    val description: String
+)
+
+data class CustomerMenuCategoryDto(
+    val category: String,
+    val items: List<CustomerMenuItemDto>
+)
+
+data class CustomerMenuItemDto(
+    val id: UUID,
+    val name: String,
+    val description: String?,
+    val price: BigDecimal,
+    val imageUrl: String?,
+    val available: Boolean,
+    val preparationTime: Int?,
+    val calories: Int?,
+    val allergens: List<String>,
+    val tags: List<String>
+)
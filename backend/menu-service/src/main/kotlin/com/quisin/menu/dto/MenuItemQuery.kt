@@ -0,0 +1,26 @@
+package com.quisin.menu.dto
+
+import com.quisin.menu.domain.DietaryInfo
+import com.quisin.menu.domain.MenuItemCategory
+import com.quisin.menu.domain.MenuItemStatus
+import java.math.BigDecimal
+
+/**
+ * Filters for a menu item search within one restaurant. Every filter that is set must match.
+ */
+data class MenuItemQuery(
+    val category: MenuItemCategory? = null,
+    val status: MenuItemStatus? = null,
+    val minPrice: BigDecimal? = null,
+    val maxPrice: BigDecimal? = null,
+    // Found anywhere in the item's name or description, ignoring case
+    val searchTerm: String? = null,
+    // Items carrying all of these tags
+    val tags: Set<String> = emptySet(),
+    // Items containing at least one of these allergens
+    val allergens: Set<String> = emptySet(),
+    // Items containing none of these allergens
+    val excludedAllergens: Set<String> = emptySet(),
+    // Items tagged with at least one of these
+    val dietaryInfo: Set<DietaryInfo> = emptySet()
+)
@@ -0,0 +1,67 @@
+package com.quisin.menu.dto
+
+import com.quisin.menu.domain.MenuItemStatus
+import com.quisin.menu.domain.StockReservationStatus
+import jakarta.validation.Valid
+import jakarta.validation.constraints.NotEmpty
+import jakarta.validation.constraints.NotNull
+import jakarta.validation.constraints.Positive
+import java.time.LocalDateTime
+import java.util.UUID
+
+data class BatchStockDecrementRequest(
+    @field:NotNull(message = "Restaurant ID is required")
+    val restaurantId: UUID,
+
+    @field:NotNull(message = "Employee ID is required")
+    val employeeId: UUID,
+
+    // Recorded as the notes of each inventory transaction, e.g. the order number
+    val reference: String? = null,
+
+    @field:Valid
+    @field:NotEmpty(message = "At least one item is required")
+    val items: List<StockQuantity>
+)
+
+data class StockQuantity(
+    @field:NotNull(message = "Menu item ID is required")
+    val menuItemId: UUID,
+
+    @field:Positive(message = "Quantity must be a positive number")
+    val quantity: Int
+)
+
+data class StockLevelResponse(
+    val menuItemId: UUID,
+    val currentStock: Int,
+    val status: MenuItemStatus
+)
+
+data class StockReservationRequest(
+    // Generated by the caller; reserving again with the same id returns the existing reservation
+    @field:NotNull(message = "Reservation ID is required")
+    val id: UUID,
+
+    @field:NotNull(message = "Restaurant ID is required")
+    val restaurantId: UUID,
+
+    // Recorded on the inventory transactions once committed; the nil UUID when absent
+    val employeeId: UUID? = null,
+
+    // e.g. the order number
+    val reference: String? = null,
+
+    @field:Valid
+    @field:NotEmpty(message = "At least one item is required")
+    val items: List<StockQuantity>
+)
+
+data class StockReservationResponse(
+    val id: UUID,
+    val restaurantId: UUID,
+    val reference: String?,
+    val status: StockReservationStatus,
+    val items: List<StockQuantity>,
+    val expiresAt: LocalDateTime
+)
@@ -33,6 +33,7 @@ data class MenuItemCreatedEvent(
     val itemId: String,
     val name: String,
     val price: java.math.BigDecimal,
+    val restaurantId: String? = null,
     override val timestamp: LocalDateTime = LocalDateTime.now()
 ) : MenuEvent()
 
@@ -42,12 +43,14 @@ data class MenuItemUpdatedEvent(
     val name: String?,
     val price: java.math.BigDecimal?,
     val available: Boolean?,
+    val restaurantId: String? = null,
     override val timestamp: LocalDateTime = LocalDateTime.now()
 ) : MenuEvent()
 
 data class MenuItemDeletedEvent(
     override val menuId: String,
     val itemId: String,
+    val restaurantId: String? = null,
     override val timestamp: LocalDateTime = LocalDateTime.now()
 ) : MenuEvent()
 
@@ -70,4 +73,13 @@ data class MenuCategoryDeletedEvent(
     override val menuId: String,
     val categoryId: String,
     override val timestamp: LocalDateTime = LocalDateTime.now()
-) : MenuEvent() 
\ No newline at end of file
+) : MenuEvent() 
+
+// A menu item moved between in stock, low stock and out of stock; level is null once back in stock
+data class MenuItemStockLevelChangedEvent(
+    override val menuId: String,
+    val itemId: String,
+    val level: String?,
+    val restaurantId: String,
+    override val timestamp: LocalDateTime = LocalDateTime.now()
+) : MenuEvent()
@@ -0,0 +1,14 @@
+package com.quisin.menu.event
+
+import com.quisin.menu.dto.MenuItemResponse
+import java.util.UUID
+
+/**
+ * In-process notice that a menu item was saved or deleted, for the in-memory menu read models.
+ * Listeners receive it once the change has committed. `item` is null when the item was deleted.
+ */
+data class MenuItemChangedEvent(
+    val restaurantId: UUID,
+    val itemId: UUID,
+    val item: MenuItemResponse?
+)
@@ -38,6 +38,35 @@ class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse)
     }
 
+    @ExceptionHandler(InsufficientStockException::class)
+    fun handleInsufficientStockException(ex: InsufficientStockException): ResponseEntity<ErrorResponse> {
+        val errorResponse = ErrorResponse(
+            status = HttpStatus.CONFLICT.value(),
+            error = "Insufficient Stock",
+            message = ex.message ?: "Insufficient stock",
+            details = mapOf(
+                "menuItemId" to ex.menuItemId.toString(),
+                "requested" to ex.requested.toString(),
+                "available" to ex.available.toString()
+            )
+        )
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse)
+    }
+
+    @ExceptionHandler(StockReservationConflictException::class)
+    fun handleStockReservationConflictException(ex: StockReservationConflictException): ResponseEntity<ErrorResponse> {
+        val errorResponse = ErrorResponse(
+            status = HttpStatus.CONFLICT.value(),
+            error = "Reservation Conflict",
+            message = ex.message ?: "Stock reservation conflict",
+            details = mapOf(
+                "reservationId" to ex.reservationId.toString(),
+                "status" to ex.status.name
+            )
+        )
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse)
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException::class)
     fun handleValidationExceptions(ex: MethodArgumentNotValidException): ResponseEntity<ErrorResponse> {
         val errors = ex.bindingResult.allErrors.associate { error ->
@@ -0,0 +1,9 @@
+package com.quisin.menu.exception
+
+import java.util.UUID
+
+class InsufficientStockException(
+    val menuItemId: UUID,
+    val requested: Int,
+    val available: Int
+) : RuntimeException("Insufficient stock for menu item $menuItemId: requested $requested, available $available")
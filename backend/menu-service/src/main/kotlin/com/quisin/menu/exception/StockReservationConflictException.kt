@@ -0,0 +1,9 @@
+package com.quisin.menu.exception
+
+import com.quisin.menu.domain.StockReservationStatus
+import java.util.UUID
+
+class StockReservationConflictException(
+    val reservationId: UUID,
+    val status: StockReservationStatus
+) : RuntimeException("Stock reservation $reservationId is $status")
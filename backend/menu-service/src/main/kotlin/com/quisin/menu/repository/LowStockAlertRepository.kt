@@ -0,0 +1,49 @@
+package com.quisin.menu.repository
+
+import com.quisin.menu.domain.LowStockAlert
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+import org.springframework.stereotype.Repository
+import java.time.LocalDateTime
+import java.util.UUID
+
+@Repository
+interface LowStockAlertRepository : JpaRepository<LowStockAlert, UUID> {
+    // Records an alert unless the item was already alerted at this level or above; returns 0 when
+    // another instance got there first
+    @Modifying
+    @Query(
+        value = """
+            INSERT INTO low_stock_alerts (menu_item_id, restaurant_id, level, alerted_at)
+            VALUES (:menuItemId, :restaurantId, :level, :now)
+            ON CONFLICT (menu_item_id) DO UPDATE SET level = EXCLUDED.level, alerted_at = EXCLUDED.alerted_at
+            WHERE low_stock_alerts.level = 'LOW_STOCK' AND EXCLUDED.level = 'OUT_OF_STOCK'
+        """,
+        nativeQuery = true
+    )
+    fun claim(
+        @Param("menuItemId") menuItemId: UUID,
+        @Param("restaurantId") restaurantId: UUID,
+        @Param("level") level: String,
+        @Param("now") now: LocalDateTime
+    ): Int
+
+    @Modifying
+    @Query("DELETE FROM LowStockAlert a WHERE a.menuItemId = :menuItemId")
+    fun clear(@Param("menuItemId") menuItemId: UUID): Int
+
+    // Forgets the alerts of items that are back in stock, discontinued or deleted
+    @Modifying
+    @Query("""
+        DELETE FROM LowStockAlert a
+        WHERE NOT EXISTS (
+            SELECT m.id FROM MenuItem m
+            WHERE m.id = a.menuItemId
+                AND m.status <> com.quisin.menu.domain.MenuItemStatus.DISCONTINUED
+                AND (m.currentStock <= 0 OR m.currentStock < m.maxStock * :threshold)
+        )
+    """)
+    fun clearRecovered(@Param("threshold") threshold: Double): Int
+}
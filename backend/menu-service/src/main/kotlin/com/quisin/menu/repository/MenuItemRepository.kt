@@ -4,9 +4,12 @@ import com.quisin.menu.domain.MenuItem
 import com.quisin.menu.domain.MenuItemCategory
 import com.quisin.menu.domain.MenuItemStatus
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
 import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
 import org.springframework.stereotype.Repository
 import java.math.BigDecimal
+import java.time.LocalDateTime
 import java.util.UUID
 
 @Repository
@@ -14,15 +17,35 @@ interface MenuItemRepository : JpaRepository<MenuItem, UUID> {
     // Find menu items by restaurant
     fun findByRestaurantId(restaurantId: UUID): List<MenuItem>
 
+    // Find a batch of menu items of a restaurant by id
+    fun findByRestaurantIdAndIdIn(restaurantId: UUID, ids: Collection<UUID>): List<MenuItem>
+
+    // Ids of the given items that are on sale, read before a stock change to tell which items it
+    // flips between AVAILABLE and OUT_OF_STOCK
+    @Query("""
+        SELECT m.id FROM MenuItem m
+        WHERE m.restaurantId = :restaurantId AND m.id IN :ids
+            AND m.status = com.quisin.menu.domain.MenuItemStatus.AVAILABLE
+    """)
+    fun findAvailableIds(
+        @Param("restaurantId") restaurantId: UUID,
+        @Param("ids") ids: Collection<UUID>
+    ): Set<UUID>
+
     // Find menu items by category
     fun findByRestaurantIdAndCategory(restaurantId: UUID, category: MenuItemCategory): List<MenuItem>
 
     // Find menu items by status
     fun findByRestaurantIdAndStatus(restaurantId: UUID, status: MenuItemStatus): List<MenuItem>
 
-    // Find menu items with stock below a certain threshold
-    @Query("SELECT m FROM MenuItem m WHERE m.restaurantId = :restaurantId AND m.currentStock < m.maxStock * 0.2")
-    fun findLowStockItems(restaurantId: UUID): List<MenuItem>
+    // Find the menu items of all restaurants that are out of stock or below a fraction of their max
+    // stock, for LowStockMonitor's reloads
+    @Query("""
+        SELECT m FROM MenuItem m
+        WHERE m.status <> com.quisin.menu.domain.MenuItemStatus.DISCONTINUED
+            AND (m.currentStock <= 0 OR m.currentStock < m.maxStock * :threshold)
+    """)
+    fun findLowStockItems(@Param("threshold") threshold: Double): List<MenuItem>
 
     // Search menu items by name or description
     fun findByRestaurantIdAndNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
@@ -41,4 +64,84 @@ interface MenuItemRepository : JpaRepository<MenuItem, UUID> {
     // Find menu items with specific tags
     @Query("SELECT m FROM MenuItem m WHERE m.restaurantId = :restaurantId AND :tag MEMBER OF m.tags")
     fun findByRestaurantIdAndTag(restaurantId: UUID, tag: String): List<MenuItem>
+
+    // Stock changes are single conditional UPDATEs, so concurrent terminals never lose a change.
+    // The status CASE sees the stock from before the update, and only ever moves items between
+    // AVAILABLE and OUT_OF_STOCK, never out of DISCONTINUED.
+
+    // Takes the quantity only if all of it is in stock; returns 0 otherwise
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE MenuItem m
+        SET m.currentStock = m.currentStock - :quantity,
+            m.status = CASE
+                WHEN m.currentStock <= :quantity AND m.status = com.quisin.menu.domain.MenuItemStatus.AVAILABLE
+                    THEN com.quisin.menu.domain.MenuItemStatus.OUT_OF_STOCK
+                ELSE m.status END,
+            m.updatedAt = :now
+        WHERE m.id = :id AND m.restaurantId = :restaurantId AND m.currentStock >= :quantity
+    """)
+    fun decrementStock(
+        @Param("restaurantId") restaurantId: UUID,
+        @Param("id") id: UUID,
+        @Param("quantity") quantity: Int,
+        @Param("now") now: LocalDateTime
+    ): Int
+
+    // Takes up to the quantity, stopping at zero, for stock that is gone either way
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE MenuItem m
+        SET m.currentStock = CASE WHEN m.currentStock > :quantity THEN m.currentStock - :quantity ELSE 0 END,
+            m.status = CASE
+                WHEN m.currentStock <= :quantity AND m.status = com.quisin.menu.domain.MenuItemStatus.AVAILABLE
+                    THEN com.quisin.menu.domain.MenuItemStatus.OUT_OF_STOCK
+                ELSE m.status END,
+            m.updatedAt = :now
+        WHERE m.id = :id AND m.restaurantId = :restaurantId
+    """)
+    fun writeOffStock(
+        @Param("restaurantId") restaurantId: UUID,
+        @Param("id") id: UUID,
+        @Param("quantity") quantity: Int,
+        @Param("now") now: LocalDateTime
+    ): Int
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE MenuItem m
+        SET m.currentStock = m.currentStock + :quantity,
+            m.status = CASE
+                WHEN m.currentStock + :quantity > 0 AND m.status = com.quisin.menu.domain.MenuItemStatus.OUT_OF_STOCK
+                    THEN com.quisin.menu.domain.MenuItemStatus.AVAILABLE
+                ELSE m.status END,
+            m.updatedAt = :now
+        WHERE m.id = :id AND m.restaurantId = :restaurantId
+    """)
+    fun incrementStock(
+        @Param("restaurantId") restaurantId: UUID,
+        @Param("id") id: UUID,
+        @Param("quantity") quantity: Int,
+        @Param("now") now: LocalDateTime
+    ): Int
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE MenuItem m
+        SET m.currentStock = :quantity,
+            m.status = CASE
+                WHEN :quantity <= 0 AND m.status = com.quisin.menu.domain.MenuItemStatus.AVAILABLE
+                    THEN com.quisin.menu.domain.MenuItemStatus.OUT_OF_STOCK
+                WHEN :quantity > 0 AND m.status = com.quisin.menu.domain.MenuItemStatus.OUT_OF_STOCK
+                    THEN com.quisin.menu.domain.MenuItemStatus.AVAILABLE
+                ELSE m.status END,
+            m.updatedAt = :now
+        WHERE m.id = :id AND m.restaurantId = :restaurantId
+    """)
+    fun setStock(
+        @Param("restaurantId") restaurantId: UUID,
+        @Param("id") id: UUID,
+        @Param("quantity") quantity: Int,
+        @Param("now") now: LocalDateTime
+    ): Int
 }
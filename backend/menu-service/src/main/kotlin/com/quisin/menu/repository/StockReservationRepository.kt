@@ -0,0 +1,38 @@
+package com.quisin.menu.repository
+
+import com.quisin.menu.domain.StockReservation
+import com.quisin.menu.domain.StockReservationStatus
+import org.springframework.data.domain.Pageable
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+import org.springframework.stereotype.Repository
+import java.time.LocalDateTime
+import java.util.UUID
+
+@Repository
+interface StockReservationRepository : JpaRepository<StockReservation, UUID> {
+    // Moves a reservation on only from the expected status, so a commit, a release and the expiry
+    // sweep racing for the same reservation can't both act on its stock; returns 0 for the losers
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE StockReservation r
+        SET r.status = :to, r.updatedAt = :now
+        WHERE r.id = :id AND r.status = :from
+    """)
+    fun transition(
+        @Param("id") id: UUID,
+        @Param("from") from: StockReservationStatus,
+        @Param("to") to: StockReservationStatus,
+        @Param("now") now: LocalDateTime
+    ): Int
+
+    // Find held reservations past their expiry, oldest first
+    @Query("""
+        SELECT r.id FROM StockReservation r
+        WHERE r.status = com.quisin.menu.domain.StockReservationStatus.HELD AND r.expiresAt < :now
+        ORDER BY r.expiresAt
+    """)
+    fun findExpiredIds(@Param("now") now: LocalDateTime, pageable: Pageable): List<UUID>
+}
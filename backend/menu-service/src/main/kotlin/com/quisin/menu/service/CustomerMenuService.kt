@@ -0,0 +1,235 @@
+package com.quisin.menu.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import com.quisin.menu.domain.Menu
+import com.quisin.menu.domain.MenuItemCategory
+import com.quisin.menu.domain.MenuItemStatus
+import com.quisin.menu.dto.CustomerMenuItemDto
+import com.quisin.menu.dto.CustomerMenuSummaryDto
+import com.quisin.menu.dto.MenuItemResponse
+import com.quisin.menu.event.MenuItemChangedEvent
+import com.quisin.menu.repository.MenuItemRepository
+import com.quisin.menu.repository.MenuRepository
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Service
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionDefinition
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import org.springframework.transaction.event.TransactionalEventListener
+import org.springframework.transaction.support.TransactionTemplate
+import org.springframework.util.DigestUtils
+import java.io.ByteArrayOutputStream
+import java.time.Duration
+import java.util.UUID
+import java.util.zip.GZIPOutputStream
+
+/**
+ * In-memory read model of each restaurant's customer menu, kept as ready-to-send JSON.
+ *
+ * Every item the customer can see is serialized once into its own fragment, and the document
+ * (see CustomerMenuDto) is assembled from the fragments, gzip-compressed when it is large enough,
+ * and given an ETag. Item, stock and menu changes made on this instance replace just the affected
+ * fragment once their transaction commits (see MenuItemChangedEvent); a restaurant's menu is reloaded in full once it is
+ * older than `menu.read-model.max-age`, which is also how changes made on other instances arrive.
+ *
+ * At most `menu.read-model.max-restaurants` menus are kept, least recently read first out. Only
+ * restaurants that have menus or items are kept at all, so reads of unknown ids can't fill it.
+ */
+@Service
+class CustomerMenuService(
+    private val menuRepository: MenuRepository,
+    private val menuItemRepository: MenuItemRepository,
+    private val objectMapper: ObjectMapper,
+    transactionManager: PlatformTransactionManager,
+    @Value("\${menu.read-model.max-age:PT1M}") maxAge: Duration,
+    @Value("\${menu.read-model.gzip-min-size:1024}") private val gzipMinSize: Int,
+    @Value("\${menu.read-model.max-restaurants:10000}") maxRestaurants: Long
+) {
+    /**
+     * One version of a customer menu. `gzip` is null for documents too small to be worth compressing.
+     */
+    class Rendition(val json: ByteArray, val gzip: ByteArray?, val etag: String)
+
+    private class ItemFragment(val category: MenuItemCategory, val sortKey: String, val json: ByteArray) {
+        fun sameAs(other: ItemFragment?): Boolean =
+            other != null && other.category == category && other.sortKey == sortKey && other.json.contentEquals(json)
+    }
+
+    private class RestaurantMenu {
+        // Guarded by the RestaurantMenu's monitor
+        var menus = EMPTY_LIST
+        val items = HashMap<UUID, ItemFragment>()
+
+        @Volatile
+        var rendition: Rendition? = null
+
+        @Volatile
+        var loadedAt = 0L
+    }
+
+    private val maxAgeNanos = maxAge.toNanos()
+    private val models: Cache<UUID, RestaurantMenu> = Caffeine.newBuilder()
+        .maximumSize(maxRestaurants)
+        .build()
+    // Also used from afterCommit callbacks, where the finished transaction is still bound
+    private val readTransaction = TransactionTemplate(transactionManager).apply {
+        propagationBehavior = TransactionDefinition.PROPAGATION_REQUIRES_NEW
+        isReadOnly = true
+    }
+
+    fun getMenu(restaurantId: UUID): Rendition {
+        val model = models.getIfPresent(restaurantId) ?: return loadNew(restaurantId)
+        model.rendition?.let { if (isFresh(model)) return it }
+        synchronized(model) {
+            model.rendition?.let { if (isFresh(model)) return it }
+            load(restaurantId, model)
+            return model.rendition!!
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    fun onMenuItemChanged(event: MenuItemChangedEvent) {
+        val fragment = event.item?.let { fragmentOf(it) }
+        update(event.restaurantId) { model ->
+            if (fragment == null) {
+                model.items.remove(event.itemId) != null
+            } else {
+                !fragment.sameAs(model.items.put(event.itemId, fragment))
+            }
+        }
+    }
+
+    /**
+     * Reloads the restaurant's list of active menus once the current transaction commits.
+     */
+    fun menusChanged(restaurantId: String) {
+        val id = runCatching { UUID.fromString(restaurantId) }.getOrNull() ?: return
+        afterCommit {
+            update(id) { model ->
+                model.menus = readTransaction.execute {
+                    serializeMenus(menuRepository.findByRestaurantIdAndActive(restaurantId, true))
+                }!!
+                true
+            }
+        }
+    }
+
+    private fun isFresh(model: RestaurantMenu): Boolean = System.nanoTime() - model.loadedAt < maxAgeNanos
+
+    // If another read cached the restaurant meanwhile, that one is kept
+    private fun loadNew(restaurantId: UUID): Rendition {
+        val model = RestaurantMenu()
+        if (load(restaurantId, model)) {
+            models.asMap().putIfAbsent(restaurantId, model)
+        }
+        return model.rendition!!
+    }
+
+    /**
+     * Returns false when the restaurant has neither menus nor items.
+     */
+    private fun load(restaurantId: UUID, model: RestaurantMenu): Boolean {
+        val found = readTransaction.execute {
+            val menus = menuRepository.findByRestaurantIdAndActive(restaurantId.toString(), true)
+            val items = menuItemRepository.findByRestaurantId(restaurantId)
+            model.menus = serializeMenus(menus)
+            model.items.clear()
+            items.forEach { item ->
+                fragmentOf(item.toResponse())?.let { model.items[item.id!!] = it }
+            }
+            menus.isNotEmpty() || items.isNotEmpty()
+        }!!
+        model.rendition = assemble(restaurantId, model)
+        model.loadedAt = System.nanoTime()
+        return found
+    }
+
+    private fun update(restaurantId: UUID, change: (RestaurantMenu) -> Boolean) {
+        // A menu nobody has read yet is loaded in full on its first read
+        val model = models.getIfPresent(restaurantId) ?: return
+        synchronized(model) {
+            if (model.rendition != null && change(model)) {
+                model.rendition = assemble(restaurantId, model)
+            }
+        }
+    }
+
+    private fun serializeMenus(menus: List<Menu>): ByteArray =
+        objectMapper.writeValueAsBytes(menus.sortedBy { it.createdAt }.map { it.toSummary() })
+
+    // Discontinued items are left off the customer menu altogether
+    private fun fragmentOf(item: MenuItemResponse): ItemFragment? {
+        if (item.status == MenuItemStatus.DISCONTINUED) {
+            return null
+        }
+        val dto = CustomerMenuItemDto(
+            id = item.id,
+            name = item.name,
+            description = item.description,
+            price = item.price,
+            imageUrl = item.imageUrl,
+            available = item.status == MenuItemStatus.AVAILABLE,
+            preparationTime = item.preparationTime,
+            calories = item.calories,
+            allergens = item.allergens,
+            tags = item.tags
+        )
+        return ItemFragment(item.category, "${item.name.lowercase()}|${item.id}", objectMapper.writeValueAsBytes(dto))
+    }
+
+    private fun assemble(restaurantId: UUID, model: RestaurantMenu): Rendition {
+        val out = ByteArrayOutputStream(model.menus.size + model.items.values.sumOf { it.json.size } + 256)
+        out.write("{\"restaurantId\":\"$restaurantId\",\"menus\":".toByteArray())
+        out.write(model.menus)
+        out.write(",\"categories\":[".toByteArray())
+        model.items.values.groupBy { it.category }.toSortedMap().entries.forEachIndexed { index, (category, items) ->
+            if (index > 0) {
+                out.write(','.code)
+            }
+            out.write("{\"category\":\"${category.name}\",\"items\":[".toByteArray())
+            items.sortedBy { it.sortKey }.forEachIndexed { itemIndex, item ->
+                if (itemIndex > 0) {
+                    out.write(','.code)
+                }
+                out.write(item.json)
+            }
+            out.write("]}".toByteArray())
+        }
+        out.write("]}".toByteArray())
+
+        val json = out.toByteArray()
+        // Weak, because the gzip and identity encodings share it
+        return Rendition(json, if (json.size >= gzipMinSize) gzip(json) else null, "W/\"${DigestUtils.md5DigestAsHex(json)}\"")
+    }
+
+    private fun gzip(json: ByteArray): ByteArray {
+        val out = ByteArrayOutputStream(json.size / 4)
+        GZIPOutputStream(out).use { it.write(json) }
+        return out.toByteArray()
+    }
+
+    private fun Menu.toSummary() = CustomerMenuSummaryDto(
+        id = id,
+        name = name,
+        description = description
+    )
+
+    private fun afterCommit(change: () -> Unit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change()
+            return
+        }
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCommit() {
+                change()
+            }
+        })
+    }
+
+    private companion object {
+        val EMPTY_LIST = "[]".toByteArray()
+    }
+}
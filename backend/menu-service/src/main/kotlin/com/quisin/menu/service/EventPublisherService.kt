@@ -6,6 +6,8 @@ import org.springframework.context.annotation.Bean
 import org.springframework.messaging.Message
 import org.springframework.messaging.support.MessageBuilder
 import org.springframework.stereotype.Service
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
 import reactor.core.publisher.Flux
 import reactor.core.publisher.Sinks
 import java.util.function.Supplier
@@ -14,7 +16,27 @@ import java.util.function.Supplier
 class EventPublisherService {
     private val sink = Sinks.many().multicast().onBackpressureBuffer<Message<MenuEvent>>()
 
+    /**
+     * Emits the event once the surrounding transaction commits, so consumers never act on a
+     * change that is rolled back or not yet visible; without a transaction it is emitted at once.
+     */
     fun publishEvent(event: MenuEvent) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishCommittedEvent(event)
+            return
+        }
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCommit() {
+                publishCommittedEvent(event)
+            }
+        })
+    }
+
+    /**
+     * Emits the event straight away, for changes already committed. After-commit listeners must
+     * use this, as synchronizations registered while a transaction completes are never run.
+     */
+    fun publishCommittedEvent(event: MenuEvent) {
         val message = MessageBuilder.withPayload(event)
             .setHeader("eventType", event.javaClass.simpleName)
             .build()
@@ -25,4 +47,4 @@ class EventPublisherService {
     fun menuEvents(): Supplier<Flux<Message<MenuEvent>>> {
         return Supplier { sink.asFlux() }
     }
-} 
\ No newline at end of file
+}
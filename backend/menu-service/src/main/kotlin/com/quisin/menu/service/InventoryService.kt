@@ -2,27 +2,48 @@ package com.quisin.menu.service
 
 import com.quisin.menu.domain.InventoryTransaction
 import com.quisin.menu.domain.InventoryTransactionType
-import com.quisin.menu.domain.MenuItem
-import com.quisin.menu.domain.MenuItemStatus
+import com.quisin.menu.domain.StockReservation
+import com.quisin.menu.domain.StockReservationLine
+import com.quisin.menu.domain.StockReservationStatus
+import com.quisin.menu.dto.BatchStockDecrementRequest
 import com.quisin.menu.dto.InventoryTransactionRequest
 import com.quisin.menu.dto.InventoryTransactionResponse
+import com.quisin.menu.dto.MenuItemResponse
+import com.quisin.menu.dto.StockLevelResponse
+import com.quisin.menu.dto.StockQuantity
+import com.quisin.menu.dto.StockReservationRequest
+import com.quisin.menu.dto.StockReservationResponse
+import com.quisin.menu.domain.MenuItemStatus
+import com.quisin.menu.event.MenuItemChangedEvent
+import com.quisin.menu.event.MenuItemUpdatedEvent
+import com.quisin.menu.exception.InsufficientStockException
+import com.quisin.menu.exception.StockReservationConflictException
 import com.quisin.menu.repository.InventoryTransactionRepository
 import com.quisin.menu.repository.MenuItemRepository
+import com.quisin.menu.repository.StockReservationRepository
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.context.ApplicationEventPublisher
 import org.springframework.stereotype.Service
 import org.springframework.transaction.annotation.Transactional
+import java.time.Duration
 import java.time.LocalDateTime
+import java.util.SortedMap
 import java.util.UUID
 
 @Service
 class InventoryService(
     private val inventoryTransactionRepository: InventoryTransactionRepository,
-    private val menuItemRepository: MenuItemRepository
+    private val menuItemRepository: MenuItemRepository,
+    private val stockReservationRepository: StockReservationRepository,
+    private val applicationEventPublisher: ApplicationEventPublisher,
+    private val eventPublisher: EventPublisherService,
+    @Value("\${menu.stock-reservation.ttl:PT2H}") private val reservationTtl: Duration
 ) {
     @Transactional
     fun recordInventoryTransaction(request: InventoryTransactionRequest): InventoryTransactionResponse {
-        // Validate menu item exists
-        val menuItem = menuItemRepository.findById(request.menuItemId)
-            .orElseThrow { NoSuchElementException("Menu item not found") }
+        val now = LocalDateTime.now()
+        val availableBefore = menuItemRepository.findAvailableIds(request.restaurantId, listOf(request.menuItemId))
+        updateMenuItemStock(request.restaurantId, request.menuItemId, request.type, request.quantity, now)
 
         // Create inventory transaction
         val transaction = InventoryTransaction(
@@ -31,17 +52,103 @@ class InventoryService(
             type = request.type,
             quantity = request.quantity,
             notes = request.notes,
-            employeeId = request.employeeId
+            employeeId = request.employeeId,
+            createdAt = now,
+            updatedAt = now
         )
 
         val savedTransaction = inventoryTransactionRepository.save(transaction)
-
-        // Update menu item stock based on transaction type
-        updateMenuItemStock(menuItem, request.type, request.quantity)
+        publishStockChanges(request.restaurantId, listOf(request.menuItemId), availableBefore)
 
         return mapToInventoryTransactionResponse(savedTransaction)
     }
 
+    /**
+     * Takes the stock for every line of an order, or none of it if any item is short.
+     */
+    @Transactional
+    fun decrementStock(request: BatchStockDecrementRequest): List<StockLevelResponse> {
+        val now = LocalDateTime.now()
+        val availableBefore = menuItemRepository.findAvailableIds(request.restaurantId, request.items.map { it.menuItemId })
+        val quantities = takeStock(request.restaurantId, request.items, now)
+        recordStockOut(request.restaurantId, request.employeeId, request.reference, quantities, now)
+
+        return publishStockChanges(request.restaurantId, quantities.keys, availableBefore)
+            .map { StockLevelResponse(menuItemId = it.id, currentStock = it.currentStock, status = it.status) }
+    }
+
+    /**
+     * Holds the stock for every line of an order, or none of it if any item is short. The held
+     * quantities are taken off the items' stock straight away; the hold is recorded as a STOCK_OUT
+     * once committed, or handed back when released or once `menu.stock-reservation.ttl` has passed.
+     */
+    @Transactional
+    fun reserveStock(request: StockReservationRequest): StockReservationResponse {
+        stockReservationRepository.findById(request.id).orElse(null)?.let { existing ->
+            require(existing.restaurantId == request.restaurantId) { "Reservation belongs to another restaurant" }
+            return mapToStockReservationResponse(existing)
+        }
+
+        val now = LocalDateTime.now()
+        val availableBefore = menuItemRepository.findAvailableIds(request.restaurantId, request.items.map { it.menuItemId })
+        val quantities = takeStock(request.restaurantId, request.items, now)
+        val reservation = stockReservationRepository.save(
+            StockReservation(
+                id = request.id,
+                restaurantId = request.restaurantId,
+                employeeId = request.employeeId,
+                reference = request.reference,
+                lines = quantities.map { (menuItemId, quantity) -> StockReservationLine(menuItemId, quantity) },
+                expiresAt = now.plus(reservationTtl),
+                createdAt = now,
+                updatedAt = now
+            )
+        )
+        publishStockChanges(request.restaurantId, quantities.keys, availableBefore)
+
+        return mapToStockReservationResponse(reservation)
+    }
+
+    @Transactional
+    fun commitStockReservation(id: UUID): StockReservationResponse {
+        val now = LocalDateTime.now()
+        val committedFrom = listOf(StockReservationStatus.HELD, StockReservationStatus.EXPIRED)
+            .firstOrNull { stockReservationRepository.transition(id, it, StockReservationStatus.COMMITTED, now) == 1 }
+        val reservation = findStockReservation(id)
+        if (committedFrom == null) {
+            // Committing twice is a no-op
+            if (reservation.status != StockReservationStatus.COMMITTED) {
+                throw StockReservationConflictException(id, reservation.status)
+            }
+            return mapToStockReservationResponse(reservation)
+        }
+
+        val quantities = reservation.lines.associate { it.menuItemId to it.quantity }.toSortedMap()
+        if (committedFrom == StockReservationStatus.EXPIRED) {
+            // Served after the hold ran out and its stock went back on sale, so it is taken again
+            val availableBefore = menuItemRepository.findAvailableIds(reservation.restaurantId, quantities.keys)
+            quantities.forEach { (menuItemId, quantity) ->
+                menuItemRepository.writeOffStock(reservation.restaurantId, menuItemId, quantity, now)
+            }
+            publishStockChanges(reservation.restaurantId, quantities.keys, availableBefore)
+        }
+        recordStockOut(reservation.restaurantId, reservation.employeeId ?: NIL_EMPLOYEE_ID, reservation.reference, quantities, now)
+
+        return mapToStockReservationResponse(reservation)
+    }
+
+    @Transactional
+    fun releaseStockReservation(id: UUID): StockReservationResponse =
+        returnReservedStock(id, StockReservationStatus.RELEASED)
+
+    @Transactional
+    fun expireStockReservation(id: UUID): StockReservationResponse =
+        returnReservedStock(id, StockReservationStatus.EXPIRED)
+
+    @Transactional(readOnly = true)
+    fun getStockReservation(id: UUID): StockReservationResponse =
+        mapToStockReservationResponse(findStockReservation(id))
+
     @Transactional(readOnly = true)
     fun getInventoryTransactionsByRestaurant(restaurantId: UUID): List<InventoryTransactionResponse> {
         return inventoryTransactionRepository.findByRestaurantId(restaurantId)
@@ -75,29 +182,127 @@ class InventoryService(
         ).map { mapToInventoryTransactionResponse(it) }
     }
 
+    // One conditional UPDATE per change; see MenuItemRepository
     private fun updateMenuItemStock(
-        menuItem: MenuItem, 
+        restaurantId: UUID,
+        menuItemId: UUID,
         transactionType: InventoryTransactionType, 
-        quantity: Int
+        quantity: Int,
+        now: LocalDateTime
     ) {
-        val updatedMenuItem = when (transactionType) {
+        if (transactionType == InventoryTransactionType.ADJUSTMENT) {
+            require(quantity >= 0) { "Adjusted stock must be a non-negative number" }
+        } else {
+            require(quantity > 0) { "Quantity must be a positive number" }
+        }
+
+        val updated = when (transactionType) {
             InventoryTransactionType.STOCK_IN -> 
-                menuItem.copy(currentStock = menuItem.currentStock + quantity)
+                menuItemRepository.incrementStock(restaurantId, menuItemId, quantity, now)
             
-            InventoryTransactionType.STOCK_OUT, 
+            InventoryTransactionType.STOCK_OUT ->
+                menuItemRepository.decrementStock(restaurantId, menuItemId, quantity, now)
+                    .also { if (it == 0) throw insufficientStock(restaurantId, menuItemId, quantity) }
+
+            // Spoiled stock is gone whether or not the count said it was there
             InventoryTransactionType.SPOILAGE -> 
-                menuItem.copy(
-                    currentStock = (menuItem.currentStock - quantity).coerceAtLeast(0),
-                    status = if (menuItem.currentStock - quantity <= 0) 
-                        MenuItemStatus.OUT_OF_STOCK 
-                    else menuItem.status
-                )
+                menuItemRepository.writeOffStock(restaurantId, menuItemId, quantity, now)
             
             InventoryTransactionType.ADJUSTMENT -> 
-                menuItem.copy(currentStock = quantity)
+                menuItemRepository.setStock(restaurantId, menuItemId, quantity, now)
+        }
+
+        if (updated == 0) {
+            throw NoSuchElementException("Menu item not found")
+        }
+    }
+
+    // Rows are updated in id order, so orders sharing items can't deadlock
+    private fun takeStock(restaurantId: UUID, items: List<StockQuantity>, now: LocalDateTime): SortedMap<UUID, Int> {
+        val quantities = items
+            .groupingBy { it.menuItemId }
+            .fold(0) { total, line -> total + line.quantity }
+            .toSortedMap()
+
+        quantities.forEach { (menuItemId, quantity) ->
+            require(quantity > 0) { "Quantity must be a positive number" }
+            if (menuItemRepository.decrementStock(restaurantId, menuItemId, quantity, now) == 0) {
+                throw insufficientStock(restaurantId, menuItemId, quantity)
+            }
+        }
+        return quantities
+    }
+
+    private fun recordStockOut(
+        restaurantId: UUID,
+        employeeId: UUID,
+        reference: String?,
+        quantities: Map<UUID, Int>,
+        now: LocalDateTime
+    ) {
+        inventoryTransactionRepository.saveAll(quantities.map { (menuItemId, quantity) ->
+            InventoryTransaction(
+                restaurantId = restaurantId,
+                menuItemId = menuItemId,
+                type = InventoryTransactionType.STOCK_OUT,
+                quantity = quantity,
+                notes = reference,
+                employeeId = employeeId,
+                createdAt = now,
+                updatedAt = now
+            )
+        })
+    }
+
+    // Releasing or expiring a reservation that is no longer held leaves it as it is
+    private fun returnReservedStock(id: UUID, status: StockReservationStatus): StockReservationResponse {
+        val now = LocalDateTime.now()
+        val returned = stockReservationRepository.transition(id, StockReservationStatus.HELD, status, now) == 1
+        val reservation = findStockReservation(id)
+        if (returned) {
+            val quantities = reservation.lines.associate { it.menuItemId to it.quantity }.toSortedMap()
+            val availableBefore = menuItemRepository.findAvailableIds(reservation.restaurantId, quantities.keys)
+            quantities.forEach { (menuItemId, quantity) ->
+                menuItemRepository.incrementStock(reservation.restaurantId, menuItemId, quantity, now)
+            }
+            publishStockChanges(reservation.restaurantId, quantities.keys, availableBefore)
         }
+        return mapToStockReservationResponse(reservation)
+    }
 
-        menuItemRepository.save(updatedMenuItem)
+    private fun findStockReservation(id: UUID): StockReservation =
+        stockReservationRepository.findById(id).orElseThrow { NoSuchElementException("Stock reservation not found") }
+
+    private fun insufficientStock(restaurantId: UUID, menuItemId: UUID, requested: Int): RuntimeException {
+        val menuItem = menuItemRepository.findById(menuItemId)
+            .filter { it.restaurantId == restaurantId }
+            .orElseThrow { NoSuchElementException("Menu item not found") }
+        return InsufficientStockException(menuItemId, requested, menuItem.currentStock)
+    }
+
+    // Reloads the changed items for the in-memory menu read models, and tells other services about
+    // the items whose availability flipped, as a menu item update on menu-events
+    private fun publishStockChanges(
+        restaurantId: UUID,
+        menuItemIds: Collection<UUID>,
+        availableBefore: Set<UUID>
+    ): List<MenuItemResponse> {
+        return menuItemRepository.findByRestaurantIdAndIdIn(restaurantId, menuItemIds)
+            .map { it.toResponse() }
+            .onEach { item ->
+                applicationEventPublisher.publishEvent(MenuItemChangedEvent(restaurantId, item.id, item))
+                val available = item.status == MenuItemStatus.AVAILABLE
+                if (available != item.id in availableBefore) {
+                    eventPublisher.publishEvent(MenuItemUpdatedEvent(
+                        menuId = restaurantId.toString(),
+                        itemId = item.id.toString(),
+                        name = null,
+                        price = null,
+                        available = available,
+                        restaurantId = restaurantId.toString()
+                    ))
+                }
+            }
     }
 
     private fun mapToInventoryTransactionResponse(
@@ -115,4 +320,20 @@ class InventoryService(
             updatedAt = transaction.updatedAt
         )
     }
+
+    private fun mapToStockReservationResponse(reservation: StockReservation): StockReservationResponse {
+        return StockReservationResponse(
+            id = reservation.id,
+            restaurantId = reservation.restaurantId,
+            reference = reservation.reference,
+            status = reservation.status,
+            items = reservation.lines.map { StockQuantity(menuItemId = it.menuItemId, quantity = it.quantity) },
+            expiresAt = reservation.expiresAt
+        )
+    }
+
+    private companion object {
+        // Employee recorded for stock taken by orders placed without a member of staff
+        val NIL_EMPLOYEE_ID = UUID(0, 0)
+    }
 }
@@ -0,0 +1,323 @@
+package com.quisin.menu.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.quisin.menu.client.NotificationRequest
+import com.quisin.menu.client.NotificationServiceClient
+import com.quisin.menu.client.NotificationType
+import com.quisin.menu.domain.LowStockAlert
+import com.quisin.menu.domain.LowStockLevel
+import com.quisin.menu.domain.MenuItemStatus
+import com.quisin.menu.dto.MenuItemResponse
+import com.quisin.menu.event.MenuItemChangedEvent
+import com.quisin.menu.event.MenuItemStockLevelChangedEvent
+import com.quisin.menu.repository.LowStockAlertRepository
+import com.quisin.menu.repository.MenuItemRepository
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory
+import org.springframework.context.annotation.Bean
+import org.springframework.messaging.Message
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.stereotype.Component
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionDefinition
+import org.springframework.transaction.event.TransactionalEventListener
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.locks.ReentrantLock
+import java.util.function.Consumer
+
+/**
+ * Keeps the set of each restaurant's low and out-of-stock items in memory and alerts the
+ * restaurant when an item crosses into either.
+ *
+ * Every stock change reaches the monitor as a MenuItemChangedEvent once it has committed, and is
+ * compared with the item's last known level. An alert is sent `menu.low-stock.alert-delay` after
+ * the crossing, only if the item is still at that level and has not been alerted at it since it
+ * was last back in stock, so stock that dips and recovers within the delay raises nothing. Sent
+ * alerts are recorded as [LowStockAlert] rows, and an alert is only sent by the instance that
+ * records it.
+ *
+ * Each crossing seen here is also published on menu-events as a [MenuItemStockLevelChangedEvent].
+ * Every instance reads those with its own anonymous group and reloads the item, so crossings made
+ * on other instances show up without waiting for a reload.
+ *
+ * The whole set is reloaded from the database once older than `menu.low-stock.max-age`, which
+ * catches up on anything those events missed. The reload reads outside the lock taken by stock
+ * changes and then swaps the new set in. An item the reload finds low, with no alert recorded at
+ * its level, is armed again, so alerts that were still pending on an instance that stopped are sent.
+ */
+@Component
+class LowStockMonitor(
+    private val menuItemRepository: MenuItemRepository,
+    private val lowStockAlertRepository: LowStockAlertRepository,
+    private val notificationServiceClient: NotificationServiceClient,
+    private val circuitBreakerFactory: CircuitBreakerFactory<*, *>,
+    private val eventPublisher: EventPublisherService,
+    private val objectMapper: ObjectMapper,
+    transactionManager: PlatformTransactionManager,
+    @Value("\${menu.low-stock.threshold:0.2}") private val threshold: Double,
+    @Value("\${menu.low-stock.alert-delay:PT30S}") alertDelay: Duration,
+    @Value("\${menu.low-stock.max-age:PT5M}") maxAge: Duration
+) {
+    private class Entry(val item: MenuItemResponse, val level: LowStockLevel) {
+        // Highest level alerted since the item was last back in stock
+        var alerted: LowStockLevel? = null
+        var alertDueAt: Long? = null
+    }
+
+    private class Loaded(val items: List<MenuItemResponse>, val alerted: Map<UUID, LowStockLevel>)
+
+    private val logger = LoggerFactory.getLogger(javaClass)
+    private val alertDelayNanos = alertDelay.toNanos()
+    private val maxAgeNanos = maxAge.toNanos()
+
+    // Replaced whole by a reload; changed in place, under this monitor, by stock changes
+    @Volatile
+    private var restaurants = ConcurrentHashMap<UUID, ConcurrentHashMap<UUID, Entry>>()
+
+    // Item id to restaurant id of the stock changes seen while a reload is reading; guarded by this
+    // monitor, and null when no reload is running
+    private var changedDuringReload: MutableMap<UUID, UUID>? = null
+
+    private val reloadLock = ReentrantLock()
+
+    @Volatile
+    private var loadedAt: Long? = null
+
+    // Also used from after-commit listeners, where the committed transaction can't be joined
+    private val writeTransaction = TransactionTemplate(transactionManager).apply {
+        propagationBehavior = TransactionDefinition.PROPAGATION_REQUIRES_NEW
+    }
+
+    /**
+     * The restaurant's low and out-of-stock items, lowest stock first.
+     */
+    fun getLowStockItems(restaurantId: UUID): List<MenuItemResponse> {
+        ensureFresh()
+        val entries = restaurants[restaurantId] ?: return emptyList()
+        return entries.values.map { it.item }.sortedWith(compareBy({ it.currentStock }, { it.name }))
+    }
+
+    // Never reloads, as a reload would already contain this change and hide its crossing
+    @TransactionalEventListener(fallbackExecution = true)
+    fun onMenuItemChanged(event: MenuItemChangedEvent) {
+        val level = event.item?.let { levelOf(it) }
+        val previous = apply(event.restaurantId, event.itemId, event.item)
+        if (previous == level) {
+            return
+        }
+        // Already committed, so it can't wait for a commit
+        eventPublisher.publishCommittedEvent(MenuItemStockLevelChangedEvent(
+            menuId = event.restaurantId.toString(),
+            itemId = event.itemId.toString(),
+            level = level?.name,
+            restaurantId = event.restaurantId.toString()
+        ))
+        if (previous != null && level == null) {
+            try {
+                writeTransaction.executeWithoutResult { lowStockAlertRepository.clear(event.itemId) }
+            } catch (e: Exception) {
+                // The next reload clears it
+                logger.warn("Failed to clear low-stock alert for menuItemId: {}: {}", event.itemId, e.message)
+            }
+        }
+    }
+
+    // Crossings published by every instance, this one included
+    @Bean
+    fun stockLevelEvents(): Consumer<Message<String>> = Consumer { message ->
+        if (message.headers["eventType"] != MenuItemStockLevelChangedEvent::class.simpleName) {
+            return@Consumer
+        }
+        try {
+            val event = objectMapper.readTree(message.payload)
+            onStockLevelChanged(UUID.fromString(event.path("restaurantId").asText()), UUID.fromString(event.path("itemId").asText()))
+        } catch (e: Exception) {
+            // The next reload picks the item up
+            logger.warn("Unable to process stock level event: {}", e.message)
+        }
+    }
+
+    /**
+     * Reads back an item whose level changed on some instance. The event only says that it
+     * changed, so the set always ends up with the committed stock rather than the sender's view.
+     */
+    fun onStockLevelChanged(restaurantId: UUID, itemId: UUID) {
+        val item = menuItemRepository.findById(itemId)
+            .filter { it.restaurantId == restaurantId }
+            .map { it.toResponse() }
+            .orElse(null)
+        apply(restaurantId, itemId, item)
+    }
+
+    // Records the item's new state and returns its previous level, null if it was not low
+    private fun apply(restaurantId: UUID, itemId: UUID, item: MenuItemResponse?): LowStockLevel? {
+        val level = item?.let { levelOf(it) }
+        synchronized(this) {
+            changedDuringReload?.put(itemId, restaurantId)
+            val entries = restaurants[restaurantId]
+            val previous = entries?.get(itemId)
+            if (item == null || level == null) {
+                // Back in stock, discontinued or deleted
+                entries?.remove(itemId)
+            } else {
+                val entry = Entry(item, level)
+                entry.alerted = previous?.alerted
+                entry.alertDueAt = previous?.alertDueAt
+                if (entry.alerted == null || level > entry.alerted!!) {
+                    entry.alertDueAt = entry.alertDueAt ?: (System.nanoTime() + alertDelayNanos)
+                }
+                restaurants.computeIfAbsent(restaurantId) { ConcurrentHashMap() }[itemId] = entry
+            }
+            return previous?.level
+        }
+    }
+
+    @Scheduled(fixedDelayString = "\${menu.low-stock.alert-check-interval:PT5S}")
+    fun sendDueAlerts() {
+        ensureFresh()
+        val now = System.nanoTime()
+        val alerts = ArrayList<Entry>()
+        synchronized(this) {
+            restaurants.values.forEach { entries ->
+                entries.values.forEach { entry ->
+                    val dueAt = entry.alertDueAt
+                    if (dueAt != null && dueAt - now <= 0) {
+                        entry.alertDueAt = null
+                        if (entry.alerted == null || entry.level > entry.alerted!!) {
+                            entry.alerted = entry.level
+                            alerts += entry
+                        }
+                    }
+                }
+            }
+        }
+        alerts.filter { claim(it) }.forEach { sendAlert(it.item, it.level) }
+    }
+
+    private fun claim(entry: Entry): Boolean {
+        return try {
+            writeTransaction.execute {
+                lowStockAlertRepository.claim(
+                    entry.item.id, entry.item.restaurantId, entry.level.name, LocalDateTime.now())
+            } == 1
+        } catch (e: Exception) {
+            // Alerts are not retried
+            logger.error("Failed to record ${entry.level.name} alert for menuItemId: ${entry.item.id}", e)
+            false
+        }
+    }
+
+    private fun levelOf(item: MenuItemResponse): LowStockLevel? = when {
+        item.status == MenuItemStatus.DISCONTINUED -> null
+        item.currentStock <= 0 -> LowStockLevel.OUT_OF_STOCK
+        item.currentStock < item.maxStock * threshold -> LowStockLevel.LOW_STOCK
+        else -> null
+    }
+
+    private fun isFresh(): Boolean = loadedAt?.let { System.nanoTime() - it < maxAgeNanos } ?: false
+
+    private fun ensureFresh() {
+        if (isFresh()) {
+            return
+        }
+        // Once loaded, callers keep using the current set while another thread reloads it
+        if (loadedAt == null) reloadLock.lock() else if (!reloadLock.tryLock()) return
+        try {
+            if (!isFresh()) {
+                reload()
+            }
+        } finally {
+            reloadLock.unlock()
+        }
+    }
+
+    private fun reload() {
+        synchronized(this) { changedDuringReload = HashMap() }
+        val loaded = try {
+            writeTransaction.execute {
+                lowStockAlertRepository.clearRecovered(threshold)
+                Loaded(
+                    menuItemRepository.findLowStockItems(threshold).map { it.toResponse() },
+                    lowStockAlertRepository.findAll().associate { it.menuItemId to it.level }
+                )
+            }!!
+        } catch (e: Exception) {
+            synchronized(this) { changedDuringReload = null }
+            throw e
+        }
+
+        val now = System.nanoTime()
+        synchronized(this) {
+            val changed = changedDuringReload!!
+            changedDuringReload = null
+            val current = restaurants
+            val reloaded = ConcurrentHashMap<UUID, ConcurrentHashMap<UUID, Entry>>()
+            loaded.items.forEach { item ->
+                if (item.id in changed) {
+                    return@forEach
+                }
+                val level = levelOf(item) ?: return@forEach
+                val entry = Entry(item, level)
+                val previous = current[item.restaurantId]?.get(item.id)
+                if (previous != null) {
+                    entry.alerted = previous.alerted
+                    entry.alertDueAt = previous.alertDueAt
+                } else {
+                    // Went low on another instance or before this one started: armed unless an
+                    // alert at this level is already recorded
+                    entry.alerted = loaded.alerted[item.id]
+                    if (entry.alerted == null || level > entry.alerted!!) {
+                        entry.alertDueAt = now + alertDelayNanos
+                    }
+                }
+                reloaded.computeIfAbsent(item.restaurantId) { ConcurrentHashMap() }[item.id] = entry
+            }
+            // The read may predate these changes, so the in-memory state wins for them
+            changed.forEach { (itemId, restaurantId) ->
+                current[restaurantId]?.get(itemId)?.let {
+                    reloaded.computeIfAbsent(restaurantId) { ConcurrentHashMap() }[itemId] = it
+                }
+            }
+            restaurants = reloaded
+            loadedAt = now
+        }
+    }
+
+    private fun sendAlert(item: MenuItemResponse, level: LowStockLevel) {
+        val request = when (level) {
+            LowStockLevel.LOW_STOCK -> NotificationRequest(
+                userId = item.restaurantId.toString(),
+                type = NotificationType.LOW_STOCK,
+                title = "Low Stock",
+                message = "'${item.name}' is running low: ${item.currentStock} of ${item.maxStock} left",
+                metadata = alertMetadata(item)
+            )
+            LowStockLevel.OUT_OF_STOCK -> NotificationRequest(
+                userId = item.restaurantId.toString(),
+                type = NotificationType.OUT_OF_STOCK,
+                title = "Out of Stock",
+                message = "'${item.name}' is out of stock",
+                metadata = alertMetadata(item)
+            )
+        }
+        circuitBreakerFactory.create("sendNotification").run({
+            notificationServiceClient.sendNotification(request)
+        }, { throwable ->
+            // Alerts are not retried; the item stays in the low-stock set either way
+            logger.error("Failed to send ${level.name} alert for menuItemId: ${item.id}", throwable)
+            null
+        })
+    }
+
+    private fun alertMetadata(item: MenuItemResponse) = mapOf(
+        "restaurantId" to item.restaurantId.toString(),
+        "menuItemId" to item.id.toString(),
+        "currentStock" to item.currentStock.toString(),
+        "maxStock" to item.maxStock.toString()
+    )
+}
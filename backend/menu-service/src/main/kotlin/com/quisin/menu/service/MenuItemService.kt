@@ -1,12 +1,20 @@
 package com.quisin.menu.service
 
+import com.quisin.menu.domain.DietaryInfo
 import com.quisin.menu.domain.MenuItem
 import com.quisin.menu.domain.MenuItemCategory
 import com.quisin.menu.domain.MenuItemStatus
 import com.quisin.menu.dto.CreateMenuItemRequest
+import com.quisin.menu.dto.MenuItemQuery
 import com.quisin.menu.dto.MenuItemResponse
 import com.quisin.menu.dto.UpdateMenuItemRequest
+import com.quisin.menu.event.MenuItemChangedEvent
+import com.quisin.menu.event.MenuItemCreatedEvent
+import com.quisin.menu.event.MenuItemDeletedEvent
+import com.quisin.menu.event.MenuItemUpdatedEvent
 import com.quisin.menu.repository.MenuItemRepository
+import org.springframework.cache.annotation.CacheEvict
+import org.springframework.context.ApplicationEventPublisher
 import org.springframework.stereotype.Service
 import org.springframework.transaction.annotation.Transactional
 import java.math.BigDecimal
@@ -15,9 +23,14 @@ import java.util.UUID
 
 @Service
 class MenuItemService(
-    private val menuItemRepository: MenuItemRepository
+    private val menuItemRepository: MenuItemRepository,
+    private val eventPublisher: EventPublisherService,
+    private val applicationEventPublisher: ApplicationEventPublisher,
+    private val menuSearchIndex: MenuSearchIndex,
+    private val lowStockMonitor: LowStockMonitor
 ) {
     @Transactional
+    @CacheEvict(cacheNames = ["menu"], allEntries = true)
     fun createMenuItem(request: CreateMenuItemRequest): MenuItemResponse {
         val menuItem = MenuItem(
             restaurantId = request.restaurantId,
@@ -38,23 +51,45 @@ class MenuItemService(
         )
 
         val savedMenuItem = menuItemRepository.save(menuItem)
-        return mapToMenuItemResponse(savedMenuItem)
+        val response = savedMenuItem.toResponse()
+        applicationEventPublisher.publishEvent(MenuItemChangedEvent(response.restaurantId, response.id, response))
+
+        // Menu items are scoped to the restaurant, which also serves as their menu key
+        eventPublisher.publishEvent(MenuItemCreatedEvent(
+            menuId = savedMenuItem.restaurantId.toString(),
+            itemId = savedMenuItem.id.toString(),
+            name = savedMenuItem.name,
+            price = savedMenuItem.price,
+            restaurantId = savedMenuItem.restaurantId.toString()
+        ))
+
+        return response
     }
 
     @Transactional(readOnly = true)
     fun getMenuItemById(menuItemId: UUID): MenuItemResponse {
         val menuItem = menuItemRepository.findById(menuItemId)
             .orElseThrow { NoSuchElementException("Menu item not found") }
-        return mapToMenuItemResponse(menuItem)
+        return menuItem.toResponse()
     }
 
     @Transactional(readOnly = true)
     fun getMenuItemsByRestaurant(restaurantId: UUID): List<MenuItemResponse> {
         return menuItemRepository.findByRestaurantId(restaurantId)
-            .map { mapToMenuItemResponse(it) }
+            .map { it.toResponse() }
+    }
+
+    @Transactional(readOnly = true)
+    fun getMenuItemsByIds(restaurantId: UUID, menuItemIds: List<UUID>): List<MenuItemResponse> {
+        if (menuItemIds.isEmpty()) {
+            return emptyList()
+        }
+        return menuItemRepository.findByRestaurantIdAndIdIn(restaurantId, menuItemIds.toSet())
+            .map { it.toResponse() }
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ["menu"], allEntries = true)
     fun updateMenuItem(menuItemId: UUID, request: UpdateMenuItemRequest): MenuItemResponse {
         val existingMenuItem = menuItemRepository.findById(menuItemId)
             .orElseThrow { NoSuchElementException("Menu item not found") }
@@ -76,18 +111,41 @@ class MenuItemService(
         )
 
         val savedMenuItem = menuItemRepository.save(updatedMenuItem)
-        return mapToMenuItemResponse(savedMenuItem)
+        val response = savedMenuItem.toResponse()
+        applicationEventPublisher.publishEvent(MenuItemChangedEvent(response.restaurantId, response.id, response))
+
+        eventPublisher.publishEvent(MenuItemUpdatedEvent(
+            menuId = savedMenuItem.restaurantId.toString(),
+            itemId = savedMenuItem.id.toString(),
+            name = request.name,
+            price = request.price,
+            available = savedMenuItem.status == MenuItemStatus.AVAILABLE,
+            restaurantId = savedMenuItem.restaurantId.toString()
+        ))
+
+        return response
     }
 
     @Transactional
+    @CacheEvict(cacheNames = ["menu"], allEntries = true)
     fun deleteMenuItem(menuItemId: UUID) {
         val menuItem = menuItemRepository.findById(menuItemId)
             .orElseThrow { NoSuchElementException("Menu item not found") }
         
         menuItemRepository.delete(menuItem)
+        applicationEventPublisher.publishEvent(MenuItemChangedEvent(menuItem.restaurantId, menuItemId, null))
+
+        eventPublisher.publishEvent(MenuItemDeletedEvent(
+            menuId = menuItem.restaurantId.toString(),
+            itemId = menuItemId.toString(),
+            restaurantId = menuItem.restaurantId.toString()
+        ))
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Items of the restaurant matching every given filter, cheapest first, answered from the
+     * in-memory search index.
+     */
     fun searchMenuItems(
         restaurantId: UUID, 
         category: MenuItemCategory? = null,
@@ -95,55 +153,45 @@ class MenuItemService(
         minPrice: BigDecimal? = null,
         maxPrice: BigDecimal? = null,
         searchTerm: String? = null,
-        tag: String? = null
+        tag: String? = null,
+        excludedAllergens: Set<String> = emptySet(),
+        dietaryInfo: Set<DietaryInfo> = emptySet()
     ): List<MenuItemResponse> {
-        return when {
-            category != null -> 
-                menuItemRepository.findByRestaurantIdAndCategory(restaurantId, category)
-            
-            status != null -> 
-                menuItemRepository.findByRestaurantIdAndStatus(restaurantId, status)
-            
-            searchTerm != null -> 
-                menuItemRepository.findByRestaurantIdAndNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                    restaurantId, searchTerm, searchTerm
-                )
-            
-            minPrice != null && maxPrice != null -> 
-                menuItemRepository.findByRestaurantIdAndPriceBetween(restaurantId, minPrice, maxPrice)
-            
-            tag != null -> 
-                menuItemRepository.findByRestaurantIdAndTag(restaurantId, tag)
-            
-            else -> 
-                menuItemRepository.findByRestaurantId(restaurantId)
-        }.map { mapToMenuItemResponse(it) }
+        return menuSearchIndex.search(restaurantId, MenuItemQuery(
+            category = category,
+            status = status,
+            minPrice = minPrice,
+            maxPrice = maxPrice,
+            searchTerm = searchTerm?.takeIf { it.isNotBlank() },
+            tags = setOfNotNull(tag),
+            excludedAllergens = excludedAllergens,
+            dietaryInfo = dietaryInfo
+        ))
     }
 
-    @Transactional(readOnly = true)
     fun getLowStockItems(restaurantId: UUID): List<MenuItemResponse> {
-        return menuItemRepository.findLowStockItems(restaurantId)
-            .map { mapToMenuItemResponse(it) }
+        return lowStockMonitor.getLowStockItems(restaurantId)
     }
+}
 
-    private fun mapToMenuItemResponse(menuItem: MenuItem): MenuItemResponse {
-        return MenuItemResponse(
-            id = menuItem.id!!,
-            restaurantId = menuItem.restaurantId,
-            name = menuItem.name,
-            description = menuItem.description,
-            price = menuItem.price,
-            category = menuItem.category,
-            imageUrl = menuItem.imageUrl,
-            currentStock = menuItem.currentStock,
-            maxStock = menuItem.maxStock,
-            status = menuItem.status,
-            preparationTime = menuItem.preparationTime,
-            calories = menuItem.calories,
-            allergens = menuItem.allergens,
-            tags = menuItem.tags,
-            createdAt = menuItem.createdAt ?: LocalDateTime.now(),
-            updatedAt = menuItem.updatedAt ?: LocalDateTime.now()
-        )
-    }
+// Copies the collections, so the response stays readable after the session closes
+fun MenuItem.toResponse(): MenuItemResponse {
+    return MenuItemResponse(
+        id = id!!,
+        restaurantId = restaurantId,
+        name = name,
+        description = description,
+        price = price,
+        category = category,
+        imageUrl = imageUrl,
+        currentStock = currentStock,
+        maxStock = maxStock,
+        status = status,
+        preparationTime = preparationTime,
+        calories = calories,
+        allergens = allergens.toList(),
+        tags = tags.toList(),
+        createdAt = createdAt ?: LocalDateTime.now(),
+        updatedAt = updatedAt ?: LocalDateTime.now()
+    )
 }
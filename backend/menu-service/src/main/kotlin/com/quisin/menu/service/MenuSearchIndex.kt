@@ -0,0 +1,221 @@
+package com.quisin.menu.service
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import com.quisin.menu.domain.DietaryInfo
+import com.quisin.menu.domain.MenuItemCategory
+import com.quisin.menu.domain.MenuItemStatus
+import com.quisin.menu.dto.MenuItemQuery
+import com.quisin.menu.dto.MenuItemResponse
+import com.quisin.menu.event.MenuItemChangedEvent
+import com.quisin.menu.repository.MenuItemRepository
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.event.TransactionalEventListener
+import org.springframework.transaction.support.TransactionTemplate
+import java.math.BigDecimal
+import java.time.Duration
+import java.util.BitSet
+import java.util.EnumMap
+import java.util.UUID
+
+/**
+ * Per-restaurant in-memory index for menu item searches.
+ *
+ * Items are numbered in price order, so a price range is a contiguous run of positions, and the
+ * label filters are bitsets over those positions: one per tag, allergen, dietary label, category
+ * and status. A search ANDs the bitsets of its filters together, and only the items left are
+ * checked for the search term, which matches anywhere in the name or description, ignoring case.
+ * Dietary labels come from tags that name a DietaryInfo, such as "vegan" or "gluten-free".
+ *
+ * Indexes are rebuilt from MenuItemChangedEvent after each committed change on this instance, and
+ * reloaded from the database once older than `menu.search-index.max-age`. At most
+ * `menu.search-index.max-restaurants` indexes are kept, and only for restaurants that have items.
+ */
+@Component
+class MenuSearchIndex(
+    private val menuItemRepository: MenuItemRepository,
+    transactionManager: PlatformTransactionManager,
+    @Value("\${menu.search-index.max-age:PT1M}") maxAge: Duration,
+    @Value("\${menu.search-index.max-restaurants:10000}") maxRestaurants: Long
+) {
+    private class RestaurantIndex {
+        // Guarded by the RestaurantIndex's monitor
+        val items = HashMap<UUID, MenuItemResponse>()
+
+        @Volatile
+        var snapshot: Snapshot? = null
+
+        @Volatile
+        var loadedAt = 0L
+    }
+
+    private val maxAgeNanos = maxAge.toNanos()
+    private val indexes: Cache<UUID, RestaurantIndex> = Caffeine.newBuilder()
+        .maximumSize(maxRestaurants)
+        .build()
+    private val readTransaction = TransactionTemplate(transactionManager).apply { isReadOnly = true }
+
+    /**
+     * Items matching every filter of the query, cheapest first.
+     */
+    fun search(restaurantId: UUID, query: MenuItemQuery): List<MenuItemResponse> {
+        val snapshot = snapshot(restaurantId)
+        val matches = snapshot.matches(query)
+        val results = ArrayList<MenuItemResponse>(matches.cardinality())
+        var doc = matches.nextSetBit(0)
+        while (doc >= 0) {
+            results += snapshot.docs[doc]
+            doc = matches.nextSetBit(doc + 1)
+        }
+        return results
+    }
+
+    fun hasMatch(restaurantId: UUID, query: MenuItemQuery): Boolean = !snapshot(restaurantId).matches(query).isEmpty
+
+    @TransactionalEventListener(fallbackExecution = true)
+    fun onMenuItemChanged(event: MenuItemChangedEvent) {
+        // An index nobody has searched yet is loaded in full on its first search
+        val index = indexes.getIfPresent(event.restaurantId) ?: return
+        synchronized(index) {
+            if (index.snapshot == null) {
+                return
+            }
+            if (event.item == null) {
+                if (index.items.remove(event.itemId) == null) {
+                    return
+                }
+            } else {
+                index.items[event.itemId] = event.item
+            }
+            index.snapshot = Snapshot(index.items.values)
+        }
+    }
+
+    private fun snapshot(restaurantId: UUID): Snapshot {
+        val index = indexes.getIfPresent(restaurantId) ?: return loadNew(restaurantId)
+        index.snapshot?.let { if (isFresh(index)) return it }
+        synchronized(index) {
+            index.snapshot?.let { if (isFresh(index)) return it }
+            return load(restaurantId, index)
+        }
+    }
+
+    // Restaurants without items are not kept, so searches for unknown ids can't fill the cache
+    private fun loadNew(restaurantId: UUID): Snapshot {
+        val index = RestaurantIndex()
+        val snapshot = load(restaurantId, index)
+        if (snapshot.docs.isNotEmpty()) {
+            indexes.asMap().putIfAbsent(restaurantId, index)
+        }
+        return snapshot
+    }
+
+    private fun load(restaurantId: UUID, index: RestaurantIndex): Snapshot {
+        val items = readTransaction.execute {
+            menuItemRepository.findByRestaurantId(restaurantId).map { it.toResponse() }
+        }!!
+        index.items.clear()
+        items.forEach { index.items[it.id] = it }
+        index.snapshot = Snapshot(items)
+        index.loadedAt = System.nanoTime()
+        return index.snapshot!!
+    }
+
+    private fun isFresh(index: RestaurantIndex): Boolean = System.nanoTime() - index.loadedAt < maxAgeNanos
+
+    private class Snapshot(items: Collection<MenuItemResponse>) {
+        val docs: Array<MenuItemResponse> = items
+            .sortedWith(compareBy<MenuItemResponse>({ it.price }, { it.name.lowercase() }))
+            .toTypedArray()
+        private val prices: Array<BigDecimal> = Array(docs.size) { docs[it].price }
+        private val names: Array<String> = Array(docs.size) { docs[it].name.lowercase() }
+        private val descriptions: Array<String> = Array(docs.size) { docs[it].description.orEmpty().lowercase() }
+
+        private val tags = HashMap<String, BitSet>()
+        private val allergens = HashMap<String, BitSet>()
+        private val dietaryInfo = EnumMap<DietaryInfo, BitSet>(DietaryInfo::class.java)
+        private val categories = EnumMap<MenuItemCategory, BitSet>(MenuItemCategory::class.java)
+        private val statuses = EnumMap<MenuItemStatus, BitSet>(MenuItemStatus::class.java)
+
+        init {
+            docs.forEachIndexed { doc, item ->
+                item.tags.forEach { tag ->
+                    val label = normalize(tag)
+                    tags.getOrPut(label) { BitSet() }.set(doc)
+                    DIETARY_LABELS[label]?.let { dietaryInfo.getOrPut(it) { BitSet() }.set(doc) }
+                }
+                item.allergens.forEach { allergens.getOrPut(normalize(it)) { BitSet() }.set(doc) }
+                categories.getOrPut(item.category) { BitSet() }.set(doc)
+                statuses.getOrPut(item.status) { BitSet() }.set(doc)
+            }
+        }
+
+        fun matches(query: MenuItemQuery): BitSet {
+            val result = BitSet(docs.size)
+            val from = query.minPrice?.let { firstPriceAtLeast(it) } ?: 0
+            val to = query.maxPrice?.let { firstPriceAbove(it) } ?: docs.size
+            if (from >= to) {
+                return result
+            }
+            result.set(from, to)
+
+            query.category?.let { result.and(categories[it] ?: NONE) }
+            query.status?.let { result.and(statuses[it] ?: NONE) }
+            query.tags.forEach { result.and(tags[normalize(it)] ?: NONE) }
+            if (query.dietaryInfo.isNotEmpty()) {
+                result.and(anyOf(query.dietaryInfo.mapNotNull { dietaryInfo[it] }))
+            }
+            if (query.allergens.isNotEmpty()) {
+                result.and(anyOf(query.allergens.mapNotNull { allergens[normalize(it)] }))
+            }
+            query.excludedAllergens.forEach { allergen -> allergens[normalize(allergen)]?.let { result.andNot(it) } }
+            query.searchTerm?.let { term ->
+                val needle = term.lowercase()
+                var doc = result.nextSetBit(0)
+                while (doc >= 0) {
+                    if (!names[doc].contains(needle) && !descriptions[doc].contains(needle)) {
+                        result.clear(doc)
+                    }
+                    doc = result.nextSetBit(doc + 1)
+                }
+            }
+            return result
+        }
+
+        private fun anyOf(bitsets: List<BitSet>): BitSet {
+            val any = BitSet(docs.size)
+            bitsets.forEach { any.or(it) }
+            return any
+        }
+
+        private fun firstPriceAtLeast(price: BigDecimal): Int {
+            var low = 0
+            var high = prices.size
+            while (low < high) {
+                val mid = (low + high) ushr 1
+                if (prices[mid] < price) low = mid + 1 else high = mid
+            }
+            return low
+        }
+
+        private fun firstPriceAbove(price: BigDecimal): Int {
+            var low = 0
+            var high = prices.size
+            while (low < high) {
+                val mid = (low + high) ushr 1
+                if (prices[mid] <= price) low = mid + 1 else high = mid
+            }
+            return low
+        }
+    }
+
+    private companion object {
+        val NONE = BitSet()
+        val LABEL_SEPARATORS = Regex("[\\s-]+")
+        val DIETARY_LABELS = DietaryInfo.values().associateBy { it.name }
+
+        fun normalize(label: String): String = label.trim().uppercase().replace(LABEL_SEPARATORS, "_")
+    }
+}
@@ -21,6 +21,8 @@ class MenuService(
     private val menuRepository: MenuRepository,
     private val restaurantServiceClient: RestaurantServiceClient,
     private val eventPublisher: EventPublisherService,
+    private val customerMenuService: CustomerMenuService,
+    private val menuSearchIndex: MenuSearchIndex,
     private val circuitBreakerFactory: CircuitBreakerFactory<*, *>
 ) {
 
@@ -48,6 +50,7 @@ class MenuService(
         }
 
         val finalMenu = menuRepository.save(savedMenu)
+        customerMenuService.menusChanged(finalMenu.restaurantId)
 
         // Publish event
         eventPublisher.publishEvent(MenuCreatedEvent(
@@ -81,6 +84,7 @@ class MenuService(
 
         menu.updatedAt = LocalDateTime.now()
         val updatedMenu = menuRepository.save(menu)
+        customerMenuService.menusChanged(updatedMenu.restaurantId)
 
         // Publish event
         eventPublisher.publishEvent(MenuUpdatedEvent(
@@ -101,6 +105,7 @@ class MenuService(
         }
 
         menuRepository.delete(menu)
+        customerMenuService.menusChanged(menu.restaurantId)
 
         // Publish event
         eventPublisher.publishEvent(MenuDeletedEvent(
@@ -111,13 +116,24 @@ class MenuService(
 
     @Transactional(readOnly = true)
     fun searchMenus(request: MenuSearchRequest): MenuPageResponse {
-        val specification = createMenuSpecification(request)
         val pageable = PageRequest.of(
             request.page ?: 0,
             request.size ?: 20,
             Sort.by(Sort.Direction.DESC, "createdAt")
         )
 
+        // Items belong to the restaurant, so within one restaurant the item filters either match
+        // for all of its menus or for none, which the search index answers without any joins
+        val restaurantId = request.restaurantId?.let { runCatching { UUID.fromString(it) }.getOrNull() }
+        val specification = if (restaurantId != null && hasItemFilters(request)) {
+            if (!menuSearchIndex.hasMatch(restaurantId, request.toItemQuery())) {
+                return MenuPageResponse(content = emptyList(), totalElements = 0, totalPages = 0, currentPage = pageable.pageNumber)
+            }
+            createMenuSpecification(request.copy(allergens = null, dietaryInfo = null, priceRange = null))
+        } else {
+            createMenuSpecification(request)
+        }
+
         val menuPage = menuRepository.findAll(specification, pageable)
 
         return MenuPageResponse(
@@ -128,6 +144,16 @@ class MenuService(
         )
     }
 
+    private fun hasItemFilters(request: MenuSearchRequest): Boolean =
+        request.allergens?.isNotEmpty() == true || request.dietaryInfo?.isNotEmpty() == true || request.priceRange != null
+
+    private fun MenuSearchRequest.toItemQuery() = MenuItemQuery(
+        minPrice = priceRange?.min,
+        maxPrice = priceRange?.max,
+        allergens = allergens.orEmpty().map { it.name }.toSet(),
+        dietaryInfo = dietaryInfo.orEmpty()
+    )
+
     private fun createMenuCategory(request: CreateMenuCategoryRequest, menu: Menu): MenuCategory {
         return MenuCategory(
             name = request.name,
@@ -181,21 +207,21 @@ class MenuService(
                 predicates.add(criteriaBuilder.equal(root.get<Boolean>("active"), it))
             }
 
+            // One join to the items, shared by every item filter
+            val itemJoin by lazy {
+                query.distinct(true)
+                root.join<Menu, MenuCategory>("categories").join<MenuCategory, MenuItem>("items")
+            }
+
             if (request.allergens?.isNotEmpty() == true) {
-                val itemJoin = root.join<Menu, MenuCategory>("categories")
-                    .join<MenuCategory, MenuItem>("items")
                 predicates.add(itemJoin.join<MenuItem, Allergen>("allergens").`in`(request.allergens))
             }
 
             if (request.dietaryInfo?.isNotEmpty() == true) {
-                val itemJoin = root.join<Menu, MenuCategory>("categories")
-                    .join<MenuCategory, MenuItem>("items")
                 predicates.add(itemJoin.join<MenuItem, DietaryInfo>("dietaryInfo").`in`(request.dietaryInfo))
             }
 
             request.priceRange?.let {
-                val itemJoin = root.join<Menu, MenuCategory>("categories")
-                    .join<MenuCategory, MenuItem>("items")
                 predicates.add(
                     criteriaBuilder.and(
                         criteriaBuilder.greaterThanOrEqualTo(itemJoin.get("price"), it.min),
@@ -0,0 +1,43 @@
+package com.quisin.menu.service
+
+import com.quisin.menu.repository.StockReservationRepository
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.data.domain.PageRequest
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.stereotype.Component
+import java.time.LocalDateTime
+
+/**
+ * Hands back the stock of reservations whose orders were neither completed nor cancelled in time.
+ * Each reservation expires in its own transaction, and the conditional status change makes it safe
+ * for several instances, or a late commit or release, to race the sweep.
+ */
+@Component
+class StockReservationSweeper(
+    private val stockReservationRepository: StockReservationRepository,
+    private val inventoryService: InventoryService,
+    @Value("\${menu.stock-reservation.sweep-batch-size:100}") private val batchSize: Int
+) {
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    @Scheduled(fixedDelayString = "\${menu.stock-reservation.sweep-interval:PT30S}")
+    fun expireReservations() {
+        do {
+            val expired = stockReservationRepository.findExpiredIds(LocalDateTime.now(), PageRequest.of(0, batchSize))
+            var failed = 0
+            expired.forEach { id ->
+                try {
+                    inventoryService.expireStockReservation(id)
+                } catch (e: Exception) {
+                    failed++
+                    logger.error("Failed to expire stock reservation: $id", e)
+                }
+            }
+            if (expired.size > failed) {
+                logger.info("Expired ${expired.size - failed} stock reservations")
+            }
+            // Left for the next run after a failure, so a broken reservation can't keep the sweep spinning
+        } while (failed == 0 && expired.size == batchSize)
+    }
+}
@@ -0,0 +1,98 @@
+package com.quisin.menu.controller
+
+import com.quisin.menu.service.CustomerMenuService
+import com.quisin.menu.service.MenuService
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.*
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpStatus
+import java.util.UUID
+
+class MenuControllerTest {
+
+    private lateinit var customerMenuService: CustomerMenuService
+    private lateinit var controller: MenuController
+
+    private val restaurantId = UUID.randomUUID()
+    private val json = "{\"restaurantId\":\"r\"}".toByteArray()
+    private val gzip = byteArrayOf(31, -117, 8)
+    private val etag = "W/\"0123abcd\""
+
+    @BeforeEach
+    fun setup() {
+        customerMenuService = mock(CustomerMenuService::class.java)
+        controller = MenuController(mock(MenuService::class.java), customerMenuService)
+        `when`(customerMenuService.getMenu(restaurantId)).thenReturn(CustomerMenuService.Rendition(json, gzip, etag))
+    }
+
+    @Test
+    fun `should send the menu with its etag and revalidation headers`() {
+        // When
+        val response = controller.getCustomerMenu(restaurantId, null, null)
+
+        // Then
+        assertEquals(HttpStatus.OK, response.statusCode)
+        assertArrayEquals(json, response.body)
+        assertEquals(etag, response.headers.eTag)
+        assertEquals("no-cache", response.headers.cacheControl)
+        assertEquals(listOf(HttpHeaders.ACCEPT_ENCODING), response.headers.vary)
+        assertNull(response.headers.getFirst(HttpHeaders.CONTENT_ENCODING))
+    }
+
+    @Test
+    fun `should answer not modified when the client has the current etag`() {
+        // When
+        val response = controller.getCustomerMenu(restaurantId, etag, "gzip")
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, response.statusCode)
+        assertNull(response.body)
+        assertEquals(etag, response.headers.eTag)
+    }
+
+    @Test
+    fun `should compare etags weakly and accept any of a list`() {
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, controller.getCustomerMenu(restaurantId, "\"0123abcd\"", null).statusCode)
+        assertEquals(HttpStatus.NOT_MODIFIED, controller.getCustomerMenu(restaurantId, "W/\"old\", $etag", null).statusCode)
+        assertEquals(HttpStatus.NOT_MODIFIED, controller.getCustomerMenu(restaurantId, "*", null).statusCode)
+        assertEquals(HttpStatus.OK, controller.getCustomerMenu(restaurantId, "W/\"old\"", null).statusCode)
+    }
+
+    @Test
+    fun `should send the gzip rendition to clients that accept it`() {
+        // When
+        val response = controller.getCustomerMenu(restaurantId, null, "deflate, GZIP;q=0.8")
+
+        // Then
+        assertEquals(HttpStatus.OK, response.statusCode)
+        assertArrayEquals(gzip, response.body)
+        assertEquals("gzip", response.headers.getFirst(HttpHeaders.CONTENT_ENCODING))
+        assertEquals(etag, response.headers.eTag)
+    }
+
+    @Test
+    fun `should send the identity rendition when gzip is refused`() {
+        // When
+        val response = controller.getCustomerMenu(restaurantId, null, "gzip;q=0, br")
+
+        // Then
+        assertArrayEquals(json, response.body)
+        assertNull(response.headers.getFirst(HttpHeaders.CONTENT_ENCODING))
+    }
+
+    @Test
+    fun `should send the identity rendition of a menu too small to compress`() {
+        // Given
+        `when`(customerMenuService.getMenu(restaurantId)).thenReturn(CustomerMenuService.Rendition(json, null, etag))
+
+        // When
+        val response = controller.getCustomerMenu(restaurantId, null, "gzip")
+
+        // Then
+        assertArrayEquals(json, response.body)
+        assertNull(response.headers.getFirst(HttpHeaders.CONTENT_ENCODING))
+    }
+}
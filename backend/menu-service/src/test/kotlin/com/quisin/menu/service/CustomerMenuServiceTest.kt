@@ -0,0 +1,149 @@
+package com.quisin.menu.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.quisin.menu.anyOf
+import com.quisin.menu.domain.Menu
+import com.quisin.menu.domain.MenuItem
+import com.quisin.menu.domain.MenuItemCategory
+import com.quisin.menu.domain.MenuItemStatus
+import com.quisin.menu.event.MenuItemChangedEvent
+import com.quisin.menu.repository.MenuItemRepository
+import com.quisin.menu.repository.MenuRepository
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.*
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionDefinition
+import org.springframework.transaction.support.SimpleTransactionStatus
+import java.math.BigDecimal
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+import java.util.zip.GZIPInputStream
+
+class CustomerMenuServiceTest {
+
+    private lateinit var menuRepository: MenuRepository
+    private lateinit var menuItemRepository: MenuItemRepository
+    private lateinit var customerMenuService: CustomerMenuService
+
+    private val objectMapper = ObjectMapper()
+    private val restaurantId = UUID.randomUUID()
+    private val soup = MenuItem(
+        id = UUID.randomUUID(),
+        restaurantId = restaurantId,
+        name = "Soup",
+        price = BigDecimal("4.50"),
+        category = MenuItemCategory.MAIN_COURSE,
+        createdAt = LocalDateTime.now(),
+        updatedAt = LocalDateTime.now()
+    )
+
+    @BeforeEach
+    fun setup() {
+        menuRepository = mock(MenuRepository::class.java)
+        menuItemRepository = mock(MenuItemRepository::class.java)
+        customerMenuService = service(gzipMinSize = 1024)
+
+        `when`(menuRepository.findByRestaurantIdAndActive(restaurantId.toString(), true)).thenReturn(
+            listOf(Menu(id = "lunch", name = "Lunch", description = "Served until three", restaurantId = restaurantId.toString()))
+        )
+        `when`(menuItemRepository.findByRestaurantId(restaurantId)).thenReturn(listOf(soup))
+    }
+
+    @Test
+    fun `should load a restaurant's menu once and serve it from memory`() {
+        // When
+        val first = customerMenuService.getMenu(restaurantId)
+        val second = customerMenuService.getMenu(restaurantId)
+
+        // Then
+        assertSame(first, second)
+        val document = objectMapper.readTree(first.json)
+        assertEquals("Lunch", document["menus"][0]["name"].asText())
+        assertEquals("Soup", document["categories"][0]["items"][0]["name"].asText())
+        verify(menuItemRepository, times(1)).findByRestaurantId(restaurantId)
+    }
+
+    @Test
+    fun `should not keep the menu of a restaurant without menus or items`() {
+        // Given
+        val unknown = UUID.randomUUID()
+
+        // When
+        val menu = customerMenuService.getMenu(unknown)
+        customerMenuService.getMenu(unknown)
+
+        // Then
+        assertEquals(0, objectMapper.readTree(menu.json)["categories"].size())
+        verify(menuItemRepository, times(2)).findByRestaurantId(unknown)
+    }
+
+    @Test
+    fun `should give the menu a new etag when one of its items changes`() {
+        // Given
+        val before = customerMenuService.getMenu(restaurantId)
+
+        // When
+        customerMenuService.onMenuItemChanged(
+            MenuItemChangedEvent(restaurantId, soup.id!!, soup.copy(status = MenuItemStatus.OUT_OF_STOCK).toResponse())
+        )
+        val after = customerMenuService.getMenu(restaurantId)
+
+        // Then
+        assertNotEquals(before.etag, after.etag)
+        assertFalse(objectMapper.readTree(after.json)["categories"][0]["items"][0]["available"].asBoolean())
+        verify(menuItemRepository, times(1)).findByRestaurantId(restaurantId)
+    }
+
+    @Test
+    fun `should keep the etag when an item is saved unchanged`() {
+        // Given
+        val before = customerMenuService.getMenu(restaurantId)
+
+        // When
+        customerMenuService.onMenuItemChanged(MenuItemChangedEvent(restaurantId, soup.id!!, soup.toResponse()))
+
+        // Then
+        assertEquals(before.etag, customerMenuService.getMenu(restaurantId).etag)
+    }
+
+    @Test
+    fun `should leave discontinued items off the menu`() {
+        // Given
+        customerMenuService.getMenu(restaurantId)
+
+        // When
+        customerMenuService.onMenuItemChanged(
+            MenuItemChangedEvent(restaurantId, soup.id!!, soup.copy(status = MenuItemStatus.DISCONTINUED).toResponse())
+        )
+
+        // Then
+        assertEquals(0, objectMapper.readTree(customerMenuService.getMenu(restaurantId).json)["categories"].size())
+    }
+
+    @Test
+    fun `should only gzip menus from the minimum size`() {
+        // Given
+        val small = customerMenuService.getMenu(restaurantId)
+        customerMenuService = service(gzipMinSize = 1)
+
+        // When
+        val compressed = customerMenuService.getMenu(restaurantId)
+
+        // Then
+        assertNull(small.gzip)
+        assertArrayEquals(compressed.json, GZIPInputStream(compressed.gzip!!.inputStream()).readBytes())
+        assertEquals(small.etag, compressed.etag)
+        assertTrue(compressed.etag.startsWith("W/\""))
+    }
+
+    private fun service(gzipMinSize: Int): CustomerMenuService {
+        val transactionManager = mock(PlatformTransactionManager::class.java)
+        `when`(transactionManager.getTransaction(anyOf(TransactionDefinition::class.java))).thenReturn(SimpleTransactionStatus())
+        return CustomerMenuService(
+            menuRepository, menuItemRepository, objectMapper, transactionManager, Duration.ofMinutes(5), gzipMinSize, 100
+        )
+    }
+}
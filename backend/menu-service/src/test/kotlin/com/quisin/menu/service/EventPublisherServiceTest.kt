@@ -0,0 +1,83 @@
+package com.quisin.menu.service
+
+import com.quisin.menu.event.MenuEvent
+import com.quisin.menu.event.MenuItemUpdatedEvent
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import reactor.core.Disposable
+import java.math.BigDecimal
+import java.util.concurrent.CopyOnWriteArrayList
+
+class EventPublisherServiceTest {
+
+    private val eventPublisherService = EventPublisherService()
+    private val received = CopyOnWriteArrayList<MenuEvent>()
+    private lateinit var subscription: Disposable
+
+    private val event = MenuItemUpdatedEvent(
+        menuId = "menu-1",
+        itemId = "item-1",
+        name = "Soup",
+        price = BigDecimal("4.50"),
+        available = false,
+        restaurantId = "restaurant-1"
+    )
+
+    @BeforeEach
+    fun setup() {
+        subscription = eventPublisherService.menuEvents().get().subscribe { received.add(it.payload) }
+    }
+
+    @AfterEach
+    fun tearDown() {
+        subscription.dispose()
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization()
+        }
+    }
+
+    @Test
+    fun `should publish at once outside a transaction`() {
+        // When
+        eventPublisherService.publishEvent(event)
+
+        // Then
+        assertEquals(listOf(event), received)
+    }
+
+    @Test
+    fun `should hold the event until the transaction commits`() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization()
+
+        // When
+        eventPublisherService.publishEvent(event)
+
+        // Then
+        assertTrue(received.isEmpty())
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations().forEach { it.afterCommit() }
+
+        // Then
+        assertEquals(listOf(event), received)
+    }
+
+    @Test
+    fun `should drop the event when the transaction rolls back`() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization()
+
+        // When
+        eventPublisherService.publishEvent(event)
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach { it.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK) }
+
+        // Then
+        assertTrue(received.isEmpty())
+    }
+}
@@ -0,0 +1,223 @@
+package com.quisin.menu.service
+
+import com.quisin.menu.anyOf
+import com.quisin.menu.domain.InventoryTransaction
+import com.quisin.menu.domain.InventoryTransactionType
+import com.quisin.menu.domain.MenuItem
+import com.quisin.menu.domain.MenuItemCategory
+import com.quisin.menu.domain.MenuItemStatus
+import com.quisin.menu.domain.StockReservation
+import com.quisin.menu.domain.StockReservationLine
+import com.quisin.menu.domain.StockReservationStatus
+import com.quisin.menu.dto.BatchStockDecrementRequest
+import com.quisin.menu.dto.InventoryTransactionRequest
+import com.quisin.menu.dto.StockQuantity
+import com.quisin.menu.dto.StockReservationRequest
+import com.quisin.menu.eqOf
+import com.quisin.menu.event.MenuEvent
+import com.quisin.menu.event.MenuItemChangedEvent
+import com.quisin.menu.event.MenuItemUpdatedEvent
+import com.quisin.menu.repository.InventoryTransactionRepository
+import com.quisin.menu.repository.MenuItemRepository
+import com.quisin.menu.repository.StockReservationRepository
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentMatchers.anyCollection
+import org.mockito.ArgumentMatchers.anyInt
+import org.mockito.ArgumentMatchers.anyIterable
+import org.mockito.Mockito.*
+import org.springframework.context.ApplicationEventPublisher
+import reactor.core.Disposable
+import java.math.BigDecimal
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.Optional
+import java.util.UUID
+import java.util.concurrent.CopyOnWriteArrayList
+
+class InventoryServiceTest {
+
+    private lateinit var inventoryTransactionRepository: InventoryTransactionRepository
+    private lateinit var menuItemRepository: MenuItemRepository
+    private lateinit var stockReservationRepository: StockReservationRepository
+    private lateinit var applicationEventPublisher: ApplicationEventPublisher
+    private lateinit var inventoryService: InventoryService
+
+    private val eventPublisher = EventPublisherService()
+    private val menuEvents = CopyOnWriteArrayList<MenuEvent>()
+    private lateinit var subscription: Disposable
+
+    private val restaurantId = UUID.randomUUID()
+    private val employeeId = UUID.randomUUID()
+    private val soup = item("Soup")
+    private val bread = item("Bread")
+    private val reservationId = UUID.randomUUID()
+
+    @BeforeEach
+    fun setup() {
+        inventoryTransactionRepository = mock(InventoryTransactionRepository::class.java)
+        menuItemRepository = mock(MenuItemRepository::class.java)
+        stockReservationRepository = mock(StockReservationRepository::class.java)
+        applicationEventPublisher = mock(ApplicationEventPublisher::class.java)
+        inventoryService = InventoryService(
+            inventoryTransactionRepository, menuItemRepository, stockReservationRepository,
+            applicationEventPublisher, eventPublisher, Duration.ofHours(2)
+        )
+        subscription = eventPublisher.menuEvents().get().subscribe { menuEvents.add(it.payload) }
+
+        `when`(inventoryTransactionRepository.save(anyOf(InventoryTransaction::class.java)))
+            .thenAnswer { it.getArgument<InventoryTransaction>(0).copy(id = UUID.randomUUID()) }
+        `when`(inventoryTransactionRepository.saveAll(anyIterable<InventoryTransaction>())).thenAnswer { it.getArgument(0) }
+        `when`(menuItemRepository.decrementStock(eqOf(restaurantId), anyOf(UUID::class.java), anyInt(), anyOf(LocalDateTime::class.java)))
+            .thenReturn(1)
+        `when`(menuItemRepository.incrementStock(eqOf(restaurantId), anyOf(UUID::class.java), anyInt(), anyOf(LocalDateTime::class.java)))
+            .thenReturn(1)
+    }
+
+    @AfterEach
+    fun tearDown() {
+        subscription.dispose()
+    }
+
+    @Test
+    fun `should tell other services when an item runs out`() {
+        // Given
+        availableBefore(soup)
+        reloaded(soup.copy(currentStock = 0, status = MenuItemStatus.OUT_OF_STOCK))
+
+        // When
+        inventoryService.recordInventoryTransaction(transaction(soup, InventoryTransactionType.STOCK_OUT, 3))
+
+        // Then
+        val event = menuEvents.single() as MenuItemUpdatedEvent
+        assertEquals(soup.id.toString(), event.itemId)
+        assertEquals(restaurantId.toString(), event.restaurantId)
+        assertEquals(false, event.available)
+        verify(applicationEventPublisher).publishEvent(anyOf(MenuItemChangedEvent::class.java))
+    }
+
+    @Test
+    fun `should tell other services when an item is back in stock`() {
+        // Given
+        availableBefore()
+        reloaded(soup.copy(currentStock = 5))
+
+        // When
+        inventoryService.recordInventoryTransaction(transaction(soup, InventoryTransactionType.STOCK_IN, 5))
+
+        // Then
+        assertEquals(true, (menuEvents.single() as MenuItemUpdatedEvent).available)
+    }
+
+    @Test
+    fun `should keep stock changes that leave the item on sale off menu-events`() {
+        // Given
+        availableBefore(soup)
+        reloaded(soup.copy(currentStock = 2))
+
+        // When
+        inventoryService.recordInventoryTransaction(transaction(soup, InventoryTransactionType.STOCK_OUT, 1))
+
+        // Then
+        assertTrue(menuEvents.isEmpty())
+        verify(applicationEventPublisher).publishEvent(anyOf(MenuItemChangedEvent::class.java))
+    }
+
+    @Test
+    fun `should publish only the items a batch decrement sells out`() {
+        // Given
+        availableBefore(soup, bread)
+        reloaded(soup.copy(currentStock = 0, status = MenuItemStatus.OUT_OF_STOCK), bread.copy(currentStock = 1))
+
+        // When
+        inventoryService.decrementStock(BatchStockDecrementRequest(
+            restaurantId = restaurantId,
+            employeeId = employeeId,
+            items = listOf(StockQuantity(soup.id!!, 3), StockQuantity(bread.id!!, 2))
+        ))
+
+        // Then
+        assertEquals(listOf(soup.id.toString()), menuEvents.map { (it as MenuItemUpdatedEvent).itemId })
+        verify(applicationEventPublisher, times(2)).publishEvent(anyOf(MenuItemChangedEvent::class.java))
+    }
+
+    @Test
+    fun `should publish the items a stock reservation sells out`() {
+        // Given
+        availableBefore(soup, bread)
+        reloaded(soup.copy(currentStock = 0, status = MenuItemStatus.OUT_OF_STOCK), bread.copy(currentStock = 2))
+        `when`(stockReservationRepository.findById(reservationId)).thenReturn(Optional.empty())
+        `when`(stockReservationRepository.save(anyOf(StockReservation::class.java))).thenAnswer { it.getArgument(0) }
+
+        // When
+        inventoryService.reserveStock(StockReservationRequest(
+            id = reservationId,
+            restaurantId = restaurantId,
+            items = listOf(StockQuantity(soup.id!!, 3), StockQuantity(bread.id!!, 1))
+        ))
+
+        // Then
+        val event = menuEvents.single() as MenuItemUpdatedEvent
+        assertEquals(soup.id.toString(), event.itemId)
+        assertEquals(false, event.available)
+    }
+
+    @Test
+    fun `should publish the items a released reservation puts back on sale`() {
+        // Given
+        availableBefore(bread)
+        reloaded(soup.copy(currentStock = 3), bread.copy(currentStock = 4))
+        `when`(stockReservationRepository.transition(
+            eqOf(reservationId), eqOf(StockReservationStatus.HELD), eqOf(StockReservationStatus.RELEASED),
+            anyOf(LocalDateTime::class.java)
+        )).thenReturn(1)
+        `when`(stockReservationRepository.findById(reservationId)).thenReturn(Optional.of(StockReservation(
+            id = reservationId,
+            restaurantId = restaurantId,
+            status = StockReservationStatus.RELEASED,
+            lines = listOf(StockReservationLine(soup.id!!, 3), StockReservationLine(bread.id!!, 1)),
+            expiresAt = LocalDateTime.now().plusHours(2)
+        )))
+
+        // When
+        inventoryService.releaseStockReservation(reservationId)
+
+        // Then
+        val event = menuEvents.single() as MenuItemUpdatedEvent
+        assertEquals(soup.id.toString(), event.itemId)
+        assertEquals(true, event.available)
+        verify(menuItemRepository).incrementStock(eqOf(restaurantId), eqOf(soup.id!!), eqOf(3), anyOf(LocalDateTime::class.java))
+    }
+
+    private fun availableBefore(vararg items: MenuItem) {
+        `when`(menuItemRepository.findAvailableIds(eqOf(restaurantId), anyCollection()))
+            .thenReturn(items.map { it.id!! }.toSet())
+    }
+
+    private fun reloaded(vararg items: MenuItem) {
+        `when`(menuItemRepository.findByRestaurantIdAndIdIn(eqOf(restaurantId), anyCollection()))
+            .thenReturn(items.toList())
+    }
+
+    private fun transaction(item: MenuItem, type: InventoryTransactionType, quantity: Int) = InventoryTransactionRequest(
+        restaurantId = restaurantId,
+        menuItemId = item.id!!,
+        type = type,
+        quantity = quantity,
+        employeeId = employeeId
+    )
+
+    private fun item(name: String) = MenuItem(
+        id = UUID.randomUUID(),
+        restaurantId = restaurantId,
+        name = name,
+        price = BigDecimal("4.50"),
+        category = MenuItemCategory.MAIN_COURSE,
+        currentStock = 3,
+        maxStock = 20,
+        createdAt = LocalDateTime.now(),
+        updatedAt = LocalDateTime.now()
+    )
+}
@@ -0,0 +1,243 @@
+package com.quisin.menu.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.quisin.menu.anyOf
+import com.quisin.menu.captureOf
+import com.quisin.menu.client.NotificationRequest
+import com.quisin.menu.client.NotificationServiceClient
+import com.quisin.menu.client.NotificationType
+import com.quisin.menu.domain.LowStockAlert
+import com.quisin.menu.domain.LowStockLevel
+import com.quisin.menu.domain.MenuItem
+import com.quisin.menu.domain.MenuItemCategory
+import com.quisin.menu.eqOf
+import com.quisin.menu.event.MenuEvent
+import com.quisin.menu.event.MenuItemChangedEvent
+import com.quisin.menu.event.MenuItemStockLevelChangedEvent
+import com.quisin.menu.repository.LowStockAlertRepository
+import com.quisin.menu.repository.MenuItemRepository
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.anyDouble
+import org.mockito.Mockito.*
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory
+import org.springframework.messaging.support.MessageBuilder
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionDefinition
+import org.springframework.transaction.support.SimpleTransactionStatus
+import reactor.core.Disposable
+import java.math.BigDecimal
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.Optional
+import java.util.UUID
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.function.Function
+import java.util.function.Supplier
+
+class LowStockMonitorTest {
+
+    private lateinit var menuItemRepository: MenuItemRepository
+    private lateinit var lowStockAlertRepository: LowStockAlertRepository
+    private lateinit var notificationServiceClient: NotificationServiceClient
+    private lateinit var circuitBreakerFactory: CircuitBreakerFactory<*, *>
+    private lateinit var transactionManager: PlatformTransactionManager
+    private lateinit var monitor: LowStockMonitor
+
+    private val eventPublisher = EventPublisherService()
+    private val menuEvents = CopyOnWriteArrayList<MenuEvent>()
+    private lateinit var subscription: Disposable
+
+    private val restaurantId = UUID.randomUUID()
+    private val soup = MenuItem(
+        id = UUID.randomUUID(),
+        restaurantId = restaurantId,
+        name = "Soup",
+        price = BigDecimal("4.50"),
+        category = MenuItemCategory.MAIN_COURSE,
+        currentStock = 2,
+        maxStock = 20,
+        createdAt = LocalDateTime.now(),
+        updatedAt = LocalDateTime.now()
+    )
+
+    private val circuitBreaker = object : CircuitBreaker {
+        override fun <T> run(toRun: Supplier<T>, fallback: Function<Throwable, T>): T = toRun.get()
+    }
+
+    @BeforeEach
+    fun setup() {
+        menuItemRepository = mock(MenuItemRepository::class.java)
+        lowStockAlertRepository = mock(LowStockAlertRepository::class.java)
+        notificationServiceClient = mock(NotificationServiceClient::class.java)
+        circuitBreakerFactory = mock(CircuitBreakerFactory::class.java)
+        transactionManager = mock(PlatformTransactionManager::class.java)
+        `when`(transactionManager.getTransaction(anyOf(TransactionDefinition::class.java))).thenReturn(SimpleTransactionStatus())
+        doReturn(circuitBreaker).`when`(circuitBreakerFactory).create("sendNotification")
+        `when`(lowStockAlertRepository.claim(
+            eqOf(soup.id!!), eqOf(restaurantId), anyOf(String::class.java), anyOf(LocalDateTime::class.java)
+        )).thenReturn(1)
+        monitor = monitor(Duration.ofMinutes(5))
+        subscription = eventPublisher.menuEvents().get().subscribe { menuEvents.add(it.payload) }
+    }
+
+    @AfterEach
+    fun tearDown() {
+        subscription.dispose()
+    }
+
+    @Test
+    fun `should alert for an item the reload finds low with no alert recorded`() {
+        // Given
+        lowOnReload(soup)
+
+        // When
+        monitor.sendDueAlerts()
+
+        // Then
+        assertEquals(NotificationType.LOW_STOCK, sentAlert().type)
+        verify(lowStockAlertRepository).clearRecovered(0.2)
+    }
+
+    @Test
+    fun `should not alert again for an item already alerted at its level`() {
+        // Given
+        lowOnReload(soup, LowStockAlert(soup.id!!, restaurantId, LowStockLevel.LOW_STOCK, LocalDateTime.now()))
+
+        // When
+        monitor.sendDueAlerts()
+
+        // Then
+        verifyNoInteractions(notificationServiceClient)
+        assertEquals(listOf(soup.id), monitor.getLowStockItems(restaurantId).map { it.id })
+    }
+
+    @Test
+    fun `should alert again for an item alerted as low that has since run out`() {
+        // Given
+        lowOnReload(
+            soup.copy(currentStock = 0),
+            LowStockAlert(soup.id!!, restaurantId, LowStockLevel.LOW_STOCK, LocalDateTime.now())
+        )
+
+        // When
+        monitor.sendDueAlerts()
+
+        // Then
+        assertEquals(NotificationType.OUT_OF_STOCK, sentAlert().type)
+    }
+
+    @Test
+    fun `should send nothing when another instance claimed the alert`() {
+        // Given
+        lowOnReload(soup)
+        `when`(lowStockAlertRepository.claim(
+            eqOf(soup.id!!), eqOf(restaurantId), anyOf(String::class.java), anyOf(LocalDateTime::class.java)
+        )).thenReturn(0)
+
+        // When
+        monitor.sendDueAlerts()
+
+        // Then
+        verifyNoInteractions(notificationServiceClient)
+    }
+
+    @Test
+    fun `should keep a stock change made while the reload was reading`() {
+        // Given
+        `when`(lowStockAlertRepository.findAll()).thenReturn(emptyList())
+        `when`(menuItemRepository.findLowStockItems(anyDouble())).thenAnswer {
+            // Restocked after the read saw it low
+            monitor.onMenuItemChanged(MenuItemChangedEvent(restaurantId, soup.id!!, soup.copy(currentStock = 20).toResponse()))
+            listOf(soup)
+        }
+
+        // Then
+        assertTrue(monitor.getLowStockItems(restaurantId).isEmpty())
+    }
+
+    @Test
+    fun `should reload the set once it is older than the max age`() {
+        // Given
+        monitor = monitor(Duration.ZERO)
+        lowOnReload()
+        assertTrue(monitor.getLowStockItems(restaurantId).isEmpty())
+        lowOnReload(soup)
+
+        // Then
+        assertEquals(listOf(soup.id), monitor.getLowStockItems(restaurantId).map { it.id })
+        verify(menuItemRepository, times(2)).findLowStockItems(0.2)
+    }
+
+    @Test
+    fun `should publish a crossing and nothing for a change within the same level`() {
+        // Given
+        lowOnReload()
+        monitor.getLowStockItems(restaurantId)
+
+        // When
+        monitor.onMenuItemChanged(MenuItemChangedEvent(restaurantId, soup.id!!, soup.toResponse()))
+        monitor.onMenuItemChanged(MenuItemChangedEvent(restaurantId, soup.id!!, soup.copy(currentStock = 1).toResponse()))
+        monitor.onMenuItemChanged(MenuItemChangedEvent(restaurantId, soup.id!!, soup.copy(currentStock = 0).toResponse()))
+        monitor.onMenuItemChanged(MenuItemChangedEvent(restaurantId, soup.id!!, soup.copy(currentStock = 20).toResponse()))
+
+        // Then
+        assertEquals(
+            listOf("LOW_STOCK", "OUT_OF_STOCK", null),
+            menuEvents.map { (it as MenuItemStockLevelChangedEvent).level }
+        )
+        verify(lowStockAlertRepository).clear(soup.id!!)
+    }
+
+    @Test
+    fun `should pick up a crossing published by another instance`() {
+        // Given
+        lowOnReload()
+        assertTrue(monitor.getLowStockItems(restaurantId).isEmpty())
+        `when`(menuItemRepository.findById(soup.id!!)).thenReturn(Optional.of(soup))
+        val payload = ObjectMapper().writeValueAsString(mapOf(
+            "menuId" to restaurantId.toString(),
+            "itemId" to soup.id.toString(),
+            "level" to "LOW_STOCK",
+            "restaurantId" to restaurantId.toString()
+        ))
+
+        // When
+        monitor.stockLevelEvents().accept(
+            MessageBuilder.withPayload(payload).setHeader("eventType", "MenuItemStockLevelChangedEvent").build()
+        )
+        monitor.stockLevelEvents().accept(
+            MessageBuilder.withPayload("{}").setHeader("eventType", "MenuItemUpdatedEvent").build()
+        )
+
+        // Then
+        assertEquals(listOf(soup.id), monitor.getLowStockItems(restaurantId).map { it.id })
+        assertTrue(menuEvents.isEmpty())
+        verify(menuItemRepository, times(1)).findById(soup.id!!)
+    }
+
+    private fun monitor(maxAge: Duration) = LowStockMonitor(
+        menuItemRepository, lowStockAlertRepository, notificationServiceClient, circuitBreakerFactory,
+        eventPublisher, ObjectMapper(), transactionManager, 0.2, Duration.ZERO, maxAge
+    )
+
+    private fun lowOnReload(vararg items: MenuItem) {
+        `when`(menuItemRepository.findLowStockItems(0.2)).thenReturn(items.toList())
+        `when`(lowStockAlertRepository.findAll()).thenReturn(emptyList())
+    }
+
+    private fun lowOnReload(item: MenuItem, alert: LowStockAlert) {
+        `when`(menuItemRepository.findLowStockItems(0.2)).thenReturn(listOf(item))
+        `when`(lowStockAlertRepository.findAll()).thenReturn(listOf(alert))
+    }
+
+    private fun sentAlert(): NotificationRequest {
+        val request: ArgumentCaptor<NotificationRequest> = ArgumentCaptor.forClass(NotificationRequest::class.java)
+        verify(notificationServiceClient).sendNotification(captureOf(request))
+        return request.value
+    }
+}
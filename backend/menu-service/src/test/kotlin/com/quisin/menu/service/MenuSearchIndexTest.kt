@@ -0,0 +1,156 @@
+package com.quisin.menu.service
+
+import com.quisin.menu.anyOf
+import com.quisin.menu.domain.DietaryInfo
+import com.quisin.menu.domain.MenuItem
+import com.quisin.menu.domain.MenuItemCategory
+import com.quisin.menu.domain.MenuItemStatus
+import com.quisin.menu.dto.MenuItemQuery
+import com.quisin.menu.event.MenuItemChangedEvent
+import com.quisin.menu.repository.MenuItemRepository
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.*
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionDefinition
+import org.springframework.transaction.support.SimpleTransactionStatus
+import java.math.BigDecimal
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+
+class MenuSearchIndexTest {
+
+    private lateinit var menuItemRepository: MenuItemRepository
+    private lateinit var index: MenuSearchIndex
+
+    private val restaurantId = UUID.randomUUID()
+    private val soup = item("Tomato Soup", "8.00", description = "Slow-roasted tomatoes", tags = listOf("vegan", "Gluten-Free"))
+    private val salad = item("Caesar Salad", "9.50", description = "Romaine with croutons", allergens = listOf("egg", "gluten"),
+        tags = listOf("vegetarian"))
+    private val burger = item("Soupçon Burger", "14.00", category = MenuItemCategory.MAIN_COURSE, allergens = listOf("gluten"))
+    private val brownie = item("Brownie", "6.00", category = MenuItemCategory.DESSERT, allergens = listOf("nuts", "egg"),
+        status = MenuItemStatus.OUT_OF_STOCK)
+
+    @BeforeEach
+    fun setup() {
+        menuItemRepository = mock(MenuItemRepository::class.java)
+        val transactionManager = mock(PlatformTransactionManager::class.java)
+        `when`(transactionManager.getTransaction(anyOf(TransactionDefinition::class.java))).thenReturn(SimpleTransactionStatus())
+        index = MenuSearchIndex(menuItemRepository, transactionManager, Duration.ofMinutes(5), 100)
+        `when`(menuItemRepository.findByRestaurantId(restaurantId)).thenReturn(listOf(soup, salad, burger, brownie))
+    }
+
+    @Test
+    fun `should list every item cheapest first without filters`() {
+        // When
+        val results = search(MenuItemQuery())
+
+        // Then
+        assertEquals(listOf("Brownie", "Tomato Soup", "Caesar Salad", "Soupçon Burger"), results)
+    }
+
+    @Test
+    fun `should match the search term anywhere in the name or description ignoring case`() {
+        // Then
+        assertEquals(listOf("Tomato Soup", "Soupçon Burger"), search(MenuItemQuery(searchTerm = "SOUP")))
+        assertEquals(listOf("Caesar Salad"), search(MenuItemQuery(searchTerm = "aine wi")))
+        assertEquals(listOf("Tomato Soup"), search(MenuItemQuery(searchTerm = "roasted")))
+        assertEquals(emptyList<String>(), search(MenuItemQuery(searchTerm = "soup salad")))
+    }
+
+    @Test
+    fun `should match items with any of the dietary labels`() {
+        // When
+        val results = search(MenuItemQuery(dietaryInfo = setOf(DietaryInfo.GLUTEN_FREE, DietaryInfo.VEGETARIAN)))
+
+        // Then
+        assertEquals(listOf("Tomato Soup", "Caesar Salad"), results)
+        assertEquals(emptyList<String>(), search(MenuItemQuery(dietaryInfo = setOf(DietaryInfo.KOSHER))))
+    }
+
+    @Test
+    fun `should match items with any of the allergens and none of the excluded ones`() {
+        // Then
+        assertEquals(listOf("Brownie", "Caesar Salad"), search(MenuItemQuery(allergens = setOf("nuts", "EGG"))))
+        assertEquals(listOf("Tomato Soup"), search(MenuItemQuery(excludedAllergens = setOf("gluten", "egg"))))
+    }
+
+    @Test
+    fun `should include both ends of the price range`() {
+        // When
+        val results = search(MenuItemQuery(minPrice = BigDecimal("8.00"), maxPrice = BigDecimal("9.50")))
+
+        // Then
+        assertEquals(listOf("Tomato Soup", "Caesar Salad"), results)
+        assertEquals(emptyList<String>(), search(MenuItemQuery(minPrice = BigDecimal("20"))))
+    }
+
+    @Test
+    fun `should match only items passing every filter`() {
+        // When
+        val results = search(MenuItemQuery(
+            category = MenuItemCategory.MAIN_COURSE,
+            status = MenuItemStatus.AVAILABLE,
+            maxPrice = BigDecimal("10"),
+            tags = setOf("VEGAN")
+        ))
+
+        // Then
+        assertEquals(listOf("Tomato Soup"), results)
+        assertTrue(index.hasMatch(restaurantId, MenuItemQuery(category = MenuItemCategory.DESSERT)))
+        assertFalse(index.hasMatch(restaurantId, MenuItemQuery(category = MenuItemCategory.DESSERT, status = MenuItemStatus.AVAILABLE)))
+    }
+
+    @Test
+    fun `should apply committed item changes without reloading`() {
+        // Given
+        search(MenuItemQuery())
+
+        // When
+        index.onMenuItemChanged(MenuItemChangedEvent(restaurantId, brownie.id!!, null))
+        index.onMenuItemChanged(MenuItemChangedEvent(restaurantId, salad.id!!, salad.copy(price = BigDecimal("5.00")).toResponse()))
+
+        // Then
+        assertEquals(listOf("Caesar Salad", "Tomato Soup", "Soupçon Burger"), search(MenuItemQuery()))
+        verify(menuItemRepository, times(1)).findByRestaurantId(restaurantId)
+    }
+
+    @Test
+    fun `should not keep an index for a restaurant without items`() {
+        // Given
+        val unknown = UUID.randomUUID()
+
+        // When
+        index.search(unknown, MenuItemQuery())
+        index.search(unknown, MenuItemQuery())
+
+        // Then
+        verify(menuItemRepository, times(2)).findByRestaurantId(unknown)
+    }
+
+    private fun search(query: MenuItemQuery): List<String> = index.search(restaurantId, query).map { it.name }
+
+    private fun item(
+        name: String,
+        price: String,
+        category: MenuItemCategory = MenuItemCategory.MAIN_COURSE,
+        description: String? = null,
+        allergens: List<String> = listOf(),
+        tags: List<String> = listOf(),
+        status: MenuItemStatus = MenuItemStatus.AVAILABLE
+    ) = MenuItem(
+        id = UUID.randomUUID(),
+        restaurantId = restaurantId,
+        name = name,
+        description = description,
+        price = BigDecimal(price),
+        category = category,
+        status = status,
+        allergens = allergens,
+        tags = tags,
+        createdAt = LocalDateTime.now(),
+        updatedAt = LocalDateTime.now()
+    )
+}
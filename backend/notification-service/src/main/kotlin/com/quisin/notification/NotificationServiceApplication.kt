@@ -3,9 +3,11 @@ package com.quisin.notification
 import org.springframework.boot.autoconfigure.SpringBootApplication
 import org.springframework.boot.runApplication
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.springframework.scheduling.annotation.EnableScheduling
 
 @SpringBootApplication
 @EnableJpaRepositories
+@EnableScheduling
 class NotificationServiceApplication
 
 fun main(args: Array<String>) {
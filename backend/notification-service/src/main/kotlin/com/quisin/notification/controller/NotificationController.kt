@@ -51,6 +51,15 @@ class NotificationController(private val notificationService: NotificationServic
         return ResponseEntity.ok(response)
     }
 
+    @PostMapping("/preferences/filter")
+    @Operation(summary = "Filter recipients by preference", description = "Return the recipients who accept a notification type on a channel")
+    fun filterRecipients(
+        @RequestBody request: RecipientFilterRequest
+    ): ResponseEntity<RecipientFilterResponse> {
+        val response = notificationService.filterRecipients(request)
+        return ResponseEntity.ok(response)
+    }
+
     @PostMapping("/hail-waiter")
     @Operation(summary = "Hail a waiter", description = "Request a waiter for a specific table")
     fun hailWaiter(
@@ -4,8 +4,10 @@ import jakarta.persistence.*
 import org.springframework.data.annotation.CreatedDate
 import org.springframework.data.jpa.domain.support.AuditingEntityListener
 import java.time.LocalDateTime
+import java.util.EnumSet
 import java.util.UUID
 
+// Preferences store one bit per constant ordinal (see PreferenceBits): only ever append new constants
 enum class NotificationType {
     RESERVATION_CONFIRMATION,
     RESERVATION_REMINDER,
@@ -14,9 +16,12 @@ enum class NotificationType {
     SYSTEM_ALERT,
     FEEDBACK_REQUEST,
     HAIL_WAITER,  // New specific type for waiter requests
-    MENU_ITEM_AVAILABILITY
+    MENU_ITEM_AVAILABILITY,
+    LOW_STOCK,
+    OUT_OF_STOCK
 }
 
+// Preferences store one bit per constant ordinal (see PreferenceBits): only ever append new constants
 enum class NotificationChannel {
     EMAIL,
     SMS,
@@ -32,7 +37,10 @@ enum class NotificationStatus {
 }
 
 @Entity
-@Table(name = "notifications")
+@Table(
+    name = "notifications",
+    indexes = [Index(name = "idx_notifications_dispatch", columnList = "status, next_attempt_at")]
+)
 @EntityListeners(AuditingEntityListener::class)
 data class Notification(
     @Id
@@ -80,14 +88,25 @@ data class Notification(
     val createdAt: LocalDateTime? = null,
 
     @Column
-    val sentAt: LocalDateTime? = null,
+    var sentAt: LocalDateTime? = null,
 
     @Column
-    val readAt: LocalDateTime? = null
+    val readAt: LocalDateTime? = null,
+
+    // Delivery attempts so far; the dispatcher gives up at notification.dispatch.max-attempts
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    var attempts: Int = 0,
+
+    // When a PENDING notification is next due; also a lease on notifications already handed to a worker
+    @Column
+    var nextAttemptAt: LocalDateTime? = null
 )
 
 @Entity
-@Table(name = "notification_preferences")
+@Table(
+    name = "notification_preferences",
+    indexes = [Index(name = "idx_notification_preferences_user", columnList = "user_id")]
+)
 data class NotificationPreference(
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -96,19 +115,49 @@ data class NotificationPreference(
     @Column(nullable = false)
     val userId: UUID,
 
-    @ElementCollection
-    @CollectionTable(name = "user_notification_types", joinColumns = [JoinColumn(name = "preference_id")])
-    @Enumerated(EnumType.STRING)
-    val enabledNotificationTypes: Set<NotificationType> = setOf(),
+    // Enabled notification types, one bit each
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    val typeMask: Int = 0,
 
-    @ElementCollection
-    @CollectionTable(name = "user_notification_channels", joinColumns = [JoinColumn(name = "preference_id")])
-    @Enumerated(EnumType.STRING)
-    val preferredChannels: Set<NotificationChannel> = setOf(),
+    // Preferred channels, one bit each
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    val channelMask: Int = 0,
 
     @Column
     val receivePromotional: Boolean = false,
 
     @Column
     val receiveSystemAlerts: Boolean = true
-)
+) {
+    @get:Transient
+    val enabledNotificationTypes: Set<NotificationType>
+        get() = PreferenceBits.types(typeMask)
+
+    @get:Transient
+    val preferredChannels: Set<NotificationChannel>
+        get() = PreferenceBits.channels(channelMask)
+}
+
+/**
+ * Bitset encoding of notification preferences: bit `n` of a mask stands for the constant with
+ * ordinal `n`.
+ */
+object PreferenceBits {
+    // Every type and channel; what a user without stored preferences accepts
+    const val ALL = -1
+
+    fun of(type: NotificationType): Int = 1 shl type.ordinal
+
+    fun of(channel: NotificationChannel): Int = 1 shl channel.ordinal
+
+    fun typeMask(types: Collection<NotificationType>): Int = types.fold(0) { mask, type -> mask or of(type) }
+
+    fun channelMask(channels: Collection<NotificationChannel>): Int =
+        channels.fold(0) { mask, channel -> mask or of(channel) }
+
+    fun types(mask: Int): Set<NotificationType> =
+        NotificationType.values().filterTo(EnumSet.noneOf(NotificationType::class.java)) { mask and of(it) != 0 }
+
+    fun channels(mask: Int): Set<NotificationChannel> =
+        NotificationChannel.values().filterTo(EnumSet.noneOf(NotificationChannel::class.java)) { mask and of(it) != 0 }
+}
@@ -47,6 +47,16 @@ data class NotificationPreferenceResponse(
     val receiveSystemAlerts: Boolean
 )
 
+data class RecipientFilterRequest(
+    val recipientIds: List<UUID>,
+    val type: NotificationType,
+    val channel: NotificationChannel
+)
+
+data class RecipientFilterResponse(
+    val recipientIds: List<UUID>
+)
+
 data class SendBulkNotificationRequest(
     val recipientIds: List<UUID>,
     val type: NotificationType,
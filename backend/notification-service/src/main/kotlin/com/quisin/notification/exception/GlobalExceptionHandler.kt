@@ -1,5 +1,6 @@
 package com.quisin.notification.exception
 
+import com.quisin.notification.service.NotificationNotFoundException
 import com.quisin.notification.service.NotificationPreferenceException
 import com.quisin.notification.service.NotificationSendingException
 import org.springframework.http.HttpStatus
@@ -32,6 +33,19 @@ class GlobalExceptionHandler {
         return ResponseEntity(errorResponse, HttpStatus.BAD_REQUEST)
     }
 
+    @ExceptionHandler(NotificationNotFoundException::class)
+    fun handleNotificationNotFoundException(
+        ex: NotificationNotFoundException,
+        request: WebRequest
+    ): ResponseEntity<ErrorResponse> {
+        val errorResponse = ErrorResponse(
+            status = HttpStatus.NOT_FOUND,
+            message = "Notification Not Found",
+            details = ex.message ?: "No additional details"
+        )
+        return ResponseEntity(errorResponse, HttpStatus.NOT_FOUND)
+    }
+
     @ExceptionHandler(NotificationSendingException::class)
     fun handleNotificationSendingException(
         ex: NotificationSendingException,
@@ -1,12 +1,17 @@
 package com.quisin.notification.repository
 
 import com.quisin.notification.domain.Notification
-import com.quisin.notification.domain.NotificationChannel
 import com.quisin.notification.domain.NotificationPreference
 import com.quisin.notification.domain.NotificationStatus
 import com.quisin.notification.domain.NotificationType
+import jakarta.persistence.LockModeType
+import jakarta.persistence.QueryHint
+import org.springframework.data.domain.Pageable
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Lock
+import org.springframework.data.jpa.repository.Modifying
 import org.springframework.data.jpa.repository.Query
+import org.springframework.data.jpa.repository.QueryHints
 import org.springframework.data.repository.query.Param
 import org.springframework.stereotype.Repository
 import java.time.LocalDateTime
@@ -30,19 +35,88 @@ interface NotificationRepository : JpaRepository<Notification, UUID> {
         relatedEntityId: UUID, 
         relatedEntityType: String
     ): List<Notification>
+
+    // Lock timeout -2 is Hibernate's SKIP LOCKED, so instances polling together claim different rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT n FROM Notification n
+        WHERE n.status = :status AND n.nextAttemptAt <= :now
+        ORDER BY n.nextAttemptAt
+    """)
+    fun lockDue(
+        @Param("status") status: NotificationStatus,
+        @Param("now") now: LocalDateTime,
+        pageable: Pageable
+    ): List<Notification>
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.nextAttemptAt = :until WHERE n.id IN :ids")
+    fun lease(@Param("ids") ids: Collection<UUID>, @Param("until") until: LocalDateTime): Int
+
+    // Extends the lease only if nobody has taken the row over since it was read with `claimed`
+    @Modifying
+    @Query("""
+        UPDATE Notification n SET n.nextAttemptAt = :until
+        WHERE n.id = :id AND n.status = com.quisin.notification.domain.NotificationStatus.PENDING
+        AND n.nextAttemptAt = :claimed
+    """)
+    fun renewLease(
+        @Param("id") id: UUID,
+        @Param("claimed") claimed: LocalDateTime,
+        @Param("until") until: LocalDateTime
+    ): Int
+
+    @Modifying
+    @Query("""
+        UPDATE Notification n
+        SET n.status = com.quisin.notification.domain.NotificationStatus.SENT, n.sentAt = :now, n.nextAttemptAt = null
+        WHERE n.id IN :ids AND n.status = com.quisin.notification.domain.NotificationStatus.PENDING
+    """)
+    fun markSent(@Param("ids") ids: Collection<UUID>, @Param("now") now: LocalDateTime): Int
+
+    // Applies only while the row is still leased until `leasedUntil`, so a worker whose lease ran
+    // out cannot undo what the worker that took the row over has recorded
+    @Modifying
+    @Query("""
+        UPDATE Notification n SET n.status = :status, n.attempts = :attempts, n.nextAttemptAt = :nextAttemptAt
+        WHERE n.id = :id AND n.status = com.quisin.notification.domain.NotificationStatus.PENDING
+        AND n.nextAttemptAt = :leasedUntil
+    """)
+    fun recordFailedAttempt(
+        @Param("id") id: UUID,
+        @Param("leasedUntil") leasedUntil: LocalDateTime,
+        @Param("status") status: NotificationStatus,
+        @Param("attempts") attempts: Int,
+        @Param("nextAttemptAt") nextAttemptAt: LocalDateTime?
+    ): Int
+}
+
+/**
+ * Just the bitsets of a [NotificationPreference], for preference checks that need no entity.
+ */
+interface PreferenceMasks {
+    val userId: UUID
+    val typeMask: Int
+    val channelMask: Int
 }
 
 @Repository
 interface NotificationPreferenceRepository : JpaRepository<NotificationPreference, UUID> {
     fun findByUserId(userId: UUID): NotificationPreference?
 
-    @Query("""
-        SELECT np FROM NotificationPreference np 
-        WHERE :notificationType MEMBER OF np.enabledNotificationTypes 
-        AND :channel MEMBER OF np.preferredChannels
-    """)
-    fun findByNotificationTypeAndChannel(
-        @Param("notificationType") notificationType: NotificationType,
-        @Param("channel") channel: NotificationChannel
+    fun findMasksByUserIdIn(userIds: Collection<UUID>): List<PreferenceMasks>
+
+    // Bits come from PreferenceBits.of(type) and PreferenceBits.of(channel)
+    @Query(
+        value = """
+            SELECT * FROM notification_preferences
+            WHERE (type_mask & :typeBit) <> 0 AND (channel_mask & :channelBit) <> 0
+        """,
+        nativeQuery = true
+    )
+    fun findAccepting(
+        @Param("typeBit") typeBit: Int,
+        @Param("channelBit") channelBit: Int
     ): List<NotificationPreference>
 }
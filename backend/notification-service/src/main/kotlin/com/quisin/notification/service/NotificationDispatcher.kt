@@ -0,0 +1,196 @@
+package com.quisin.notification.service
+
+import com.quisin.notification.domain.Notification
+import com.quisin.notification.domain.NotificationChannel
+import com.quisin.notification.domain.NotificationStatus
+import com.quisin.notification.repository.NotificationRepository
+import jakarta.annotation.PreDestroy
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.data.domain.PageRequest
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
+import org.springframework.stereotype.Component
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
+import java.time.LocalDateTime
+import java.time.temporal.ChronoUnit
+import java.util.EnumMap
+import java.util.UUID
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * Delivers notifications outside the request that created them.
+ *
+ * The notifications table is the queue: a PENDING row with a due `nextAttemptAt` still needs
+ * sending. New rows are handed straight to a per-channel worker pool once their transaction
+ * commits, in batches of `notification.dispatch.batch-size`. Each pool has a bounded queue; when it
+ * is full the batch is simply left in the table, and the poller picks it up once its lease runs
+ * out, as it does for failed attempts and for work lost with a stopped instance. Failed sends are
+ * retried with exponential backoff up to `notification.dispatch.max-attempts`.
+ *
+ * A worker renews a row's lease just before sending it, and only if the lease is still the one it
+ * read. A row whose lease ran out while it sat in a queue, and was re-claimed by the poller, is
+ * therefore sent by one worker only. Each row is marked sent, or its failure recorded, as soon as
+ * its own send returns, so a long batch does not outlive the leases of the rows it sent first; a
+ * failure is only recorded while the worker still holds the lease.
+ */
+@Component
+class NotificationDispatcher(
+    private val notificationRepository: NotificationRepository,
+    private val emailService: EmailNotificationService,
+    private val smsService: SMSNotificationService,
+    private val pushNotificationService: PushNotificationService,
+    transactionManager: PlatformTransactionManager,
+    @Value("\${notification.dispatch.workers-per-channel:4}") workersPerChannel: Int,
+    @Value("\${notification.dispatch.queue-capacity:100}") queueCapacity: Int,
+    @Value("\${notification.dispatch.batch-size:100}") private val batchSize: Int,
+    @Value("\${notification.dispatch.max-attempts:5}") private val maxAttempts: Int,
+    @Value("\${notification.dispatch.retry-backoff:PT30S}") private val retryBackoff: Duration,
+    @Value("\${notification.dispatch.lease:PT2M}") private val lease: Duration,
+    @Value("\${notification.dispatch.poll-limit:1000}") private val pollLimit: Int
+) {
+    private val logger = LoggerFactory.getLogger(NotificationDispatcher::class.java)
+    private val transactionTemplate = TransactionTemplate(transactionManager)
+
+    private val workers = EnumMap<NotificationChannel, ThreadPoolExecutor>(NotificationChannel::class.java).apply {
+        NotificationChannel.values()
+            .filter { it != NotificationChannel.IN_APP }
+            .forEach { channel ->
+                put(channel, ThreadPoolExecutor(
+                    workersPerChannel, workersPerChannel, 0L, TimeUnit.MILLISECONDS,
+                    ArrayBlockingQueue(queueCapacity),
+                    CustomizableThreadFactory("notify-${channel.name.lowercase()}-"),
+                    ThreadPoolExecutor.AbortPolicy()
+                ))
+            }
+    }
+
+    /**
+     * Deadline to stamp on new notifications: if they have not been sent by then, the poller
+     * takes them over. Truncated to the column's precision, so it compares equal once stored.
+     */
+    fun leaseDeadline(): LocalDateTime = LocalDateTime.now().plus(lease).truncatedTo(ChronoUnit.MICROS)
+
+    /**
+     * Hands saved notifications to the workers once the current transaction commits.
+     */
+    fun dispatchAfterCommit(notifications: List<Notification>) {
+        val pending = notifications.filter { it.status == NotificationStatus.PENDING }
+        if (pending.isEmpty()) {
+            return
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submitAll(pending)
+            return
+        }
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCommit() {
+                submitAll(pending)
+            }
+        })
+    }
+
+    @Scheduled(fixedDelayString = "\${notification.dispatch.poll-interval:PT15S}")
+    fun dispatchDue() {
+        val claimed = transactionTemplate.execute {
+            val due = notificationRepository.lockDue(
+                NotificationStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, pollLimit))
+            if (due.isNotEmpty()) {
+                notificationRepository.lease(due.map { it.id!! }, leaseDeadline())
+            }
+            due
+        } ?: emptyList()
+        if (claimed.isNotEmpty()) {
+            logger.info("Re-dispatching {} due notifications", claimed.size)
+            submitAll(claimed)
+        }
+    }
+
+    private fun submitAll(notifications: List<Notification>) {
+        notifications.groupBy { it.channel }.forEach { (channel, byChannel) ->
+            val executor = workers[channel] ?: return@forEach
+            for ((index, batch) in byChannel.chunked(batchSize).withIndex()) {
+                val ids = batch.map { it.id!! }
+                try {
+                    executor.execute { deliver(channel, ids) }
+                } catch (e: RejectedExecutionException) {
+                    // Backpressure: the rest stays PENDING in the table until its lease expires
+                    logger.warn("{} queue is full, deferring {} notifications to the poller",
+                        channel, byChannel.size - index * batchSize)
+                    break
+                }
+            }
+        }
+    }
+
+    private fun deliver(channel: NotificationChannel, ids: List<UUID>) {
+        val notifications = notificationRepository.findAllById(ids)
+            .filter { it.status == NotificationStatus.PENDING }
+        notifications.forEach { notification ->
+            val leasedUntil = renewLease(notification)
+            if (leasedUntil == null) {
+                logger.debug("{} notification {} was taken over by another worker", channel, notification.id)
+                return@forEach
+            }
+            try {
+                send(channel, notification)
+            } catch (e: Exception) {
+                logger.warn("Failed to send {} notification {}: {}", channel, notification.id, e.message)
+                recordFailure(notification, leasedUntil)
+                return@forEach
+            }
+            transactionTemplate.executeWithoutResult {
+                notificationRepository.markSent(listOf(notification.id!!), LocalDateTime.now())
+            }
+        }
+    }
+
+    // Returns the renewed deadline, or null if the row's lease is no longer the one it was read with
+    private fun renewLease(notification: Notification): LocalDateTime? {
+        val claimed = notification.nextAttemptAt ?: return null
+        val until = leaseDeadline()
+        val updated = transactionTemplate.execute {
+            notificationRepository.renewLease(notification.id!!, claimed, until)
+        }
+        return if (updated == 1) until else null
+    }
+
+    private fun recordFailure(notification: Notification, leasedUntil: LocalDateTime) {
+        val attempts = notification.attempts + 1
+        val recorded = transactionTemplate.execute {
+            if (attempts >= maxAttempts) {
+                notificationRepository.recordFailedAttempt(
+                    notification.id!!, leasedUntil, NotificationStatus.FAILED, attempts, null)
+            } else {
+                val backoff = retryBackoff.multipliedBy(1L shl (attempts - 1).coerceAtMost(20))
+                notificationRepository.recordFailedAttempt(
+                    notification.id!!, leasedUntil, NotificationStatus.PENDING, attempts, LocalDateTime.now().plus(backoff))
+            }
+        }
+        if (recorded != 1) {
+            logger.debug("Lease on notification {} ran out before its failure was recorded", notification.id)
+        }
+    }
+
+    private fun send(channel: NotificationChannel, notification: Notification) {
+        when (channel) {
+            NotificationChannel.EMAIL -> emailService.sendEmail(notification)
+            NotificationChannel.SMS -> smsService.sendSMS(notification)
+            NotificationChannel.PUSH_NOTIFICATION -> pushNotificationService.sendPushNotification(notification)
+            NotificationChannel.IN_APP -> Unit
+        }
+    }
+
+    @PreDestroy
+    fun shutdown() {
+        workers.values.forEach { it.shutdown() }
+        workers.values.forEach { it.awaitTermination(10, TimeUnit.SECONDS) }
+    }
+}
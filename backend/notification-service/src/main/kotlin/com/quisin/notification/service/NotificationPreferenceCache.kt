@@ -0,0 +1,121 @@
+package com.quisin.notification.service
+
+import com.quisin.notification.domain.NotificationChannel
+import com.quisin.notification.domain.NotificationPreference
+import com.quisin.notification.domain.NotificationType
+import com.quisin.notification.domain.PreferenceBits
+import com.quisin.notification.repository.NotificationPreferenceRepository
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.time.Duration
+import java.util.Collections
+import java.util.UUID
+
+/**
+ * In-memory copy of users' preference bitsets.
+ *
+ * Misses are loaded in one `IN` query per chunk of recipients, and users without stored
+ * preferences are cached too, as accepting everything. Preferences changed on this instance are
+ * written through once their transaction commits; changes made elsewhere show up within
+ * `notification.preferences.cache.ttl`.
+ */
+@Component
+class NotificationPreferenceCache(
+    private val notificationPreferenceRepository: NotificationPreferenceRepository,
+    @Value("\${notification.preferences.cache.ttl:PT5M}") ttl: Duration,
+    @Value("\${notification.preferences.cache.maximum-size:100000}") private val maximumSize: Int
+) {
+    class Masks(val typeMask: Int, val channelMask: Int) {
+        fun accepts(typeBit: Int, channelBit: Int): Boolean =
+            typeMask and typeBit != 0 && channelMask and channelBit != 0
+    }
+
+    private class CachedMasks(val masks: Masks, val loadedAt: Long)
+
+    private val ttlNanos = ttl.toNanos()
+
+    private val entries: MutableMap<UUID, CachedMasks> = Collections.synchronizedMap(
+        object : LinkedHashMap<UUID, CachedMasks>(16, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<UUID, CachedMasks>): Boolean = size > maximumSize
+        }
+    )
+
+    fun accepts(recipientId: UUID, type: NotificationType, channel: NotificationChannel): Boolean =
+        masksFor(listOf(recipientId)).getValue(recipientId)
+            .accepts(PreferenceBits.of(type), PreferenceBits.of(channel))
+
+    /**
+     * The recipients, in the given order, who accept `type` notifications on `channel`.
+     */
+    fun filterRecipients(
+        recipientIds: Collection<UUID>,
+        type: NotificationType,
+        channel: NotificationChannel
+    ): List<UUID> {
+        val masks = masksFor(recipientIds)
+        val typeBit = PreferenceBits.of(type)
+        val channelBit = PreferenceBits.of(channel)
+        return recipientIds.filter { masks.getValue(it).accepts(typeBit, channelBit) }
+    }
+
+    fun masksFor(recipientIds: Collection<UUID>): Map<UUID, Masks> {
+        val startedAt = System.nanoTime()
+        val masks = HashMap<UUID, Masks>(recipientIds.size * 2)
+        val misses = LinkedHashSet<UUID>()
+        for (recipientId in recipientIds) {
+            if (recipientId in masks || recipientId in misses) {
+                continue
+            }
+            val entry = entries[recipientId]
+            if (entry != null && startedAt - entry.loadedAt < ttlNanos) {
+                masks[recipientId] = entry.masks
+            } else {
+                misses += recipientId
+            }
+        }
+
+        misses.chunked(LOOKUP_CHUNK).forEach { chunk ->
+            val loaded = notificationPreferenceRepository.findMasksByUserIdIn(chunk).associateBy { it.userId }
+            synchronized(entries) {
+                chunk.forEach { recipientId ->
+                    val found = loaded[recipientId]?.let { Masks(it.typeMask, it.channelMask) } ?: ALL
+                    masks[recipientId] = found
+                    // Don't overwrite a write-through that committed while this chunk was loading
+                    val current = entries[recipientId]
+                    if (current == null || current.loadedAt <= startedAt) {
+                        entries[recipientId] = CachedMasks(found, startedAt)
+                    }
+                }
+            }
+        }
+        return masks
+    }
+
+    /**
+     * Replaces the cached bitsets for the user once the current transaction commits.
+     */
+    fun update(preference: NotificationPreference) {
+        val masks = Masks(preference.typeMask, preference.channelMask)
+        val write = Runnable { entries[preference.userId] = CachedMasks(masks, System.nanoTime()) }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run()
+            return
+        }
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCompletion(status: Int) {
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    write.run()
+                } else {
+                    entries.remove(preference.userId)
+                }
+            }
+        })
+    }
+
+    private companion object {
+        const val LOOKUP_CHUNK = 1000
+        val ALL = Masks(PreferenceBits.ALL, PreferenceBits.ALL)
+    }
+}
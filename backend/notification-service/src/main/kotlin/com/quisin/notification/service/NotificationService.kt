@@ -4,10 +4,7 @@ import com.quisin.notification.domain.*
 import com.quisin.notification.dto.*
 import com.quisin.notification.repository.NotificationPreferenceRepository
 import com.quisin.notification.repository.NotificationRepository
-import com.quisin.restaurant.domain.Table
-import com.quisin.restaurant.domain.TableRepository
-import com.quisin.restaurant.domain.Restaurant
-import com.quisin.restaurant.domain.RestaurantRepository
+import org.springframework.data.repository.findByIdOrNull
 import org.springframework.stereotype.Service
 import org.springframework.transaction.annotation.Transactional
 import java.time.LocalDateTime
@@ -17,27 +14,18 @@ import java.util.UUID
 class NotificationService(
     private val notificationRepository: NotificationRepository,
     private val notificationPreferenceRepository: NotificationPreferenceRepository,
-    private val emailService: EmailNotificationService,
-    private val smsService: SMSNotificationService,
-    private val pushNotificationService: PushNotificationService,
-    private val tableRepository: TableRepository,
-    private val restaurantRepository: RestaurantRepository
+    private val notificationPreferenceCache: NotificationPreferenceCache,
+    private val notificationDispatcher: NotificationDispatcher
 ) {
     @Transactional
     fun createNotification(request: CreateNotificationRequest): NotificationResponse {
-        // Check user notification preferences
-        val preferences = notificationPreferenceRepository.findByUserId(request.recipientId)
-        
         // Validate if notification type and channel are enabled
-        if (preferences != null) {
-            if (!preferences.enabledNotificationTypes.contains(request.type) ||
-                !preferences.preferredChannels.contains(request.channel)) {
-                throw NotificationPreferenceException("Notification type or channel is not enabled")
-            }
+        if (!notificationPreferenceCache.accepts(request.recipientId, request.type, request.channel)) {
+            throw NotificationPreferenceException("Notification type or channel is not enabled")
         }
 
-        // Create notification entity
-        val notification = Notification(
+        // Create notification entity; it is sent by the dispatcher once this transaction commits
+        val notification = newNotification(
             recipientId = request.recipientId,
             recipientEmail = request.recipientEmail,
             recipientPhone = request.recipientPhone,
@@ -51,55 +39,69 @@ class NotificationService(
         )
 
         val savedNotification = notificationRepository.save(notification)
-
-        // Send notification based on channel
-        sendNotification(savedNotification)
+        notificationDispatcher.dispatchAfterCommit(listOf(savedNotification))
 
         return mapToNotificationResponse(savedNotification)
     }
 
+    /**
+     * Creates one notification per recipient and requested channel the recipient accepts, in a
+     * single batched insert, and leaves delivery to the dispatcher.
+     */
     @Transactional
     fun sendBulkNotification(request: SendBulkNotificationRequest) {
-        request.recipientIds.forEach { recipientId ->
-            val bulkRequest = CreateNotificationRequest(
-                recipientId = recipientId,
-                type = request.type,
-                channel = request.channels.first(), // For simplicity, using first channel
-                message = request.message,
-                title = request.title
-            )
-            createNotification(bulkRequest)
+        val recipientIds = request.recipientIds.distinct()
+        val preferences = notificationPreferenceCache.masksFor(recipientIds)
+        val typeBit = PreferenceBits.of(request.type)
+
+        val notifications = recipientIds.flatMap { recipientId ->
+            val recipientPreferences = preferences.getValue(recipientId)
+            request.channels
+                .filter { channel -> recipientPreferences.accepts(typeBit, PreferenceBits.of(channel)) }
+                .map { channel ->
+                    newNotification(
+                        recipientId = recipientId,
+                        type = request.type,
+                        channel = channel,
+                        message = request.message,
+                        title = request.title
+                    )
+                }
         }
-    }
 
-    private fun sendNotification(notification: Notification) {
-        try {
-            when (notification.channel) {
-                NotificationChannel.EMAIL -> 
-                    emailService.sendEmail(notification)
-                NotificationChannel.SMS -> 
-                    smsService.sendSMS(notification)
-                NotificationChannel.PUSH_NOTIFICATION -> 
-                    pushNotificationService.sendPushNotification(notification)
-                NotificationChannel.IN_APP -> 
-                    saveInAppNotification(notification)
-            }
-            
-            // Update notification status
-            notification.status = NotificationStatus.SENT
-            notification.sentAt = LocalDateTime.now()
-            notificationRepository.save(notification)
-        } catch (e: Exception) {
-            // Handle notification sending failure
-            notification.status = NotificationStatus.FAILED
-            notificationRepository.save(notification)
-            throw NotificationSendingException("Failed to send notification: ${e.message}")
-        }
+        val savedNotifications = notificationRepository.saveAll(notifications)
+        notificationDispatcher.dispatchAfterCommit(savedNotifications)
     }
 
-    private fun saveInAppNotification(notification: Notification) {
-        // For in-app notifications, just save to database
-        // Frontend will query and display these notifications
+    // In-app notifications are delivered by being stored; everything else waits for the dispatcher
+    private fun newNotification(
+        recipientId: UUID,
+        recipientEmail: String? = null,
+        recipientPhone: String? = null,
+        type: NotificationType,
+        channel: NotificationChannel,
+        message: String,
+        title: String? = null,
+        additionalDetails: String? = null,
+        relatedEntityId: UUID? = null,
+        relatedEntityType: String? = null
+    ): Notification {
+        val inApp = channel == NotificationChannel.IN_APP
+        return Notification(
+            recipientId = recipientId,
+            recipientEmail = recipientEmail,
+            recipientPhone = recipientPhone,
+            type = type,
+            channel = channel,
+            message = message,
+            title = title,
+            additionalDetails = additionalDetails,
+            relatedEntityId = relatedEntityId,
+            relatedEntityType = relatedEntityType,
+            status = if (inApp) NotificationStatus.SENT else NotificationStatus.PENDING,
+            sentAt = if (inApp) LocalDateTime.now() else null,
+            nextAttemptAt = if (inApp) null else notificationDispatcher.leaseDeadline()
+        )
     }
 
     @Transactional
@@ -108,10 +110,10 @@ class NotificationService(
             ?: NotificationPreference(userId = request.userId)
 
         val updatedPreferences = existingPreferences.copy(
-            enabledNotificationTypes = request.enabledNotificationTypes 
-                ?: existingPreferences.enabledNotificationTypes,
-            preferredChannels = request.preferredChannels 
-                ?: existingPreferences.preferredChannels,
+            typeMask = request.enabledNotificationTypes?.let { PreferenceBits.typeMask(it) }
+                ?: existingPreferences.typeMask,
+            channelMask = request.preferredChannels?.let { PreferenceBits.channelMask(it) }
+                ?: existingPreferences.channelMask,
             receivePromotional = request.receivePromotional 
                 ?: existingPreferences.receivePromotional,
             receiveSystemAlerts = request.receiveSystemAlerts 
@@ -119,6 +121,7 @@ class NotificationService(
         )
 
         val savedPreferences = notificationPreferenceRepository.save(updatedPreferences)
+        notificationPreferenceCache.update(savedPreferences)
 
         return NotificationPreferenceResponse(
             userId = savedPreferences.userId,
@@ -129,6 +132,16 @@ class NotificationService(
         )
     }
 
+    /**
+     * Narrows a fan-out to the recipients who accept the notification type on the channel.
+     */
+    fun filterRecipients(request: RecipientFilterRequest): RecipientFilterResponse {
+        return RecipientFilterResponse(
+            recipientIds = notificationPreferenceCache.filterRecipients(
+                request.recipientIds.distinct(), request.type, request.channel)
+        )
+    }
+
     fun getUserNotifications(userId: UUID, status: NotificationStatus? = null): List<NotificationResponse> {
         val notifications = status?.let { 
             notificationRepository.findByRecipientIdAndStatus(userId, it)
@@ -151,42 +164,37 @@ class NotificationService(
         )
     }
 
+    /**
+     * Alerts the restaurant's staff, who receive in-app notifications addressed to the restaurant
+     * id, that a table wants a waiter. Tables and restaurants live in the restaurant service, so
+     * the request is trusted as given.
+     */
+    @Transactional
     fun hailWaiter(
         tableId: UUID, 
         restaurantId: UUID, 
         userId: UUID, 
         reason: String? = null
     ): NotificationResponse {
-        // Validate table and restaurant
-        val table = tableRepository.findByIdOrNull(tableId) 
-            ?: throw NotFoundException("Table not found")
-        
-        val restaurant = restaurantRepository.findByIdOrNull(restaurantId)
-            ?: throw NotFoundException("Restaurant not found")
-        
-        // Create notification for staff
-        val staffNotification = CreateNotificationRequest(
-            recipientId = restaurant.managerId, // Assuming restaurant has a manager ID
+        val notification = newNotification(
+            recipientId = restaurantId,
             type = NotificationType.HAIL_WAITER,
             channel = NotificationChannel.IN_APP,
-            message = "Waiter requested at Table ${table.tableNumber} in ${restaurant.name}. " + 
-                      (reason?.let { "Reason: $it" } ?: ""),
-            metadata = mapOf(
-                "tableId" to tableId.toString(),
-                "userId" to userId.toString(),
-                "restaurantId" to restaurantId.toString()
-            )
+            message = "Waiter requested at table $tableId" + (reason?.let { ". Reason: $it" } ?: ""),
+            additionalDetails = "userId=$userId",
+            relatedEntityId = tableId,
+            relatedEntityType = "TABLE"
         )
 
-        // Send notification and return response
-        return createNotification(staffNotification)
+        return mapToNotificationResponse(notificationRepository.save(notification))
     }
 
+    @Transactional
     fun resolveWaiterRequest(notificationId: UUID) {
         val notification = notificationRepository.findByIdOrNull(notificationId)
-            ?: throw NotFoundException("Notification not found")
+            ?: throw NotificationNotFoundException("Notification not found")
         
-        notification.status = NotificationStatus.RESOLVED
+        notification.status = NotificationStatus.READ
         notificationRepository.save(notification)
     }
 }
@@ -219,3 +227,4 @@ class PushNotificationService {
 // Custom Exceptions
 class NotificationPreferenceException(message: String) : RuntimeException(message)
 class NotificationSendingException(message: String) : RuntimeException(message)
+class NotificationNotFoundException(message: String) : RuntimeException(message)
@@ -0,0 +1,39 @@
+-- Copies preferences from the old user_notification_types and user_notification_channels collection
+-- tables into the bitset columns of notification_preferences. Bit n stands for the constant with
+-- ordinal n (see PreferenceBits), so the arrays below must list the constants in declaration order.
+--
+-- The old tables are left in place, as instances of the previous release still read them; a later
+-- release drops them. Only rows whose mask is still 0 are filled in, so running this again changes
+-- nothing.
+DO $$
+BEGIN
+    IF to_regclass('notification_preferences') IS NULL THEN
+        -- A new database: Hibernate creates the table with its masks
+        RETURN;
+    END IF;
+
+    ALTER TABLE notification_preferences ADD COLUMN IF NOT EXISTS type_mask integer NOT NULL DEFAULT 0;
+    ALTER TABLE notification_preferences ADD COLUMN IF NOT EXISTS channel_mask integer NOT NULL DEFAULT 0;
+
+    IF to_regclass('user_notification_types') IS NOT NULL THEN
+        UPDATE notification_preferences p
+        SET type_mask = (
+            SELECT COALESCE(SUM(DISTINCT 1 << (array_position(ARRAY['RESERVATION_CONFIRMATION', 'RESERVATION_REMINDER', 'ORDER_STATUS', 'PROMOTIONAL', 'SYSTEM_ALERT',
+                'FEEDBACK_REQUEST', 'HAIL_WAITER', 'MENU_ITEM_AVAILABILITY', 'LOW_STOCK', 'OUT_OF_STOCK'], c.enabled_notification_types) - 1)), 0)
+            FROM user_notification_types c
+            WHERE c.preference_id = p.id
+        )
+        WHERE p.type_mask = 0 AND EXISTS (SELECT 1 FROM user_notification_types c WHERE c.preference_id = p.id);
+    END IF;
+
+    IF to_regclass('user_notification_channels') IS NOT NULL THEN
+        UPDATE notification_preferences p
+        SET channel_mask = (
+            SELECT COALESCE(SUM(DISTINCT 1 << (array_position(ARRAY['EMAIL', 'SMS', 'PUSH_NOTIFICATION', 'IN_APP'], c.preferred_channels) - 1)), 0)
+            FROM user_notification_channels c
+            WHERE c.preference_id = p.id
+        )
+        WHERE p.channel_mask = 0 AND EXISTS (SELECT 1 FROM user_notification_channels c WHERE c.preference_id = p.id);
+    END IF;
+END
+$$;
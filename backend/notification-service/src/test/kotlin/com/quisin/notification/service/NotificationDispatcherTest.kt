@@ -0,0 +1,222 @@
+package com.quisin.notification.service
+
+import com.quisin.notification.anyOf
+import com.quisin.notification.domain.Notification
+import com.quisin.notification.domain.NotificationChannel
+import com.quisin.notification.domain.NotificationStatus
+import com.quisin.notification.domain.NotificationType
+import com.quisin.notification.repository.NotificationRepository
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.*
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionDefinition
+import org.springframework.transaction.support.SimpleTransactionStatus
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+
+class NotificationDispatcherTest {
+
+    private lateinit var emailService: EmailNotificationService
+    private lateinit var transactionManager: PlatformTransactionManager
+    private lateinit var notificationRepository: NotificationRepository
+
+    // The notifications table; workers only ever see copies of its rows, as they would read them
+    private val rows = mutableMapOf<UUID, Notification>()
+    private var afterRead: () -> Unit = {}
+
+    @BeforeEach
+    fun setup() {
+        emailService = mock(EmailNotificationService::class.java)
+        transactionManager = mock(PlatformTransactionManager::class.java)
+        `when`(transactionManager.getTransaction(anyOf(TransactionDefinition::class.java))).thenReturn(SimpleTransactionStatus())
+        notificationRepository = mock(NotificationRepository::class.java) { invocation ->
+            synchronized(rows) {
+                when (invocation.method.name) {
+                    "findAllById" -> invocation.getArgument<Iterable<UUID>>(0).mapNotNull { rows[it]?.copy() }
+                        .also { afterRead() }
+                    "renewLease" -> rows.getValue(invocation.getArgument(0)).let { row ->
+                        if (row.status == NotificationStatus.PENDING && row.nextAttemptAt == invocation.getArgument(1)) {
+                            row.nextAttemptAt = invocation.getArgument(2)
+                            1
+                        } else 0
+                    }
+                    "markSent" -> invocation.getArgument<Collection<UUID>>(0).map { rows.getValue(it) }
+                        .filter { it.status == NotificationStatus.PENDING }
+                        .onEach {
+                            it.status = NotificationStatus.SENT
+                            it.sentAt = invocation.getArgument(1)
+                            it.nextAttemptAt = null
+                        }.size
+                    "recordFailedAttempt" -> rows.getValue(invocation.getArgument(0)).let { row ->
+                        if (row.status == NotificationStatus.PENDING && row.nextAttemptAt == invocation.getArgument(1)) {
+                            row.status = invocation.getArgument(2)
+                            row.attempts = invocation.getArgument(3)
+                            row.nextAttemptAt = invocation.getArgument(4)
+                            1
+                        } else 0
+                    }
+                    else -> RETURNS_DEFAULTS.answer(invocation)
+                }
+            }
+        }
+    }
+
+    @Test
+    fun `should send a notification handed to the workers twice only once`() {
+        // Given
+        val dispatcher = dispatcher(workers = 2)
+        val notification = stored()
+
+        // When
+        dispatcher.dispatchAfterCommit(listOf(notification))
+        dispatcher.dispatchAfterCommit(listOf(notification))
+        dispatcher.shutdown()
+
+        // Then
+        verify(emailService, times(1)).sendEmail(anyOf(Notification::class.java))
+        assertEquals(NotificationStatus.SENT, rows.getValue(notification.id!!).status)
+    }
+
+    @Test
+    fun `should not send a notification the poller took over while it waited in the queue`() {
+        // Given
+        val dispatcher = dispatcher()
+        val notification = stored()
+        val reclaimed = LocalDateTime.now().plusHours(1)
+        afterRead = { rows.getValue(notification.id!!).nextAttemptAt = reclaimed }
+
+        // When
+        dispatcher.dispatchAfterCommit(listOf(notification))
+        dispatcher.shutdown()
+
+        // Then
+        verify(emailService, never()).sendEmail(anyOf(Notification::class.java))
+        assertEquals(NotificationStatus.PENDING, rows.getValue(notification.id!!).status)
+        assertEquals(reclaimed, rows.getValue(notification.id!!).nextAttemptAt)
+    }
+
+    @Test
+    fun `should mark each notification sent before the next send of its batch starts`() {
+        // Given
+        val dispatcher = dispatcher()
+        val first = stored()
+        val second = stored()
+        val statusOfFirstDuringSecondSend = mutableListOf<NotificationStatus>()
+        doAnswer {
+            if (it.getArgument<Notification>(0).id == second.id) {
+                statusOfFirstDuringSecondSend += rows.getValue(first.id!!).status
+            }
+        }.`when`(emailService).sendEmail(anyOf(Notification::class.java))
+
+        // When
+        dispatcher.dispatchAfterCommit(listOf(first, second))
+        dispatcher.shutdown()
+
+        // Then
+        assertEquals(listOf(NotificationStatus.SENT), statusOfFirstDuringSecondSend)
+        assertEquals(NotificationStatus.SENT, rows.getValue(second.id!!).status)
+    }
+
+    @Test
+    fun `should leave a notification whose lease expired mid-send to the worker that took it over`() {
+        // Given
+        val dispatcher = dispatcher()
+        val notification = stored()
+        val reclaimed = LocalDateTime.now().plusHours(1)
+        doAnswer {
+            // The send outlives the lease, and the poller re-claims the row before it fails
+            rows.getValue(notification.id!!).nextAttemptAt = reclaimed
+            throw IllegalStateException("SMTP timeout")
+        }.`when`(emailService).sendEmail(anyOf(Notification::class.java))
+
+        // When
+        dispatcher.dispatchAfterCommit(listOf(notification))
+        dispatcher.shutdown()
+
+        // Then
+        val row = rows.getValue(notification.id!!)
+        assertEquals(NotificationStatus.PENDING, row.status)
+        assertEquals(0, row.attempts)
+        assertEquals(reclaimed, row.nextAttemptAt)
+    }
+
+    @Test
+    fun `should not reopen a notification another worker sent after this worker's lease expired`() {
+        // Given
+        val dispatcher = dispatcher()
+        val notification = stored()
+        doAnswer {
+            rows.getValue(notification.id!!).apply {
+                status = NotificationStatus.SENT
+                nextAttemptAt = null
+            }
+            throw IllegalStateException("SMTP timeout")
+        }.`when`(emailService).sendEmail(anyOf(Notification::class.java))
+
+        // When
+        dispatcher.dispatchAfterCommit(listOf(notification))
+        dispatcher.shutdown()
+
+        // Then
+        assertEquals(NotificationStatus.SENT, rows.getValue(notification.id!!).status)
+    }
+
+    @Test
+    fun `should back off a failed send and give up after the last attempt`() {
+        // Given
+        val dispatcher = dispatcher()
+        val retried = stored()
+        val exhausted = stored(attempts = 4)
+        doThrow(IllegalStateException("SMTP timeout")).`when`(emailService).sendEmail(anyOf(Notification::class.java))
+        val before = LocalDateTime.now()
+
+        // When
+        dispatcher.dispatchAfterCommit(listOf(retried, exhausted))
+        dispatcher.shutdown()
+
+        // Then
+        rows.getValue(retried.id!!).let {
+            assertEquals(NotificationStatus.PENDING, it.status)
+            assertEquals(1, it.attempts)
+            assertFalse(it.nextAttemptAt!!.isBefore(before.plusSeconds(30)))
+        }
+        rows.getValue(exhausted.id!!).let {
+            assertEquals(NotificationStatus.FAILED, it.status)
+            assertEquals(5, it.attempts)
+            assertNull(it.nextAttemptAt)
+        }
+    }
+
+    private fun dispatcher(workers: Int = 1) = NotificationDispatcher(
+        notificationRepository,
+        emailService,
+        mock(SMSNotificationService::class.java),
+        mock(PushNotificationService::class.java),
+        transactionManager,
+        workersPerChannel = workers,
+        queueCapacity = 10,
+        batchSize = 10,
+        maxAttempts = 5,
+        retryBackoff = Duration.ofSeconds(30),
+        lease = Duration.ofMinutes(2),
+        pollLimit = 100
+    )
+
+    private fun stored(attempts: Int = 0): Notification {
+        val notification = Notification(
+            id = UUID.randomUUID(),
+            recipientId = UUID.randomUUID(),
+            recipientEmail = "guest@example.com",
+            type = NotificationType.values().first(),
+            channel = NotificationChannel.EMAIL,
+            message = "Your table is ready",
+            attempts = attempts,
+            nextAttemptAt = LocalDateTime.now().plusMinutes(2)
+        )
+        rows[notification.id!!] = notification.copy()
+        return notification
+    }
+}
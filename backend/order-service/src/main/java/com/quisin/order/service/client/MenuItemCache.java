@@ -0,0 +1,153 @@
+package com.quisin.order.service.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Two-tier cache for menu items resolved from menu-service: a bounded in-process
+ * tier in front of the shared Redis cache, both keyed by menu item id. Entries are
+ * evicted from both tiers when menu-service publishes a change for the item or its menu.
+ */
+@Component
+@Slf4j
+public class MenuItemCache {
+    public static final String CACHE_NAME = "menuItems";
+
+    private final Cache<UUID, MenuItemResponse> localCache;
+    private final org.springframework.cache.Cache remoteCache;
+
+    public MenuItemCache(CacheManager cacheManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${menu.cache.local.maximum-size:10000}") long maximumSize,
+                         @Value("${menu.cache.local.ttl:PT2M}") Duration ttl) {
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.remoteCache = cacheManager.getCache(CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, CACHE_NAME + ".local");
+    }
+
+    /**
+     * Returns the requested menu items, loading only the ones missing from both tiers
+     * through {@code loader} in a single call. Items the loader doesn't return are left out.
+     */
+    public List<MenuItemResponse> getAll(List<UUID> menuItemIds,
+                                         Function<List<UUID>, List<MenuItemResponse>> loader) {
+        Map<UUID, MenuItemResponse> found = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+
+        for (UUID menuItemId : menuItemIds) {
+            MenuItemResponse menuItem = localCache.getIfPresent(menuItemId);
+            if (menuItem == null) {
+                menuItem = getRemote(menuItemId);
+                if (menuItem != null) {
+                    localCache.put(menuItemId, menuItem);
+                }
+            }
+            if (menuItem != null) {
+                found.put(menuItemId, menuItem);
+            } else {
+                missing.add(menuItemId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<MenuItemResponse> loaded = loader.apply(missing);
+            if (loaded != null) {
+                for (MenuItemResponse menuItem : loaded) {
+                    if (menuItem != null && menuItem.getId() != null) {
+                        found.put(menuItem.getId(), menuItem);
+                        put(menuItem);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Returns the menu item, or null if neither tier has it and {@code loader} finds nothing.
+     */
+    public MenuItemResponse get(UUID menuItemId, Function<UUID, MenuItemResponse> loader) {
+        List<MenuItemResponse> menuItems = getAll(List.of(menuItemId), ids -> {
+            MenuItemResponse menuItem = loader.apply(menuItemId);
+            return menuItem != null ? List.of(menuItem) : List.of();
+        });
+        return menuItems.isEmpty() ? null : menuItems.get(0);
+    }
+
+    public void evict(UUID menuItemId) {
+        localCache.invalidate(menuItemId);
+        try {
+            if (remoteCache != null) {
+                remoteCache.evict(menuItemId.toString());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to evict menu item {} from Redis: {}", menuItemId, e.getMessage());
+        }
+    }
+
+    /**
+     * Evicts the restaurant's items from both tiers. Redis can't be searched by restaurant,
+     * so it is cleared entirely; restaurant-wide menu changes are rare.
+     */
+    public void evictRestaurant(UUID restaurantId) {
+        localCache.asMap().values().removeIf(menuItem -> restaurantId.equals(menuItem.getRestaurantId()));
+        clearRemote();
+    }
+
+    public void evictAll() {
+        localCache.invalidateAll();
+        clearRemote();
+    }
+
+    private void put(MenuItemResponse menuItem) {
+        // Fallback responses carry no price; caching them would pin an outage into the cache
+        if (menuItem.getPrice() == null) {
+            return;
+        }
+        localCache.put(menuItem.getId(), menuItem);
+        try {
+            if (remoteCache != null) {
+                remoteCache.put(menuItem.getId().toString(), menuItem);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to write menu item {} to Redis: {}", menuItem.getId(), e.getMessage());
+        }
+    }
+
+    private MenuItemResponse getRemote(UUID menuItemId) {
+        try {
+            return remoteCache != null ? remoteCache.get(menuItemId.toString(), MenuItemResponse.class) : null;
+        } catch (RuntimeException e) {
+            log.warn("Unable to read menu item {} from Redis: {}", menuItemId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void clearRemote() {
+        try {
+            if (remoteCache != null) {
+                remoteCache.clear();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to clear menu items from Redis: {}", e.getMessage());
+        }
+    }
+}
@@ -1,23 +1,35 @@
 package com.quisin.order.service.client;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class MenuItemResponse {
-    private Long id;
-    private Long restaurantId;
+    public static final String STATUS_AVAILABLE = "AVAILABLE";
+
+    private UUID id;
+    private UUID restaurantId;
     private String name;
     private String description;
     private BigDecimal price;
-    private Boolean available;
+    // AVAILABLE, OUT_OF_STOCK or DISCONTINUED
+    private String status;
     private String category;
     private String imageUrl;
-} 
\ No newline at end of file
+
+    @JsonIgnore
+    public boolean isAvailable() {
+        return STATUS_AVAILABLE.equals(status);
+    }
+}
@@ -3,9 +3,27 @@ package com.quisin.order.service.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+import java.util.UUID;
 
 @FeignClient(name = "menu-service", fallback = MenuServiceFallback.class)
 public interface MenuServiceClient {
-    @GetMapping("/api/v1/restaurants/{restaurantId}/menu-items/{menuItemId}")
-    MenuItemResponse getMenuItem(@PathVariable("restaurantId") Long restaurantId, @PathVariable("menuItemId") Long menuItemId);
-} 
\ No newline at end of file
+    // The menu service serves its APIs under its /api context path
+    @GetMapping("/api/api/menu-items/{menuItemId}")
+    MenuItemResponse getMenuItem(@PathVariable("menuItemId") UUID menuItemId);
+
+    @PostMapping("/api/api/menu-items/restaurant/{restaurantId}/batch")
+    List<MenuItemResponse> getMenuItems(@PathVariable("restaurantId") UUID restaurantId, @RequestBody List<UUID> menuItemIds);
+
+    @PostMapping("/api/api/inventory/reservations")
+    StockReservationResponse reserveStock(@RequestBody StockReservationRequest request);
+
+    @PostMapping("/api/api/inventory/reservations/{reservationId}/commit")
+    StockReservationResponse commitStockReservation(@PathVariable("reservationId") UUID reservationId);
+
+    @PostMapping("/api/api/inventory/reservations/{reservationId}/release")
+    StockReservationResponse releaseStockReservation(@PathVariable("reservationId") UUID reservationId);
+}
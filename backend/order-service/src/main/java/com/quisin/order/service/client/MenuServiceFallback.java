@@ -1,21 +1,56 @@
 package com.quisin.order.service.client;
 
+import com.quisin.order.service.exception.StockReservationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
 @Component
 @Slf4j
 public class MenuServiceFallback implements MenuServiceClient {
     @Override
-    public MenuItemResponse getMenuItem(Long restaurantId, Long menuItemId) {
-        log.error("Fallback: Unable to get menu item with ID {} for restaurant {}", menuItemId, restaurantId);
+    public MenuItemResponse getMenuItem(UUID menuItemId) {
+        log.error("Fallback: Unable to get menu item with ID {}", menuItemId);
+        return unavailableItem(null, menuItemId);
+    }
+
+    @Override
+    public List<MenuItemResponse> getMenuItems(UUID restaurantId, List<UUID> menuItemIds) {
+        log.error("Fallback: Unable to get menu items {} for restaurant {}", menuItemIds, restaurantId);
+        return menuItemIds.stream()
+                .map(menuItemId -> unavailableItem(restaurantId, menuItemId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public StockReservationResponse reserveStock(StockReservationRequest request) {
+        log.error("Fallback: Unable to reserve stock for {}", request.getReference());
+        throw new StockReservationException("Stock could not be reserved, please try again");
+    }
+
+    @Override
+    public StockReservationResponse commitStockReservation(UUID reservationId) {
+        log.error("Fallback: Unable to commit stock reservation {}", reservationId);
+        throw new StockReservationException("Stock reservation could not be committed, please try again");
+    }
+
+    @Override
+    public StockReservationResponse releaseStockReservation(UUID reservationId) {
+        // The reservation expires on its own
+        log.error("Fallback: Unable to release stock reservation {}", reservationId);
+        return null;
+    }
+
+    private MenuItemResponse unavailableItem(UUID restaurantId, UUID menuItemId) {
         return MenuItemResponse.builder()
                 .id(menuItemId)
                 .restaurantId(restaurantId)
                 .name("Unavailable Item")
                 .description("This item is currently unavailable")
                 .price(null)
-                .available(false)
                 .build();
     }
-} 
\ No newline at end of file
+}
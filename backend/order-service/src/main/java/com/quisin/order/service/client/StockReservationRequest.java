@@ -0,0 +1,30 @@
+package com.quisin.order.service.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+    // Generated here and stored on the order, so a retried reservation finds the first one
+    private UUID id;
+    private UUID restaurantId;
+    private String reference;
+    private List<Line> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private UUID menuItemId;
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,23 @@
+package com.quisin.order.service.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StockReservationResponse {
+    private UUID id;
+    private String reference;
+    // HELD, COMMITTED, RELEASED or EXPIRED
+    private String status;
+    private LocalDateTime expiresAt;
+}
@@ -1,5 +1,6 @@
 package com.quisin.order.service.config;
 
+import com.quisin.order.service.client.MenuItemCache;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,6 +31,8 @@ public class CacheConfig {
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                .withCacheConfiguration(MenuItemCache.CACHE_NAME, config.entryTtl(Duration.ofMinutes(10)))
+                .enableStatistics()
                 .build();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.quisin.order.service.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quisin.order.service.client.MenuItemCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Slf4j
+@Configuration
+public class EventConfig {
+
+    @Bean
+    public Consumer<Message<String>> menuEvents(MenuItemCache menuItemCache, ObjectMapper objectMapper) {
+        return message -> {
+            String eventType = message.getHeaders().get("eventType", String.class);
+            try {
+                JsonNode event = objectMapper.readTree(message.getPayload());
+                UUID restaurantId = parseId(event.path("restaurantId"));
+                UUID menuItemId = parseId(event.path("itemId"));
+                log.debug("Received menu event {} for restaurant {} item {}", eventType, restaurantId, menuItemId);
+
+                if (menuItemId != null) {
+                    menuItemCache.evict(menuItemId);
+                } else if (event.hasNonNull("itemId")) {
+                    // An item id that isn't a UUID can't be matched to an entry
+                    menuItemCache.evictAll();
+                } else if (restaurantId != null) {
+                    menuItemCache.evictRestaurant(restaurantId);
+                } else {
+                    menuItemCache.evictAll();
+                }
+            } catch (Exception e) {
+                log.warn("Unable to process menu event {}, clearing menu item cache: {}", eventType, e.getMessage());
+                menuItemCache.evictAll();
+            }
+        };
+    }
+
+    private UUID parseId(JsonNode node) {
+        if (node.isMissingNode() || node.isNull()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(node.asText());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/orders")
@@ -68,7 +69,7 @@ public class OrderController {
     @GetMapping("/restaurant/{restaurantId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAITER', 'KITCHEN_STAFF')")
     public ResponseEntity<Page<OrderResponse>> getRestaurantOrders(
-            @PathVariable Long restaurantId,
+            @PathVariable UUID restaurantId,
             Pageable pageable) {
         return ResponseEntity.ok(orderService.getRestaurantOrders(restaurantId, pageable));
     }
@@ -90,7 +91,7 @@ public class OrderController {
     @GetMapping("/restaurant/{restaurantId}/by-status")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAITER', 'KITCHEN_STAFF')")
     public ResponseEntity<Page<OrderResponse>> getRestaurantOrdersByStatus(
-            @PathVariable Long restaurantId,
+            @PathVariable UUID restaurantId,
             @RequestParam List<String> statuses,
             Pageable pageable) {
         return ResponseEntity.ok(orderService.getRestaurantOrdersByStatus(restaurantId, statuses, pageable));
@@ -108,10 +109,20 @@ public class OrderController {
     @GetMapping("/restaurant/{restaurantId}/by-date")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAITER', 'KITCHEN_STAFF')")
     public ResponseEntity<Page<OrderResponse>> getRestaurantOrdersByDateRange(
-            @PathVariable Long restaurantId,
+            @PathVariable UUID restaurantId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             Pageable pageable) {
         return ResponseEntity.ok(orderService.getRestaurantOrdersByDateRange(restaurantId, startDate, endDate, pageable));
     }
+
+    @GetMapping("/restaurant/{restaurantId}/customers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAITER', 'KITCHEN_STAFF')")
+    public ResponseEntity<Page<CustomerOrderSummary>> getRestaurantCustomerSummaries(
+            @PathVariable UUID restaurantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            Pageable pageable) {
+        return ResponseEntity.ok(orderService.getRestaurantCustomerSummaries(restaurantId, startDate, endDate, pageable));
+    }
 } 
\ No newline at end of file
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.util.List;
+import java.util.UUID;
 
 @Data
 @Builder
@@ -15,7 +16,7 @@ import java.util.List;
 @AllArgsConstructor
 public class CreateOrderRequest {
     @NotNull
-    private Long restaurantId;
+    private UUID restaurantId;
 
     @NotNull
     private Long customerId;
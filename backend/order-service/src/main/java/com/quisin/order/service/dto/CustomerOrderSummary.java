@@ -0,0 +1,21 @@
+package com.quisin.order.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A customer's orders at one restaurant within a date range, totalled.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderSummary {
+    private Long customerId;
+    private Long orderCount;
+    private BigDecimal totalSpent;
+    private LocalDateTime lastOrderAt;
+}
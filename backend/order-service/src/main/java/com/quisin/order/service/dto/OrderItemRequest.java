@@ -7,13 +7,15 @@ import lombok.NoArgsConstructor;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.UUID;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderItemRequest {
     @NotNull
-    private Long menuItemId;
+    private UUID menuItemId;
 
     @NotNull
     @Min(1)
@@ -8,14 +8,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.UUID;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderEvent {
+    // Stored with the outbox payload, so every redelivery of the event carries the same id
+    private String eventId;
     private Long orderId;
-    private Long restaurantId;
+    private UUID restaurantId;
     private Long customerId;
     private Long waiterId;
     private OrderStatus status;
@@ -27,7 +30,7 @@ public class OrderEvent {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class OrderItemEvent {
-        private Long menuItemId;
+        private UUID menuItemId;
         private String menuItemName;
         private Integer quantity;
         private BigDecimal unitPrice;
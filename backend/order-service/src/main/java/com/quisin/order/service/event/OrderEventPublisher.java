@@ -1,24 +1,35 @@
 package com.quisin.order.service.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quisin.order.service.exception.OrderEventPublishingException;
 import com.quisin.order.service.model.Order;
-import com.quisin.order.service.model.OrderItem;
+import com.quisin.order.service.model.OrderOutboxEvent;
+import com.quisin.order.service.repository.OrderOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * Records order events in the outbox table as part of the caller's transaction.
+ * {@link OrderOutboxRelay} delivers them to the broker once the transaction has committed.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventPublisher {
-    private final StreamBridge streamBridge;
-    private static final String OUTPUT_BINDING = "orderEvents-out-0";
+    private final OrderOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishOrderEvent(Order order) {
         OrderEvent event = OrderEvent.builder()
+                .eventId(UUID.randomUUID().toString())
                 .orderId(order.getId())
                 .restaurantId(order.getRestaurantId())
                 .customerId(order.getCustomerId())
@@ -38,17 +49,15 @@ public class OrderEventPublisher {
                 .build();
 
         try {
-            log.info("Publishing order event for order ID: {}", order.getId());
-            boolean sent = streamBridge.send(OUTPUT_BINDING, event);
-            if (sent) {
-                log.info("Successfully published order event for order ID: {}", order.getId());
-            } else {
-                log.error("Failed to publish order event for order ID: {}", order.getId());
-                throw new OrderEventPublishingException("Failed to publish order event for order ID: " + order.getId());
-            }
-        } catch (Exception e) {
-            log.error("Error publishing order event for order ID: {}", order.getId(), e);
-            throw new OrderEventPublishingException("Error publishing order event: " + e.getMessage());
+            outboxRepository.save(OrderOutboxEvent.builder()
+                    .orderId(order.getId())
+                    .orderStatus(order.getStatus())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+            log.debug("Recorded order event in outbox for order ID: {}", order.getId());
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing order event for order ID: {}", order.getId(), e);
+            throw new OrderEventPublishingException("Error serializing order event: " + e.getMessage(), e);
         }
     }
-} 
\ No newline at end of file
+}
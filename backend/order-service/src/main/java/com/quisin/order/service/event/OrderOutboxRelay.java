@@ -0,0 +1,213 @@
+package com.quisin.order.service.event;
+
+import com.quisin.order.service.model.OrderOutboxEvent;
+import com.quisin.order.service.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the order outbox to Kafka in batches, keeping each order's events in sequence (at least once).
+ *
+ * A batch is claimed with a short lease in its own transaction, so no row lock is held while talking
+ * to Kafka. Orders that still have events leased to another relay are left out of the claim, as are
+ * any of their later events. The claimed events are then sent in rounds: each round sends the next
+ * event of every order and waits for the acks, so an order's next event only goes out once the
+ * previous one is acknowledged, and an order's sends stop at its first failure. Only events that
+ * were acknowledged are marked published; the rest are released for the next run.
+ */
+@Component
+@Slf4j
+public class OrderOutboxRelay {
+    private final OrderOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimLease;
+    private final Duration retention;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public OrderOutboxRelay(OrderOutboxRepository outboxRepository,
+                            @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.outbox.topic:order-events}") String topic,
+                            @Value("${order.outbox.batch-size:200}") int batchSize,
+                            @Value("${order.outbox.send-timeout:PT10S}") Duration sendTimeout,
+                            @Value("${order.outbox.claim-lease:PT2M}") Duration claimLease,
+                            @Value("${order.outbox.retention:P1D}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimLease = claimLease;
+        this.retention = retention;
+
+        Gauge.builder("order.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Order events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.lag", oldestPendingAgeMillis, age -> age.get() / 1000.0)
+                .description("Age of the oldest unpublished order event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("order.outbox.published").register(meterRegistry);
+        this.failedCounter = Counter.builder("order.outbox.failed").register(meterRegistry);
+        this.batchTimer = Timer.builder("order.outbox.batch").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay-interval:500}")
+    public void relay() {
+        List<OrderOutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch != null && !batch.isEmpty()) {
+            batchTimer.record(() -> publishBatch(batch));
+        }
+        updateLag();
+    }
+
+    @Scheduled(cron = "${order.outbox.cleanup-cron:0 0 * * * *}")
+    @Transactional
+    public void purgePublished() {
+        int deleted = outboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} published order events from the outbox", deleted);
+        }
+    }
+
+    private List<OrderOutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        // Blocks on rows another relay is claiming, and skips them once that claim has committed
+        List<OrderOutboxEvent> candidates = outboxRepository.findClaimableForUpdate(now, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        // Read after the lock above, so it sees the claims of the relay it waited for
+        Set<Long> leasedOrders = new HashSet<>(outboxRepository.findOrderIdsWithActiveClaims(
+                candidates.stream().map(OrderOutboxEvent::getOrderId).collect(Collectors.toSet()), now));
+
+        List<OrderOutboxEvent> claimed = candidates.stream()
+                .filter(event -> !leasedOrders.contains(event.getOrderId()))
+                .collect(Collectors.toList());
+        if (!claimed.isEmpty()) {
+            outboxRepository.claim(claimed.stream().map(OrderOutboxEvent::getId).collect(Collectors.toList()),
+                    now.plus(claimLease));
+        }
+        return claimed;
+    }
+
+    private void publishBatch(List<OrderOutboxEvent> batch) {
+        // Events of each order, in outbox order
+        Map<Long, Deque<OrderOutboxEvent>> byOrder = new LinkedHashMap<>();
+        for (OrderOutboxEvent event : batch) {
+            byOrder.computeIfAbsent(event.getOrderId(), orderId -> new ArrayDeque<>()).add(event);
+        }
+
+        Set<Long> published = new HashSet<>();
+        while (!byOrder.isEmpty()) {
+            Map<OrderOutboxEvent, CompletableFuture<SendResult<String, String>>> round = new LinkedHashMap<>();
+            for (Deque<OrderOutboxEvent> events : byOrder.values()) {
+                OrderOutboxEvent event = events.peekFirst();
+                round.put(event, send(event));
+            }
+            kafkaTemplate.flush();
+
+            List<Long> acknowledged = new ArrayList<>(round.size());
+            for (Map.Entry<OrderOutboxEvent, CompletableFuture<SendResult<String, String>>> send : round.entrySet()) {
+                OrderOutboxEvent event = send.getKey();
+                Deque<OrderOutboxEvent> events = byOrder.get(event.getOrderId());
+                try {
+                    send.getValue().get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                    acknowledged.add(event.getId());
+                    publishedCounter.increment();
+                    events.removeFirst();
+                    if (events.isEmpty()) {
+                        byOrder.remove(event.getOrderId());
+                    }
+                } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    // The order's later events stay unsent, and are released below for the next run
+                    byOrder.remove(event.getOrderId());
+                    recordFailure(event, e);
+                }
+            }
+
+            // Marked after every round, so a relay that dies mid-batch resends as little as possible
+            if (!acknowledged.isEmpty()) {
+                LocalDateTime publishedAt = LocalDateTime.now();
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.markPublished(acknowledged, publishedAt));
+                published.addAll(acknowledged);
+            }
+        }
+
+        List<Long> unsent = batch.stream()
+                .map(OrderOutboxEvent::getId)
+                .filter(id -> !published.contains(id))
+                .collect(Collectors.toList());
+        if (!unsent.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseClaims(unsent));
+        }
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OrderOutboxEvent event) {
+        try {
+            return kafkaTemplate.send(topic, event.getOrderId().toString(), event.getPayload());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void recordFailure(OrderOutboxEvent event, Exception e) {
+        failedCounter.increment();
+        log.error("Failed to publish outbox event {} for order ID: {}", event.getId(), event.getOrderId(), e);
+        transactionTemplate.executeWithoutResult(status ->
+                outboxRepository.recordFailure(event.getId(), truncate(e.getMessage())));
+    }
+
+    private String truncate(String message) {
+        return message != null && message.length() > 255 ? message.substring(0, 255) : message;
+    }
+
+    private void updateLag() {
+        pendingEvents.set(outboxRepository.countByPublishedAtIsNull());
+        oldestPendingAgeMillis.set(outboxRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,11 @@
+package com.quisin.order.service.exception;
+
+public class StockReservationException extends RuntimeException {
+    public StockReservationException(String message) {
+        super(message);
+    }
+
+    public StockReservationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
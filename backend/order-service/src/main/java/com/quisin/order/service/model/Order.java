@@ -9,9 +9,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_stock_commit_pending", columnList = "stock_commit_pending, updated_at")
+})
 @Getter
 @Setter
 @Builder(toBuilder = true)
@@ -25,7 +28,7 @@ public class Order {
     private Long id;
 
     @Column(name = "restaurant_id", nullable = false)
-    private Long restaurantId;
+    private UUID restaurantId;
 
     @Column(name = "customer_id", nullable = false)
     private Long customerId;
@@ -75,6 +78,14 @@ public class Order {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // Stock held for the order by the menu service; null for orders placed before reservations
+    @Column(name = "stock_reservation_id")
+    private UUID stockReservationId;
+
+    // Set while the menu service has yet to confirm the reservation's commit
+    @Column(name = "stock_commit_pending")
+    private Boolean stockCommitPending;
+
     public void addOrderItem(OrderItem item) {
         items.add(item);
         item.setOrder(this);
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 @Entity
 @Table(name = "order_items")
@@ -24,7 +25,7 @@ public class OrderItem {
     private Order order;
 
     @Column(name = "menu_item_id", nullable = false)
-    private Long menuItemId;
+    private UUID menuItemId;
 
     @Column(name = "menu_item_name", nullable = false)
     private String menuItemName;
@@ -0,0 +1,57 @@
+package com.quisin.order.service.repository;
+
+import com.quisin.order.service.model.OrderOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+    // Locked only while the batch is claimed; concurrent relays wait here and then skip what was claimed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT e FROM OrderOutboxEvent e
+            WHERE e.publishedAt IS NULL AND (e.claimedUntil IS NULL OR e.claimedUntil < :now)
+            ORDER BY e.id ASC
+            """)
+    List<OrderOutboxEvent> findClaimableForUpdate(LocalDateTime now, Pageable pageable);
+
+    @Query("""
+            SELECT DISTINCT e.orderId FROM OrderOutboxEvent e
+            WHERE e.orderId IN :orderIds AND e.publishedAt IS NULL AND e.claimedUntil >= :now
+            """)
+    List<Long> findOrderIdsWithActiveClaims(Collection<Long> orderIds, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.claimedUntil = :claimedUntil WHERE e.id IN :ids")
+    int claim(Collection<Long> ids, LocalDateTime claimedUntil);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.publishedAt = :publishedAt, e.claimedUntil = NULL WHERE e.id IN :ids")
+    int markPublished(Collection<Long> ids, LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.claimedUntil = NULL WHERE e.id IN :ids")
+    int releaseClaims(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :lastError WHERE e.id = :id")
+    int recordFailure(Long id, String lastError);
+
+    long countByPublishedAtIsNull();
+
+    Optional<OrderOutboxEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+
+    @Modifying
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(LocalDateTime cutoff);
+}
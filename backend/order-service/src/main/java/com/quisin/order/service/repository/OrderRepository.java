@@ -1,37 +1,62 @@
 package com.quisin.order.service.repository;
 
+import com.quisin.order.service.dto.CustomerOrderSummary;
 import com.quisin.order.service.model.Order;
 import com.quisin.order.service.model.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByCustomerId(Long customerId, Pageable pageable);
     
-    Page<Order> findByRestaurantId(Long restaurantId, Pageable pageable);
+    Page<Order> findByRestaurantId(UUID restaurantId, Pageable pageable);
     
     Page<Order> findByWaiterId(Long waiterId, Pageable pageable);
     
     List<Order> findByGroupOrderId(Long groupOrderId);
     
     @Query("SELECT o FROM Order o WHERE o.restaurantId = :restaurantId AND o.status IN :statuses")
-    Page<Order> findByRestaurantIdAndStatusIn(Long restaurantId, List<OrderStatus> statuses, Pageable pageable);
+    Page<Order> findByRestaurantIdAndStatusIn(UUID restaurantId, List<OrderStatus> statuses, Pageable pageable);
     
     @Query("SELECT o FROM Order o WHERE o.waiterId = :waiterId AND o.status IN :statuses")
     Page<Order> findByWaiterIdAndStatusIn(Long waiterId, List<OrderStatus> statuses, Pageable pageable);
     
     @Query("SELECT o FROM Order o WHERE o.restaurantId = :restaurantId AND o.createdAt BETWEEN :startDate AND :endDate")
-    Page<Order> findByRestaurantIdAndDateRange(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
-    
-    Optional<Order> findByIdAndRestaurantId(Long id, Long restaurantId);
+    Page<Order> findByRestaurantIdAndDateRange(UUID restaurantId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+
+    @Query(value = """
+            SELECT new com.quisin.order.service.dto.CustomerOrderSummary(
+                o.customerId, COUNT(o), SUM(o.totalAmount), MAX(o.createdAt))
+            FROM Order o
+            WHERE o.restaurantId = :restaurantId AND o.createdAt BETWEEN :startDate AND :endDate
+            GROUP BY o.customerId
+            ORDER BY o.customerId
+            """,
+            countQuery = """
+            SELECT COUNT(DISTINCT o.customerId) FROM Order o
+            WHERE o.restaurantId = :restaurantId AND o.createdAt BETWEEN :startDate AND :endDate
+            """)
+    Page<CustomerOrderSummary> summarizeCustomersByRestaurantIdAndDateRange(UUID restaurantId, LocalDateTime startDate,
+                                                                           LocalDateTime endDate, Pageable pageable);
+    
+    Optional<Order> findByIdAndRestaurantId(Long id, UUID restaurantId);
     
     Optional<Order> findByIdAndCustomerId(Long id, Long customerId);
+
+    @Query("SELECT o FROM Order o WHERE o.stockCommitPending = true AND o.updatedAt < :cutoff ORDER BY o.updatedAt ASC")
+    List<Order> findStockCommitPending(LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.stockCommitPending = false WHERE o.id = :orderId")
+    int clearStockCommitPending(Long orderId);
 } 
\ No newline at end of file
@@ -3,10 +3,13 @@ package com.quisin.order.service.service;
 import com.quisin.order.service.client.MenuItemResponse;
 import com.quisin.order.service.dto.OrderItemRequest;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public interface MenuValidationService {
-    void validateMenuItems(Long restaurantId, List<OrderItemRequest> items);
-    void validateMenuItemAvailability(Long restaurantId, OrderItemRequest item);
-    void validateRestaurantMenuItems(Long restaurantId, List<OrderItemRequest> items);
-    MenuItemResponse getMenuItem(Long restaurantId, Long menuItemId);
-} 
\ No newline at end of file
+    void validateMenuItems(UUID restaurantId, List<OrderItemRequest> items);
+    void validateMenuItemAvailability(UUID restaurantId, OrderItemRequest item);
+    void validateRestaurantMenuItems(UUID restaurantId, List<OrderItemRequest> items);
+    MenuItemResponse getMenuItem(UUID restaurantId, UUID menuItemId);
+    Map<UUID, MenuItemResponse> resolveMenuItems(UUID restaurantId, List<OrderItemRequest> items);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 public interface OrderService {
     OrderResponse createOrder(CreateOrderRequest request);
@@ -20,15 +21,17 @@ public interface OrderService {
     
     Page<OrderResponse> getCustomerOrders(Long customerId, Pageable pageable);
     
-    Page<OrderResponse> getRestaurantOrders(Long restaurantId, Pageable pageable);
+    Page<OrderResponse> getRestaurantOrders(UUID restaurantId, Pageable pageable);
     
     Page<OrderResponse> getWaiterOrders(Long waiterId, Pageable pageable);
     
     List<OrderResponse> getGroupOrders(Long groupOrderId);
     
-    Page<OrderResponse> getRestaurantOrdersByStatus(Long restaurantId, List<String> statuses, Pageable pageable);
+    Page<OrderResponse> getRestaurantOrdersByStatus(UUID restaurantId, List<String> statuses, Pageable pageable);
     
     Page<OrderResponse> getWaiterOrdersByStatus(Long waiterId, List<String> statuses, Pageable pageable);
     
-    Page<OrderResponse> getRestaurantOrdersByDateRange(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+    Page<OrderResponse> getRestaurantOrdersByDateRange(UUID restaurantId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+
+    Page<CustomerOrderSummary> getRestaurantCustomerSummaries(UUID restaurantId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 } 
\ No newline at end of file
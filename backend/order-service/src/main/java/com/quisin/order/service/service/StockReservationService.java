@@ -0,0 +1,9 @@
+package com.quisin.order.service.service;
+
+import com.quisin.order.service.model.Order;
+
+public interface StockReservationService {
+    void reserve(Order order);
+    void commit(Order order);
+    void release(Order order);
+}
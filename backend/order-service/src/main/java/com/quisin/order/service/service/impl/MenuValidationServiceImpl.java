@@ -1,5 +1,6 @@
 package com.quisin.order.service.service.impl;
 
+import com.quisin.order.service.client.MenuItemCache;
 import com.quisin.order.service.client.MenuServiceClient;
 import com.quisin.order.service.client.MenuItemResponse;
 import com.quisin.order.service.dto.OrderItemRequest;
@@ -9,46 +10,78 @@ import com.quisin.order.service.exception.RestaurantMenuItemMismatchException;
 import com.quisin.order.service.service.MenuValidationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MenuValidationServiceImpl implements MenuValidationService {
     private final MenuServiceClient menuServiceClient;
+    private final MenuItemCache menuItemCache;
 
     @Override
-    public void validateMenuItems(Long restaurantId, List<OrderItemRequest> items) {
-        for (OrderItemRequest item : items) {
-            MenuItemResponse menuItem = menuServiceClient.getMenuItem(restaurantId, item.getMenuItemId());
-            if (!menuItem.getAvailable()) {
-                throw new MenuItemNotAvailableException("Menu item with ID " + item.getMenuItemId() + " is not available");
-            }
+    public void validateMenuItems(UUID restaurantId, List<OrderItemRequest> items) {
+        resolveMenuItems(restaurantId, items);
+    }
+
+    @Override
+    public void validateMenuItemAvailability(UUID restaurantId, OrderItemRequest item) {
+        MenuItemResponse menuItem = getMenuItem(restaurantId, item.getMenuItemId());
+        if (menuItem == null) {
+            throw new MenuItemNotFoundException("Menu item with ID " + item.getMenuItemId() + " not found");
+        }
+        if (!menuItem.isAvailable()) {
+            throw new MenuItemNotAvailableException("Menu item with ID " + item.getMenuItemId() + " is not available");
+        }
+    }
+
+    @Override
+    public void validateRestaurantMenuItems(UUID restaurantId, List<OrderItemRequest> items) {
+        for (MenuItemResponse menuItem : fetchMenuItems(restaurantId, items).values()) {
             if (!menuItem.getRestaurantId().equals(restaurantId)) {
-                throw new RestaurantMenuItemMismatchException("Menu item with ID " + item.getMenuItemId() + " does not belong to restaurant " + restaurantId);
+                throw new RestaurantMenuItemMismatchException("Menu item with ID " + menuItem.getId() + " does not belong to restaurant " + restaurantId);
             }
         }
     }
 
     @Override
-    public void validateMenuItemAvailability(Long restaurantId, OrderItemRequest item) {
-        MenuItemResponse menuItem = menuServiceClient.getMenuItem(restaurantId, item.getMenuItemId());
-        if (!menuItem.getAvailable()) {
-            throw new MenuItemNotAvailableException("Menu item with ID " + item.getMenuItemId() + " is not available");
-        }
+    public MenuItemResponse getMenuItem(UUID restaurantId, UUID menuItemId) {
+        return menuItemCache.get(menuItemId, menuServiceClient::getMenuItem);
     }
 
     @Override
-    public void validateRestaurantMenuItems(Long restaurantId, List<OrderItemRequest> items) {
+    public Map<UUID, MenuItemResponse> resolveMenuItems(UUID restaurantId, List<OrderItemRequest> items) {
+        Map<UUID, MenuItemResponse> menuItems = fetchMenuItems(restaurantId, items);
         for (OrderItemRequest item : items) {
-            MenuItemResponse menuItem = menuServiceClient.getMenuItem(restaurantId, item.getMenuItemId());
+            MenuItemResponse menuItem = menuItems.get(item.getMenuItemId());
+            if (menuItem == null) {
+                throw new MenuItemNotFoundException("Menu item with ID " + item.getMenuItemId() + " not found");
+            }
+            if (!menuItem.isAvailable()) {
+                throw new MenuItemNotAvailableException("Menu item with ID " + item.getMenuItemId() + " is not available");
+            }
             if (!menuItem.getRestaurantId().equals(restaurantId)) {
                 throw new RestaurantMenuItemMismatchException("Menu item with ID " + item.getMenuItemId() + " does not belong to restaurant " + restaurantId);
             }
         }
+        return menuItems;
     }
 
-    @Override
-    public MenuItemResponse getMenuItem(Long restaurantId, Long menuItemId) {
-        return menuServiceClient.getMenuItem(restaurantId, menuItemId);
+    private Map<UUID, MenuItemResponse> fetchMenuItems(UUID restaurantId, List<OrderItemRequest> items) {
+        List<UUID> menuItemIds = items.stream()
+                .map(OrderItemRequest::getMenuItemId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<UUID, MenuItemResponse> menuItems = new HashMap<>();
+        List<MenuItemResponse> resolved = menuItemCache.getAll(menuItemIds,
+                missing -> menuServiceClient.getMenuItems(restaurantId, missing));
+        for (MenuItemResponse menuItem : resolved) {
+            menuItems.put(menuItem.getId(), menuItem);
+        }
+        return menuItems;
     }
-} 
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.quisin.order.service.service.impl;
 
+import com.quisin.order.service.client.MenuItemResponse;
 import com.quisin.order.service.dto.*;
 import com.quisin.order.service.event.OrderEventPublisher;
 import com.quisin.order.service.model.*;
@@ -7,6 +8,7 @@ import com.quisin.order.service.repository.OrderItemRepository;
 import com.quisin.order.service.repository.OrderRepository;
 import com.quisin.order.service.service.MenuValidationService;
 import com.quisin.order.service.service.OrderService;
+import com.quisin.order.service.service.StockReservationService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +20,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,11 +32,13 @@ public class OrderServiceImpl implements OrderService {
     private final OrderItemRepository orderItemRepository;
     private final MenuValidationService menuValidationService;
     private final OrderEventPublisher eventPublisher;
+    private final StockReservationService stockReservationService;
 
     @Override
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
-        menuValidationService.validateMenuItems(request.getRestaurantId(), request.getItems());
+        Map<UUID, MenuItemResponse> menuItems =
+                menuValidationService.resolveMenuItems(request.getRestaurantId(), request.getItems());
 
         Order order = Order.builder()
                 .restaurantId(request.getRestaurantId())
@@ -44,11 +50,12 @@ public class OrderServiceImpl implements OrderService {
                 .groupOrderId(request.getGroupOrderId())
                 .isWaiterAssignmentRequested(request.getIsWaiterAssignmentRequested())
                 .waiterAssignmentStatus(request.getIsWaiterAssignmentRequested() ? WaiterAssignmentStatus.PENDING : null)
+                .stockReservationId(UUID.randomUUID())
                 .build();
 
         BigDecimal totalAmount = BigDecimal.ZERO;
         for (OrderItemRequest itemRequest : request.getItems()) {
-            var menuItem = menuValidationService.getMenuItem(request.getRestaurantId(), itemRequest.getMenuItemId());
+            MenuItemResponse menuItem = menuItems.get(itemRequest.getMenuItemId());
             OrderItem item = OrderItem.builder()
                     .menuItemId(itemRequest.getMenuItemId())
                     .menuItemName(menuItem.getName())
@@ -64,6 +71,7 @@ public class OrderServiceImpl implements OrderService {
 
         order.setTotalAmount(totalAmount);
         Order savedOrder = orderRepository.save(order);
+        stockReservationService.reserve(savedOrder);
         eventPublisher.publishOrderEvent(savedOrder);
         return mapOrderToResponse(savedOrder);
     }
@@ -85,6 +93,9 @@ public class OrderServiceImpl implements OrderService {
         order.setStatus(request.getStatus());
         if (request.getStatus() == OrderStatus.COMPLETED) {
             order.setCompletedAt(LocalDateTime.now());
+            stockReservationService.commit(order);
+        } else if (request.getStatus() == OrderStatus.CANCELLED) {
+            stockReservationService.release(order);
         }
         
         Order updatedOrder = orderRepository.save(order);
@@ -117,6 +128,7 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + orderId));
         
         order.setStatus(OrderStatus.CANCELLED);
+        stockReservationService.release(order);
         Order cancelledOrder = orderRepository.save(order);
         eventPublisher.publishOrderEvent(cancelledOrder);
     }
@@ -130,7 +142,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getRestaurantOrders(Long restaurantId, Pageable pageable) {
+    public Page<OrderResponse> getRestaurantOrders(UUID restaurantId, Pageable pageable) {
         return orderRepository.findByRestaurantId(restaurantId, pageable)
                 .map(this::mapOrderToResponse);
     }
@@ -153,7 +165,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getRestaurantOrdersByStatus(Long restaurantId, List<String> statuses, Pageable pageable) {
+    public Page<OrderResponse> getRestaurantOrdersByStatus(UUID restaurantId, List<String> statuses, Pageable pageable) {
         List<OrderStatus> orderStatuses = statuses.stream()
                 .map(OrderStatus::valueOf)
                 .collect(Collectors.toList());
@@ -175,11 +187,17 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getRestaurantOrdersByDateRange(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+    public Page<OrderResponse> getRestaurantOrdersByDateRange(UUID restaurantId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
         return orderRepository.findByRestaurantIdAndDateRange(restaurantId, startDate, endDate, pageable)
                 .map(this::mapOrderToResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CustomerOrderSummary> getRestaurantCustomerSummaries(UUID restaurantId, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        return orderRepository.summarizeCustomersByRestaurantIdAndDateRange(restaurantId, startDate, endDate, pageable);
+    }
+
     private OrderResponse mapOrderToResponse(Order order) {
         return OrderResponse.builder()
                 .id(order.getId())
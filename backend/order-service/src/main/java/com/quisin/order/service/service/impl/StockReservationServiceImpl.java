@@ -0,0 +1,170 @@
+package com.quisin.order.service.service.impl;
+
+import com.quisin.order.service.client.MenuServiceClient;
+import com.quisin.order.service.client.StockReservationRequest;
+import com.quisin.order.service.exception.StockReservationException;
+import com.quisin.order.service.model.Order;
+import com.quisin.order.service.model.OrderItem;
+import com.quisin.order.service.repository.OrderRepository;
+import com.quisin.order.service.service.StockReservationService;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Holds an order's stock in the menu service for as long as the order is open. The whole order is
+ * reserved in one call when it is placed; the reservation is committed when the order is completed
+ * and released when it is cancelled. Reservations that are never settled expire in the menu service.
+ *
+ * Only the reservation runs inside the order's transaction, as a failed reservation must fail the
+ * order, and it is released again if that transaction rolls back. Commits and releases are sent
+ * once the order's transaction has committed, so they never act on an order change that is rolled
+ * back. Commits that fail are retried until the menu service confirms them, since a reservation left
+ * to expire would put stock that was served back on sale.
+ */
+@Service
+@Slf4j
+public class StockReservationServiceImpl implements StockReservationService {
+    private final MenuServiceClient menuServiceClient;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration commitRetryDelay;
+    private final int commitRetryBatchSize;
+
+    public StockReservationServiceImpl(MenuServiceClient menuServiceClient,
+                                       OrderRepository orderRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${order.stock-reservation.commit-retry-delay:PT1M}") Duration commitRetryDelay,
+                                       @Value("${order.stock-reservation.commit-retry-batch-size:100}") int commitRetryBatchSize) {
+        this.menuServiceClient = menuServiceClient;
+        this.orderRepository = orderRepository;
+        // Used from after-commit callbacks, where the order's transaction can't be joined
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.commitRetryDelay = commitRetryDelay;
+        this.commitRetryBatchSize = commitRetryBatchSize;
+    }
+
+    @Override
+    public void reserve(Order order) {
+        StockReservationRequest request = StockReservationRequest.builder()
+                .id(order.getStockReservationId())
+                .restaurantId(order.getRestaurantId())
+                .reference("order-" + order.getId())
+                .items(order.getItems().stream()
+                        .map(this::mapOrderItemToLine)
+                        .collect(Collectors.toList()))
+                .build();
+
+        // Registered before the call, so a reservation made by a call that timed out is released too
+        UUID reservationId = order.getStockReservationId();
+        afterCompletion(committed -> {
+            if (!committed) {
+                releaseQuietly(reservationId);
+            }
+        });
+
+        try {
+            menuServiceClient.reserveStock(request);
+        } catch (FeignException.Conflict e) {
+            throw new StockReservationException("Not enough stock to place the order", e);
+        } catch (FeignException e) {
+            log.error("Unable to reserve stock {} for order ID: {}", reservationId, order.getId(), e);
+            throw new StockReservationException("Stock could not be reserved, please try again", e);
+        }
+    }
+
+    @Override
+    public void commit(Order order) {
+        UUID reservationId = order.getStockReservationId();
+        if (reservationId == null) {
+            return;
+        }
+        // Saved with the order and cleared once the menu service confirms the commit
+        order.setStockCommitPending(true);
+        Long orderId = order.getId();
+        afterCompletion(committed -> {
+            if (committed) {
+                commitQuietly(orderId, reservationId);
+            }
+        });
+    }
+
+    @Override
+    public void release(Order order) {
+        UUID reservationId = order.getStockReservationId();
+        if (reservationId == null) {
+            return;
+        }
+        // Only once the cancellation has committed, so a cancellation that fails keeps its stock
+        afterCompletion(committed -> {
+            if (committed) {
+                releaseQuietly(reservationId);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${order.stock-reservation.commit-retry-interval:60000}")
+    public void retryPendingCommits() {
+        // Left alone for a while first, so the after-commit callback gets to commit recent orders
+        LocalDateTime cutoff = LocalDateTime.now().minus(commitRetryDelay);
+        for (Order order : orderRepository.findStockCommitPending(cutoff, PageRequest.of(0, commitRetryBatchSize))) {
+            commitQuietly(order.getId(), order.getStockReservationId());
+        }
+    }
+
+    private void commitQuietly(Long orderId, UUID reservationId) {
+        try {
+            menuServiceClient.commitStockReservation(reservationId);
+        } catch (FeignException.Conflict | FeignException.NotFound e) {
+            // Released or unknown to the menu service; there is nothing left to commit
+            log.error("Stock reservation {} of order ID: {} could not be committed: {}", reservationId, orderId, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Unable to commit stock reservation {} of order ID: {}, will retry: {}", reservationId, orderId, e.getMessage());
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> orderRepository.clearStockCommitPending(orderId));
+    }
+
+    private void releaseQuietly(UUID reservationId) {
+        try {
+            menuServiceClient.releaseStockReservation(reservationId);
+        } catch (Exception e) {
+            log.warn("Unable to release stock reservation {}, leaving it to expire: {}", reservationId, e.getMessage());
+        }
+    }
+
+    private void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private StockReservationRequest.Line mapOrderItemToLine(OrderItem item) {
+        return StockReservationRequest.Line.builder()
+                .menuItemId(item.getMenuItemId())
+                .quantity(item.getQuantity())
+                .build();
+    }
+}
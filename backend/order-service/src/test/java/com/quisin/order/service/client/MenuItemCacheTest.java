@@ -0,0 +1,133 @@
+package com.quisin.order.service.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuItemCacheTest {
+
+    private static final UUID RESTAURANT_ID = UUID.fromString("5b7c1f2e-3f44-4c1d-9a55-0d3b0a7c6e11");
+    private static final UUID ITEM_1 = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d01");
+    private static final UUID ITEM_2 = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d02");
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager cacheManager;
+    private MenuItemCache menuItemCache;
+    private List<List<UUID>> loaderCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new ConcurrentMapCacheManager(MenuItemCache.CACHE_NAME);
+        menuItemCache = new MenuItemCache(cacheManager, meterRegistry, 100, Duration.ofMinutes(1));
+        loaderCalls = new ArrayList<>();
+    }
+
+    @Test
+    void getAll_LoadsOnlyMissingItems() {
+        // Arrange
+        menuItemCache.getAll(List.of(ITEM_1), this::load);
+
+        // Act
+        List<MenuItemResponse> result = menuItemCache.getAll(List.of(ITEM_1, ITEM_2), this::load);
+
+        // Assert
+        assertThat(result).extracting(MenuItemResponse::getId).containsExactly(ITEM_1, ITEM_2);
+        assertThat(loaderCalls).containsExactly(List.of(ITEM_1), List.of(ITEM_2));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "menuItems.local").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void evict_ReloadsItemFromMenuService() {
+        // Arrange
+        menuItemCache.getAll(List.of(ITEM_1), this::load);
+
+        // Act
+        menuItemCache.evict(ITEM_1);
+        menuItemCache.getAll(List.of(ITEM_1), this::load);
+
+        // Assert
+        assertThat(loaderCalls).containsExactly(List.of(ITEM_1), List.of(ITEM_1));
+    }
+
+    @Test
+    void evict_RemovesItemFromBothTiers() {
+        // Arrange
+        menuItemCache.getAll(List.of(ITEM_1, ITEM_2), this::load);
+
+        // Act
+        menuItemCache.evict(ITEM_1);
+
+        // Assert
+        assertThat(remoteCache().get(ITEM_1.toString())).isNull();
+        assertThat(remoteCache().get(ITEM_2.toString())).isNotNull();
+    }
+
+    @Test
+    void evictRestaurant_RemovesRestaurantItemsFromBothTiers() {
+        // Arrange
+        menuItemCache.getAll(List.of(ITEM_1), this::load);
+
+        // Act
+        menuItemCache.evictRestaurant(RESTAURANT_ID);
+        menuItemCache.getAll(List.of(ITEM_1), this::load);
+
+        // Assert
+        assertThat(loaderCalls).containsExactly(List.of(ITEM_1), List.of(ITEM_1));
+    }
+
+    @Test
+    void get_ReturnsNullWhenItemNotFound() {
+        // Act
+        MenuItemResponse menuItem = menuItemCache.get(ITEM_1, id -> null);
+
+        // Assert
+        assertThat(menuItem).isNull();
+        assertThat(remoteCache().get(ITEM_1.toString())).isNull();
+    }
+
+    @Test
+    void getAll_DoesNotCacheFallbackItems() {
+        // Arrange
+        MenuServiceFallback fallback = new MenuServiceFallback();
+
+        // Act
+        menuItemCache.getAll(List.of(ITEM_1), ids -> {
+            loaderCalls.add(ids);
+            return fallback.getMenuItems(RESTAURANT_ID, ids);
+        });
+        menuItemCache.getAll(List.of(ITEM_1), this::load);
+
+        // Assert
+        assertThat(loaderCalls).hasSize(2);
+    }
+
+    private Cache remoteCache() {
+        return cacheManager.getCache(MenuItemCache.CACHE_NAME);
+    }
+
+    private List<MenuItemResponse> load(List<UUID> ids) {
+        loaderCalls.add(ids);
+        return ids.stream()
+                .map(id -> MenuItemResponse.builder()
+                        .id(id)
+                        .restaurantId(RESTAURANT_ID)
+                        .name("Item " + id)
+                        .price(BigDecimal.TEN)
+                        .status("AVAILABLE")
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
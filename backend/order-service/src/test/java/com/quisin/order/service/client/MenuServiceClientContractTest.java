@@ -0,0 +1,158 @@
+package com.quisin.order.service.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import feign.Feign;
+import feign.Request;
+import feign.Response;
+import feign.codec.EncodeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the requests MenuServiceClient sends against menu-service's MenuItemController and
+ * InventoryController (served under menu-service's /api context path), and that its responses bind.
+ */
+class MenuServiceClientContractTest {
+
+    private static final UUID RESTAURANT_ID = UUID.fromString("5b7c1f2e-3f44-4c1d-9a55-0d3b0a7c6e11");
+    private static final UUID MENU_ITEM_ID = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d01");
+    private static final UUID MENU_ITEM_ID_2 = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d02");
+
+    // A MenuItemResponse as menu-service serializes it
+    private static final String MENU_ITEM_JSON = """
+            {
+              "id": "%s",
+              "restaurantId": "%s",
+              "name": "Nyama Choma",
+              "description": "Grilled goat",
+              "price": 12.50,
+              "category": "MAIN_COURSE",
+              "imageUrl": null,
+              "currentStock": 4,
+              "maxStock": 20,
+              "status": "%s",
+              "preparationTime": 25,
+              "calories": null,
+              "allergens": [],
+              "tags": ["grill"],
+              "createdAt": "2024-01-01T12:00:00",
+              "updatedAt": "2024-01-01T12:00:00"
+            }""";
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private List<Request> requests;
+    private String responseBody;
+    private MenuServiceClient menuServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        requests = new ArrayList<>();
+        menuServiceClient = Feign.builder()
+                .contract(new SpringMvcContract())
+                .encoder((object, bodyType, template) -> {
+                    try {
+                        template.body(objectMapper.writeValueAsBytes(object), StandardCharsets.UTF_8);
+                    } catch (Exception e) {
+                        throw new EncodeException(e.getMessage(), e);
+                    }
+                })
+                .decoder((response, type) ->
+                        objectMapper.readValue(response.body().asInputStream(), objectMapper.constructType(type)))
+                .client((request, options) -> {
+                    requests.add(request);
+                    return Response.builder()
+                            .status(200)
+                            .reason("OK")
+                            .request(request)
+                            .headers(Map.of("Content-Type", List.of("application/json")))
+                            .body(responseBody, StandardCharsets.UTF_8)
+                            .build();
+                })
+                .target(MenuServiceClient.class, "http://menu-service");
+    }
+
+    @Test
+    void getMenuItems_PostsUuidsToRestaurantBatchEndpoint() throws Exception {
+        // Arrange
+        responseBody = "[" + menuItem(MENU_ITEM_ID, "AVAILABLE") + "," + menuItem(MENU_ITEM_ID_2, "OUT_OF_STOCK") + "]";
+
+        // Act
+        List<MenuItemResponse> menuItems = menuServiceClient.getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID, MENU_ITEM_ID_2));
+
+        // Assert
+        assertThat(requests).hasSize(1);
+        Request request = requests.get(0);
+        assertThat(request.httpMethod()).isEqualTo(Request.HttpMethod.POST);
+        assertThat(request.url())
+                .isEqualTo("http://menu-service/api/api/menu-items/restaurant/" + RESTAURANT_ID + "/batch");
+        assertThat(objectMapper.readValue(request.body(), String[].class))
+                .containsExactly(MENU_ITEM_ID.toString(), MENU_ITEM_ID_2.toString());
+
+        assertThat(menuItems).extracting(MenuItemResponse::getId).containsExactly(MENU_ITEM_ID, MENU_ITEM_ID_2);
+        assertThat(menuItems).extracting(MenuItemResponse::isAvailable).containsExactly(true, false);
+        assertThat(menuItems.get(0).getRestaurantId()).isEqualTo(RESTAURANT_ID);
+        assertThat(menuItems.get(0).getPrice()).isEqualByComparingTo(new BigDecimal("12.50"));
+    }
+
+    @Test
+    void getMenuItem_GetsItemById() {
+        // Arrange
+        responseBody = menuItem(MENU_ITEM_ID, "DISCONTINUED");
+
+        // Act
+        MenuItemResponse menuItem = menuServiceClient.getMenuItem(MENU_ITEM_ID);
+
+        // Assert
+        assertThat(requests).singleElement().satisfies(request -> {
+            assertThat(request.httpMethod()).isEqualTo(Request.HttpMethod.GET);
+            assertThat(request.url()).isEqualTo("http://menu-service/api/api/menu-items/" + MENU_ITEM_ID);
+        });
+        assertThat(menuItem.getId()).isEqualTo(MENU_ITEM_ID);
+        assertThat(menuItem.isAvailable()).isFalse();
+    }
+
+    @Test
+    void reserveStock_PostsReservationWithUuids() throws Exception {
+        // Arrange
+        UUID reservationId = UUID.randomUUID();
+        responseBody = """
+                {"id": "%s", "restaurantId": "%s", "reference": "order-1", "status": "HELD",
+                 "items": [{"menuItemId": "%s", "quantity": 2}], "expiresAt": "2024-01-01T14:00:00"}
+                """.formatted(reservationId, RESTAURANT_ID, MENU_ITEM_ID);
+        StockReservationRequest reservation = StockReservationRequest.builder()
+                .id(reservationId)
+                .restaurantId(RESTAURANT_ID)
+                .reference("order-1")
+                .items(List.of(StockReservationRequest.Line.builder().menuItemId(MENU_ITEM_ID).quantity(2).build()))
+                .build();
+
+        // Act
+        menuServiceClient.reserveStock(reservation);
+
+        // Assert
+        Request request = requests.get(0);
+        assertThat(request.url()).isEqualTo("http://menu-service/api/api/inventory/reservations");
+        JsonNode body = objectMapper.readTree(request.body());
+        assertThat(body.path("id").asText()).isEqualTo(reservationId.toString());
+        assertThat(body.path("restaurantId").asText()).isEqualTo(RESTAURANT_ID.toString());
+        assertThat(body.path("items").get(0).path("menuItemId").asText()).isEqualTo(MENU_ITEM_ID.toString());
+        assertThat(body.path("items").get(0).path("quantity").asInt()).isEqualTo(2);
+    }
+
+    private static String menuItem(UUID menuItemId, String status) {
+        return MENU_ITEM_JSON.formatted(menuItemId, RESTAURANT_ID, status);
+    }
+}
@@ -0,0 +1,70 @@
+package com.quisin.order.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quisin.order.service.client.MenuItemCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventConfigTest {
+
+    private static final UUID RESTAURANT_ID = UUID.fromString("5b7c1f2e-3f44-4c1d-9a55-0d3b0a7c6e11");
+    private static final UUID MENU_ITEM_ID = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d01");
+
+    @Mock
+    private MenuItemCache menuItemCache;
+
+    private Consumer<Message<String>> menuEvents;
+
+    @BeforeEach
+    void setUp() {
+        menuEvents = new EventConfig().menuEvents(menuItemCache, new ObjectMapper());
+    }
+
+    @Test
+    void menuEvents_ItemEventEvictsItem() {
+        // Act
+        menuEvents.accept(event("MenuItemUpdatedEvent", """
+                {"menuId": "%s", "itemId": "%s", "restaurantId": "%s", "price": 9.5}
+                """.formatted(RESTAURANT_ID, MENU_ITEM_ID, RESTAURANT_ID)));
+
+        // Assert
+        verify(menuItemCache).evict(MENU_ITEM_ID);
+        verifyNoMoreInteractions(menuItemCache);
+    }
+
+    @Test
+    void menuEvents_MenuEventEvictsRestaurant() {
+        // Act
+        menuEvents.accept(event("MenuDeletedEvent", """
+                {"menuId": "%s", "restaurantId": "%s"}
+                """.formatted(UUID.randomUUID(), RESTAURANT_ID)));
+
+        // Assert
+        verify(menuItemCache).evictRestaurant(RESTAURANT_ID);
+        verifyNoMoreInteractions(menuItemCache);
+    }
+
+    @Test
+    void menuEvents_UnreadableEventEvictsAll() {
+        // Act
+        menuEvents.accept(event("MenuItemUpdatedEvent", "not json"));
+
+        // Assert
+        verify(menuItemCache).evictAll();
+    }
+
+    private static Message<String> event(String eventType, String payload) {
+        return MessageBuilder.withPayload(payload).setHeader("eventType", eventType).build();
+    }
+}
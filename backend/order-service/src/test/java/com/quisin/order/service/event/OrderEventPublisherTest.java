@@ -1,58 +1,68 @@
 package com.quisin.order.service.event;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quisin.order.service.model.Order;
 import com.quisin.order.service.model.OrderItem;
+import com.quisin.order.service.model.OrderOutboxEvent;
 import com.quisin.order.service.model.OrderStatus;
+import com.quisin.order.service.repository.OrderOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.cloud.stream.function.StreamBridge;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class OrderEventPublisherTest {
 
     @Mock
-    private StreamBridge streamBridge;
+    private OrderOutboxRepository outboxRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @InjectMocks
     private OrderEventPublisher eventPublisher;
 
     @Captor
-    private ArgumentCaptor<OrderEvent> eventCaptor;
+    private ArgumentCaptor<OrderOutboxEvent> outboxCaptor;
 
-    private static final String OUTPUT_BINDING = "orderEvents-out-0";
+    @BeforeEach
+    void setUp() {
+        eventPublisher = new OrderEventPublisher(outboxRepository, objectMapper);
+    }
 
     @Test
-    void publishOrderEvent_Success() {
+    void publishOrderEvent_Success() throws Exception {
         // Arrange
         Order order = createTestOrder();
-        when(streamBridge.send(eq(OUTPUT_BINDING), any(OrderEvent.class))).thenReturn(true);
 
         // Act
         eventPublisher.publishOrderEvent(order);
 
         // Assert
-        verify(streamBridge).send(eq(OUTPUT_BINDING), eventCaptor.capture());
-        OrderEvent capturedEvent = eventCaptor.getValue();
+        verify(outboxRepository).save(outboxCaptor.capture());
+        OrderOutboxEvent outboxEvent = outboxCaptor.getValue();
+        assertThat(outboxEvent.getOrderId()).isEqualTo(order.getId());
+        assertThat(outboxEvent.getOrderStatus()).isEqualTo(order.getStatus());
+        assertThat(outboxEvent.getPublishedAt()).isNull();
+
+        OrderEvent capturedEvent = objectMapper.readValue(outboxEvent.getPayload(), OrderEvent.class);
         assertThat(capturedEvent)
                 .satisfies(event -> {
                     assertThat(event.getOrderId()).isEqualTo(order.getId());
                     assertThat(event.getRestaurantId()).isEqualTo(order.getRestaurantId());
                     assertThat(event.getCustomerId()).isEqualTo(order.getCustomerId());
                     assertThat(event.getStatus()).isEqualTo(order.getStatus());
-                    assertThat(event.getTotalAmount()).isEqualTo(order.getTotalAmount());
+                    assertThat(event.getTotalAmount()).isEqualByComparingTo(order.getTotalAmount());
                     assertThat(event.getItems()).hasSize(1);
                 });
     }
@@ -60,7 +70,7 @@ class OrderEventPublisherTest {
     private Order createTestOrder() {
         OrderItem item = OrderItem.builder()
                 .id(1L)
-                .menuItemId(1L)
+                .menuItemId(UUID.randomUUID())
                 .menuItemName("Test Item")
                 .quantity(2)
                 .unitPrice(BigDecimal.valueOf(10))
@@ -72,11 +82,11 @@ class OrderEventPublisherTest {
 
         return Order.builder()
                 .id(1L)
-                .restaurantId(1L)
+                .restaurantId(UUID.randomUUID())
                 .customerId(1L)
                 .status(OrderStatus.PENDING)
                 .totalAmount(BigDecimal.valueOf(20))
                 .items(items)
                 .build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.quisin.order.service.event;
+
+import com.quisin.order.service.model.OrderOutboxEvent;
+import com.quisin.order.service.model.OrderStatus;
+import com.quisin.order.service.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayTest {
+
+    private static final String TOPIC = "order-events";
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OrderOutboxRelay(outboxRepository, kafkaTemplate, transactionManager, new SimpleMeterRegistry(),
+                TOPIC, 200, Duration.ofSeconds(1), Duration.ofMinutes(2), Duration.ofDays(1));
+    }
+
+    @Test
+    void relay_SendsEachOrderInSequenceAndStopsAtFirstFailure() {
+        // Arrange
+        OrderOutboxEvent placed = event(1L, 1L, OrderStatus.PENDING);
+        OrderOutboxEvent confirmed = event(2L, 1L, OrderStatus.CONFIRMED);
+        OrderOutboxEvent completed = event(3L, 1L, OrderStatus.COMPLETED);
+        OrderOutboxEvent otherOrder = event(4L, 2L, OrderStatus.PENDING);
+        when(outboxRepository.findClaimableForUpdate(any(), any()))
+                .thenReturn(List.of(placed, confirmed, completed, otherOrder));
+        when(outboxRepository.findOrderIdsWithActiveClaims(any(), any())).thenReturn(List.of());
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), eq("payload-1"))).thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), eq("payload-2")))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), eq("payload-4"))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        relay.relay();
+
+        // Assert
+        InOrder inOrder = inOrder(kafkaTemplate, outboxRepository);
+        inOrder.verify(kafkaTemplate).send(TOPIC, "1", "payload-1");
+        inOrder.verify(kafkaTemplate).send(TOPIC, "2", "payload-4");
+        inOrder.verify(outboxRepository).markPublished(eq(List.of(1L, 4L)), any());
+        inOrder.verify(kafkaTemplate).send(TOPIC, "1", "payload-2");
+        inOrder.verify(outboxRepository).recordFailure(eq(2L), anyString());
+        inOrder.verify(outboxRepository).releaseClaims(List.of(2L, 3L));
+        verify(kafkaTemplate, never()).send(TOPIC, "1", "payload-3");
+        verify(outboxRepository, times(1)).markPublished(any(), any());
+    }
+
+    @Test
+    void relay_SkipsOrdersClaimedByAnotherRelay() {
+        // Arrange
+        OrderOutboxEvent claimedElsewhere = event(5L, 1L, OrderStatus.CONFIRMED);
+        OrderOutboxEvent otherOrder = event(6L, 2L, OrderStatus.PENDING);
+        when(outboxRepository.findClaimableForUpdate(any(), any())).thenReturn(List.of(claimedElsewhere, otherOrder));
+        when(outboxRepository.findOrderIdsWithActiveClaims(any(), any())).thenReturn(List.of(1L));
+        when(kafkaTemplate.send(TOPIC, "2", "payload-6")).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verify(outboxRepository).claim(eq(List.of(6L)), any());
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), anyString());
+        verify(outboxRepository).markPublished(eq(List.of(6L)), any());
+        verify(outboxRepository, never()).releaseClaims(any());
+    }
+
+    private OrderOutboxEvent event(Long id, Long orderId, OrderStatus status) {
+        return OrderOutboxEvent.builder()
+                .id(id)
+                .orderId(orderId)
+                .orderStatus(status)
+                .payload("payload-" + id)
+                .build();
+    }
+}
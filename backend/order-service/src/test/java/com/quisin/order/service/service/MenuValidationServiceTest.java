@@ -1,11 +1,14 @@
 package com.quisin.order.service.service;
 
+import com.quisin.order.service.client.MenuItemCache;
 import com.quisin.order.service.client.MenuServiceClient;
 import com.quisin.order.service.client.MenuItemResponse;
 import com.quisin.order.service.dto.OrderItemRequest;
 import com.quisin.order.service.exception.MenuItemNotAvailableException;
+import com.quisin.order.service.exception.MenuItemNotFoundException;
 import com.quisin.order.service.exception.RestaurantMenuItemMismatchException;
 import com.quisin.order.service.service.impl.MenuValidationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -14,8 +17,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,12 +32,24 @@ class MenuValidationServiceTest {
     @Mock
     private MenuServiceClient menuServiceClient;
 
+    @Mock
+    private MenuItemCache menuItemCache;
+
     @InjectMocks
     private MenuValidationServiceImpl menuValidationService;
 
-    private static final Long RESTAURANT_ID = 1L;
-    private static final Long MENU_ITEM_ID = 1L;
-    private static final Long MENU_ITEM_ID_2 = 2L;
+    private static final UUID RESTAURANT_ID = UUID.fromString("5b7c1f2e-3f44-4c1d-9a55-0d3b0a7c6e11");
+    private static final UUID MENU_ITEM_ID = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d01");
+    private static final UUID MENU_ITEM_ID_2 = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d02");
+
+    @BeforeEach
+    void setUp() {
+        // Pass every lookup straight through to the client so the tests exercise the batched path
+        lenient().when(menuItemCache.getAll(any(), any())).thenAnswer(invocation -> {
+            Function<List<UUID>, List<MenuItemResponse>> loader = invocation.getArgument(1);
+            return loader.apply(invocation.getArgument(0));
+        });
+    }
 
     @Test
     void validateMenuItems_Success() {
@@ -43,17 +63,17 @@ class MenuValidationServiceTest {
                 .id(MENU_ITEM_ID)
                 .name("Test Item")
                 .price(BigDecimal.valueOf(10.0))
-                .available(true)
+                .status("AVAILABLE")
                 .restaurantId(RESTAURANT_ID)
                 .build();
 
-        when(menuServiceClient.getMenuItem(RESTAURANT_ID, MENU_ITEM_ID)).thenReturn(menuItem);
+        when(menuServiceClient.getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID))).thenReturn(List.of(menuItem));
 
         // Act
         menuValidationService.validateMenuItems(RESTAURANT_ID, List.of(request));
 
         // Assert
-        verify(menuServiceClient, times(1)).getMenuItem(RESTAURANT_ID, MENU_ITEM_ID);
+        verify(menuServiceClient, times(1)).getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID));
     }
 
     @Test
@@ -68,17 +88,17 @@ class MenuValidationServiceTest {
                 .id(MENU_ITEM_ID)
                 .name("Test Item")
                 .price(BigDecimal.valueOf(10.0))
-                .available(false)
+                .status("OUT_OF_STOCK")
                 .restaurantId(RESTAURANT_ID)
                 .build();
 
-        when(menuServiceClient.getMenuItem(RESTAURANT_ID, MENU_ITEM_ID)).thenReturn(menuItem);
+        when(menuServiceClient.getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID))).thenReturn(List.of(menuItem));
 
         // Act & Assert
         assertThatThrownBy(() -> menuValidationService.validateMenuItems(RESTAURANT_ID, List.of(request)))
                 .isInstanceOf(MenuItemNotAvailableException.class)
-                .hasMessageContaining("Menu item is not available");
-        verify(menuServiceClient, times(1)).getMenuItem(RESTAURANT_ID, MENU_ITEM_ID);
+                .hasMessage("Menu item with ID " + MENU_ITEM_ID + " is not available");
+        verify(menuServiceClient, times(1)).getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID));
     }
 
     @Test
@@ -93,16 +113,67 @@ class MenuValidationServiceTest {
                 .id(MENU_ITEM_ID)
                 .name("Test Item")
                 .price(BigDecimal.valueOf(10.0))
-                .available(true)
-                .restaurantId(999L)
+                .status("AVAILABLE")
+                .restaurantId(UUID.randomUUID())
                 .build();
 
-        when(menuServiceClient.getMenuItem(RESTAURANT_ID, MENU_ITEM_ID)).thenReturn(menuItem);
+        when(menuServiceClient.getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID))).thenReturn(List.of(menuItem));
 
         // Act & Assert
         assertThatThrownBy(() -> menuValidationService.validateMenuItems(RESTAURANT_ID, List.of(request)))
                 .isInstanceOf(RestaurantMenuItemMismatchException.class)
-                .hasMessageContaining("Menu item does not belong to restaurant");
-        verify(menuServiceClient, times(1)).getMenuItem(RESTAURANT_ID, MENU_ITEM_ID);
+                .hasMessage("Menu item with ID " + MENU_ITEM_ID + " does not belong to restaurant " + RESTAURANT_ID);
+        verify(menuServiceClient, times(1)).getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID));
+    }
+
+    @Test
+    void resolveMenuItems_SingleBatchedCall() {
+        // Arrange
+        List<OrderItemRequest> requests = List.of(
+                OrderItemRequest.builder().menuItemId(MENU_ITEM_ID).quantity(1).build(),
+                OrderItemRequest.builder().menuItemId(MENU_ITEM_ID_2).quantity(3).build(),
+                OrderItemRequest.builder().menuItemId(MENU_ITEM_ID).quantity(2).build()
+        );
+
+        MenuItemResponse menuItem = MenuItemResponse.builder()
+                .id(MENU_ITEM_ID)
+                .name("Test Item")
+                .price(BigDecimal.valueOf(10.0))
+                .status("AVAILABLE")
+                .restaurantId(RESTAURANT_ID)
+                .build();
+        MenuItemResponse menuItem2 = MenuItemResponse.builder()
+                .id(MENU_ITEM_ID_2)
+                .name("Test Item 2")
+                .price(BigDecimal.valueOf(5.0))
+                .status("AVAILABLE")
+                .restaurantId(RESTAURANT_ID)
+                .build();
+
+        when(menuServiceClient.getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID, MENU_ITEM_ID_2)))
+                .thenReturn(List.of(menuItem, menuItem2));
+
+        // Act
+        Map<UUID, MenuItemResponse> resolved = menuValidationService.resolveMenuItems(RESTAURANT_ID, requests);
+
+        // Assert
+        assertThat(resolved).containsOnlyKeys(MENU_ITEM_ID, MENU_ITEM_ID_2);
+        verify(menuServiceClient, times(1)).getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID, MENU_ITEM_ID_2));
+        verify(menuServiceClient, never()).getMenuItem(any());
+    }
+
+    @Test
+    void resolveMenuItems_ItemMissing() {
+        // Arrange
+        OrderItemRequest request = OrderItemRequest.builder()
+                .menuItemId(MENU_ITEM_ID)
+                .quantity(2)
+                .build();
+
+        when(menuServiceClient.getMenuItems(RESTAURANT_ID, List.of(MENU_ITEM_ID))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThatThrownBy(() -> menuValidationService.resolveMenuItems(RESTAURANT_ID, List.of(request)))
+                .isInstanceOf(MenuItemNotFoundException.class);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,241 @@
+package com.quisin.order.service.service;
+
+import com.quisin.order.service.client.MenuServiceClient;
+import com.quisin.order.service.client.StockReservationRequest;
+import com.quisin.order.service.exception.StockReservationException;
+import com.quisin.order.service.model.Order;
+import com.quisin.order.service.model.OrderItem;
+import com.quisin.order.service.repository.OrderRepository;
+import com.quisin.order.service.service.impl.StockReservationServiceImpl;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock
+    private MenuServiceClient menuServiceClient;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockReservationServiceImpl stockReservationService;
+
+    private static final Long ORDER_ID = 1L;
+    private static final UUID RESTAURANT_ID = UUID.fromString("5b7c1f2e-3f44-4c1d-9a55-0d3b0a7c6e11");
+    private static final UUID MENU_ITEM_ID = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d01");
+    private static final UUID MENU_ITEM_ID_2 = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d02");
+    private static final UUID RESERVATION_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        stockReservationService = new StockReservationServiceImpl(
+                menuServiceClient, orderRepository, transactionManager, Duration.ofMinutes(1), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserve_SendsWholeOrderInOneCall() {
+        // Arrange
+        Order order = createOrder();
+        ArgumentCaptor<StockReservationRequest> requestCaptor = ArgumentCaptor.forClass(StockReservationRequest.class);
+
+        // Act
+        stockReservationService.reserve(order);
+
+        // Assert
+        verify(menuServiceClient, times(1)).reserveStock(requestCaptor.capture());
+        StockReservationRequest request = requestCaptor.getValue();
+        assertThat(request.getId()).isEqualTo(RESERVATION_ID);
+        assertThat(request.getRestaurantId()).isEqualTo(RESTAURANT_ID);
+        assertThat(request.getReference()).isEqualTo("order-" + ORDER_ID);
+        assertThat(request.getItems())
+                .extracting(StockReservationRequest.Line::getMenuItemId, StockReservationRequest.Line::getQuantity)
+                .containsExactly(tuple(MENU_ITEM_ID, 2), tuple(MENU_ITEM_ID_2, 1));
+    }
+
+    @Test
+    void reserve_NotEnoughStock() {
+        // Arrange
+        Order order = createOrder();
+        when(menuServiceClient.reserveStock(any())).thenThrow(conflict());
+
+        // Act & Assert
+        assertThatThrownBy(() -> stockReservationService.reserve(order))
+                .isInstanceOf(StockReservationException.class)
+                .hasMessageContaining("Not enough stock");
+    }
+
+    @Test
+    void reserve_MenuServiceRejectsRequest() {
+        // Arrange
+        Order order = createOrder();
+        when(menuServiceClient.reserveStock(any())).thenThrow(badRequest());
+
+        // Act & Assert
+        assertThatThrownBy(() -> stockReservationService.reserve(order))
+                .isInstanceOf(StockReservationException.class)
+                .hasMessageContaining("could not be reserved");
+    }
+
+    @Test
+    void reserve_RolledBackOrderReleasesStock() {
+        // Arrange
+        Order order = createOrder();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        stockReservationService.reserve(order);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        verify(menuServiceClient, times(1)).releaseStockReservation(RESERVATION_ID);
+    }
+
+    @Test
+    void commit_SentOnceOrderCommitted() {
+        // Arrange
+        Order order = createOrder();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        stockReservationService.commit(order);
+
+        // Assert
+        assertThat(order.getStockCommitPending()).isTrue();
+        verifyNoInteractions(menuServiceClient);
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        verify(menuServiceClient, times(1)).commitStockReservation(RESERVATION_ID);
+        verify(orderRepository, times(1)).clearStockCommitPending(ORDER_ID);
+    }
+
+    @Test
+    void commit_NotSentWhenOrderRolledBack() {
+        // Arrange
+        Order order = createOrder();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        stockReservationService.commit(order);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        verifyNoInteractions(menuServiceClient);
+    }
+
+    @Test
+    void commit_FailureStaysPending() {
+        // Arrange
+        Order order = createOrder();
+        when(menuServiceClient.commitStockReservation(RESERVATION_ID)).thenThrow(new RuntimeException("unavailable"));
+
+        // Act
+        stockReservationService.commit(order);
+
+        // Assert
+        verify(orderRepository, never()).clearStockCommitPending(any());
+    }
+
+    @Test
+    void retryPendingCommits_CommitsPendingOrders() {
+        // Arrange
+        Order order = createOrder();
+        order.setStockCommitPending(true);
+        when(orderRepository.findStockCommitPending(any(), any())).thenReturn(List.of(order));
+
+        // Act
+        stockReservationService.retryPendingCommits();
+
+        // Assert
+        verify(menuServiceClient, times(1)).commitStockReservation(RESERVATION_ID);
+        verify(orderRepository, times(1)).clearStockCommitPending(ORDER_ID);
+    }
+
+    @Test
+    void commit_WithoutReservation() {
+        // Arrange
+        Order order = createOrder();
+        order.setStockReservationId(null);
+
+        // Act
+        stockReservationService.commit(order);
+
+        // Assert
+        verifyNoInteractions(menuServiceClient);
+    }
+
+    @Test
+    void release_FailureLeavesReservationToExpire() {
+        // Arrange
+        Order order = createOrder();
+        when(menuServiceClient.releaseStockReservation(RESERVATION_ID)).thenThrow(new RuntimeException("unavailable"));
+
+        // Act
+        stockReservationService.release(order);
+
+        // Assert
+        verify(menuServiceClient, times(1)).releaseStockReservation(RESERVATION_ID);
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private FeignException conflict() {
+        return new FeignException.Conflict("Insufficient stock", reserveRequest(), null, Map.of());
+    }
+
+    private FeignException badRequest() {
+        return new FeignException.BadRequest("Validation failed", reserveRequest(), null, Map.of());
+    }
+
+    private Request reserveRequest() {
+        return Request.create(Request.HttpMethod.POST, "/api/api/inventory/reservations",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private Order createOrder() {
+        Order order = Order.builder()
+                .id(ORDER_ID)
+                .restaurantId(RESTAURANT_ID)
+                .stockReservationId(RESERVATION_ID)
+                .build();
+        order.addOrderItem(OrderItem.builder().menuItemId(MENU_ITEM_ID).quantity(2).build());
+        order.addOrderItem(OrderItem.builder().menuItemId(MENU_ITEM_ID_2).quantity(1).build());
+        return order;
+    }
+}
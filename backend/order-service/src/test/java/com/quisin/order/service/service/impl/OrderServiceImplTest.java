@@ -3,10 +3,12 @@ package com.quisin.order.service.service.impl;
 import com.quisin.order.service.client.MenuItemResponse;
 import com.quisin.order.service.dto.*;
 import com.quisin.order.service.event.OrderEventPublisher;
+import com.quisin.order.service.exception.StockReservationException;
 import com.quisin.order.service.model.*;
 import com.quisin.order.service.repository.OrderItemRepository;
 import com.quisin.order.service.repository.OrderRepository;
 import com.quisin.order.service.service.MenuValidationService;
+import com.quisin.order.service.service.StockReservationService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -44,6 +46,9 @@ class OrderServiceImplTest {
     @Mock
     private OrderEventPublisher eventPublisher;
 
+    @Mock
+    private StockReservationService stockReservationService;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -51,10 +56,10 @@ class OrderServiceImplTest {
     private ArgumentCaptor<Order> orderCaptor;
 
     private static final Long ORDER_ID = 1L;
-    private static final Long RESTAURANT_ID = 1L;
+    private static final UUID RESTAURANT_ID = UUID.fromString("5b7c1f2e-3f44-4c1d-9a55-0d3b0a7c6e11");
     private static final Long CUSTOMER_ID = 1L;
     private static final Long WAITER_ID = 1L;
-    private static final Long MENU_ITEM_ID = 1L;
+    private static final UUID MENU_ITEM_ID = UUID.fromString("0f9a8c52-6a1e-4d4b-8d2f-7a6c3b1e9d01");
     private static final Long ORDER_ITEM_ID = 1L;
 
     @Test
@@ -66,7 +71,7 @@ class OrderServiceImplTest {
                 .name("Test Item")
                 .price(BigDecimal.valueOf(10))
                 .build();
-        when(menuValidationService.getMenuItem(any(), any())).thenReturn(menuItem);
+        when(menuValidationService.resolveMenuItems(any(), any())).thenReturn(Map.of(MENU_ITEM_ID, menuItem));
         when(orderRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
         // Act
@@ -81,10 +86,32 @@ class OrderServiceImplTest {
                     assertThat(order.getCustomerId()).isEqualTo(CUSTOMER_ID);
                     assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING);
                     assertThat(order.getTotalAmount()).isEqualTo(BigDecimal.valueOf(20));
+                    assertThat(order.getStockReservationId()).isNotNull();
                 });
+        verify(stockReservationService).reserve(capturedOrder);
         verify(eventPublisher).publishOrderEvent(any());
     }
 
+    @Test
+    void createOrder_StockReservationFails() {
+        // Arrange
+        CreateOrderRequest request = createOrderRequest();
+        MenuItemResponse menuItem = MenuItemResponse.builder()
+                .id(MENU_ITEM_ID)
+                .name("Test Item")
+                .price(BigDecimal.valueOf(10))
+                .build();
+        when(menuValidationService.resolveMenuItems(any(), any())).thenReturn(Map.of(MENU_ITEM_ID, menuItem));
+        when(orderRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        doThrow(new StockReservationException("Not enough stock to place the order"))
+                .when(stockReservationService).reserve(any());
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.createOrder(request))
+                .isInstanceOf(StockReservationException.class);
+        verify(eventPublisher, never()).publishOrderEvent(any());
+    }
+
     @Test
     void getOrderById_Success() {
         // Arrange
@@ -128,9 +155,43 @@ class OrderServiceImplTest {
         // Assert
         verify(orderRepository).save(orderCaptor.capture());
         assertThat(orderCaptor.getValue().getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        verifyNoInteractions(stockReservationService);
         verify(eventPublisher).publishOrderEvent(any());
     }
 
+    @Test
+    void updateOrderStatus_CompletedCommitsStock() {
+        // Arrange
+        Order order = createOrder();
+        UpdateOrderStatusRequest request = new UpdateOrderStatusRequest(OrderStatus.COMPLETED);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        orderService.updateOrderStatus(ORDER_ID, request);
+
+        // Assert
+        verify(stockReservationService).commit(order);
+        verify(stockReservationService, never()).release(any());
+        assertThat(order.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void updateOrderStatus_CancelledReleasesStock() {
+        // Arrange
+        Order order = createOrder();
+        UpdateOrderStatusRequest request = new UpdateOrderStatusRequest(OrderStatus.CANCELLED);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        orderService.updateOrderStatus(ORDER_ID, request);
+
+        // Assert
+        verify(stockReservationService).release(order);
+        verify(stockReservationService, never()).commit(any());
+    }
+
     @Test
     void assignWaiter_Success() {
         // Arrange
@@ -181,6 +242,7 @@ class OrderServiceImplTest {
         // Assert
         verify(orderRepository).save(orderCaptor.capture());
         assertThat(orderCaptor.getValue().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(stockReservationService).release(order);
         verify(eventPublisher).publishOrderEvent(any());
     }
 
@@ -232,6 +294,7 @@ class OrderServiceImplTest {
                 .status(OrderStatus.PENDING)
                 .totalAmount(BigDecimal.valueOf(20))
                 .isWaiterAssignmentRequested(false)
+                .stockReservationId(UUID.randomUUID())
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
@@ -1,10 +1,13 @@
 package com.quisin.payments.domain
 
 import jakarta.persistence.*
+import org.hibernate.annotations.JdbcTypeCode
+import org.hibernate.type.SqlTypes
 import org.springframework.data.annotation.CreatedDate
 import org.springframework.data.annotation.LastModifiedDate
 import org.springframework.data.jpa.domain.support.AuditingEntityListener
 import java.math.BigDecimal
+import java.time.LocalDate
 import java.time.LocalDateTime
 import java.util.UUID
 
@@ -34,7 +37,13 @@ enum class PaymentType {
 }
 
 @Entity
-@Table(name = "payments")
+@Table(
+    name = "payments",
+    indexes = [
+        Index(name = "idx_payments_created_at", columnList = "created_at, payment_method"),
+        Index(name = "idx_payments_user_created_at", columnList = "user_id, created_at")
+    ]
+)
 @EntityListeners(AuditingEntityListener::class)
 data class Payment(
     @Id
@@ -101,3 +110,79 @@ data class PaymentSplit(
     @Enumerated(EnumType.STRING)
     var status: PaymentStatus = PaymentStatus.PENDING
 )
+
+/**
+ * Per-day, per-method payment totals, maintained incrementally as payments are written.
+ * Transactions are bucketed by the day the payment was created.
+ */
+@Entity
+@Table(
+    name = "payment_daily_rollups",
+    uniqueConstraints = [UniqueConstraint(name = "uk_payment_daily_rollups_day_method", columnNames = ["day", "payment_method"])]
+)
+data class PaymentDailyRollup(
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    val id: Long? = null,
+
+    @Column(nullable = false)
+    val day: LocalDate,
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    val paymentMethod: PaymentMethod,
+
+    @Column(nullable = false)
+    val totalTransactions: Long = 0,
+
+    @Column(nullable = false)
+    val successfulTransactions: Long = 0,
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    val totalAmount: BigDecimal = BigDecimal.ZERO
+)
+
+/**
+ * Snapshot of a user's rolling payment features used for fraud scoring.
+ * The last 24 hours are kept as hourly buckets, indexed by epoch hour modulo the window size.
+ */
+@Entity
+@Table(name = "user_payment_features")
+class UserPaymentFeatures(
+    @Id
+    val userId: UUID,
+
+    @Column(nullable = false)
+    var paymentCount: Long = 0,
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    var totalAmount: BigDecimal = BigDecimal.ZERO,
+
+    @Column(nullable = false)
+    var failedCount: Long = 0,
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    var hourlyCounts: IntArray = IntArray(WINDOW_HOURS),
+
+    @Column(nullable = false)
+    var latestHour: Long = 0,
+
+    // Bumped by every update, so an older snapshot never replaces a newer one in a cache
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    var revision: Long = 0
+) {
+    fun copy() = UserPaymentFeatures(
+        userId = userId,
+        paymentCount = paymentCount,
+        totalAmount = totalAmount,
+        failedCount = failedCount,
+        hourlyCounts = hourlyCounts.copyOf(),
+        latestHour = latestHour,
+        revision = revision
+    )
+
+    companion object {
+        const val WINDOW_HOURS = 24
+    }
+}
@@ -1,11 +1,21 @@
 package com.quisin.payments.repository
 
 import com.quisin.payments.domain.Payment
+import com.quisin.payments.domain.PaymentDailyRollup
+import com.quisin.payments.domain.PaymentMethod
 import com.quisin.payments.domain.PaymentSplit
 import com.quisin.payments.domain.PaymentStatus
 import com.quisin.payments.domain.PaymentType
+import com.quisin.payments.domain.UserPaymentFeatures
+import jakarta.persistence.LockModeType
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Lock
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
 import org.springframework.stereotype.Repository
+import java.math.BigDecimal
+import java.time.LocalDate
 import java.time.LocalDateTime
 import java.util.UUID
 
@@ -22,6 +32,175 @@ interface PaymentRepository : JpaRepository<Payment, UUID> {
         startDate: LocalDateTime, 
         endDate: LocalDateTime
     ): List<Payment>
+
+    @Query("""
+        SELECT new com.quisin.payments.repository.PaymentMethodTotals(
+            p.paymentMethod,
+            COUNT(p),
+            SUM(CASE WHEN p.status = com.quisin.payments.domain.PaymentStatus.SUCCESSFUL THEN 1 ELSE 0 END),
+            COALESCE(SUM(p.amount), 0)
+        )
+        FROM Payment p
+        WHERE p.createdAt >= :startDate AND p.createdAt < :endDate
+        GROUP BY p.paymentMethod
+    """)
+    fun aggregateByPaymentMethod(
+        @Param("startDate") startDate: LocalDateTime,
+        @Param("endDate") endDate: LocalDateTime
+    ): List<PaymentMethodTotals>
+
+    @Query("""
+        SELECT new com.quisin.payments.repository.UserPaymentTotals(
+            COUNT(p),
+            COALESCE(SUM(p.amount), 0),
+            SUM(CASE WHEN p.status = com.quisin.payments.domain.PaymentStatus.FAILED THEN 1 ELSE 0 END)
+        )
+        FROM Payment p
+        WHERE p.userId = :userId
+    """)
+    fun summarizeByUserId(@Param("userId") userId: UUID): UserPaymentTotals
+
+    @Query("SELECT MIN(p.createdAt) FROM Payment p")
+    fun findFirstCreatedAt(): LocalDateTime?
+
+    @Query("SELECT MAX(p.createdAt) FROM Payment p")
+    fun findLastCreatedAt(): LocalDateTime?
+
+    // Held until the transaction ends; status changes to these payments wait for it
+    @Query(
+        value = """
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM payments WHERE created_at >= :startDate AND created_at < :endDate FOR SHARE
+            ) locked
+        """,
+        nativeQuery = true
+    )
+    fun lockCreatedBetween(
+        @Param("startDate") startDate: LocalDateTime,
+        @Param("endDate") endDate: LocalDateTime
+    ): Long
+
+    @Query("SELECT p.createdAt FROM Payment p WHERE p.userId = :userId AND p.createdAt >= :since")
+    fun findCreatedAtByUserIdSince(
+        @Param("userId") userId: UUID,
+        @Param("since") since: LocalDateTime
+    ): List<LocalDateTime>
+}
+
+@Repository
+interface PaymentDailyRollupRepository : JpaRepository<PaymentDailyRollup, Long> {
+    @Modifying
+    @Query(
+        value = """
+            INSERT INTO payment_daily_rollups (day, payment_method, total_transactions, successful_transactions, total_amount)
+            VALUES (:day, :paymentMethod, :transactions, :successfulTransactions, :amount)
+            ON CONFLICT (day, payment_method) DO UPDATE SET
+                total_transactions = payment_daily_rollups.total_transactions + EXCLUDED.total_transactions,
+                successful_transactions = payment_daily_rollups.successful_transactions + EXCLUDED.successful_transactions,
+                total_amount = payment_daily_rollups.total_amount + EXCLUDED.total_amount
+        """,
+        nativeQuery = true
+    )
+    fun applyDelta(
+        @Param("day") day: LocalDate,
+        @Param("paymentMethod") paymentMethod: String,
+        @Param("transactions") transactions: Long,
+        @Param("successfulTransactions") successfulTransactions: Long,
+        @Param("amount") amount: BigDecimal
+    ): Int
+
+    // Sets the day's rows to the payments table's totals in one statement, dropping methods it no longer has
+    @Modifying
+    @Query(
+        value = """
+            WITH totals AS (
+                SELECT payment_method,
+                       COUNT(*) AS total_transactions,
+                       COUNT(*) FILTER (WHERE status = 'SUCCESSFUL') AS successful_transactions,
+                       COALESCE(SUM(amount), 0) AS total_amount
+                FROM payments
+                WHERE created_at >= :startDate AND created_at < :endDate
+                GROUP BY payment_method
+            ), stale AS (
+                DELETE FROM payment_daily_rollups
+                WHERE day = :day AND payment_method NOT IN (SELECT payment_method FROM totals)
+            )
+            INSERT INTO payment_daily_rollups (day, payment_method, total_transactions, successful_transactions, total_amount)
+            SELECT :day, payment_method, total_transactions, successful_transactions, total_amount FROM totals
+            ON CONFLICT (day, payment_method) DO UPDATE SET
+                total_transactions = EXCLUDED.total_transactions,
+                successful_transactions = EXCLUDED.successful_transactions,
+                total_amount = EXCLUDED.total_amount
+        """,
+        nativeQuery = true
+    )
+    fun replaceDay(
+        @Param("day") day: LocalDate,
+        @Param("startDate") startDate: LocalDateTime,
+        @Param("endDate") endDate: LocalDateTime
+    ): Int
+
+    @Query("SELECT MIN(r.day) FROM PaymentDailyRollup r")
+    fun findFirstDay(): LocalDate?
+
+    // Held until the transaction ends; keeps two rebuilds of the same day from adding up their totals
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:namespace, :key)", nativeQuery = true)
+    fun tryLockDay(@Param("namespace") namespace: Int, @Param("key") key: Int): Boolean
+
+    @Query("""
+        SELECT new com.quisin.payments.repository.PaymentMethodTotals(
+            r.paymentMethod,
+            SUM(r.totalTransactions),
+            SUM(r.successfulTransactions),
+            SUM(r.totalAmount)
+        )
+        FROM PaymentDailyRollup r
+        WHERE r.day >= :startDay AND r.day < :endDay
+        GROUP BY r.paymentMethod
+    """)
+    fun aggregateByPaymentMethod(
+        @Param("startDay") startDay: LocalDate,
+        @Param("endDay") endDay: LocalDate
+    ): List<PaymentMethodTotals>
+}
+
+@Repository
+interface UserPaymentFeaturesRepository : JpaRepository<UserPaymentFeatures, UUID> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM UserPaymentFeatures f WHERE f.userId = :userId")
+    fun findForUpdate(@Param("userId") userId: UUID): UserPaymentFeatures?
+
+    // Returns 0 when the user already has a row, including one another transaction is still inserting
+    @Modifying
+    @Query(
+        value = """
+            INSERT INTO user_payment_features (user_id, payment_count, total_amount, failed_count, hourly_counts, latest_hour, revision)
+            VALUES (:userId, 0, 0, 0, array_fill(0, ARRAY[${UserPaymentFeatures.WINDOW_HOURS}]), 0, 0)
+            ON CONFLICT (user_id) DO NOTHING
+        """,
+        nativeQuery = true
+    )
+    fun insertIfAbsent(@Param("userId") userId: UUID): Int
+}
+
+data class UserPaymentTotals(
+    val paymentCount: Long,
+    val totalAmount: BigDecimal,
+    val failedCount: Long?
+)
+
+data class PaymentMethodTotals(
+    val paymentMethod: PaymentMethod,
+    val totalTransactions: Long,
+    val successfulTransactions: Long,
+    val totalAmount: BigDecimal
+) {
+    operator fun plus(other: PaymentMethodTotals) = PaymentMethodTotals(
+        paymentMethod = paymentMethod,
+        totalTransactions = totalTransactions + other.totalTransactions,
+        successfulTransactions = successfulTransactions + other.successfulTransactions,
+        totalAmount = totalAmount + other.totalAmount
+    )
 }
 
 @Repository
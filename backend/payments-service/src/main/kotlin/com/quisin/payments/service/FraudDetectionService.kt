@@ -1,15 +1,16 @@
 package com.quisin.payments.service
 
 import com.quisin.payments.domain.Payment
+import com.quisin.payments.domain.UserPaymentFeatures
 import com.quisin.payments.repository.PaymentRepository
 import org.springframework.stereotype.Service
 import java.math.BigDecimal
-import java.time.LocalDateTime
 import java.util.UUID
 
 @Service
 class FraudDetectionService(
-    private val paymentRepository: PaymentRepository
+    private val paymentRepository: PaymentRepository,
+    private val paymentFeatureStore: PaymentFeatureStore
 ) {
     data class FraudRiskAssessment(
         val riskScore: Double,
@@ -30,12 +31,13 @@ class FraudDetectionService(
     ): FraudRiskAssessment {
         val flags = mutableListOf<String>()
         var riskScore = 0.0
+        val features = paymentFeatureStore.features(userId)
 
         // 1. Unusual Transaction Amount
-        riskScore += assessTransactionAmount(amount, userId)
+        riskScore += assessTransactionAmount(amount, features)
         
         // 2. Frequency of Transactions
-        riskScore += assessTransactionFrequency(userId)
+        riskScore += assessTransactionFrequency(features)
         
         // 3. Geographic Inconsistency
         riskScore += assessGeographicConsistency(userId)
@@ -44,7 +46,7 @@ class FraudDetectionService(
         riskScore += assessPaymentMethodRisk(paymentMethod)
         
         // 5. Historical Payment Behavior
-        riskScore += assessHistoricalBehavior(userId)
+        riskScore += assessHistoricalBehavior(features)
 
         // Determine recommendation based on risk score
         val recommendation = when {
@@ -60,9 +62,8 @@ class FraudDetectionService(
         )
     }
 
-    private fun assessTransactionAmount(amount: BigDecimal, userId: UUID): Double {
-        val userPayments = paymentRepository.findByUserIdAndStatus(userId, null)
-        val averageAmount = userPayments.map { it.amount }.average().orElse(0.0)
+    private fun assessTransactionAmount(amount: BigDecimal, features: UserPaymentFeatures): Double {
+        val averageAmount = paymentFeatureStore.averageAmount(features)
         
         return when {
             amount.toDouble() > averageAmount * 3 -> 30.0
@@ -71,13 +72,12 @@ class FraudDetectionService(
         }
     }
 
-    private fun assessTransactionFrequency(userId: UUID): Double {
-        val recentPayments = paymentRepository.findByUserIdAndStatus(userId, null)
-            .filter { it.createdAt?.isAfter(LocalDateTime.now().minusDays(1)) ?: false }
+    private fun assessTransactionFrequency(features: UserPaymentFeatures): Double {
+        val recentPayments = paymentFeatureStore.countLast24Hours(features)
         
         return when {
-            recentPayments.size > 5 -> 25.0
-            recentPayments.size > 3 -> 15.0
+            recentPayments > 5 -> 25.0
+            recentPayments > 3 -> 15.0
             else -> 0.0
         }
     }
@@ -96,14 +96,8 @@ class FraudDetectionService(
         }
     }
 
-    private fun assessHistoricalBehavior(userId: UUID): Double {
-        val userPayments = paymentRepository.findByUserIdAndStatus(userId, null)
-        
-        val failedPaymentsRatio = userPayments
-            .count { it.status != null && it.status.toString().contains("FAILED") }
-            .toDouble() / userPayments.size
-
-        return failedPaymentsRatio * 25.0
+    private fun assessHistoricalBehavior(features: UserPaymentFeatures): Double {
+        return paymentFeatureStore.failureRatio(features) * 25.0
     }
 
     fun blockTransaction(paymentId: UUID, reason: String) {
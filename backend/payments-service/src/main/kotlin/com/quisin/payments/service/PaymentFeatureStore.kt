@@ -0,0 +1,174 @@
+package com.quisin.payments.service
+
+import com.quisin.payments.domain.Payment
+import com.quisin.payments.domain.PaymentStatus
+import com.quisin.payments.domain.UserPaymentFeatures
+import com.quisin.payments.domain.UserPaymentFeatures.Companion.WINDOW_HOURS
+import com.quisin.payments.repository.PaymentRepository
+import com.quisin.payments.repository.UserPaymentFeaturesRepository
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+import org.springframework.transaction.annotation.Propagation
+import org.springframework.transaction.annotation.Transactional
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.math.BigDecimal
+import java.math.RoundingMode
+import java.time.Duration
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.util.Collections
+import java.util.UUID
+
+/**
+ * Rolling per-user payment features (count, amount, failures and an hourly 24h window).
+ *
+ * Features are updated on the payment write path and persisted in the same transaction, so scoring
+ * never has to scan a user's payment history. Writers update the user's row under a row lock, so
+ * concurrent payments of one user are applied one after the other and none is lost. Cached
+ * instances are never mutated: a copy of the written row replaces the cached one once the
+ * transaction commits, unless the cache already holds a later revision.
+ *
+ * Payments of one user can be written on any instance, and only the writing instance's cache
+ * sees them, so cached features expire after a short while and are read from the row again.
+ */
+@Component
+class PaymentFeatureStore(
+    private val featuresRepository: UserPaymentFeaturesRepository,
+    private val paymentRepository: PaymentRepository,
+    @Value("\${payments.fraud.features.cache-size:50000}") private val cacheSize: Int,
+    @Value("\${payments.fraud.features.cache-ttl:PT10S}") cacheTtl: Duration
+) {
+    private val cacheTtlNanos = cacheTtl.toNanos()
+
+    private val cache: MutableMap<UUID, CachedFeatures> = Collections.synchronizedMap(
+        object : LinkedHashMap<UUID, CachedFeatures>(1024, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<UUID, CachedFeatures>) =
+                size > cacheSize
+        }
+    )
+
+    @Transactional(readOnly = true)
+    fun features(userId: UUID): UserPaymentFeatures {
+        cache[userId]?.takeIf { System.nanoTime() - it.cachedAt < cacheTtlNanos }?.let { return it.features }
+        val features = featuresRepository.findById(userId).orElseGet { bootstrap(userId) }
+        cacheLatest(userId, features)
+        return features
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun recordCreated(payment: Payment) {
+        update(payment.userId) { features ->
+            features.paymentCount++
+            features.totalAmount += payment.amount
+            if (payment.status == PaymentStatus.FAILED) {
+                features.failedCount++
+            }
+            addToWindow(features, epochHour(payment.createdAt ?: LocalDateTime.now()))
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun recordStatusChange(payment: Payment, previousStatus: PaymentStatus) {
+        val wasFailed = previousStatus == PaymentStatus.FAILED
+        val isFailed = payment.status == PaymentStatus.FAILED
+        if (wasFailed == isFailed) {
+            return
+        }
+        update(payment.userId) { features ->
+            features.failedCount += if (isFailed) 1 else -1
+        }
+    }
+
+    fun averageAmount(features: UserPaymentFeatures): Double =
+        if (features.paymentCount == 0L) 0.0
+        else features.totalAmount.divide(BigDecimal.valueOf(features.paymentCount), 2, RoundingMode.HALF_UP).toDouble()
+
+    fun failureRatio(features: UserPaymentFeatures): Double =
+        if (features.paymentCount == 0L) 0.0
+        else features.failedCount.toDouble() / features.paymentCount
+
+    fun countLast24Hours(features: UserPaymentFeatures, now: LocalDateTime = LocalDateTime.now()): Int {
+        val fromHour = maxOf(features.latestHour, epochHour(now)) - WINDOW_HOURS + 1
+        var count = 0
+        for (hour in fromHour..features.latestHour) {
+            count += features.hourlyCounts[slot(hour)]
+        }
+        return count
+    }
+
+    private fun update(userId: UUID, change: (UserPaymentFeatures) -> Unit) {
+        val created = featuresRepository.insertIfAbsent(userId) == 1
+        val features = featuresRepository.findForUpdate(userId)
+            ?: throw IllegalStateException("Payment features of user $userId are missing")
+        if (created) {
+            // The bootstrap query auto-flushes the pending write, so it already includes this change
+            val bootstrapped = bootstrap(userId)
+            features.paymentCount = bootstrapped.paymentCount
+            features.totalAmount = bootstrapped.totalAmount
+            features.failedCount = bootstrapped.failedCount
+            features.hourlyCounts = bootstrapped.hourlyCounts
+            features.latestHour = bootstrapped.latestHour
+        } else {
+            change(features)
+        }
+        features.revision++
+        val written = featuresRepository.save(features).copy()
+
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCommit() {
+                cacheLatest(userId, written)
+            }
+
+            override fun afterCompletion(status: Int) {
+                if (status != TransactionSynchronization.STATUS_COMMITTED) {
+                    cache.remove(userId)
+                }
+            }
+        })
+    }
+
+    // An expired entry is replaced even by an older revision, as the row may have been rewritten since
+    private fun cacheLatest(userId: UUID, features: UserPaymentFeatures) {
+        val now = System.nanoTime()
+        cache.merge(userId, CachedFeatures(features, now)) { cached, latest ->
+            if (latest.features.revision > cached.features.revision || now - cached.cachedAt >= cacheTtlNanos) latest
+            else cached
+        }
+    }
+
+    // One-off rebuild from payment history for users seen before the feature store existed
+    private fun bootstrap(userId: UUID): UserPaymentFeatures {
+        val totals = paymentRepository.summarizeByUserId(userId)
+        val features = UserPaymentFeatures(
+            userId = userId,
+            paymentCount = totals.paymentCount,
+            totalAmount = totals.totalAmount,
+            failedCount = totals.failedCount ?: 0
+        )
+        paymentRepository.findCreatedAtByUserIdSince(userId, LocalDateTime.now().minusHours(WINDOW_HOURS.toLong()))
+            .sorted()
+            .forEach { addToWindow(features, epochHour(it)) }
+        return features
+    }
+
+    private fun addToWindow(features: UserPaymentFeatures, hour: Long) {
+        if (hour > features.latestHour) {
+            val staleHours = minOf(hour - features.latestHour, WINDOW_HOURS.toLong())
+            for (offset in 1..staleHours) {
+                features.hourlyCounts[slot(features.latestHour + offset)] = 0
+            }
+            features.latestHour = hour
+        } else if (hour <= features.latestHour - WINDOW_HOURS) {
+            return
+        }
+        features.hourlyCounts[slot(hour)]++
+    }
+
+    private fun slot(hour: Long): Int = Math.floorMod(hour, WINDOW_HOURS.toLong()).toInt()
+
+    private fun epochHour(time: LocalDateTime): Long =
+        time.atZone(ZoneId.systemDefault()).toEpochSecond() / 3600
+
+    private class CachedFeatures(val features: UserPaymentFeatures, val cachedAt: Long)
+}
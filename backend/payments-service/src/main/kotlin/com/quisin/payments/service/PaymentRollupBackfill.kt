@@ -0,0 +1,66 @@
+package com.quisin.payments.service
+
+import com.quisin.payments.repository.PaymentDailyRollupRepository
+import com.quisin.payments.repository.PaymentRepository
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.context.event.ApplicationReadyEvent
+import org.springframework.context.event.EventListener
+import org.springframework.stereotype.Component
+import java.time.LocalDate
+
+/**
+ * Fills in the daily rollup for the days before it was first maintained. The rollup only holds
+ * days from the one it was deployed on, so every day from the first payment up to and including
+ * that one (which only has the payments made after the deployment) is rebuilt from the payments
+ * table. Once done, the rollup starts on the first payment's day and nothing is rebuilt again.
+ *
+ * Only closed days are rebuilt. While the deployment day is still open the backfill waits for a
+ * start on a later day, since rebuilding the days before it alone would leave it short for good.
+ *
+ * Days are rebuilt newest first, so a backfill that stops part way leaves the rollup starting on
+ * the oldest day it got to and the next start picks up from there.
+ */
+@Component
+class PaymentRollupBackfill(
+    private val paymentRepository: PaymentRepository,
+    private val rollupRepository: PaymentDailyRollupRepository,
+    private val paymentRollupService: PaymentRollupService,
+    @Value("\${payments.rollup.backfill-on-startup:true}") private val enabled: Boolean
+) {
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    @EventListener(ApplicationReadyEvent::class)
+    fun backfill() {
+        if (!enabled) {
+            return
+        }
+        val firstPaymentDay = paymentRepository.findFirstCreatedAt()?.toLocalDate() ?: return
+        val firstRollupDay = rollupRepository.findFirstDay()
+        if (firstRollupDay != null && !firstPaymentDay.isBefore(firstRollupDay)) {
+            return
+        }
+
+        // Without any rollup rows yet, no payment has been made since the deployment
+        val lastDay = firstRollupDay ?: paymentRepository.findLastCreatedAt()?.toLocalDate() ?: return
+        if (!lastDay.isBefore(LocalDate.now())) {
+            logger.info("Payment daily rollup backfill waits for $lastDay to close")
+            return
+        }
+        logger.info("Backfilling payment daily rollups from $firstPaymentDay to $lastDay")
+        var rebuilt = 0
+        var day = lastDay
+        while (!day.isBefore(firstPaymentDay)) {
+            try {
+                if (paymentRollupService.rebuildDay(day)) {
+                    rebuilt++
+                }
+            } catch (e: Exception) {
+                logger.error("Failed to rebuild payment daily rollup for $day, stopping the backfill", e)
+                return
+            }
+            day = day.minusDays(1)
+        }
+        logger.info("Backfilled $rebuilt days of payment daily rollups")
+    }
+}
@@ -0,0 +1,71 @@
+package com.quisin.payments.service
+
+import com.quisin.payments.domain.Payment
+import com.quisin.payments.domain.PaymentStatus
+import com.quisin.payments.repository.PaymentDailyRollupRepository
+import com.quisin.payments.repository.PaymentRepository
+import org.springframework.stereotype.Service
+import org.springframework.transaction.annotation.Propagation
+import org.springframework.transaction.annotation.Transactional
+import java.math.BigDecimal
+import java.time.LocalDate
+
+@Service
+class PaymentRollupService(
+    private val paymentRepository: PaymentRepository,
+    private val rollupRepository: PaymentDailyRollupRepository
+) {
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun recordCreated(payment: Payment) {
+        rollupRepository.applyDelta(
+            day = dayOf(payment),
+            paymentMethod = payment.paymentMethod.name,
+            transactions = 1,
+            successfulTransactions = if (payment.status == PaymentStatus.SUCCESSFUL) 1 else 0,
+            amount = payment.amount
+        )
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun recordStatusChange(payment: Payment, previousStatus: PaymentStatus) {
+        val wasSuccessful = previousStatus == PaymentStatus.SUCCESSFUL
+        val isSuccessful = payment.status == PaymentStatus.SUCCESSFUL
+        if (wasSuccessful == isSuccessful) {
+            return
+        }
+        rollupRepository.applyDelta(
+            day = dayOf(payment),
+            paymentMethod = payment.paymentMethod.name,
+            transactions = 0,
+            successfulTransactions = if (isSuccessful) 1 else -1,
+            amount = BigDecimal.ZERO
+        )
+    }
+
+    /**
+     * Recomputes one closed day from the payments table, e.g. to backfill days before the rollup
+     * existed. The day's payments are locked first, so a status change either commits before the
+     * totals are read or waits and adds its delta after the replace. Only closed days are rebuilt,
+     * as a payment created meanwhile could be counted twice. Returns false, without changing
+     * anything, when the day is being rebuilt elsewhere.
+     */
+    @Transactional
+    fun rebuildDay(day: LocalDate): Boolean {
+        require(day.isBefore(LocalDate.now())) { "Only closed days can be rebuilt, not $day" }
+        if (!rollupRepository.tryLockDay(REBUILD_LOCK_NAMESPACE, day.toEpochDay().toInt())) {
+            return false
+        }
+        val startDate = day.atStartOfDay()
+        val endDate = day.plusDays(1).atStartOfDay()
+        paymentRepository.lockCreatedBetween(startDate, endDate)
+        rollupRepository.replaceDay(day, startDate, endDate)
+        return true
+    }
+
+    private fun dayOf(payment: Payment): LocalDate =
+        payment.createdAt?.toLocalDate() ?: LocalDate.now()
+
+    companion object {
+        private const val REBUILD_LOCK_NAMESPACE = 0x50524450
+    }
+}
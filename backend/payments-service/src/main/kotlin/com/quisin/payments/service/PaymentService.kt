@@ -16,7 +16,9 @@ class PaymentService(
     private val paymentRepository: PaymentRepository,
     private val paymentSplitRepository: PaymentSplitRepository,
     private val paymentGatewayService: PaymentGatewayService,
-    private val eventPublisher: PaymentEventPublisher
+    private val eventPublisher: PaymentEventPublisher,
+    private val paymentRollupService: PaymentRollupService,
+    private val paymentFeatureStore: PaymentFeatureStore
 ) {
     @Transactional
     fun createPayment(request: CreatePaymentRequest): PaymentResponse {
@@ -47,6 +49,8 @@ class PaymentService(
         )
 
         val savedPayment = paymentRepository.save(payment)
+        paymentRollupService.recordCreated(savedPayment)
+        paymentFeatureStore.recordCreated(savedPayment)
         eventPublisher.publishPaymentEvent(savedPayment)
         return mapToPaymentResponse(savedPayment)
     }
@@ -78,6 +82,8 @@ class PaymentService(
         }
 
         paymentSplitRepository.saveAll(paymentSplits)
+        paymentRollupService.recordCreated(savedPayment)
+        paymentFeatureStore.recordCreated(savedPayment)
         eventPublisher.publishPaymentEvent(savedPayment)
         return mapToPaymentResponse(savedPayment)
     }
@@ -87,11 +93,14 @@ class PaymentService(
         val payment = paymentRepository.findById(paymentId)
             .orElseThrow { PaymentException("Payment not found") }
 
+        val previousStatus = payment.status
         request.status?.let { payment.status = it }
         request.externalTransactionId?.let { payment.externalTransactionId = it }
         request.metadata?.let { payment.metadata = it }
 
         val updatedPayment = paymentRepository.save(payment)
+        paymentRollupService.recordStatusChange(updatedPayment, previousStatus)
+        paymentFeatureStore.recordStatusChange(updatedPayment, previousStatus)
         eventPublisher.publishPaymentEvent(updatedPayment)
         return mapToPaymentResponse(updatedPayment)
     }
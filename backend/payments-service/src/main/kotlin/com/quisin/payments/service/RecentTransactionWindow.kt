@@ -0,0 +1,92 @@
+package com.quisin.payments.service
+
+import com.quisin.payments.service.TransactionMonitoringService.TransactionMonitoringEvent
+import java.time.Duration
+import java.time.LocalDateTime
+import java.time.ZoneId
+
+/**
+ * Sliding window of recent transactions, bucketed by minute with a per-user index.
+ *
+ * Buckets are kept in arrival order, so expiry only touches expired entries, and a user's
+ * history is read from that user's own queue. The window never holds more than [maxEntries]
+ * events; beyond that the oldest are dropped first.
+ */
+class RecentTransactionWindow(
+    private val retention: Duration,
+    private val maxEntries: Int
+) {
+    private class Bucket(val minute: Long) {
+        val events = ArrayList<TransactionMonitoringEvent>()
+    }
+
+    private val buckets = ArrayDeque<Bucket>()
+    private val byPaymentId = HashMap<String, TransactionMonitoringEvent>()
+    private val byUserId = HashMap<String, ArrayDeque<TransactionMonitoringEvent>>()
+    private var size = 0
+
+    @Synchronized
+    fun add(event: TransactionMonitoringEvent) {
+        expire(event.timestamp)
+
+        val minute = epochMinute(event.timestamp)
+        val bucket = buckets.lastOrNull()?.takeIf { it.minute >= minute }
+            ?: Bucket(minute).also { buckets.addLast(it) }
+        bucket.events.add(event)
+        byPaymentId[event.paymentId] = event
+        byUserId.getOrPut(event.userId) { ArrayDeque() }.addLast(event)
+        size++
+
+        while (size > maxEntries) {
+            evictOldest()
+        }
+    }
+
+    @Synchronized
+    fun expire(now: LocalDateTime = LocalDateTime.now()) {
+        val cutoff = epochMinute(now.minus(retention))
+        while (buckets.isNotEmpty() && buckets.first().minute < cutoff) {
+            val bucket = buckets.removeFirst()
+            bucket.events.forEach { remove(it) }
+            size -= bucket.events.size
+        }
+    }
+
+    @Synchronized
+    fun all(): List<TransactionMonitoringEvent> =
+        buckets.flatMap { bucket -> bucket.events.filter { isCurrent(it) } }
+
+    @Synchronized
+    fun forUser(userId: String): List<TransactionMonitoringEvent> =
+        byUserId[userId]
+            ?.filter { isCurrent(it) }
+            ?.asReversed()
+            ?: emptyList()
+
+    private fun evictOldest() {
+        val bucket = buckets.first()
+        remove(bucket.events.removeFirst())
+        size--
+        if (bucket.events.isEmpty()) {
+            buckets.removeFirst()
+        }
+    }
+
+    // Events leave the window in arrival order, so each one is at the head of its user's queue
+    private fun remove(event: TransactionMonitoringEvent) {
+        if (byPaymentId[event.paymentId] === event) {
+            byPaymentId.remove(event.paymentId)
+        }
+        val userEvents = byUserId[event.userId] ?: return
+        userEvents.removeFirst()
+        if (userEvents.isEmpty()) {
+            byUserId.remove(event.userId)
+        }
+    }
+
+    // A payment monitored again supersedes its earlier entry, as the old map keyed by payment id did
+    private fun isCurrent(event: TransactionMonitoringEvent) = byPaymentId[event.paymentId] === event
+
+    private fun epochMinute(time: LocalDateTime): Long =
+        time.atZone(ZoneId.systemDefault()).toEpochSecond() / 60
+}
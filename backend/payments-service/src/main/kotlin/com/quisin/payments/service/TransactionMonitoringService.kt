@@ -2,20 +2,23 @@ package com.quisin.payments.service
 
 import com.quisin.payments.domain.Payment
 import com.quisin.payments.domain.PaymentStatus
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.context.ApplicationEventPublisher
 import org.springframework.scheduling.annotation.Async
 import org.springframework.stereotype.Service
 import java.math.BigDecimal
+import java.time.Duration
 import java.time.LocalDateTime
-import java.util.concurrent.ConcurrentHashMap
 
 @Service
 class TransactionMonitoringService(
     private val eventPublisher: ApplicationEventPublisher,
-    private val fraudDetectionService: FraudDetectionService
+    private val fraudDetectionService: FraudDetectionService,
+    @Value("\${payments.monitoring.retention:PT24H}") retention: Duration,
+    @Value("\${payments.monitoring.max-entries:100000}") maxEntries: Int
 ) {
     // In-memory store for recent transactions
-    private val recentTransactions = ConcurrentHashMap<String, TransactionMonitoringEvent>()
+    private val recentTransactions = RecentTransactionWindow(retention, maxEntries)
 
     data class TransactionMonitoringEvent(
         val paymentId: String,
@@ -38,7 +41,7 @@ class TransactionMonitoringService(
         )
 
         // Store recent transaction
-        recentTransactions[event.paymentId] = event
+        recentTransactions.add(event)
 
         // Perform real-time risk assessment
         val riskAssessment = fraudDetectionService.assessTransactionRisk(
@@ -54,9 +57,6 @@ class TransactionMonitoringService(
         if (riskAssessment.recommendation != FraudDetectionService.FraudRecommendation.APPROVE) {
             handleHighRiskTransaction(event, riskAssessment)
         }
-
-        // Clean up old transactions
-        cleanupOldTransactions()
     }
 
     private fun handleHighRiskTransaction(
@@ -99,20 +99,13 @@ class TransactionMonitoringService(
         )
     }
 
-    private fun cleanupOldTransactions() {
-        val cutoffTime = LocalDateTime.now().minusHours(24)
-        recentTransactions.entries.removeIf { 
-            it.value.timestamp.isBefore(cutoffTime) 
-        }
-    }
-
     fun getRecentTransactions(): List<TransactionMonitoringEvent> {
-        return recentTransactions.values.toList()
+        recentTransactions.expire()
+        return recentTransactions.all()
     }
 
     fun getTransactionHistory(userId: String): List<TransactionMonitoringEvent> {
-        return recentTransactions.values
-            .filter { it.userId == userId }
-            .sortedByDescending { it.timestamp }
+        recentTransactions.expire()
+        return recentTransactions.forUser(userId)
     }
 }
@@ -0,0 +1,27 @@
+package com.quisin.qrcode.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class QRCodeRenderConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor qrCodeRenderExecutor(
+            @Value("${quisin.qrcode.render.pool-size:4}") int poolSize,
+            @Value("${quisin.qrcode.render.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("qrcode-render-");
+        // Render on the request thread rather than failing when the pool is saturated
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
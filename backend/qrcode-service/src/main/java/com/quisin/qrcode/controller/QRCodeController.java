@@ -10,6 +10,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -60,6 +61,25 @@ public class QRCodeController {
                 .body(qrCode.getQrCodeImage());
     }
 
+    @GetMapping("/restaurant/{restaurantId}/qrcodes")
+    public ResponseEntity<StreamingResponseBody> generateRestaurantQRCodes(
+            @PathVariable String restaurantId,
+            @RequestParam(defaultValue = "ZIP") String format) {
+
+        String contentType = format.equalsIgnoreCase("PDF") ?
+                MediaType.APPLICATION_PDF_VALUE :
+                "application/zip";
+
+        String filename = String.format("qrcodes_%s.%s",
+                restaurantId,
+                format.toLowerCase());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(outputStream -> qrCodeService.writeRestaurantQRCodes(restaurantId, format, outputStream));
+    }
+
     @GetMapping("/restaurant/{restaurantId}/suggest-number")
     public ResponseEntity<String> suggestNextTableNumber(
             @PathVariable String restaurantId,
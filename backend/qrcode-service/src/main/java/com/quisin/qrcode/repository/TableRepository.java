@@ -11,6 +11,7 @@ import java.util.Optional;
 @Repository
 public interface TableRepository extends JpaRepository<RestaurantTable, Long> {
     List<RestaurantTable> findByRestaurantId(String restaurantId);
+    List<RestaurantTable> findByRestaurantIdOrderByTableNumberAsc(String restaurantId);
     Optional<RestaurantTable> findByTableNumberAndRestaurantId(String tableNumber, String restaurantId);
     boolean existsByTableNumberAndRestaurantId(String tableNumber, String restaurantId);
     
@@ -0,0 +1,56 @@
+package com.quisin.qrcode.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of rendered QR code images, keyed by table and output format.
+ * Each entry remembers a hash of the content it was rendered from, so a changed URL or
+ * table number is re-rendered even if an eviction was missed.
+ */
+@Component
+public class QRCodeImageCache {
+
+    private record Key(Long tableId, String format) {
+    }
+
+    private record Entry(int contentHash, byte[] image) {
+    }
+
+    private final Map<Key, Entry> images;
+
+    public QRCodeImageCache(@Value("${quisin.qrcode.cache.maximum-size:2000}") int maximumSize) {
+        this.images = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        });
+    }
+
+    public byte[] get(Long tableId, String format, String qrCodeUrl, String tableNumber) {
+        Entry entry = images.get(new Key(tableId, format.toUpperCase()));
+        if (entry == null || entry.contentHash() != contentHash(qrCodeUrl, tableNumber)) {
+            return null;
+        }
+        return entry.image();
+    }
+
+    public void put(Long tableId, String format, String qrCodeUrl, String tableNumber, byte[] image) {
+        images.put(new Key(tableId, format.toUpperCase()), new Entry(contentHash(qrCodeUrl, tableNumber), image));
+    }
+
+    public void evictTable(Long tableId) {
+        images.remove(new Key(tableId, QRCodeRenderer.FORMAT_PNG));
+        images.remove(new Key(tableId, QRCodeRenderer.FORMAT_PDF));
+    }
+
+    private int contentHash(String qrCodeUrl, String tableNumber) {
+        return Objects.hash(qrCodeUrl, tableNumber);
+    }
+}
@@ -0,0 +1,169 @@
+package com.quisin.qrcode.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Draws the branded table QR code and encodes it as PNG or PDF.
+ */
+@Component
+public class QRCodeRenderer {
+
+    public static final String FORMAT_PNG = "PNG";
+    public static final String FORMAT_PDF = "PDF";
+
+    private static final int QR_CODE_SIZE = 300;
+    private static final int PADDING = 40;
+    private static final int HEADER_HEIGHT = 60;
+    private static final int FOOTER_HEIGHT = 80;
+    private static final int TOTAL_HEIGHT = QR_CODE_SIZE + HEADER_HEIGHT + FOOTER_HEIGHT + (PADDING * 2);
+    private static final int TOTAL_WIDTH = QR_CODE_SIZE + (PADDING * 2);
+    private static final Color BRAND_COLOR = Color.decode("#FF6B00");
+    private static final Color BACKGROUND_COLOR = Color.WHITE;
+    private static final Color TEXT_COLOR = new Color(51, 51, 51); // Dark gray
+    private static final int CORNER_RADIUS = 20;
+
+    public byte[] render(String qrCodeUrl, String tableNumber, String format) throws IOException {
+        byte[] png = renderPng(qrCodeUrl, tableNumber);
+        if (!FORMAT_PDF.equalsIgnoreCase(format)) {
+            return png;
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (PdfPages pages = openPdf(outputStream)) {
+            pages.add(png);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Opens a PDF on the given stream that takes one rendered PNG per page. Closing the
+     * returned pages finishes the document but leaves the stream open for the caller.
+     */
+    public PdfPages openPdf(OutputStream outputStream) throws IOException {
+        Document document = new Document(new Rectangle(TOTAL_WIDTH, TOTAL_HEIGHT), 0, 0, 0, 0);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false);
+        } catch (DocumentException e) {
+            throw new IOException("Error opening QR code PDF", e);
+        }
+        document.open();
+        return new PdfPages(document);
+    }
+
+    public static final class PdfPages implements Closeable {
+        private final Document document;
+
+        private PdfPages(Document document) {
+            this.document = document;
+        }
+
+        public void add(byte[] png) throws IOException {
+            try {
+                document.newPage();
+                Image image = Image.getInstance(png);
+                image.setAbsolutePosition(0, 0);
+                document.add(image);
+            } catch (DocumentException e) {
+                throw new IOException("Error writing QR code PDF", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            document.close();
+        }
+    }
+
+    private byte[] renderPng(String qrCodeUrl, String tableNumber) throws IOException {
+        BitMatrix bitMatrix;
+        try {
+            bitMatrix = new QRCodeWriter().encode(qrCodeUrl, BarcodeFormat.QR_CODE, QR_CODE_SIZE, QR_CODE_SIZE);
+        } catch (WriterException e) {
+            throw new IOException("Error encoding QR code", e);
+        }
+        BufferedImage qrCodeImage = MatrixToImageWriter.toBufferedImage(bitMatrix);
+
+        // Create the complete image with padding
+        BufferedImage completeImage = new BufferedImage(TOTAL_WIDTH, TOTAL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = completeImage.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Set background
+        graphics.setColor(BACKGROUND_COLOR);
+        graphics.fillRect(0, 0, TOTAL_WIDTH, TOTAL_HEIGHT);
+
+        // Add rounded rectangle border
+        graphics.setColor(BRAND_COLOR);
+        graphics.setStroke(new BasicStroke(2f));
+        RoundRectangle2D roundedRectangle = new RoundRectangle2D.Float(
+                PADDING/2, PADDING/2,
+                TOTAL_WIDTH - PADDING,
+                TOTAL_HEIGHT - PADDING,
+                CORNER_RADIUS, CORNER_RADIUS
+        );
+        graphics.draw(roundedRectangle);
+
+        // Add header with table number
+        graphics.setColor(BRAND_COLOR);
+        graphics.setFont(new Font("Arial", Font.BOLD, 32));
+        String headerText = "#" + tableNumber;
+        FontMetrics metrics = graphics.getFontMetrics();
+        int headerX = (TOTAL_WIDTH - metrics.stringWidth(headerText)) / 2;
+        graphics.drawString(headerText, headerX, HEADER_HEIGHT);
+
+        // Draw QR code with padding
+        graphics.drawImage(qrCodeImage, PADDING, HEADER_HEIGHT, null);
+
+        // Add divider line
+        graphics.setColor(new Color(230, 230, 230)); // Light gray
+        graphics.setStroke(new BasicStroke(1f));
+        graphics.drawLine(
+                PADDING,
+                TOTAL_HEIGHT - FOOTER_HEIGHT,
+                TOTAL_WIDTH - PADDING,
+                TOTAL_HEIGHT - FOOTER_HEIGHT
+        );
+
+        // Add footer text
+        graphics.setColor(TEXT_COLOR);
+        graphics.setFont(new Font("Arial", Font.BOLD, 14));
+        String footerText = "Scan this QR code to:";
+        metrics = graphics.getFontMetrics();
+        int footerX = (TOTAL_WIDTH - metrics.stringWidth(footerText)) / 2;
+        graphics.drawString(footerText, footerX, TOTAL_HEIGHT - FOOTER_HEIGHT + 30);
+
+        // Add menu text with bullet point
+        graphics.setFont(new Font("Arial", Font.PLAIN, 14));
+        String menuText = "• View our digital menu";
+        metrics = graphics.getFontMetrics();
+        int menuX = (TOTAL_WIDTH - metrics.stringWidth(menuText)) / 2;
+        graphics.drawString(menuText, menuX, TOTAL_HEIGHT - FOOTER_HEIGHT + 55);
+
+        graphics.dispose();
+
+        // Convert to byte array
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(completeImage, FORMAT_PNG, outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -4,6 +4,8 @@ import com.quisin.qrcode.dto.QRCodeResponse;
 import com.quisin.qrcode.dto.TableRequest;
 import com.quisin.qrcode.dto.TableResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface QRCodeService {
@@ -11,6 +13,7 @@ public interface QRCodeService {
     List<TableResponse> getTablesByRestaurantId(String restaurantId);
     TableResponse getTableByNumber(String restaurantId, String tableNumber);
     QRCodeResponse generateQRCode(String restaurantId, String tableNumber, String format);
+    void writeRestaurantQRCodes(String restaurantId, String format, OutputStream outputStream) throws IOException;
     String suggestNextTableNumber(String restaurantId, String pattern);
     void deleteTable(String restaurantId, String tableNumber);
     TableResponse updateTable(String restaurantId, String tableNumber, TableRequest request);
@@ -1,9 +1,5 @@
 package com.quisin.qrcode.service.impl;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 import com.quisin.qrcode.dto.QRCodeResponse;
 import com.quisin.qrcode.dto.TableRequest;
 import com.quisin.qrcode.dto.TableResponse;
@@ -11,22 +7,30 @@ import com.quisin.qrcode.exception.TableAlreadyExistsException;
 import com.quisin.qrcode.exception.TableNotFoundException;
 import com.quisin.qrcode.model.RestaurantTable;
 import com.quisin.qrcode.repository.TableRepository;
+import com.quisin.qrcode.service.QRCodeImageCache;
+import com.quisin.qrcode.service.QRCodeRenderer;
 import com.quisin.qrcode.service.QRCodeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.geom.RoundRectangle2D;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Slf4j
 @Service
@@ -34,20 +38,17 @@ import java.util.stream.Collectors;
 public class QRCodeServiceImpl implements QRCodeService {
 
     private final TableRepository tableRepository;
-    private static final int QR_CODE_SIZE = 300;
-    private static final int PADDING = 40;
-    private static final int HEADER_HEIGHT = 60;
-    private static final int FOOTER_HEIGHT = 80;
-    private static final int TOTAL_HEIGHT = QR_CODE_SIZE + HEADER_HEIGHT + FOOTER_HEIGHT + (PADDING * 2);
-    private static final int TOTAL_WIDTH = QR_CODE_SIZE + (PADDING * 2);
-    private static final Color BRAND_COLOR = Color.decode("#FF6B00");
-    private static final Color BACKGROUND_COLOR = Color.WHITE;
-    private static final Color TEXT_COLOR = new Color(51, 51, 51); // Dark gray
-    private static final int CORNER_RADIUS = 20;
+    private final QRCodeRenderer qrCodeRenderer;
+    private final QRCodeImageCache qrCodeImageCache;
+    private final ThreadPoolTaskExecutor qrCodeRenderExecutor;
+    private static final String BULK_FORMAT_ZIP = "ZIP";
 
     @Value("${quisin.qrcode.base-url}")
     private String baseUrl;
 
+    @Value("${quisin.qrcode.render.window:16}")
+    private int renderWindow;
+
     @Override
     @Transactional
     public TableResponse createTable(TableRequest request) {
@@ -88,78 +89,9 @@ public class QRCodeServiceImpl implements QRCodeService {
                 .orElseThrow(() -> new TableNotFoundException("Table " + tableNumber + " not found"));
 
         try {
-            // Generate QR code
-            String qrCodeUrl = table.getQrCodeUrl();
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(qrCodeUrl, BarcodeFormat.QR_CODE, QR_CODE_SIZE, QR_CODE_SIZE);
-            BufferedImage qrCodeImage = MatrixToImageWriter.toBufferedImage(bitMatrix);
-
-            // Create the complete image with padding
-            BufferedImage completeImage = new BufferedImage(TOTAL_WIDTH, TOTAL_HEIGHT, BufferedImage.TYPE_INT_RGB);
-            Graphics2D graphics = completeImage.createGraphics();
-            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-            // Set background
-            graphics.setColor(BACKGROUND_COLOR);
-            graphics.fillRect(0, 0, TOTAL_WIDTH, TOTAL_HEIGHT);
-
-            // Add rounded rectangle border
-            graphics.setColor(BRAND_COLOR);
-            graphics.setStroke(new BasicStroke(2f));
-            RoundRectangle2D roundedRectangle = new RoundRectangle2D.Float(
-                    PADDING/2, PADDING/2,
-                    TOTAL_WIDTH - PADDING,
-                    TOTAL_HEIGHT - PADDING,
-                    CORNER_RADIUS, CORNER_RADIUS
-            );
-            graphics.draw(roundedRectangle);
-
-            // Add header with table number
-            graphics.setColor(BRAND_COLOR);
-            graphics.setFont(new Font("Arial", Font.BOLD, 32));
-            String headerText = "#" + table.getTableNumber();
-            FontMetrics metrics = graphics.getFontMetrics();
-            int headerX = (TOTAL_WIDTH - metrics.stringWidth(headerText)) / 2;
-            graphics.drawString(headerText, headerX, HEADER_HEIGHT);
-
-            // Draw QR code with padding
-            graphics.drawImage(qrCodeImage, PADDING, HEADER_HEIGHT, null);
-
-            // Add divider line
-            graphics.setColor(new Color(230, 230, 230)); // Light gray
-            graphics.setStroke(new BasicStroke(1f));
-            graphics.drawLine(
-                    PADDING,
-                    TOTAL_HEIGHT - FOOTER_HEIGHT,
-                    TOTAL_WIDTH - PADDING,
-                    TOTAL_HEIGHT - FOOTER_HEIGHT
-            );
-
-            // Add footer text
-            graphics.setColor(TEXT_COLOR);
-            graphics.setFont(new Font("Arial", Font.BOLD, 14));
-            String footerText = "Scan this QR code to:";
-            metrics = graphics.getFontMetrics();
-            int footerX = (TOTAL_WIDTH - metrics.stringWidth(footerText)) / 2;
-            graphics.drawString(footerText, footerX, TOTAL_HEIGHT - FOOTER_HEIGHT + 30);
-
-            // Add menu text with bullet point
-            graphics.setFont(new Font("Arial", Font.PLAIN, 14));
-            String menuText = "• View our digital menu";
-            metrics = graphics.getFontMetrics();
-            int menuX = (TOTAL_WIDTH - metrics.stringWidth(menuText)) / 2;
-            graphics.drawString(menuText, menuX, TOTAL_HEIGHT - FOOTER_HEIGHT + 55);
-
-            graphics.dispose();
-
-            // Convert to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            ImageIO.write(completeImage, format.toUpperCase(), outputStream);
-
             return QRCodeResponse.builder()
-                    .qrCodeUrl(qrCodeUrl)
-                    .qrCodeImage(outputStream.toByteArray())
+                    .qrCodeUrl(table.getQrCodeUrl())
+                    .qrCodeImage(renderCached(table, format))
                     .tableNumber(table.getTableNumber())
                     .build();
         } catch (Exception e) {
@@ -168,6 +100,29 @@ public class QRCodeServiceImpl implements QRCodeService {
         }
     }
 
+    @Override
+    public void writeRestaurantQRCodes(String restaurantId, String format, OutputStream outputStream) throws IOException {
+        List<RestaurantTable> tables = tableRepository.findByRestaurantIdOrderByTableNumberAsc(restaurantId);
+
+        if (QRCodeRenderer.FORMAT_PDF.equalsIgnoreCase(format)) {
+            try (QRCodeRenderer.PdfPages pages = qrCodeRenderer.openPdf(outputStream)) {
+                renderInParallel(tables, QRCodeRenderer.FORMAT_PNG, (table, image) -> pages.add(image));
+            }
+            return;
+        }
+        if (!BULK_FORMAT_ZIP.equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported bulk QR code format: " + format);
+        }
+
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+        renderInParallel(tables, QRCodeRenderer.FORMAT_PNG, (table, image) -> {
+            zipOutputStream.putNextEntry(new ZipEntry(String.format("qrcode_%s_%s.png", restaurantId, table.getTableNumber())));
+            zipOutputStream.write(image);
+            zipOutputStream.closeEntry();
+        });
+        zipOutputStream.finish();
+    }
+
     @Override
     public String suggestNextTableNumber(String restaurantId, String pattern) {
         List<String> existingNumbers = tableRepository.findLastTableNumberByRestaurantId(restaurantId);
@@ -185,6 +140,7 @@ public class QRCodeServiceImpl implements QRCodeService {
         RestaurantTable table = tableRepository.findByTableNumberAndRestaurantId(tableNumber, restaurantId)
                 .orElseThrow(() -> new TableNotFoundException("Table " + tableNumber + " not found"));
         tableRepository.delete(table);
+        qrCodeImageCache.evictTable(table.getId());
     }
 
     @Override
@@ -204,7 +160,60 @@ public class QRCodeServiceImpl implements QRCodeService {
             table.setQrCodeUrl(generateQRCodeUrl(restaurantId, request.getTableNumber()));
         }
 
-        return mapToResponse(tableRepository.save(table));
+        RestaurantTable updatedTable = tableRepository.save(table);
+        qrCodeImageCache.evictTable(updatedTable.getId());
+        return mapToResponse(updatedTable);
+    }
+
+    private byte[] renderCached(RestaurantTable table, String format) throws IOException {
+        byte[] image = qrCodeImageCache.get(table.getId(), format, table.getQrCodeUrl(), table.getTableNumber());
+        if (image == null) {
+            image = qrCodeRenderer.render(table.getQrCodeUrl(), table.getTableNumber(), format);
+            qrCodeImageCache.put(table.getId(), format, table.getQrCodeUrl(), table.getTableNumber(), image);
+        }
+        return image;
+    }
+
+    /**
+     * Renders tables on the bounded render pool while writing results in table order. At most
+     * {@code renderWindow} images are in flight, so a large restaurant never sits fully in memory.
+     */
+    private void renderInParallel(List<RestaurantTable> tables, String format, RenderedTableWriter writer) throws IOException {
+        Deque<Map.Entry<RestaurantTable, CompletableFuture<byte[]>>> inFlight = new ArrayDeque<>();
+        try {
+            for (RestaurantTable table : tables) {
+                inFlight.addLast(Map.entry(table, CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return renderCached(table, format);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, qrCodeRenderExecutor)));
+                if (inFlight.size() >= renderWindow) {
+                    writeNext(inFlight, writer);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeNext(inFlight, writer);
+            }
+        } finally {
+            inFlight.forEach(entry -> entry.getValue().cancel(false));
+        }
+    }
+
+    private void writeNext(Deque<Map.Entry<RestaurantTable, CompletableFuture<byte[]>>> inFlight,
+                           RenderedTableWriter writer) throws IOException {
+        Map.Entry<RestaurantTable, CompletableFuture<byte[]>> next = inFlight.removeFirst();
+        try {
+            writer.write(next.getKey(), next.getValue().join());
+        } catch (CompletionException e) {
+            throw new IOException("Error generating QR code for table " + next.getKey().getTableNumber(), e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RenderedTableWriter {
+        void write(RestaurantTable table, byte[] image) throws IOException;
     }
 
     private String generateQRCodeUrl(String restaurantId, String tableNumber) {
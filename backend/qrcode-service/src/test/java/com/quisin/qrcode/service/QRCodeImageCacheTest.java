@@ -0,0 +1,70 @@
+package com.quisin.qrcode.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QRCodeImageCacheTest {
+
+    private static final String URL = "https://quisin.test/restaurant/r1/table/T01";
+    private static final byte[] IMAGE = {1, 2, 3};
+
+    private QRCodeImageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new QRCodeImageCache(2);
+    }
+
+    @Test
+    void get_ReturnsImageRenderedFromSameContent() {
+        // Arrange
+        cache.put(1L, "png", URL, "T01", IMAGE);
+
+        // Act & Assert
+        assertThat(cache.get(1L, "PNG", URL, "T01")).isSameAs(IMAGE);
+        assertThat(cache.get(1L, "PDF", URL, "T01")).isNull();
+        assertThat(cache.get(2L, "PNG", URL, "T01")).isNull();
+    }
+
+    @Test
+    void get_ContentChanged_ReturnsNull() {
+        // Arrange
+        cache.put(1L, "PNG", URL, "T01", IMAGE);
+
+        // Act & Assert
+        assertThat(cache.get(1L, "PNG", URL + "?v=2", "T01")).isNull();
+        assertThat(cache.get(1L, "PNG", URL, "T02")).isNull();
+    }
+
+    @Test
+    void evictTable_RemovesEveryFormat() {
+        // Arrange
+        cache.put(1L, "PNG", URL, "T01", IMAGE);
+        cache.put(1L, "PDF", URL, "T01", IMAGE);
+
+        // Act
+        cache.evictTable(1L);
+
+        // Assert
+        assertThat(cache.get(1L, "PNG", URL, "T01")).isNull();
+        assertThat(cache.get(1L, "PDF", URL, "T01")).isNull();
+    }
+
+    @Test
+    void put_BeyondMaximumSize_EvictsLeastRecentlyUsed() {
+        // Arrange
+        cache.put(1L, "PNG", URL, "T01", IMAGE);
+        cache.put(2L, "PNG", URL, "T02", IMAGE);
+        cache.get(1L, "PNG", URL, "T01");
+
+        // Act
+        cache.put(3L, "PNG", URL, "T03", IMAGE);
+
+        // Assert
+        assertThat(cache.get(1L, "PNG", URL, "T01")).isNotNull();
+        assertThat(cache.get(2L, "PNG", URL, "T02")).isNull();
+        assertThat(cache.get(3L, "PNG", URL, "T03")).isNotNull();
+    }
+}
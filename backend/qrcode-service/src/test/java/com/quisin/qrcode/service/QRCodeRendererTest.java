@@ -0,0 +1,83 @@
+package com.quisin.qrcode.service;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.itextpdf.text.pdf.PdfReader;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QRCodeRendererTest {
+
+    private static final String URL = "https://quisin.test/restaurant/r1/table/T01";
+
+    private final QRCodeRenderer renderer = new QRCodeRenderer();
+
+    @Test
+    void render_Png_EncodesUrlInBrandedImage() throws Exception {
+        // Act
+        byte[] png = renderer.render(URL, "T01", "png");
+
+        // Assert
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertThat(image.getWidth()).isEqualTo(380);
+        assertThat(image.getHeight()).isEqualTo(520);
+        String decoded = new QRCodeReader()
+                .decode(new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image))))
+                .getText();
+        assertThat(decoded).isEqualTo(URL);
+    }
+
+    @Test
+    void render_Pdf_WritesSinglePageDocument() throws Exception {
+        // Act
+        byte[] pdf = renderer.render(URL, "T01", "PDF");
+
+        // Assert
+        PdfReader reader = new PdfReader(pdf);
+        try {
+            assertThat(reader.getNumberOfPages()).isEqualTo(1);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    void openPdf_OnePagePerImage_LeavesStreamOpen() throws Exception {
+        // Arrange
+        byte[] png = renderer.render(URL, "T01", "PNG");
+        TrackingOutputStream outputStream = new TrackingOutputStream();
+
+        // Act
+        try (QRCodeRenderer.PdfPages pages = renderer.openPdf(outputStream)) {
+            pages.add(png);
+            pages.add(png);
+            pages.add(png);
+        }
+
+        // Assert
+        assertThat(outputStream.closed).isFalse();
+        PdfReader reader = new PdfReader(outputStream.toByteArray());
+        try {
+            assertThat(reader.getNumberOfPages()).isEqualTo(3);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static final class TrackingOutputStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.quisin.rating.controller
 
+import com.quisin.rating.domain.RatingType
 import com.quisin.rating.dto.*
 import com.quisin.rating.service.RatingService
 import io.swagger.v3.oas.annotations.Operation
@@ -39,10 +39,10 @@ data class Rating(
     val type: RatingType,
 
     @Column(nullable = false)
-    val score: Int,
+    var score: Int,
 
     @Column(length = 1000)
-    val comment: String? = null,
+    var comment: String? = null,
 
     @Enumerated(EnumType.STRING)
     var status: RatingStatus = RatingStatus.ACTIVE,
@@ -50,7 +50,7 @@ data class Rating(
     @ElementCollection
     @CollectionTable(name = "rating_tags", joinColumns = [JoinColumn(name = "rating_id")])
     @Column(name = "tag")
-    val tags: List<String> = listOf(),
+    var tags: List<String> = listOf(),
 
     @CreatedDate
     @Column(nullable = false, updatable = false)
@@ -60,8 +60,18 @@ data class Rating(
     var updatedAt: LocalDateTime? = null
 )
 
+/**
+ * Running totals for one rated entity, maintained from per-rating deltas.
+ *
+ * [decayedScoreSum] and [decayedWeight] are exponentially decayed sums of scores and weights as of
+ * [decayedAt]; their ratio is the recency-weighted [weightedScore]. A null [decayedAt] marks a row
+ * whose running totals were never filled in; it is rebuilt from its ratings on its next change.
+ */
 @Entity
-@Table(name = "rating_summaries")
+@Table(
+    name = "rating_summaries",
+    uniqueConstraints = [UniqueConstraint(columnNames = ["entity_id", "type"])]
+)
 data class RatingSummary(
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -81,5 +91,16 @@ data class RatingSummary(
     var totalRatings: Int = 0,
 
     @Column(nullable = false)
-    var weightedScore: Double = 0.0
+    var weightedScore: Double = 0.0,
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    var scoreSum: Long = 0,
+
+    @Column(nullable = false, columnDefinition = "double precision default 0")
+    var decayedScoreSum: Double = 0.0,
+
+    @Column(nullable = false, columnDefinition = "double precision default 0")
+    var decayedWeight: Double = 0.0,
+
+    var decayedAt: LocalDateTime? = null
 )
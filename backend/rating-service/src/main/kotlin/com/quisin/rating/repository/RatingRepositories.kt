@@ -4,7 +4,12 @@ import com.quisin.rating.domain.Rating
 import com.quisin.rating.domain.RatingStatus
 import com.quisin.rating.domain.RatingType
 import com.quisin.rating.domain.RatingSummary
+import jakarta.persistence.LockModeType
+import org.springframework.data.domain.Page
+import org.springframework.data.domain.Pageable
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Lock
+import org.springframework.data.jpa.repository.Modifying
 import org.springframework.data.jpa.repository.Query
 import org.springframework.stereotype.Repository
 import java.time.LocalDateTime
@@ -13,6 +18,13 @@ import java.util.UUID
 @Repository
 interface RatingRepository : JpaRepository<Rating, UUID> {
     fun findByEntityIdAndType(entityId: UUID, type: RatingType): List<Rating>
+
+    @Query("""
+        SELECT new com.quisin.rating.repository.RatingPoint(r.score, r.createdAt)
+        FROM Rating r
+        WHERE r.entityId = :entityId AND r.type = :type
+    """)
+    fun findPointsByEntityIdAndType(entityId: UUID, type: RatingType): List<RatingPoint>
     
     fun findByUserIdAndEntityId(userId: UUID, entityId: UUID): Rating?
     
@@ -37,6 +49,24 @@ interface RatingRepository : JpaRepository<Rating, UUID> {
 @Repository
 interface RatingSummaryRepository : JpaRepository<RatingSummary, UUID> {
     fun findByEntityIdAndType(entityId: UUID, type: RatingType): RatingSummary?
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT rs FROM RatingSummary rs WHERE rs.entityId = :entityId AND rs.type = :type")
+    fun findForUpdate(entityId: UUID, type: RatingType): RatingSummary?
+
+    @Modifying
+    @Query(
+        value = """
+            INSERT INTO rating_summaries (id, entity_id, type, average_score, total_ratings, weighted_score,
+                                          score_sum, decayed_score_sum, decayed_weight)
+            VALUES (gen_random_uuid(), :entityId, :type, 0, 0, 0, 0, 0, 0)
+            ON CONFLICT (entity_id, type) DO NOTHING
+        """,
+        nativeQuery = true
+    )
+    fun insertIfAbsent(entityId: UUID, type: String)
+
+    fun findAllBy(pageable: Pageable): Page<RatingSummary>
     
     @Query("""
         SELECT rs FROM RatingSummary rs 
@@ -45,3 +75,8 @@ interface RatingSummaryRepository : JpaRepository<RatingSummary, UUID> {
     """)
     fun findTopRatedByType(type: RatingType, limit: Int): List<RatingSummary>
 }
+
+data class RatingPoint(
+    val score: Int,
+    val createdAt: LocalDateTime?
+)
@@ -3,6 +3,7 @@ package com.quisin.rating.service
 import com.quisin.rating.domain.Rating
 import com.quisin.rating.domain.RatingStatus
 import com.quisin.rating.domain.RatingSummary
+import com.quisin.rating.domain.RatingType
 import com.quisin.rating.dto.*
 import com.quisin.rating.repository.RatingRepository
 import com.quisin.rating.repository.RatingSummaryRepository
@@ -14,7 +15,8 @@ import java.util.UUID
 @Service
 class RatingService(
     private val ratingRepository: RatingRepository,
-    private val ratingSummaryRepository: RatingSummaryRepository
+    private val ratingSummaryRepository: RatingSummaryRepository,
+    private val ratingSummaryService: RatingSummaryService
 ) {
     @Transactional
     fun createRating(request: CreateRatingRequest): RatingResponse {
@@ -42,7 +44,7 @@ class RatingService(
         val savedRating = ratingRepository.save(rating)
 
         // Update or create rating summary
-        updateRatingSummary(savedRating)
+        ratingSummaryService.recordCreated(savedRating)
 
         return mapToRatingResponse(savedRating)
     }
@@ -52,6 +54,8 @@ class RatingService(
         val rating = ratingRepository.findById(ratingId)
             .orElseThrow { RatingException("Rating not found") }
 
+        val previousScore = rating.score
+
         // Update rating fields
         request.score?.let { rating.score = it }
         request.comment?.let { rating.comment = it }
@@ -59,7 +63,7 @@ class RatingService(
         request.status?.let { rating.status = it }
 
         val updatedRating = ratingRepository.save(rating)
-        updateRatingSummary(updatedRating)
+        ratingSummaryService.recordScoreChanged(updatedRating, previousScore)
 
         return mapToRatingResponse(updatedRating)
     }
@@ -70,7 +74,7 @@ class RatingService(
             .orElseThrow { RatingException("Rating not found") }
 
         ratingRepository.delete(rating)
-        updateRatingSummary(rating)
+        ratingSummaryService.recordDeleted(rating)
     }
 
     fun getRatingsByEntity(entityId: UUID, type: RatingType): List<RatingResponse> {
@@ -96,30 +100,6 @@ class RatingService(
         ).map { mapToRatingResponse(it) }
     }
 
-    private fun updateRatingSummary(rating: Rating) {
-        val existingSummary = ratingSummaryRepository.findByEntityIdAndType(rating.entityId, rating.type)
-            ?: RatingSummary(entityId = rating.entityId, type = rating.type)
-
-        val ratings = ratingRepository.findByEntityIdAndType(rating.entityId, rating.type)
-        
-        existingSummary.totalRatings = ratings.size
-        existingSummary.averageScore = ratings.map { it.score }.average().orElse(0.0)
-        
-        // Implement weighted score calculation (example: recency-based weighting)
-        existingSummary.weightedScore = calculateWeightedScore(ratings)
-
-        ratingSummaryRepository.save(existingSummary)
-    }
-
-    private fun calculateWeightedScore(ratings: List<Rating>): Double {
-        // Simple weighted score calculation based on recency and score
-        return ratings.map { rating ->
-            val recencyFactor = LocalDateTime.now().minusWeeks(2).isBefore(rating.createdAt)
-            val scoreFactor = rating.score.toDouble()
-            if (recencyFactor) scoreFactor * 1.2 else scoreFactor
-        }.average().orElse(0.0)
-    }
-
     private fun mapToRatingResponse(rating: Rating): RatingResponse {
         return RatingResponse(
             id = rating.id!!,
@@ -0,0 +1,43 @@
+package com.quisin.rating.service
+
+import com.quisin.rating.repository.RatingSummaryRepository
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.data.domain.PageRequest
+import org.springframework.data.domain.Sort
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.stereotype.Component
+
+/**
+ * Periodically rebuilds every rating summary from its ratings, one summary per transaction, to
+ * correct rounding drift in the incrementally maintained totals.
+ */
+@Component
+class RatingSummaryReconciler(
+    private val ratingSummaryRepository: RatingSummaryRepository,
+    private val ratingSummaryService: RatingSummaryService,
+    @Value("\${rating.summary.reconcile-batch-size:200}") private val batchSize: Int
+) {
+    private val logger = LoggerFactory.getLogger(RatingSummaryReconciler::class.java)
+
+    @Scheduled(cron = "\${rating.summary.reconcile-cron:0 30 3 * * *}")
+    fun reconcile() {
+        var page = ratingSummaryRepository.findAllBy(PageRequest.of(0, batchSize, Sort.by("id")))
+        var reconciled = 0
+        while (true) {
+            page.content.forEach { summary ->
+                try {
+                    ratingSummaryService.recompute(summary.entityId, summary.type)
+                    reconciled++
+                } catch (e: Exception) {
+                    logger.warn("Failed to reconcile rating summary for {} {}: {}", summary.type, summary.entityId, e.message)
+                }
+            }
+            if (!page.hasNext()) {
+                break
+            }
+            page = ratingSummaryRepository.findAllBy(page.nextPageable())
+        }
+        logger.info("Reconciled {} rating summaries", reconciled)
+    }
+}
@@ -0,0 +1,137 @@
+package com.quisin.rating.service
+
+import com.quisin.rating.domain.Rating
+import com.quisin.rating.domain.RatingSummary
+import com.quisin.rating.domain.RatingType
+import com.quisin.rating.repository.RatingRepository
+import com.quisin.rating.repository.RatingSummaryRepository
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Service
+import org.springframework.transaction.annotation.Propagation
+import org.springframework.transaction.annotation.Transactional
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+import kotlin.math.exp
+import kotlin.math.ln
+
+/**
+ * Keeps [RatingSummary] rows current from per-rating deltas instead of rescanning every rating.
+ *
+ * Each change locks the summary row, so concurrent writers on the same entity apply their deltas
+ * one after another. The recency weighting is an exponentially decayed average with a
+ * `rating.summary.half-life`: older ratings keep counting, just less.
+ *
+ * A row that has never been decayed (one created before the running totals existed, or just
+ * inserted) is rebuilt from its ratings instead, as its totals cannot be trusted.
+ */
+@Service
+class RatingSummaryService(
+    private val ratingRepository: RatingRepository,
+    private val ratingSummaryRepository: RatingSummaryRepository,
+    @Value("\${rating.summary.half-life:P30D}") halfLife: Duration
+) {
+    private val decayPerSecond = ln(2.0) / halfLife.seconds
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun recordCreated(rating: Rating) {
+        val now = LocalDateTime.now()
+        applyDelta(rating.entityId, rating.type, now, countDelta = 1, scoreDelta = rating.score,
+            weight = weightAt(rating.createdAt, now))
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun recordScoreChanged(rating: Rating, previousScore: Int) {
+        if (rating.score == previousScore) {
+            return
+        }
+        val now = LocalDateTime.now()
+        applyDelta(rating.entityId, rating.type, now, countDelta = 0, scoreDelta = rating.score - previousScore,
+            weight = weightAt(rating.createdAt, now))
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun recordDeleted(rating: Rating) {
+        val now = LocalDateTime.now()
+        applyDelta(rating.entityId, rating.type, now, countDelta = -1, scoreDelta = -rating.score,
+            weight = weightAt(rating.createdAt, now))
+    }
+
+    /**
+     * Rebuilds a summary from its ratings, correcting any drift in the running totals.
+     */
+    @Transactional
+    fun recompute(entityId: UUID, type: RatingType) {
+        val summary = lockedSummary(entityId, type)
+        rebuild(summary, LocalDateTime.now())
+        ratingSummaryRepository.save(summary)
+    }
+
+    private fun applyDelta(
+        entityId: UUID,
+        type: RatingType,
+        now: LocalDateTime,
+        countDelta: Int,
+        scoreDelta: Int,
+        weight: Double
+    ) {
+        val summary = lockedSummary(entityId, type)
+        if (summary.decayedAt == null) {
+            // The rebuild reads the ratings after this change has been flushed, so it already counts it
+            rebuild(summary, now)
+            ratingSummaryRepository.save(summary)
+            return
+        }
+        decayTo(summary, now)
+
+        // `weight` is what the rating being added, removed or rescored counts for today
+        summary.totalRatings = maxOf(summary.totalRatings + countDelta, 0)
+        summary.scoreSum += scoreDelta
+        summary.decayedWeight = maxOf(summary.decayedWeight + countDelta * weight, 0.0)
+        summary.decayedScoreSum += scoreDelta * weight
+        refreshScores(summary)
+        ratingSummaryRepository.save(summary)
+    }
+
+    private fun lockedSummary(entityId: UUID, type: RatingType): RatingSummary {
+        ratingSummaryRepository.findForUpdate(entityId, type)?.let { return it }
+        ratingSummaryRepository.insertIfAbsent(entityId, type.name)
+        return ratingSummaryRepository.findForUpdate(entityId, type)
+            ?: throw IllegalStateException("Rating summary for $entityId could not be created")
+    }
+
+    private fun rebuild(summary: RatingSummary, now: LocalDateTime) {
+        val points = ratingRepository.findPointsByEntityIdAndType(summary.entityId, summary.type)
+        summary.totalRatings = points.size
+        summary.scoreSum = points.sumOf { it.score.toLong() }
+        summary.decayedWeight = points.sumOf { weightAt(it.createdAt, now) }
+        summary.decayedScoreSum = points.sumOf { it.score * weightAt(it.createdAt, now) }
+        summary.decayedAt = now
+        refreshScores(summary)
+    }
+
+    private fun decayTo(summary: RatingSummary, now: LocalDateTime) {
+        val factor = weightAt(summary.decayedAt, now)
+        summary.decayedScoreSum *= factor
+        summary.decayedWeight *= factor
+        summary.decayedAt = now
+    }
+
+    private fun refreshScores(summary: RatingSummary) {
+        if (summary.totalRatings == 0) {
+            summary.scoreSum = 0
+            summary.decayedScoreSum = 0.0
+            summary.decayedWeight = 0.0
+        }
+        summary.averageScore = if (summary.totalRatings > 0) summary.scoreSum.toDouble() / summary.totalRatings else 0.0
+        summary.weightedScore = if (summary.decayedWeight > 0) summary.decayedScoreSum / summary.decayedWeight else 0.0
+    }
+
+    // Weight at `now` of something that had weight 1 at `since`
+    private fun weightAt(since: LocalDateTime?, now: LocalDateTime): Double {
+        if (since == null || !since.isBefore(now)) {
+            return 1.0
+        }
+        return exp(-decayPerSecond * Duration.between(since, now).seconds)
+    }
+}
@@ -0,0 +1,135 @@
+package com.quisin.rating.service
+
+import com.quisin.rating.domain.Rating
+import com.quisin.rating.domain.RatingSummary
+import com.quisin.rating.domain.RatingType
+import com.quisin.rating.repository.RatingPoint
+import com.quisin.rating.repository.RatingRepository
+import com.quisin.rating.repository.RatingSummaryRepository
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.Mock
+import org.mockito.Mockito.*
+import org.mockito.junit.jupiter.MockitoExtension
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+
+@ExtendWith(MockitoExtension::class)
+class RatingSummaryServiceTest {
+
+    private val halfLife = Duration.ofDays(30)
+    private val entityId = UUID.randomUUID()
+
+    @Mock
+    private lateinit var ratingRepository: RatingRepository
+
+    @Mock
+    private lateinit var ratingSummaryRepository: RatingSummaryRepository
+
+    private lateinit var ratingSummaryService: RatingSummaryService
+
+    @BeforeEach
+    fun setup() {
+        ratingSummaryService = RatingSummaryService(ratingRepository, ratingSummaryRepository, halfLife)
+    }
+
+    @Test
+    fun `should decay existing totals by one half-life before adding a new rating`() {
+        // Given
+        val summary = summary(
+            totalRatings = 1, scoreSum = 4,
+            decayedScoreSum = 4.0, decayedWeight = 1.0,
+            decayedAt = LocalDateTime.now().minus(halfLife)
+        )
+        `when`(ratingSummaryRepository.findForUpdate(entityId, RatingType.RESTAURANT)).thenReturn(summary)
+
+        // When
+        ratingSummaryService.recordCreated(rating(score = 2, createdAt = LocalDateTime.now()))
+
+        // Then
+        assertEquals(2, summary.totalRatings)
+        assertEquals(3.0, summary.averageScore, 1e-9)
+        assertEquals(1.5, summary.decayedWeight, 1e-3)
+        assertEquals(4.0, summary.decayedScoreSum, 1e-3)
+        assertEquals(4.0 / 1.5, summary.weightedScore, 1e-3)
+        verifyNoInteractions(ratingRepository)
+    }
+
+    @Test
+    fun `should remove a deleted rating at its decayed weight`() {
+        // Given
+        val now = LocalDateTime.now()
+        val old = rating(score = 5, createdAt = now.minus(halfLife))
+        val recent = rating(score = 1, createdAt = now)
+        val summary = summary(totalRatings = 0, scoreSum = 0, decayedScoreSum = 0.0, decayedWeight = 0.0, decayedAt = null)
+        `when`(ratingSummaryRepository.findForUpdate(entityId, RatingType.RESTAURANT)).thenReturn(summary)
+        `when`(ratingRepository.findPointsByEntityIdAndType(entityId, RatingType.RESTAURANT))
+            .thenReturn(listOf(RatingPoint(old.score, old.createdAt), RatingPoint(recent.score, recent.createdAt)))
+        ratingSummaryService.recompute(entityId, RatingType.RESTAURANT)
+        assertEquals(3.5 / 1.5, summary.weightedScore, 1e-3)
+
+        // When
+        ratingSummaryService.recordDeleted(old)
+
+        // Then
+        assertEquals(1, summary.totalRatings)
+        assertEquals(1.0, summary.averageScore, 1e-9)
+        assertEquals(1.0, summary.decayedWeight, 1e-3)
+        assertEquals(1.0, summary.weightedScore, 1e-3)
+    }
+
+    @Test
+    fun `should rebuild a row without decay state from its ratings instead of applying the delta`() {
+        // Given
+        val now = LocalDateTime.now()
+        // A row written before the running totals existed: scores are set, sums are not
+        val summary = summary(totalRatings = 2, scoreSum = 0, decayedScoreSum = 0.0, decayedWeight = 0.0, decayedAt = null)
+        summary.averageScore = 4.0
+        val created = rating(score = 1, createdAt = now)
+        `when`(ratingSummaryRepository.findForUpdate(entityId, RatingType.RESTAURANT)).thenReturn(summary)
+        `when`(ratingRepository.findPointsByEntityIdAndType(entityId, RatingType.RESTAURANT)).thenReturn(listOf(
+            RatingPoint(4, now.minusDays(1)),
+            RatingPoint(4, now.minusDays(2)),
+            RatingPoint(created.score, created.createdAt)
+        ))
+
+        // When
+        ratingSummaryService.recordCreated(created)
+
+        // Then
+        assertEquals(3, summary.totalRatings)
+        assertEquals(9, summary.scoreSum)
+        assertEquals(3.0, summary.averageScore, 1e-9)
+        assertNotNull(summary.decayedAt)
+        assertTrue(summary.weightedScore > 0.0 && summary.weightedScore < 4.0)
+        verify(ratingSummaryRepository).save(summary)
+    }
+
+    private fun summary(
+        totalRatings: Int,
+        scoreSum: Long,
+        decayedScoreSum: Double,
+        decayedWeight: Double,
+        decayedAt: LocalDateTime?
+    ) = RatingSummary(
+        entityId = entityId,
+        type = RatingType.RESTAURANT,
+        totalRatings = totalRatings,
+        scoreSum = scoreSum,
+        decayedScoreSum = decayedScoreSum,
+        decayedWeight = decayedWeight,
+        decayedAt = decayedAt
+    )
+
+    private fun rating(score: Int, createdAt: LocalDateTime) = Rating(
+        id = UUID.randomUUID(),
+        userId = UUID.randomUUID(),
+        entityId = entityId,
+        type = RatingType.RESTAURANT,
+        score = score,
+        createdAt = createdAt
+    )
+}
@@ -3,9 +3,11 @@ package com.quisin.reservation
 import org.springframework.boot.autoconfigure.SpringBootApplication
 import org.springframework.boot.runApplication
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.springframework.scheduling.annotation.EnableScheduling
 
 @SpringBootApplication
 @EnableJpaRepositories
+@EnableScheduling
 class ReservationServiceApplication
 
 fun main(args: Array<String>) {
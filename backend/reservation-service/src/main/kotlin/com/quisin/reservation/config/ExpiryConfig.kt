@@ -0,0 +1,19 @@
+package com.quisin.reservation.config
+
+import com.quisin.common.expiry.ExpirySweeper
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.context.annotation.Bean
+import org.springframework.context.annotation.Configuration
+import org.springframework.transaction.PlatformTransactionManager
+
+@Configuration
+class ExpiryConfig {
+    @Bean
+    fun expirySweeper(
+        transactionManager: PlatformTransactionManager,
+        meterRegistry: MeterRegistry,
+        @Value("\${reservation.expiry.batch-size:500}") batchSize: Int,
+        @Value("\${reservation.expiry.max-batches-per-run:200}") maxBatchesPerRun: Int
+    ): ExpirySweeper = ExpirySweeper(transactionManager, meterRegistry, batchSize, maxBatchesPerRun)
+}
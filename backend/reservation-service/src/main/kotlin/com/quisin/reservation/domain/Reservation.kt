@@ -64,4 +64,14 @@ data class Reservation(
     @LastModifiedDate
     @Column(nullable = false)
     val updatedAt: LocalDateTime? = null
-)
+) {
+    // The table is held from the reservation time until this
+    fun endDateTime(): LocalDateTime =
+        reservationDateTime.plusMinutes((estimatedDuration ?: DEFAULT_DURATION_MINUTES).toLong())
+
+    fun isActive(): Boolean = status == ReservationStatus.CONFIRMED || status == ReservationStatus.PENDING
+
+    companion object {
+        const val DEFAULT_DURATION_MINUTES = 120
+    }
+}
@@ -0,0 +1,32 @@
+package com.quisin.reservation.domain
+
+import jakarta.persistence.*
+import java.time.LocalDateTime
+import java.util.UUID
+
+/**
+ * Number of active reservations starting in one reservation slot of a restaurant. Rows are
+ * created and updated only through [com.quisin.reservation.repository.SlotCapacityRepository],
+ * whose conditional updates keep `reserved` at or below `capacity`.
+ */
+@Entity
+@Table(
+    name = "slot_capacities",
+    uniqueConstraints = [UniqueConstraint(columnNames = ["restaurant_id", "slot_start"])]
+)
+data class SlotCapacity(
+    @Id
+    val id: UUID,
+
+    @Column(nullable = false)
+    val restaurantId: UUID,
+
+    @Column(nullable = false)
+    val slotStart: LocalDateTime,
+
+    @Column(nullable = false)
+    val capacity: Int,
+
+    @Column(nullable = false)
+    val reserved: Int = 0
+)
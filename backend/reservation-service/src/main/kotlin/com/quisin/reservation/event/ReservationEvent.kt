@@ -0,0 +1,19 @@
+package com.quisin.reservation.event
+
+import com.quisin.reservation.domain.ReservationStatus
+import java.time.LocalDateTime
+import java.util.UUID
+
+// Same shape as the events the reservation-events consumers already read
+data class ReservationEvent(
+    val eventId: String = UUID.randomUUID().toString(),
+    val eventType: String,
+    val reservationId: UUID,
+    val restaurantId: UUID,
+    val userId: UUID,
+    val reservationTime: LocalDateTime,
+    val partySize: Int,
+    val tableId: UUID,
+    val status: ReservationStatus,
+    val timestamp: LocalDateTime = LocalDateTime.now()
+)
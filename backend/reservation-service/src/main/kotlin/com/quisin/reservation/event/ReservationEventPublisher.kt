@@ -0,0 +1,69 @@
+package com.quisin.reservation.event
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.quisin.reservation.domain.Reservation
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.kafka.core.KafkaTemplate
+import org.springframework.kafka.support.SendResult
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+@Component
+class ReservationEventPublisher(
+    private val kafkaTemplate: KafkaTemplate<String, String>,
+    private val objectMapper: ObjectMapper,
+    @Value("\${reservation.events.topic:reservation-events}") private val topic: String,
+    @Value("\${reservation.events.send-timeout:PT10S}") private val sendTimeout: Duration
+) {
+    private val logger = LoggerFactory.getLogger(javaClass)
+
+    /**
+     * Publishes the status changes of a batch of reservations as one producer batch: every
+     * record is handed to the producer before a single flush, and the acknowledgements are
+     * awaited together. Records are keyed by reservation id.
+     */
+    fun publishStatusChanged(reservations: List<Reservation>) {
+        if (reservations.isEmpty()) {
+            return
+        }
+        val sends = reservations.map { send(it.toEvent("RESERVATION_STATUS_CHANGED")) }
+        kafkaTemplate.flush()
+
+        var failed = 0
+        sends.forEachIndexed { i, send ->
+            try {
+                send.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                return
+            } catch (e: Exception) {
+                failed++
+                logger.error("Failed to publish status change of reservation {}", reservations[i].id, e)
+            }
+        }
+        if (failed > 0) {
+            logger.warn("{} of {} reservation status changes were not published", failed, reservations.size)
+        }
+    }
+
+    private fun send(event: ReservationEvent): CompletableFuture<SendResult<String, String>> =
+        try {
+            kafkaTemplate.send(topic, event.reservationId.toString(), objectMapper.writeValueAsString(event))
+        } catch (e: Exception) {
+            CompletableFuture.failedFuture(e)
+        }
+
+    private fun Reservation.toEvent(eventType: String) = ReservationEvent(
+        eventType = eventType,
+        reservationId = id!!,
+        restaurantId = restaurantId,
+        userId = customerId,
+        reservationTime = reservationDateTime,
+        partySize = partySize,
+        tableId = tableId,
+        status = status
+    )
+}
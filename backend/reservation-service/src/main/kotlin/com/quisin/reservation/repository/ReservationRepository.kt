@@ -3,6 +3,7 @@ package com.quisin.reservation.repository
 import com.quisin.reservation.domain.Reservation
 import com.quisin.reservation.domain.ReservationStatus
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
 import org.springframework.data.jpa.repository.Query
 import org.springframework.stereotype.Repository
 import java.time.LocalDateTime
@@ -44,4 +45,48 @@ interface ReservationRepository : JpaRepository<Reservation, UUID> {
 
     // Count reservations by restaurant and status
     fun countByRestaurantIdAndStatus(restaurantId: UUID, status: ReservationStatus): Long
+
+    // Active reservations of a restaurant still holding their table at :from
+    @Query(value = """
+        SELECT * FROM reservations r 
+        WHERE r.restaurant_id = :restaurantId 
+        AND r.status IN ('CONFIRMED', 'PENDING') 
+        AND r.reservation_date_time + make_interval(mins => COALESCE(r.estimated_duration, ${Reservation.DEFAULT_DURATION_MINUTES})) > :from
+    """, nativeQuery = true)
+    fun findActiveHoldingTablesAfter(restaurantId: UUID, from: LocalDateTime): List<Reservation>
+
+    // Active reservations holding the table at some point between :startTime and :endTime
+    @Query(value = """
+        SELECT r.id FROM reservations r 
+        WHERE r.table_id = :tableId 
+        AND r.status IN ('CONFIRMED', 'PENDING') 
+        AND r.reservation_date_time < :endTime 
+        AND r.reservation_date_time + make_interval(mins => COALESCE(r.estimated_duration, ${Reservation.DEFAULT_DURATION_MINUTES})) > :startTime
+    """, nativeQuery = true)
+    fun findOverlappingReservationIds(
+        tableId: UUID, 
+        startTime: LocalDateTime, 
+        endTime: LocalDateTime
+    ): List<UUID>
+
+    // Lock the next pending reservations created before :cutoffTime, skipping rows locked elsewhere
+    @Query(value = """
+        SELECT * FROM reservations r 
+        WHERE r.status = 'PENDING' 
+        AND r.created_at < :cutoffTime 
+        AND r.id > :afterId 
+        ORDER BY r.id 
+        LIMIT :limit 
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    fun lockExpiredPendingReservations(
+        cutoffTime: LocalDateTime, 
+        afterId: UUID, 
+        limit: Int
+    ): List<Reservation>
+
+    // Set the status of many reservations in one statement
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :status, r.updatedAt = :now WHERE r.id IN :ids")
+    fun updateStatus(ids: List<UUID>, status: ReservationStatus, now: LocalDateTime): Int
 }
@@ -0,0 +1,48 @@
+package com.quisin.reservation.repository
+
+import com.quisin.reservation.domain.SlotCapacity
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.stereotype.Repository
+import java.time.LocalDateTime
+import java.util.UUID
+
+@Repository
+interface SlotCapacityRepository : JpaRepository<SlotCapacity, UUID> {
+    // Create the counter of a slot, seeded with the reservations already in it
+    @Modifying
+    @Query(value = """
+        INSERT INTO slot_capacities (id, restaurant_id, slot_start, capacity, reserved) 
+        SELECT :id, :restaurantId, :slotStart, :capacity, COUNT(*) 
+        FROM reservations r 
+        WHERE r.restaurant_id = :restaurantId 
+        AND r.reservation_date_time >= :slotStart AND r.reservation_date_time < :slotEnd 
+        AND r.status IN ('CONFIRMED', 'PENDING')
+        ON CONFLICT (restaurant_id, slot_start) DO NOTHING
+    """, nativeQuery = true)
+    fun insertIfAbsent(
+        id: UUID, 
+        restaurantId: UUID, 
+        slotStart: LocalDateTime, 
+        slotEnd: LocalDateTime, 
+        capacity: Int
+    ): Int
+
+    // Take a place in the slot if one is left
+    @Modifying
+    @Query(value = """
+        UPDATE slot_capacities SET reserved = reserved + 1 
+        WHERE restaurant_id = :restaurantId AND slot_start = :slotStart 
+        AND reserved < capacity
+    """, nativeQuery = true)
+    fun reserve(restaurantId: UUID, slotStart: LocalDateTime): Int
+
+    // Give places in the slot back
+    @Modifying
+    @Query(value = """
+        UPDATE slot_capacities SET reserved = GREATEST(reserved - :places, 0) 
+        WHERE restaurant_id = :restaurantId AND slot_start = :slotStart
+    """, nativeQuery = true)
+    fun release(restaurantId: UUID, slotStart: LocalDateTime, places: Int): Int
+}
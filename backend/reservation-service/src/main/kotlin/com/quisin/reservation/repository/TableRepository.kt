@@ -3,7 +3,10 @@ package com.quisin.reservation.repository
 import com.quisin.reservation.domain.RestaurantTable
 import com.quisin.reservation.domain.TableStatus
 import com.quisin.reservation.domain.TableType
+import jakarta.persistence.LockModeType
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Lock
+import org.springframework.data.jpa.repository.Modifying
 import org.springframework.data.jpa.repository.Query
 import org.springframework.stereotype.Repository
 import java.time.LocalDateTime
@@ -23,25 +26,15 @@ interface TableRepository : JpaRepository<RestaurantTable, UUID> {
     // Find tables by capacity
     fun findByRestaurantIdAndCapacityGreaterThanEqual(restaurantId: UUID, capacity: Int): List<RestaurantTable>
 
-    // Find available tables for a specific time and party size
-    @Query("""
-        SELECT t FROM RestaurantTable t 
-        WHERE t.restaurantId = :restaurantId 
-        AND t.status = 'AVAILABLE' 
-        AND t.capacity >= :partySize 
-        AND t.id NOT IN (
-            SELECT r.tableId 
-            FROM Reservation r 
-            WHERE r.reservationDateTime BETWEEN :startTime AND :endTime 
-            AND r.status IN ('CONFIRMED', 'PENDING')
-        )
-    """)
-    fun findAvailableTables(
-        restaurantId: UUID, 
-        partySize: Int, 
-        startTime: LocalDateTime, 
-        endTime: LocalDateTime
-    ): List<RestaurantTable>
+    // Lock a table row so that bookings of the same table are checked one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM RestaurantTable t WHERE t.id = :tableId")
+    fun lockById(tableId: UUID): RestaurantTable?
+
+    // Set the status of many tables currently in status :from in one statement
+    @Modifying
+    @Query("UPDATE RestaurantTable t SET t.status = :to, t.updatedAt = :now WHERE t.id IN :tableIds AND t.status = :from")
+    fun updateStatus(tableIds: Collection<UUID>, from: TableStatus, to: TableStatus, now: LocalDateTime): Int
 
     // Count tables by restaurant and status
     fun countByRestaurantIdAndStatus(restaurantId: UUID, status: TableStatus): Long
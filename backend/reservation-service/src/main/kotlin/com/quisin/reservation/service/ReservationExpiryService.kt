@@ -0,0 +1,67 @@
+package com.quisin.reservation.service
+
+import com.quisin.common.expiry.ExpiryJob
+import com.quisin.common.expiry.ExpirySweeper
+import com.quisin.reservation.domain.Reservation
+import com.quisin.reservation.domain.ReservationStatus
+import com.quisin.reservation.domain.TableStatus
+import com.quisin.reservation.event.ReservationEventPublisher
+import com.quisin.reservation.repository.ReservationRepository
+import com.quisin.reservation.repository.TableRepository
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.stereotype.Service
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+
+/**
+ * Cancels reservations left pending past `reservation.expiry.pending-ttl`, in bounded batches.
+ * A cancelled reservation gives back its slot place and table like one cancelled by the guest.
+ */
+@Service
+class ReservationExpiryService(
+    private val expirySweeper: ExpirySweeper,
+    private val reservationRepository: ReservationRepository,
+    private val tableRepository: TableRepository,
+    private val slotCapacityService: SlotCapacityService,
+    private val availabilityIndex: TableAvailabilityIndex,
+    private val eventPublisher: ReservationEventPublisher,
+    @Value("\${reservation.expiry.pending-ttl:PT30M}") private val pendingTtl: Duration
+) {
+    @Scheduled(fixedDelayString = "\${reservation.expiry.interval-ms:300000}")
+    fun cancelExpiredReservations(): Int =
+        expirySweeper.sweep(ExpiredReservationsJob(LocalDateTime.now().minus(pendingTtl)))
+
+    private inner class ExpiredReservationsJob(
+        private val cutoffTime: LocalDateTime
+    ) : ExpiryJob<Reservation, UUID> {
+        override fun name() = "expired-reservations"
+
+        override fun claim(afterId: UUID?, limit: Int): List<Reservation> =
+            reservationRepository.lockExpiredPendingReservations(cutoffTime, afterId ?: FIRST_ID, limit)
+
+        override fun idOf(row: Reservation): UUID = row.id!!
+
+        override fun dueAt(row: Reservation): LocalDateTime = row.createdAt!!.plus(pendingTtl)
+
+        override fun expire(rows: List<Reservation>): Int {
+            val now = LocalDateTime.now()
+            val updated = reservationRepository.updateStatus(rows.map { it.id!! }, ReservationStatus.CANCELLED, now)
+            slotCapacityService.releaseAll(rows)
+            tableRepository.updateStatus(rows.mapTo(HashSet()) { it.tableId }, TableStatus.RESERVED, TableStatus.AVAILABLE, now)
+            return updated
+        }
+
+        override fun onExpired(rows: List<Reservation>) {
+            val cancelled = rows.map { it.copy(status = ReservationStatus.CANCELLED) }
+            cancelled.forEach { availabilityIndex.update(it) }
+            eventPublisher.publishStatusChanged(cancelled)
+        }
+    }
+
+    private companion object {
+        // Sorts before every other id in Postgres, so the first batch starts at the beginning
+        val FIRST_ID = UUID(0, 0)
+    }
+}
@@ -19,22 +19,12 @@ import java.util.UUID
 class ReservationService(
     private val reservationRepository: ReservationRepository,
     private val tableRepository: TableRepository,
-    private val tableService: TableService
+    private val tableService: TableService,
+    private val availabilityIndex: TableAvailabilityIndex,
+    private val slotCapacityService: SlotCapacityService
 ) {
     @Transactional
     fun createReservation(request: CreateReservationRequest): ReservationResponse {
-        // Validate table availability
-        val availableTables = tableService.findAvailableTables(
-            request.restaurantId, 
-            request.partySize, 
-            request.reservationDateTime,
-            request.reservationDateTime.plusHours(request.estimatedDuration?.toLong() ?: 2)
-        )
-
-        // Check if the requested table is available
-        val requestedTable = availableTables.find { it.id == request.tableId }
-            ?: throw IllegalArgumentException("Selected table is not available")
-
         // Create reservation
         val reservation = Reservation(
             restaurantId = request.restaurantId,
@@ -49,7 +39,17 @@ class ReservationService(
             estimatedDuration = request.estimatedDuration
         )
 
+        // Validate table availability
+        val table = tableRepository.lockById(request.tableId)
+        if (table == null || table.restaurantId != request.restaurantId ||
+            table.status != TableStatus.AVAILABLE || table.capacity < request.partySize ||
+            !isTableFree(reservation)) {
+            throw IllegalArgumentException("Selected table is not available")
+        }
+        slotCapacityService.admit(request.restaurantId, request.reservationDateTime)
+
         val savedReservation = reservationRepository.save(reservation)
+        availabilityIndex.update(savedReservation)
 
         // Update table status
         tableService.updateTableStatus(request.tableId, TableStatus.RESERVED)
@@ -86,7 +86,19 @@ class ReservationService(
             estimatedDuration = request.estimatedDuration ?: existingReservation.estimatedDuration
         )
 
+        // Re-check the table when a reservation moves or becomes active again
+        if (updatedReservation.isActive() && (!existingReservation.isActive() ||
+                updatedReservation.reservationDateTime != existingReservation.reservationDateTime ||
+                updatedReservation.endDateTime() != existingReservation.endDateTime())) {
+            tableRepository.lockById(updatedReservation.tableId)
+            if (!isTableFree(updatedReservation)) {
+                throw IllegalArgumentException("Selected table is not available")
+            }
+        }
+        updateSlotCapacity(existingReservation, updatedReservation)
+
         val savedReservation = reservationRepository.save(updatedReservation)
+        availabilityIndex.update(savedReservation)
         return mapToReservationResponse(savedReservation)
     }
 
@@ -96,7 +108,9 @@ class ReservationService(
             .orElseThrow { NoSuchElementException("Reservation not found") }
 
         val cancelledReservation = reservation.copy(status = ReservationStatus.CANCELLED)
+        updateSlotCapacity(reservation, cancelledReservation)
         val savedReservation = reservationRepository.save(cancelledReservation)
+        availabilityIndex.update(savedReservation)
 
         // Update table status back to available
         tableService.updateTableStatus(reservation.tableId, TableStatus.AVAILABLE)
@@ -107,7 +121,7 @@ class ReservationService(
     @Transactional(readOnly = true)
     fun findAvailableTables(request: AvailableTableRequest): List<TableResponse> {
         // Default estimated duration to 2 hours if not specified
-        val endTime = request.reservationDateTime.plusHours(2)
+        val endTime = request.reservationDateTime.plusMinutes(Reservation.DEFAULT_DURATION_MINUTES.toLong())
 
         return tableService.findAvailableTables(
             request.restaurantId, 
@@ -123,6 +137,30 @@ class ReservationService(
             .map { mapToReservationResponse(it) }
     }
 
+    /**
+     * Checks the reservation's table against the database rather than the availability index,
+     * which can miss bookings made on other instances. Callers lock the table row first so that
+     * two bookings of the same table cannot both pass.
+     */
+    private fun isTableFree(reservation: Reservation): Boolean {
+        if (!availabilityIndex.isFree(reservation.restaurantId, reservation.tableId,
+                reservation.reservationDateTime, reservation.endDateTime(), reservation.id)) {
+            return false
+        }
+        return reservationRepository.findOverlappingReservationIds(
+            reservation.tableId, reservation.reservationDateTime, reservation.endDateTime()
+        ).all { it == reservation.id }
+    }
+
+    private fun updateSlotCapacity(before: Reservation, after: Reservation) {
+        when {
+            before.isActive() && after.isActive() ->
+                slotCapacityService.move(after.restaurantId, before.reservationDateTime, after.reservationDateTime)
+            before.isActive() -> slotCapacityService.release(before.restaurantId, before.reservationDateTime)
+            after.isActive() -> slotCapacityService.admit(after.restaurantId, after.reservationDateTime)
+        }
+    }
+
     private fun mapToReservationResponse(reservation: Reservation): ReservationResponse {
         return ReservationResponse(
             id = reservation.id!!,
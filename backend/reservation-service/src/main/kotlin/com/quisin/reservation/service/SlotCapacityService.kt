@@ -0,0 +1,74 @@
+package com.quisin.reservation.service
+
+import com.quisin.reservation.domain.Reservation
+import com.quisin.reservation.repository.SlotCapacityRepository
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Service
+import org.springframework.transaction.annotation.Propagation
+import org.springframework.transaction.annotation.Transactional
+import java.time.Duration
+import java.time.LocalDateTime
+import java.time.temporal.ChronoUnit
+import java.util.UUID
+
+/**
+ * Per-(restaurant, slot) reservation counters.
+ *
+ * Places are taken and given back with conditional updates in the booking's own transaction, so
+ * a booking and its place commit or roll back together, and concurrent bookings on any instance
+ * queue on the slot's row instead of both passing a count.
+ */
+@Service
+class SlotCapacityService(
+    private val slotCapacityRepository: SlotCapacityRepository,
+    @Value("\${reservation.slot-duration-minutes}") slotDurationMinutes: Long,
+    @Value("\${reservation.max-per-slot}") private val maxPerSlot: Int
+) {
+    private val slotDuration = Duration.ofMinutes(slotDurationMinutes)
+
+    /**
+     * Takes one place in the slot containing [time], or throws [IllegalArgumentException] if the
+     * slot is full.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun admit(restaurantId: UUID, time: LocalDateTime) {
+        val slotStart = slotStart(time)
+        slotCapacityRepository.insertIfAbsent(UUID.randomUUID(), restaurantId, slotStart, slotStart.plus(slotDuration), maxPerSlot)
+        if (slotCapacityRepository.reserve(restaurantId, slotStart) == 0) {
+            throw IllegalArgumentException("Maximum reservations reached for this time slot")
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun release(restaurantId: UUID, time: LocalDateTime) {
+        slotCapacityRepository.release(restaurantId, slotStart(time), 1)
+    }
+
+    /**
+     * Gives back the places of many reservations, with one update per slot.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun releaseAll(reservations: List<Reservation>) {
+        reservations.groupingBy { it.restaurantId to slotStart(it.reservationDateTime) }
+            .eachCount()
+            .forEach { (slot, places) -> slotCapacityRepository.release(slot.first, slot.second, places) }
+    }
+
+    /**
+     * Moves one place from the slot containing [from] to the slot containing [to].
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    fun move(restaurantId: UUID, from: LocalDateTime, to: LocalDateTime) {
+        if (slotStart(from) == slotStart(to)) {
+            return
+        }
+        admit(restaurantId, to)
+        release(restaurantId, from)
+    }
+
+    private fun slotStart(time: LocalDateTime): LocalDateTime {
+        val day = time.truncatedTo(ChronoUnit.DAYS)
+        val slots = Duration.between(day, time).toMinutes() / slotDuration.toMinutes()
+        return day.plus(slotDuration.multipliedBy(slots))
+    }
+}
@@ -0,0 +1,147 @@
+package com.quisin.reservation.service
+
+import com.quisin.reservation.domain.Reservation
+import com.quisin.reservation.repository.ReservationRepository
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.time.Duration
+import java.time.Instant
+import java.time.LocalDateTime
+import java.util.TreeMap
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Per-restaurant index of the intervals during which tables are held by active reservations.
+ *
+ * Restaurants are loaded lazily from the database and reloaded after
+ * `reservation.availability.refresh-interval` to pick up bookings made by other instances. Until
+ * then the index can miss bookings made elsewhere, so it only answers availability searches;
+ * bookings are checked against the database.
+ */
+@Component
+class TableAvailabilityIndex(
+    private val reservationRepository: ReservationRepository,
+    @Value("\${reservation.availability.refresh-interval:PT5M}") private val refreshInterval: Duration
+) {
+    private val logger = LoggerFactory.getLogger(javaClass)
+    private val restaurants = ConcurrentHashMap<UUID, RestaurantBookings>()
+
+    fun isFree(
+        restaurantId: UUID,
+        tableId: UUID,
+        startTime: LocalDateTime,
+        endTime: LocalDateTime,
+        ignoredReservationId: UUID? = null
+    ): Boolean {
+        val bookings = bookings(restaurantId)
+        synchronized(bookings) {
+            return bookings.isFree(tableId, startTime, endTime, ignoredReservationId)
+        }
+    }
+
+    fun bookedTables(restaurantId: UUID, startTime: LocalDateTime, endTime: LocalDateTime): Set<UUID> {
+        val bookings = bookings(restaurantId)
+        synchronized(bookings) {
+            return bookings.tableIds().filterTo(HashSet()) { !bookings.isFree(it, startTime, endTime, null) }
+        }
+    }
+
+    /**
+     * Records a saved reservation once its transaction commits: adds or moves it while it is
+     * active, and drops it once it is cancelled, completed or a no-show.
+     */
+    fun update(reservation: Reservation) {
+        afterCommit {
+            val bookings = restaurants[reservation.restaurantId] ?: return@afterCommit
+            synchronized(bookings) {
+                bookings.remove(reservation.id!!)
+                if (reservation.isActive()) {
+                    bookings.add(Booking(reservation.id, reservation.tableId, reservation.reservationDateTime, reservation.endDateTime()))
+                }
+            }
+        }
+    }
+
+    fun evict(restaurantId: UUID) {
+        restaurants.remove(restaurantId)
+    }
+
+    private fun bookings(restaurantId: UUID): RestaurantBookings =
+        restaurants.compute(restaurantId) { id, current ->
+            if (current != null && current.loadedAt.plus(refreshInterval).isAfter(Instant.now())) current else load(id)
+        }!!
+
+    private fun load(restaurantId: UUID): RestaurantBookings {
+        val bookings = RestaurantBookings()
+        reservationRepository.findActiveHoldingTablesAfter(restaurantId, LocalDateTime.now())
+            .forEach { bookings.add(Booking(it.id!!, it.tableId, it.reservationDateTime, it.endDateTime())) }
+        logger.debug("Loaded {} bookings for restaurant {}", bookings.size(), restaurantId)
+        return bookings
+    }
+
+    private fun afterCommit(change: () -> Unit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change()
+            return
+        }
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCommit() {
+                change()
+            }
+        })
+    }
+
+    private data class Booking(
+        val reservationId: UUID,
+        val tableId: UUID,
+        val startTime: LocalDateTime,
+        val endTime: LocalDateTime
+    )
+
+    private class RestaurantBookings {
+        val loadedAt: Instant = Instant.now()
+        private val byTable = HashMap<UUID, TreeMap<LocalDateTime, MutableList<Booking>>>()
+        private val byReservation = HashMap<UUID, Booking>()
+        // Longest hold in the index, which bounds how far before a window an overlapping booking can start
+        private var longestHold = Duration.ZERO
+
+        fun tableIds(): Set<UUID> = byTable.keys
+
+        fun size(): Int = byReservation.size
+
+        fun isFree(tableId: UUID, startTime: LocalDateTime, endTime: LocalDateTime, ignoredReservationId: UUID?): Boolean {
+            val slots = byTable[tableId] ?: return true
+            return slots.subMap(startTime.minus(longestHold), false, endTime, false).values.none { sameStart ->
+                sameStart.any { it.reservationId != ignoredReservationId && it.endTime.isAfter(startTime) }
+            }
+        }
+
+        fun add(booking: Booking) {
+            byReservation[booking.reservationId] = booking
+            byTable.getOrPut(booking.tableId) { TreeMap() }
+                .getOrPut(booking.startTime) { ArrayList(1) }
+                .add(booking)
+            val hold = Duration.between(booking.startTime, booking.endTime)
+            if (hold > longestHold) {
+                longestHold = hold
+            }
+        }
+
+        fun remove(reservationId: UUID) {
+            val booking = byReservation.remove(reservationId) ?: return
+            val slots = byTable.getValue(booking.tableId)
+            val sameStart = slots.getValue(booking.startTime)
+            sameStart.remove(booking)
+            if (sameStart.isEmpty()) {
+                slots.remove(booking.startTime)
+            }
+            if (slots.isEmpty()) {
+                byTable.remove(booking.tableId)
+            }
+        }
+    }
+}
@@ -12,7 +12,8 @@ import java.util.UUID
 
 @Service
 class TableService(
-    private val tableRepository: TableRepository
+    private val tableRepository: TableRepository,
+    private val availabilityIndex: TableAvailabilityIndex
 ) {
     @Transactional
     fun createTable(request: CreateTableRequest): TableResponse {
@@ -60,7 +61,9 @@ class TableService(
         startTime: java.time.LocalDateTime, 
         endTime: java.time.LocalDateTime
     ): List<TableResponse> {
-        return tableRepository.findAvailableTables(restaurantId, partySize, startTime, endTime)
+        val bookedTableIds = availabilityIndex.bookedTables(restaurantId, startTime, endTime)
+        return tableRepository.findByRestaurantIdAndStatus(restaurantId, TableStatus.AVAILABLE)
+            .filter { it.capacity >= partySize && it.id !in bookedTableIds }
             .map { mapToTableResponse(it) }
     }
 
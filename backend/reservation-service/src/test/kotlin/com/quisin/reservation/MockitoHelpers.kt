@@ -0,0 +1,23 @@
+package com.quisin.reservation
+
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers
+
+// Mockito's matchers return null, which Kotlin rejects for non-null parameters
+
+fun <T> anyOf(type: Class<T>): T {
+    ArgumentMatchers.any(type)
+    @Suppress("UNCHECKED_CAST")
+    return null as T
+}
+
+fun <T> eqOf(value: T): T {
+    ArgumentMatchers.eq(value)
+    return value
+}
+
+fun <T> captureOf(captor: ArgumentCaptor<T>): T {
+    captor.capture()
+    @Suppress("UNCHECKED_CAST")
+    return null as T
+}
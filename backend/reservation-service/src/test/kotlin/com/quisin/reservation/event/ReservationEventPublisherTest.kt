@@ -0,0 +1,114 @@
+package com.quisin.reservation.event
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import com.quisin.reservation.domain.Reservation
+import com.quisin.reservation.domain.ReservationStatus
+import org.apache.kafka.clients.producer.ProducerRecord
+import org.apache.kafka.clients.producer.RecordMetadata
+import org.apache.kafka.common.TopicPartition
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
+import org.mockito.Mockito.*
+import org.springframework.kafka.core.KafkaTemplate
+import org.springframework.kafka.support.SendResult
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+import java.util.concurrent.CompletableFuture
+
+class ReservationEventPublisherTest {
+
+    private lateinit var kafkaTemplate: KafkaTemplate<String, String>
+    private lateinit var publisher: ReservationEventPublisher
+    private val objectMapper = ObjectMapper().registerModule(JavaTimeModule())
+
+    @BeforeEach
+    fun setup() {
+        @Suppress("UNCHECKED_CAST")
+        kafkaTemplate = mock(KafkaTemplate::class.java) as KafkaTemplate<String, String>
+        publisher = ReservationEventPublisher(kafkaTemplate, objectMapper, "reservation-events", Duration.ofSeconds(1))
+    }
+
+    @Test
+    fun `should send the whole batch before a single flush`() {
+        // Given
+        val reservations = listOf(cancelled(), cancelled(), cancelled())
+        reservations.forEach { sent(it, CompletableFuture.completedFuture(result())) }
+
+        // When
+        publisher.publishStatusChanged(reservations)
+
+        // Then
+        val inOrder = inOrder(kafkaTemplate)
+        reservations.forEach { inOrder.verify(kafkaTemplate).send(eq("reservation-events"), eq(it.id.toString()), anyString()) }
+        inOrder.verify(kafkaTemplate, times(1)).flush()
+    }
+
+    @Test
+    fun `should publish the status change in the reservation event shape`() {
+        // Given
+        val reservation = cancelled()
+        sent(reservation, CompletableFuture.completedFuture(result()))
+
+        // When
+        publisher.publishStatusChanged(listOf(reservation))
+
+        // Then
+        val payload = ArgumentCaptor.forClass(String::class.java)
+        verify(kafkaTemplate).send(eq("reservation-events"), eq(reservation.id.toString()), payload.capture())
+        val event = objectMapper.readTree(payload.value)
+        assertEquals("RESERVATION_STATUS_CHANGED", event["eventType"].asText())
+        assertEquals(reservation.id.toString(), event["reservationId"].asText())
+        assertEquals(reservation.customerId.toString(), event["userId"].asText())
+        assertEquals("CANCELLED", event["status"].asText())
+    }
+
+    @Test
+    fun `should keep publishing the batch when one send fails`() {
+        // Given
+        val failing = cancelled()
+        val healthy = cancelled()
+        sent(failing, CompletableFuture.failedFuture(IllegalStateException("broker down")))
+        sent(healthy, CompletableFuture.completedFuture(result()))
+
+        // When
+        publisher.publishStatusChanged(listOf(failing, healthy))
+
+        // Then
+        verify(kafkaTemplate).send(eq("reservation-events"), eq(healthy.id.toString()), anyString())
+        verify(kafkaTemplate).flush()
+    }
+
+    @Test
+    fun `should not touch the producer for an empty batch`() {
+        // When
+        publisher.publishStatusChanged(emptyList())
+
+        // Then
+        verifyNoInteractions(kafkaTemplate)
+    }
+
+    private fun sent(reservation: Reservation, result: CompletableFuture<SendResult<String, String>>) {
+        `when`(kafkaTemplate.send(eq("reservation-events"), eq(reservation.id.toString()), anyString())).thenReturn(result)
+    }
+
+    private fun result() = SendResult(
+        ProducerRecord("reservation-events", "key", "value"),
+        RecordMetadata(TopicPartition("reservation-events", 0), 0, 0, 0, 0, 0)
+    )
+
+    private fun cancelled() = Reservation(
+        id = UUID.randomUUID(),
+        restaurantId = UUID.randomUUID(),
+        customerId = UUID.randomUUID(),
+        tableId = UUID.randomUUID(),
+        reservationDateTime = LocalDateTime.now().plusDays(1),
+        partySize = 2,
+        status = ReservationStatus.CANCELLED,
+        contactName = "Guest",
+        contactPhone = "555-0100"
+    )
+}
@@ -0,0 +1,124 @@
+package com.quisin.reservation.service
+
+import com.quisin.common.expiry.ExpirySweeper
+import com.quisin.reservation.anyOf
+import com.quisin.reservation.captureOf
+import com.quisin.reservation.domain.Reservation
+import com.quisin.reservation.domain.ReservationStatus
+import com.quisin.reservation.domain.TableStatus
+import com.quisin.reservation.eqOf
+import com.quisin.reservation.event.ReservationEventPublisher
+import com.quisin.reservation.repository.ReservationRepository
+import com.quisin.reservation.repository.TableRepository
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
+import org.mockito.Mockito.*
+import org.springframework.transaction.PlatformTransactionManager
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+
+class ReservationExpiryServiceTest {
+
+    private lateinit var reservationRepository: ReservationRepository
+    private lateinit var tableRepository: TableRepository
+    private lateinit var slotCapacityService: SlotCapacityService
+    private lateinit var availabilityIndex: TableAvailabilityIndex
+    private lateinit var eventPublisher: ReservationEventPublisher
+    private lateinit var expiryService: ReservationExpiryService
+
+    private val restaurantId = UUID.randomUUID()
+    private val evening = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0).withNano(0)
+
+    @BeforeEach
+    fun setup() {
+        reservationRepository = mock(ReservationRepository::class.java)
+        tableRepository = mock(TableRepository::class.java)
+        slotCapacityService = mock(SlotCapacityService::class.java)
+        availabilityIndex = mock(TableAvailabilityIndex::class.java)
+        eventPublisher = mock(ReservationEventPublisher::class.java)
+        val sweeper = ExpirySweeper(mock(PlatformTransactionManager::class.java), SimpleMeterRegistry(), 2, 10)
+        expiryService = ReservationExpiryService(
+            sweeper, reservationRepository, tableRepository, slotCapacityService, availabilityIndex,
+            eventPublisher, Duration.ofMinutes(30)
+        )
+    }
+
+    @Test
+    fun `should cancel pending reservations in keyset batches`() {
+        // Given
+        val first = pending(UUID(0, 1))
+        val second = pending(UUID(0, 2))
+        val third = pending(UUID(0, 3))
+        `when`(reservationRepository.lockExpiredPendingReservations(anyOf(LocalDateTime::class.java), eqOf(UUID(0, 0)), eqOf(2)))
+            .thenReturn(listOf(first, second))
+        `when`(reservationRepository.lockExpiredPendingReservations(anyOf(LocalDateTime::class.java), eqOf(second.id!!), eqOf(2)))
+            .thenReturn(listOf(third))
+
+        // When
+        val expired = expiryService.cancelExpiredReservations()
+
+        // Then
+        assertEquals(3, expired)
+        verify(reservationRepository).updateStatus(
+            eqOf(listOf(first.id!!, second.id!!)), eqOf(ReservationStatus.CANCELLED), anyOf(LocalDateTime::class.java)
+        )
+        verify(reservationRepository).updateStatus(
+            eqOf(listOf(third.id!!)), eqOf(ReservationStatus.CANCELLED), anyOf(LocalDateTime::class.java)
+        )
+        verify(slotCapacityService).releaseAll(listOf(first, second))
+        verify(slotCapacityService).releaseAll(listOf(third))
+        verify(reservationRepository, never()).save(anyOf(Reservation::class.java))
+    }
+
+    @Test
+    fun `should give back tables and publish each batch of cancellations once`() {
+        // Given
+        val reservation = pending(UUID(0, 1))
+        `when`(reservationRepository.lockExpiredPendingReservations(anyOf(LocalDateTime::class.java), eqOf(UUID(0, 0)), eqOf(2)))
+            .thenReturn(listOf(reservation))
+
+        // When
+        expiryService.cancelExpiredReservations()
+
+        // Then
+        verify(tableRepository).updateStatus(
+            eqOf(setOf(reservation.tableId)), eqOf(TableStatus.RESERVED), eqOf(TableStatus.AVAILABLE),
+            anyOf(LocalDateTime::class.java)
+        )
+        val cancelled = reservation.copy(status = ReservationStatus.CANCELLED)
+        verify(availabilityIndex).update(cancelled)
+        verify(eventPublisher, times(1)).publishStatusChanged(listOf(cancelled))
+    }
+
+    @Test
+    fun `should only claim reservations created before the pending TTL`() {
+        // When
+        val before = LocalDateTime.now().minusMinutes(30)
+        expiryService.cancelExpiredReservations()
+        val after = LocalDateTime.now().minusMinutes(30)
+
+        // Then
+        val cutoff: ArgumentCaptor<LocalDateTime> = ArgumentCaptor.forClass(LocalDateTime::class.java)
+        verify(reservationRepository).lockExpiredPendingReservations(captureOf(cutoff), eqOf(UUID(0, 0)), eqOf(2))
+        assertFalse(cutoff.value.isBefore(before))
+        assertFalse(cutoff.value.isAfter(after))
+        verifyNoInteractions(eventPublisher)
+    }
+
+    private fun pending(id: UUID) = Reservation(
+        id = id,
+        restaurantId = restaurantId,
+        customerId = UUID.randomUUID(),
+        tableId = UUID.randomUUID(),
+        reservationDateTime = evening,
+        partySize = 2,
+        status = ReservationStatus.PENDING,
+        contactName = "Guest",
+        contactPhone = "555-0100",
+        createdAt = LocalDateTime.now().minusHours(1)
+    )
+}
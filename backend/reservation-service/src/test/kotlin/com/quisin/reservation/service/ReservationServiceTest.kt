@@ -0,0 +1,218 @@
+package com.quisin.reservation.service
+
+import com.quisin.reservation.anyOf
+import com.quisin.reservation.domain.Reservation
+import com.quisin.reservation.domain.ReservationStatus
+import com.quisin.reservation.domain.RestaurantTable
+import com.quisin.reservation.domain.TableStatus
+import com.quisin.reservation.domain.TableType
+import com.quisin.reservation.eqOf
+import com.quisin.reservation.dto.AvailableTableRequest
+import com.quisin.reservation.dto.CreateReservationRequest
+import com.quisin.reservation.dto.UpdateReservationRequest
+import com.quisin.reservation.repository.ReservationRepository
+import com.quisin.reservation.repository.TableRepository
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.Mockito.*
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.Optional
+import java.util.UUID
+
+class ReservationServiceTest {
+
+    private lateinit var reservationRepository: ReservationRepository
+    private lateinit var tableRepository: TableRepository
+    private lateinit var availabilityIndex: TableAvailabilityIndex
+    private lateinit var slotCapacityService: SlotCapacityService
+    private lateinit var reservationService: ReservationService
+
+    private val restaurantId = UUID.randomUUID()
+    private val table = RestaurantTable(
+        id = UUID.randomUUID(),
+        restaurantId = restaurantId,
+        tableNumber = "12",
+        type = TableType.SMALL_GROUP,
+        capacity = 4
+    )
+    private val evening = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0).withNano(0)
+
+    @BeforeEach
+    fun setup() {
+        reservationRepository = mock(ReservationRepository::class.java)
+        tableRepository = mock(TableRepository::class.java)
+        availabilityIndex = TableAvailabilityIndex(reservationRepository, Duration.ofMinutes(5))
+        slotCapacityService = mock(SlotCapacityService::class.java)
+        val tableService = TableService(tableRepository, availabilityIndex)
+        reservationService = ReservationService(
+            reservationRepository, tableRepository, tableService, availabilityIndex, slotCapacityService
+        )
+
+        `when`(tableRepository.lockById(table.id!!)).thenReturn(table)
+        `when`(tableRepository.findById(table.id!!)).thenReturn(Optional.of(table))
+        `when`(tableRepository.save(anyOf(RestaurantTable::class.java))).thenAnswer { it.getArgument(0) }
+        `when`(reservationRepository.save(anyOf(Reservation::class.java))).thenAnswer {
+            val reservation = it.getArgument<Reservation>(0)
+            reservation.copy(id = reservation.id ?: UUID.randomUUID())
+        }
+        `when`(reservationRepository.findActiveHoldingTablesAfter(eqOf(restaurantId), anyOf(LocalDateTime::class.java))).thenReturn(emptyList())
+    }
+
+    @Test
+    fun `should book a table that is free in the database`() {
+        // When
+        val response = reservationService.createReservation(request(evening))
+
+        // Then
+        assertEquals(table.id, response.tableId)
+        verify(tableRepository).lockById(table.id!!)
+        verify(reservationRepository).findOverlappingReservationIds(table.id!!, evening, evening.plusMinutes(90))
+    }
+
+    @Test
+    fun `should reject a table booked on another instance even if the index has not seen it`() {
+        // Given
+        `when`(reservationRepository.findOverlappingReservationIds(table.id!!, evening, evening.plusMinutes(90)))
+            .thenReturn(listOf(UUID.randomUUID()))
+
+        // Then
+        assertThrows<IllegalArgumentException> { reservationService.createReservation(request(evening)) }
+        verify(reservationRepository, never()).save(anyOf(Reservation::class.java))
+    }
+
+    @Test
+    fun `should reject a table the index holds as booked without asking the database`() {
+        // Given
+        `when`(reservationRepository.findActiveHoldingTablesAfter(eqOf(restaurantId), anyOf(LocalDateTime::class.java)))
+            .thenReturn(listOf(existing(evening.minusMinutes(60))))
+
+        // Then
+        assertThrows<IllegalArgumentException> { reservationService.createReservation(request(evening)) }
+        verify(reservationRepository, never()).findOverlappingReservationIds(table.id!!, evening, evening.plusMinutes(90))
+    }
+
+    @Test
+    fun `should not book a table when its slot is full`() {
+        // Given
+        doThrow(IllegalArgumentException("Maximum reservations reached for this time slot"))
+            .`when`(slotCapacityService).admit(restaurantId, evening)
+
+        // Then
+        assertThrows<IllegalArgumentException> { reservationService.createReservation(request(evening)) }
+        verify(reservationRepository, never()).save(anyOf(Reservation::class.java))
+    }
+
+    @Test
+    fun `should give the slot place back when a reservation is cancelled`() {
+        // Given
+        val reservation = existing(evening)
+        `when`(reservationRepository.findById(reservation.id!!)).thenReturn(Optional.of(reservation))
+
+        // When
+        reservationService.cancelReservation(reservation.id!!)
+
+        // Then
+        verify(slotCapacityService).release(restaurantId, evening)
+    }
+
+    @Test
+    fun `should take a slot place again when a cancelled reservation is confirmed`() {
+        // Given
+        val reservation = existing(evening).copy(status = ReservationStatus.CANCELLED)
+        `when`(reservationRepository.findById(reservation.id!!)).thenReturn(Optional.of(reservation))
+
+        // When
+        reservationService.updateReservation(reservation.id!!, UpdateReservationRequest(status = ReservationStatus.CONFIRMED))
+
+        // Then
+        verify(slotCapacityService).admit(restaurantId, evening)
+        verify(slotCapacityService, never()).release(restaurantId, evening)
+    }
+
+    @Test
+    fun `should reject a party larger than the table`() {
+        // Then
+        assertThrows<IllegalArgumentException> {
+            reservationService.createReservation(request(evening).copy(partySize = 6))
+        }
+    }
+
+    @Test
+    fun `should hide a booked table from availability searches until it is cancelled`() {
+        // Given
+        `when`(tableRepository.findByRestaurantIdAndStatus(restaurantId, TableStatus.AVAILABLE)).thenReturn(listOf(table))
+        val booked = reservationService.createReservation(request(evening))
+
+        // Then
+        assertTrue(reservationService.findAvailableTables(availableTables(evening.plusMinutes(30))).isEmpty())
+        assertEquals(1, reservationService.findAvailableTables(availableTables(evening.plusMinutes(90))).size)
+
+        // When
+        `when`(reservationRepository.findById(booked.id)).thenReturn(Optional.of(existing(evening).copy(id = booked.id)))
+        reservationService.cancelReservation(booked.id)
+
+        // Then
+        assertEquals(1, reservationService.findAvailableTables(availableTables(evening.plusMinutes(30))).size)
+    }
+
+    @Test
+    fun `should check the table again when a reservation moves`() {
+        // Given
+        val reservation = existing(evening)
+        `when`(reservationRepository.findById(reservation.id!!)).thenReturn(Optional.of(reservation))
+        `when`(reservationRepository.findOverlappingReservationIds(table.id!!, evening.plusHours(1), evening.plusHours(3)))
+            .thenReturn(listOf(reservation.id!!, UUID.randomUUID()))
+
+        // Then
+        assertThrows<IllegalArgumentException> {
+            reservationService.updateReservation(reservation.id!!, UpdateReservationRequest(reservationDateTime = evening.plusHours(1)))
+        }
+    }
+
+    @Test
+    fun `should let a reservation move over its own old slot`() {
+        // Given
+        val reservation = existing(evening)
+        `when`(reservationRepository.findById(reservation.id!!)).thenReturn(Optional.of(reservation))
+        `when`(reservationRepository.findOverlappingReservationIds(table.id!!, evening.plusHours(1), evening.plusHours(3)))
+            .thenReturn(listOf(reservation.id!!))
+
+        // When
+        val response = reservationService.updateReservation(
+            reservation.id!!, UpdateReservationRequest(reservationDateTime = evening.plusHours(1))
+        )
+
+        // Then
+        assertEquals(evening.plusHours(1), response.reservationDateTime)
+        verify(slotCapacityService).move(restaurantId, evening, evening.plusHours(1))
+    }
+
+    private fun request(time: LocalDateTime) = CreateReservationRequest(
+        restaurantId = restaurantId,
+        customerId = UUID.randomUUID(),
+        tableId = table.id!!,
+        reservationDateTime = time,
+        partySize = 4,
+        contactName = "Guest",
+        contactPhone = "555-0100",
+        estimatedDuration = 90
+    )
+
+    private fun availableTables(time: LocalDateTime) =
+        AvailableTableRequest(restaurantId = restaurantId, reservationDateTime = time, partySize = 2)
+
+    private fun existing(time: LocalDateTime) = Reservation(
+        id = UUID.randomUUID(),
+        restaurantId = restaurantId,
+        customerId = UUID.randomUUID(),
+        tableId = table.id!!,
+        reservationDateTime = time,
+        partySize = 4,
+        status = ReservationStatus.CONFIRMED,
+        contactName = "Guest",
+        contactPhone = "555-0100"
+    )
+}
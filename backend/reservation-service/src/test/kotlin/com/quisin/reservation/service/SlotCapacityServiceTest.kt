@@ -0,0 +1,93 @@
+package com.quisin.reservation.service
+
+import com.quisin.reservation.anyOf
+import com.quisin.reservation.eqOf
+import com.quisin.reservation.repository.SlotCapacityRepository
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.Mockito.*
+import java.time.LocalDateTime
+import java.util.UUID
+
+class SlotCapacityServiceTest {
+
+    private lateinit var slotCapacityRepository: SlotCapacityRepository
+    private lateinit var slotCapacityService: SlotCapacityService
+
+    private val restaurantId = UUID.randomUUID()
+    private val evening = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0).withNano(0)
+
+    @BeforeEach
+    fun setup() {
+        slotCapacityRepository = mock(SlotCapacityRepository::class.java)
+        slotCapacityService = SlotCapacityService(slotCapacityRepository, 30, 10)
+    }
+
+    @Test
+    fun `should take a place in the slot containing the reservation time`() {
+        // Given
+        `when`(slotCapacityRepository.reserve(restaurantId, evening.plusMinutes(30))).thenReturn(1)
+
+        // When
+        slotCapacityService.admit(restaurantId, evening.plusMinutes(45))
+
+        // Then
+        val inOrder = inOrder(slotCapacityRepository)
+        inOrder.verify(slotCapacityRepository).insertIfAbsent(
+            anyOf(UUID::class.java), eqOf(restaurantId), eqOf(evening.plusMinutes(30)), eqOf(evening.plusMinutes(60)), eqOf(10)
+        )
+        inOrder.verify(slotCapacityRepository).reserve(restaurantId, evening.plusMinutes(30))
+    }
+
+    @Test
+    fun `should reject a booking when the slot row has no place left`() {
+        // Given
+        `when`(slotCapacityRepository.reserve(restaurantId, evening)).thenReturn(0)
+
+        // Then
+        assertThrows<IllegalArgumentException> { slotCapacityService.admit(restaurantId, evening.plusMinutes(10)) }
+    }
+
+    @Test
+    fun `should give the place back to the slot containing the reservation time`() {
+        // When
+        slotCapacityService.release(restaurantId, evening.plusMinutes(29))
+
+        // Then
+        verify(slotCapacityRepository).release(restaurantId, evening, 1)
+    }
+
+    @Test
+    fun `should leave the counters alone when a reservation moves within its slot`() {
+        // When
+        slotCapacityService.move(restaurantId, evening, evening.plusMinutes(15))
+
+        // Then
+        verifyNoInteractions(slotCapacityRepository)
+    }
+
+    @Test
+    fun `should take the new place before giving the old one back`() {
+        // Given
+        `when`(slotCapacityRepository.reserve(restaurantId, evening.plusHours(1))).thenReturn(1)
+
+        // When
+        slotCapacityService.move(restaurantId, evening, evening.plusHours(1))
+
+        // Then
+        val inOrder = inOrder(slotCapacityRepository)
+        inOrder.verify(slotCapacityRepository).reserve(restaurantId, evening.plusHours(1))
+        inOrder.verify(slotCapacityRepository).release(restaurantId, evening, 1)
+    }
+
+    @Test
+    fun `should keep the old place when the new slot is full`() {
+        // Given
+        `when`(slotCapacityRepository.reserve(restaurantId, evening.plusHours(1))).thenReturn(0)
+
+        // Then
+        assertThrows<IllegalArgumentException> { slotCapacityService.move(restaurantId, evening, evening.plusHours(1)) }
+        verify(slotCapacityRepository, never()).release(restaurantId, evening, 1)
+    }
+}
@@ -0,0 +1,149 @@
+package com.quisin.reservation.service
+
+import com.quisin.reservation.anyOf
+import com.quisin.reservation.domain.Reservation
+import com.quisin.reservation.domain.ReservationStatus
+import com.quisin.reservation.eqOf
+import com.quisin.reservation.repository.ReservationRepository
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.*
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.UUID
+
+class TableAvailabilityIndexTest {
+
+    private lateinit var reservationRepository: ReservationRepository
+    private lateinit var index: TableAvailabilityIndex
+
+    private val restaurantId = UUID.randomUUID()
+    private val tableId = UUID.randomUUID()
+    private val otherTableId = UUID.randomUUID()
+    private val evening = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0).withNano(0)
+
+    @BeforeEach
+    fun setup() {
+        reservationRepository = mock(ReservationRepository::class.java)
+        index = TableAvailabilityIndex(reservationRepository, Duration.ofMinutes(5))
+    }
+
+    @Test
+    fun `should report a table as taken while a loaded booking holds it`() {
+        // Given
+        loaded(reservation(tableId, evening, 90))
+
+        // Then
+        assertFalse(index.isFree(restaurantId, tableId, evening.plusMinutes(60), evening.plusMinutes(120)))
+        assertFalse(index.isFree(restaurantId, tableId, evening.minusMinutes(30), evening.plusMinutes(1)))
+        assertTrue(index.isFree(restaurantId, tableId, evening.plusMinutes(90), evening.plusMinutes(180)))
+        assertTrue(index.isFree(restaurantId, tableId, evening.minusMinutes(60), evening))
+        assertTrue(index.isFree(restaurantId, otherTableId, evening, evening.plusMinutes(90)))
+    }
+
+    @Test
+    fun `should find a long booking that started well before the window`() {
+        // Given
+        loaded(
+            reservation(tableId, evening.minusHours(3), 240),
+            reservation(tableId, evening.minusMinutes(30), 30)
+        )
+
+        // Then
+        assertFalse(index.isFree(restaurantId, tableId, evening.plusMinutes(30), evening.plusMinutes(60)))
+        assertTrue(index.isFree(restaurantId, tableId, evening.plusMinutes(60), evening.plusMinutes(90)))
+    }
+
+    @Test
+    fun `should default the hold to the standard duration`() {
+        // Given
+        loaded(reservation(tableId, evening, null))
+
+        // Then
+        assertFalse(index.isFree(restaurantId, tableId, evening.plusMinutes(119), evening.plusMinutes(150)))
+        assertTrue(index.isFree(restaurantId, tableId, evening.plusMinutes(120), evening.plusMinutes(150)))
+    }
+
+    @Test
+    fun `should list only the tables booked in the window`() {
+        // Given
+        loaded(reservation(tableId, evening, 120), reservation(otherTableId, evening.plusHours(3), 120))
+
+        // When
+        val booked = index.bookedTables(restaurantId, evening.plusMinutes(30), evening.plusMinutes(150))
+
+        // Then
+        assertEquals(setOf(tableId), booked)
+    }
+
+    @Test
+    fun `should ignore the reservation being moved`() {
+        // Given
+        val moving = reservation(tableId, evening, 120)
+        loaded(moving)
+
+        // Then
+        assertTrue(index.isFree(restaurantId, tableId, evening.plusMinutes(30), evening.plusMinutes(150), moving.id))
+        assertFalse(index.isFree(restaurantId, tableId, evening.plusMinutes(30), evening.plusMinutes(150)))
+    }
+
+    @Test
+    fun `should add, move and release bookings of a loaded restaurant`() {
+        // Given
+        loaded()
+        assertTrue(index.isFree(restaurantId, tableId, evening, evening.plusMinutes(30)))
+        val booking = reservation(tableId, evening, 120)
+
+        // When
+        index.update(booking)
+
+        // Then
+        assertFalse(index.isFree(restaurantId, tableId, evening, evening.plusMinutes(30)))
+
+        // When
+        index.update(booking.copy(reservationDateTime = evening.plusHours(3)))
+
+        // Then
+        assertTrue(index.isFree(restaurantId, tableId, evening, evening.plusMinutes(30)))
+        assertFalse(index.isFree(restaurantId, tableId, evening.plusHours(3), evening.plusHours(4)))
+
+        // When
+        index.update(booking.copy(reservationDateTime = evening.plusHours(3), status = ReservationStatus.CANCELLED))
+
+        // Then
+        assertTrue(index.isFree(restaurantId, tableId, evening.plusHours(3), evening.plusHours(4)))
+        verify(reservationRepository, times(1)).findActiveHoldingTablesAfter(eqOf(restaurantId), anyOf(LocalDateTime::class.java))
+    }
+
+    @Test
+    fun `should reload a restaurant once the refresh interval has passed`() {
+        // Given
+        index = TableAvailabilityIndex(reservationRepository, Duration.ZERO)
+        loaded()
+        assertTrue(index.isFree(restaurantId, tableId, evening, evening.plusMinutes(30)))
+        loaded(reservation(tableId, evening, 120))
+
+        // Then
+        assertFalse(index.isFree(restaurantId, tableId, evening, evening.plusMinutes(30)))
+        verify(reservationRepository, times(2)).findActiveHoldingTablesAfter(eqOf(restaurantId), anyOf(LocalDateTime::class.java))
+    }
+
+    private fun loaded(vararg reservations: Reservation) {
+        `when`(reservationRepository.findActiveHoldingTablesAfter(eqOf(restaurantId), anyOf(LocalDateTime::class.java)))
+            .thenReturn(reservations.toList())
+    }
+
+    private fun reservation(tableId: UUID, start: LocalDateTime, durationMinutes: Int?) = Reservation(
+        id = UUID.randomUUID(),
+        restaurantId = restaurantId,
+        customerId = UUID.randomUUID(),
+        tableId = tableId,
+        reservationDateTime = start,
+        partySize = 2,
+        status = ReservationStatus.CONFIRMED,
+        contactName = "Guest",
+        contactPhone = "555-0100",
+        estimatedDuration = durationMinutes
+    )
+}
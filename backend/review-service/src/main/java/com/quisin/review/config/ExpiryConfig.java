@@ -0,0 +1,22 @@
+package com.quisin.review.config;
+
+import com.quisin.common.expiry.ExpirySweeper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class ExpiryConfig {
+
+    @Bean
+    public ExpirySweeper expirySweeper(
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Value("${review.expiry.batch-size:500}") int batchSize,
+        @Value("${review.expiry.max-batches-per-run:200}") int maxBatchesPerRun
+    ) {
+        return new ExpirySweeper(transactionManager, meterRegistry, batchSize, maxBatchesPerRun);
+    }
+}
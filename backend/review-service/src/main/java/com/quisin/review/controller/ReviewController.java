@@ -2,6 +2,7 @@ package com.quisin.review.controller;
 
 import com.quisin.review.dto.ReviewRequest;
 import com.quisin.review.dto.ReviewResponse;
+import com.quisin.review.dto.ReviewStatisticsResponse;
 import com.quisin.review.model.ReviewStatus;
 import com.quisin.review.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -112,4 +113,10 @@ public class ReviewController {
         Double averageRating = reviewService.getAverageRating(restaurantId);
         return ResponseEntity.ok(averageRating != null ? averageRating : 0.0);
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/restaurant/{restaurantId}/statistics")
+    @Operation(summary = "Get review count, average rating and rating distribution for a restaurant")
+    public ResponseEntity<ReviewStatisticsResponse> getRestaurantStatistics(@PathVariable String restaurantId) {
+        return ResponseEntity.ok(reviewService.getStatistics(restaurantId));
+    }
+}
\ No newline at end of file
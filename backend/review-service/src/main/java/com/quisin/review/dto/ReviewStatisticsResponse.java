@@ -0,0 +1,19 @@
+package com.quisin.review.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewStatisticsResponse {
+    private String restaurantId;
+    private long reviewCount;
+    private Double averageRating;
+    private Map<Integer, Long> ratingDistribution;
+}
@@ -1,21 +1,47 @@
 package com.quisin.review.event;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ReviewEventPublisher {
 
     private final StreamBridge streamBridge;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+    private final Duration sendTimeout;
     private static final String BINDING_NAME = "reviewEvents-out-0";
 
+    public ReviewEventPublisher(
+        StreamBridge streamBridge,
+        KafkaTemplate<String, String> kafkaTemplate,
+        ObjectMapper objectMapper,
+        @Value("${review.events.topic:review-events}") String topic,
+        @Value("${review.events.send-timeout:PT10S}") Duration sendTimeout
+    ) {
+        this.streamBridge = streamBridge;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+        this.sendTimeout = sendTimeout;
+    }
+
     public void publishReviewCreated(ReviewEvent event) {
         enrichAndPublishEvent(event, "REVIEW_CREATED");
     }
@@ -32,13 +58,57 @@ public class ReviewEventPublisher {
         enrichAndPublishEvent(event, "REVIEW_DELETED");
     }
 
+    /**
+     * Publishes a batch of moderation events as one producer batch: every record is handed to
+     * the producer before a single flush, and the acknowledgements are awaited together instead
+     * of one send per event. Records go to the topic of the single-event binding, keyed by review id.
+     */
+    public void publishReviewsModerated(List<ReviewEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (ReviewEvent event : events) {
+            enrich(event, "REVIEW_MODERATED");
+            sends.add(send(event));
+        }
+        kafkaTemplate.flush();
+
+        int failed = 0;
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                sends.get(i).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failed++;
+                log.error("Failed to publish moderation of review {}", events.get(i).getReviewId(), e);
+            }
+        }
+        log.info("Published {} of {} REVIEW_MODERATED events", events.size() - failed, events.size());
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(ReviewEvent event) {
+        try {
+            String key = event.getReviewId() != null ? event.getReviewId().toString() : null;
+            return kafkaTemplate.send(topic, key, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     private void enrichAndPublishEvent(ReviewEvent event, String eventType) {
-        event.setEventId(UUID.randomUUID().toString());
-        event.setEventType(eventType);
-        event.setTimestamp(LocalDateTime.now());
+        enrich(event, eventType);
 
         log.debug("Publishing {} event: {}", eventType, event);
         streamBridge.send(BINDING_NAME, event);
         log.info("Published {} event for review {}", eventType, event.getReviewId());
     }
-} 
\ No newline at end of file
+
+    private void enrich(ReviewEvent event, String eventType) {
+        event.setEventId(UUID.randomUUID().toString());
+        event.setEventType(eventType);
+        event.setTimestamp(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,60 @@
+package com.quisin.review.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running totals of a restaurant's approved reviews, kept in step with the reviews themselves.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "review_statistics")
+public class ReviewStatistics {
+    @Id
+    private String restaurantId;
+
+    @Column(nullable = false)
+    private long reviewCount;
+
+    @Column(nullable = false)
+    private long ratingSum;
+
+    @Column(nullable = false)
+    private long oneStar;
+
+    @Column(nullable = false)
+    private long twoStar;
+
+    @Column(nullable = false)
+    private long threeStar;
+
+    @Column(nullable = false)
+    private long fourStar;
+
+    @Column(nullable = false)
+    private long fiveStar;
+
+    public Double getAverageRating() {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : null;
+    }
+
+    public long countFor(int rating) {
+        return switch (rating) {
+            case 1 -> oneStar;
+            case 2 -> twoStar;
+            case 3 -> threeStar;
+            case 4 -> fourStar;
+            case 5 -> fiveStar;
+            default -> 0;
+        };
+    }
+}
@@ -2,10 +2,15 @@ package com.quisin.review.repository;
 
 import com.quisin.review.model.Review;
 import com.quisin.review.model.ReviewStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
@@ -37,6 +42,21 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT r FROM Review r WHERE r.status = 'PENDING' AND r.createdAt <= :cutoffTime")
     List<Review> findPendingReviewsOlderThan(@Param("cutoffTime") LocalDateTime cutoffTime);
     
+    // Lock timeout -2 is Hibernate's SKIP LOCKED
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM Review r WHERE r.status = 'PENDING' AND r.createdAt <= :cutoffTime " +
+           "AND r.id > :afterId ORDER BY r.id")
+    List<Review> lockPendingReviewsOlderThan(
+        @Param("cutoffTime") LocalDateTime cutoffTime,
+        @Param("afterId") long afterId,
+        Pageable pageable
+    );
+    
+    @Modifying
+    @Query("UPDATE Review r SET r.status = :status, r.updatedAt = :now WHERE r.id IN :ids")
+    int updateStatus(@Param("ids") List<Long> ids, @Param("status") ReviewStatus status, @Param("now") LocalDateTime now);
+    
     @Query("SELECT COUNT(r) > 0 FROM Review r " +
            "WHERE r.orderId = :orderId AND r.userId = :userId AND r.status <> 'REJECTED'")
     boolean hasUserReviewedOrder(@Param("orderId") String orderId, @Param("userId") String userId);
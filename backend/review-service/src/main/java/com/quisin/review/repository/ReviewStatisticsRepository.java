@@ -0,0 +1,43 @@
+package com.quisin.review.repository;
+
+import com.quisin.review.model.ReviewStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ReviewStatisticsRepository extends JpaRepository<ReviewStatistics, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO review_statistics (restaurant_id, review_count, rating_sum, " +
+                   "one_star, two_star, three_star, four_star, five_star) " +
+                   "VALUES (:restaurantId, :count, :sum, :one, :two, :three, :four, :five) " +
+                   "ON CONFLICT (restaurant_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+        @Param("restaurantId") String restaurantId,
+        @Param("count") long count,
+        @Param("sum") long sum,
+        @Param("one") long one,
+        @Param("two") long two,
+        @Param("three") long three,
+        @Param("four") long four,
+        @Param("five") long five
+    );
+
+    @Modifying
+    @Query("UPDATE ReviewStatistics s SET s.reviewCount = s.reviewCount + :count, " +
+           "s.ratingSum = s.ratingSum + :sum, s.oneStar = s.oneStar + :one, s.twoStar = s.twoStar + :two, " +
+           "s.threeStar = s.threeStar + :three, s.fourStar = s.fourStar + :four, s.fiveStar = s.fiveStar + :five " +
+           "WHERE s.restaurantId = :restaurantId")
+    int applyDelta(
+        @Param("restaurantId") String restaurantId,
+        @Param("count") long count,
+        @Param("sum") long sum,
+        @Param("one") long one,
+        @Param("two") long two,
+        @Param("three") long three,
+        @Param("four") long four,
+        @Param("five") long five
+    );
+}
@@ -2,6 +2,7 @@ package com.quisin.review.service;
 
 import com.quisin.review.dto.ReviewRequest;
 import com.quisin.review.dto.ReviewResponse;
+import com.quisin.review.dto.ReviewStatisticsResponse;
 import com.quisin.review.model.ReviewStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,5 +24,7 @@ public interface ReviewService {
     
     Double getAverageRating(String restaurantId);
     
+    ReviewStatisticsResponse getStatistics(String restaurantId);
+    
     void processReviewModeration();
 } 
\ No newline at end of file
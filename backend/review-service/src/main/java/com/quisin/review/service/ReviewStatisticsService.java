@@ -0,0 +1,176 @@
+package com.quisin.review.service;
+
+import com.quisin.review.model.Review;
+import com.quisin.review.model.ReviewStatistics;
+import com.quisin.review.model.ReviewStatus;
+import com.quisin.review.repository.ReviewRepository;
+import com.quisin.review.repository.ReviewStatisticsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-restaurant review statistics, maintained in the same transaction as the review change that
+ * affects them and read through a small in-process cache.
+ *
+ * Only {@link ReviewStatus#APPROVED} reviews count. A restaurant's row is seeded from its
+ * existing reviews the first time it is needed.
+ */
+@Slf4j
+@Service
+public class ReviewStatisticsService {
+
+    private final ReviewStatisticsRepository statisticsRepository;
+    private final ReviewRepository reviewRepository;
+    private final Duration cacheTtl;
+    private final Map<String, CachedStatistics> cache;
+
+    public ReviewStatisticsService(
+        ReviewStatisticsRepository statisticsRepository,
+        ReviewRepository reviewRepository,
+        @Value("${review.statistics.cache.ttl:PT30S}") Duration cacheTtl,
+        @Value("${review.statistics.cache.maximum-size:10000}") int cacheSize
+    ) {
+        this.statisticsRepository = statisticsRepository;
+        this.reviewRepository = reviewRepository;
+        this.cacheTtl = cacheTtl;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatistics> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Transactional
+    public ReviewStatistics getStatistics(String restaurantId) {
+        CachedStatistics cached = cache.get(restaurantId);
+        if (cached != null && cached.loadedAt().plus(cacheTtl).isAfter(Instant.now())) {
+            return cached.statistics();
+        }
+        ReviewStatistics statistics = statisticsRepository.findById(restaurantId).orElse(null);
+        if (statistics == null) {
+            seed(restaurantId);
+            statistics = statisticsRepository.findById(restaurantId).orElseThrow();
+        }
+        cache.put(restaurantId, new CachedStatistics(statistics, Instant.now()));
+        return statistics;
+    }
+
+    /**
+     * Records a review moving from one status and rating to another; pass nulls for the side
+     * that does not exist, as on create or delete.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(String restaurantId, ReviewStatus oldStatus, Integer oldRating,
+                             ReviewStatus newStatus, Integer newRating) {
+        Delta delta = new Delta();
+        if (oldStatus == ReviewStatus.APPROVED) {
+            delta.add(oldRating, -1);
+        }
+        if (newStatus == ReviewStatus.APPROVED) {
+            delta.add(newRating, 1);
+        }
+        apply(restaurantId, delta);
+    }
+
+    /**
+     * Records a batch of reviews that have just been approved.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordApproved(Collection<Review> reviews) {
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        reviews.forEach(review ->
+            deltas.computeIfAbsent(review.getRestaurantId(), id -> new Delta()).add(review.getRating(), 1));
+        deltas.forEach(this::apply);
+    }
+
+    private void apply(String restaurantId, Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        // A freshly seeded row already reflects this transaction's flushed review changes
+        if (statisticsRepository.existsById(restaurantId) || !seed(restaurantId)) {
+            long[] stars = delta.stars;
+            statisticsRepository.applyDelta(restaurantId, delta.count, delta.sum,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+        }
+        evictAfterCommit(restaurantId);
+    }
+
+    /**
+     * Creates the row from the restaurant's approved reviews. Returns false if another
+     * transaction created it first.
+     */
+    private boolean seed(String restaurantId) {
+        long[] stars = new long[6];
+        long count = 0;
+        long sum = 0;
+        for (Object[] row : reviewRepository.getRatingDistributionForRestaurant(restaurantId)) {
+            int rating = ((Number) row[0]).intValue();
+            long reviews = ((Number) row[1]).longValue();
+            if (rating >= 1 && rating <= 5) {
+                stars[rating] += reviews;
+                count += reviews;
+                sum += rating * reviews;
+            }
+        }
+        boolean inserted = statisticsRepository.insertIfAbsent(restaurantId, count, sum,
+            stars[1], stars[2], stars[3], stars[4], stars[5]) > 0;
+        if (inserted) {
+            log.debug("Seeded review statistics for restaurant {} from {} approved reviews", restaurantId, count);
+        }
+        return inserted;
+    }
+
+    private void evictAfterCommit(String restaurantId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.remove(restaurantId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.remove(restaurantId);
+            }
+        });
+    }
+
+    private record CachedStatistics(ReviewStatistics statistics, Instant loadedAt) {
+    }
+
+    private static final class Delta {
+        private final long[] stars = new long[6];
+        private long count;
+        private long sum;
+
+        void add(Integer rating, int sign) {
+            if (rating == null || rating < 1 || rating > 5) {
+                return;
+            }
+            stars[rating] += sign;
+            count += sign;
+            sum += (long) sign * rating;
+        }
+
+        boolean isEmpty() {
+            for (long stars : stars) {
+                if (stars != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
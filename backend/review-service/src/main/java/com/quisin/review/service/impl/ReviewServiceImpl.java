@@ -1,23 +1,35 @@
 package com.quisin.review.service.impl;
 
+import com.quisin.common.expiry.ExpiryJob;
+import com.quisin.common.expiry.ExpirySweeper;
 import com.quisin.review.dto.ReviewRequest;
 import com.quisin.review.dto.ReviewResponse;
+import com.quisin.review.dto.ReviewStatisticsResponse;
+import com.quisin.review.event.ReviewEvent;
+import com.quisin.review.event.ReviewEventPublisher;
 import com.quisin.review.model.Review;
+import com.quisin.review.model.ReviewStatistics;
 import com.quisin.review.model.ReviewStatus;
 import com.quisin.review.repository.ReviewRepository;
 import com.quisin.review.service.ReviewService;
+import com.quisin.review.service.ReviewStatisticsService;
 import com.quisin.review.validation.ReviewValidator;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Slf4j
@@ -25,8 +37,13 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
 
+    private static final Duration AUTO_APPROVE_AFTER = Duration.ofHours(24);
+
     private final ReviewRepository reviewRepository;
     private final ReviewValidator reviewValidator;
+    private final ReviewEventPublisher reviewEventPublisher;
+    private final ExpirySweeper expirySweeper;
+    private final ReviewStatisticsService statisticsService;
 
     @Value("${review.moderation.auto-approve:false}")
     private boolean autoApprove;
@@ -49,6 +66,8 @@ public class ReviewServiceImpl implements ReviewService {
             .build();
 
         Review savedReview = reviewRepository.save(review);
+        statisticsService.recordChange(savedReview.getRestaurantId(), null, null,
+            savedReview.getStatus(), savedReview.getRating());
         log.info("Created review with ID {} for restaurant {}", savedReview.getId(), request.getRestaurantId());
         
         return mapToResponse(savedReview);
@@ -60,6 +79,8 @@ public class ReviewServiceImpl implements ReviewService {
         log.debug("Updating review {} by user {}", reviewId, userId);
         
         Review review = getReviewByIdAndUserId(reviewId, userId);
+        ReviewStatus previousStatus = review.getStatus();
+        Integer previousRating = review.getRating();
         
         if (review.getStatus() == ReviewStatus.APPROVED) {
             review.setStatus(ReviewStatus.UPDATED);
@@ -69,6 +90,8 @@ public class ReviewServiceImpl implements ReviewService {
         review.setComment(request.getComment());
 
         Review updatedReview = reviewRepository.save(review);
+        statisticsService.recordChange(updatedReview.getRestaurantId(), previousStatus, previousRating,
+            updatedReview.getStatus(), updatedReview.getRating());
         log.info("Updated review {}", reviewId);
         
         return mapToResponse(updatedReview);
@@ -87,6 +110,7 @@ public class ReviewServiceImpl implements ReviewService {
         
         Review review = getReviewByIdAndUserId(reviewId, userId);
         reviewRepository.delete(review);
+        statisticsService.recordChange(review.getRestaurantId(), review.getStatus(), review.getRating(), null, null);
         
         log.info("Deleted review {}", reviewId);
     }
@@ -111,6 +135,7 @@ public class ReviewServiceImpl implements ReviewService {
         log.debug("Moderating review {} to status {} by moderator {}", reviewId, newStatus, moderatorId);
         
         Review review = getReviewById(reviewId);
+        ReviewStatus previousStatus = review.getStatus();
         review.setStatus(newStatus);
         review.setModeratorId(moderatorId);
         review.setModeratedAt(LocalDateTime.now());
@@ -120,6 +145,8 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
         Review moderatedReview = reviewRepository.save(review);
+        statisticsService.recordChange(moderatedReview.getRestaurantId(), previousStatus, moderatedReview.getRating(),
+            newStatus, moderatedReview.getRating());
         log.info("Moderated review {} to status {}", reviewId, newStatus);
         
         return mapToResponse(moderatedReview);
@@ -128,22 +155,84 @@ public class ReviewServiceImpl implements ReviewService {
     @Override
     public Double getAverageRating(String restaurantId) {
         log.debug("Calculating average rating for restaurant {}", restaurantId);
-        return reviewRepository.getAverageRatingForRestaurant(restaurantId);
+        return statisticsService.getStatistics(restaurantId).getAverageRating();
+    }
+
+    @Override
+    public ReviewStatisticsResponse getStatistics(String restaurantId) {
+        ReviewStatistics statistics = statisticsService.getStatistics(restaurantId);
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        for (int rating = 5; rating >= 1; rating--) {
+            distribution.put(rating, statistics.countFor(rating));
+        }
+        return ReviewStatisticsResponse.builder()
+            .restaurantId(restaurantId)
+            .reviewCount(statistics.getReviewCount())
+            .averageRating(statistics.getAverageRating())
+            .ratingDistribution(distribution)
+            .build();
     }
 
     @Override
     @Scheduled(fixedRate = 300000) // Run every 5 minutes
-    @Transactional
     public void processReviewModeration() {
         log.debug("Processing review moderation");
         
-        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(24);
-        var pendingReviews = reviewRepository.findPendingReviewsOlderThan(cutoffTime);
-        
-        for (Review review : pendingReviews) {
-            review.setStatus(ReviewStatus.APPROVED);
-            reviewRepository.save(review);
-            log.info("Auto-approved review {} after 24 hours", review.getId());
+        LocalDateTime cutoffTime = LocalDateTime.now().minus(AUTO_APPROVE_AFTER);
+        expirySweeper.sweep(new PendingReviewsJob(cutoffTime));
+    }
+
+    /**
+     * Auto-approves reviews left pending past {@link #AUTO_APPROVE_AFTER}.
+     */
+    private final class PendingReviewsJob implements ExpiryJob<Review, Long> {
+        private final LocalDateTime cutoffTime;
+
+        private PendingReviewsJob(LocalDateTime cutoffTime) {
+            this.cutoffTime = cutoffTime;
+        }
+
+        @Override
+        public String name() {
+            return "pending-reviews";
+        }
+
+        @Override
+        public List<Review> claim(Long afterId, int limit) {
+            return reviewRepository.lockPendingReviewsOlderThan(
+                cutoffTime, afterId != null ? afterId : 0L, PageRequest.of(0, limit));
+        }
+
+        @Override
+        public Long idOf(Review review) {
+            return review.getId();
+        }
+
+        @Override
+        public LocalDateTime dueAt(Review review) {
+            return review.getCreatedAt().plus(AUTO_APPROVE_AFTER);
+        }
+
+        @Override
+        public int expire(List<Review> reviews) {
+            List<Long> ids = reviews.stream().map(Review::getId).toList();
+            int updated = reviewRepository.updateStatus(ids, ReviewStatus.APPROVED, LocalDateTime.now());
+            statisticsService.recordApproved(reviews);
+            return updated;
+        }
+
+        @Override
+        public void onExpired(List<Review> reviews) {
+            reviewEventPublisher.publishReviewsModerated(reviews.stream()
+                .map(review -> ReviewEvent.builder()
+                    .reviewId(review.getId())
+                    .restaurantId(review.getRestaurantId())
+                    .userId(review.getUserId())
+                    .orderId(review.getOrderId())
+                    .rating(review.getRating())
+                    .status(ReviewStatus.APPROVED)
+                    .build())
+                .toList());
         }
     }
 
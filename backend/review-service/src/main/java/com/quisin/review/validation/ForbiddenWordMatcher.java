@@ -0,0 +1,140 @@
+package com.quisin.review.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Case-insensitive Aho-Corasick matcher over a fixed set of words.
+ *
+ * The words are compiled once into a trie with failure links, so checking a comment is a single
+ * pass over its characters however many words there are, and allocates nothing. Matching is by
+ * substring, as {@link String#contains} would.
+ */
+public final class ForbiddenWordMatcher {
+
+    private static final ForbiddenWordMatcher EMPTY = compile(List.of());
+
+    // Node n's children are keys[n][i] -> targets[n][i], with keys sorted for binary search
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    private final boolean[] terminal;
+    private final int wordCount;
+
+    private ForbiddenWordMatcher(char[][] keys, int[][] targets, int[] fail, boolean[] terminal, int wordCount) {
+        this.keys = keys;
+        this.targets = targets;
+        this.fail = fail;
+        this.terminal = terminal;
+        this.wordCount = wordCount;
+    }
+
+    public static ForbiddenWordMatcher empty() {
+        return EMPTY;
+    }
+
+    public static ForbiddenWordMatcher compile(Collection<String> words) {
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<Boolean> ends = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(false);
+        int wordCount = 0;
+
+        for (String word : words) {
+            if (word == null || word.isBlank()) {
+                continue;
+            }
+            int node = 0;
+            for (char c : word.trim().toCharArray()) {
+                char folded = Character.toLowerCase(c);
+                Integer next = children.get(node).get(folded);
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(folded, next);
+                    children.add(new TreeMap<>());
+                    ends.add(false);
+                }
+                node = next;
+            }
+            if (!ends.get(node)) {
+                ends.set(node, true);
+                wordCount++;
+            }
+        }
+
+        int size = children.size();
+        char[][] keys = new char[size][];
+        int[][] targets = new int[size][];
+        boolean[] terminal = new boolean[size];
+        for (int node = 0; node < size; node++) {
+            Map<Character, Integer> edges = children.get(node);
+            keys[node] = new char[edges.size()];
+            targets[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                keys[node][i] = edge.getKey();
+                targets[node][i] = edge.getValue();
+                i++;
+            }
+            terminal[node] = ends.get(node);
+        }
+
+        // Breadth-first so every node's failure target is finished before its children need it
+        int[] fail = new int[size];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < keys[node].length; i++) {
+                char c = keys[node][i];
+                int child = targets[node][i];
+                int state = fail[node];
+                int next;
+                while ((next = step(keys, targets, state, c)) < 0 && state != 0) {
+                    state = fail[state];
+                }
+                fail[child] = next < 0 ? 0 : next;
+                // A word that ends inside this one also counts as a match here
+                terminal[child] |= terminal[fail[child]];
+                queue.add(child);
+            }
+        }
+        return new ForbiddenWordMatcher(keys, targets, fail, terminal, wordCount);
+    }
+
+    public boolean containsAny(CharSequence text) {
+        if (text == null || wordCount == 0) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = step(keys, targets, state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = next < 0 ? 0 : next;
+            if (terminal[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return wordCount;
+    }
+
+    private static int step(char[][] keys, int[][] targets, int node, char c) {
+        int index = Arrays.binarySearch(keys[node], c);
+        return index >= 0 ? targets[node][index] : -1;
+    }
+}
@@ -0,0 +1,101 @@
+package com.quisin.review.validation;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The current forbidden-word list, compiled into a {@link ForbiddenWordMatcher}.
+ *
+ * Words come from {@code review.moderation.forbidden-words} (comma separated) and, if set, the
+ * file at {@code review.moderation.forbidden-words-file} (one word per line, {@code #} for
+ * comments). The list is recompiled when the property changes through a configuration refresh
+ * or the file is modified, without a restart.
+ */
+@Slf4j
+@Component
+public class ForbiddenWords {
+
+    private static final String WORDS_PROPERTY = "review.moderation.forbidden-words";
+    private static final String FILE_PROPERTY = "review.moderation.forbidden-words-file";
+
+    private final Environment environment;
+    private volatile ForbiddenWordMatcher matcher = ForbiddenWordMatcher.empty();
+    private volatile FileTime fileModifiedAt;
+
+    public ForbiddenWords(Environment environment) {
+        this.environment = environment;
+    }
+
+    public ForbiddenWordMatcher matcher() {
+        return matcher;
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : environment.getProperty(WORDS_PROPERTY, "").split(",")) {
+            if (!word.isBlank()) {
+                words.add(word.trim());
+            }
+        }
+        Path file = wordsFile();
+        if (file != null) {
+            try {
+                fileModifiedAt = Files.getLastModifiedTime(file);
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String word = line.trim();
+                    if (!word.isEmpty() && !word.startsWith("#")) {
+                        words.add(word);
+                    }
+                }
+            } catch (IOException e) {
+                // Keep the previous list rather than silently dropping to no moderation
+                log.error("Failed to read forbidden words from {}: {}", file, e.getMessage());
+                return;
+            }
+        }
+        matcher = ForbiddenWordMatcher.compile(words);
+        log.info("Loaded {} forbidden words", matcher.size());
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().contains(WORDS_PROPERTY) || event.getKeys().contains(FILE_PROPERTY)) {
+            reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${review.moderation.forbidden-words-reload-interval:PT1M}")
+    public void reloadIfFileChanged() {
+        Path file = wordsFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            if (!Files.getLastModifiedTime(file).equals(fileModifiedAt)) {
+                reload();
+            }
+        } catch (IOException e) {
+            log.warn("Cannot check forbidden words file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path wordsFile() {
+        String location = environment.getProperty(FILE_PROPERTY, "");
+        return location.isBlank() ? null : Path.of(location);
+    }
+}
@@ -10,15 +10,12 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
 public class ReviewValidator {
     private final ReviewRepository reviewRepository;
-
-    @Value("${review.moderation.forbidden-words:}")
-    private Set<String> forbiddenWords;
+    private final ForbiddenWords forbiddenWords;
 
     @Value("${review.moderation.max-reviews-per-user-per-day:5}")
     private int maxReviewsPerUserPerDay;
@@ -51,13 +48,8 @@ public class ReviewValidator {
     }
 
     private void validateContent(String comment, List<String> errors) {
-        if (comment != null && !comment.trim().isEmpty()) {
-            for (String word : forbiddenWords) {
-                if (comment.toLowerCase().contains(word.toLowerCase())) {
-                    errors.add("Review contains inappropriate content");
-                    break;
-                }
-            }
+        if (comment != null && !comment.isBlank() && forbiddenWords.matcher().containsAny(comment)) {
+            errors.add("Review contains inappropriate content");
         }
     }
 } 
\ No newline at end of file
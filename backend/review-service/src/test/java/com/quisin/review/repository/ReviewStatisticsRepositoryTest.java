@@ -0,0 +1,134 @@
+package com.quisin.review.repository;
+
+import com.quisin.review.model.Review;
+import com.quisin.review.model.ReviewStatistics;
+import com.quisin.review.model.ReviewStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The statistics queries use PostgreSQL's ON CONFLICT, so they run against a real database
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReviewStatisticsRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ReviewStatisticsRepository statisticsRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private static final String RESTAURANT_ID = "restaurant-1";
+
+    @Test
+    void insertIfAbsent_KeepsFirstRow() {
+        // Act
+        int first = statisticsRepository.insertIfAbsent(RESTAURANT_ID, 2, 9, 0, 0, 0, 1, 1);
+        int second = statisticsRepository.insertIfAbsent(RESTAURANT_ID, 7, 7, 7, 0, 0, 0, 0);
+        entityManager.clear();
+
+        // Assert
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        ReviewStatistics statistics = statisticsRepository.findById(RESTAURANT_ID).orElseThrow();
+        assertThat(statistics.getReviewCount()).isEqualTo(2);
+        assertThat(statistics.getRatingSum()).isEqualTo(9);
+        assertThat(statistics.getOneStar()).isZero();
+        assertThat(statistics.getFourStar()).isEqualTo(1);
+        assertThat(statistics.getFiveStar()).isEqualTo(1);
+    }
+
+    @Test
+    void applyDelta_AddsToEveryColumn() {
+        // Arrange
+        statisticsRepository.insertIfAbsent(RESTAURANT_ID, 2, 9, 0, 0, 0, 1, 1);
+
+        // Act
+        int updated = statisticsRepository.applyDelta(RESTAURANT_ID, 1, 3, 1, 1, 0, -1, 0);
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).isEqualTo(1);
+        ReviewStatistics statistics = statisticsRepository.findById(RESTAURANT_ID).orElseThrow();
+        assertThat(statistics.getReviewCount()).isEqualTo(3);
+        assertThat(statistics.getRatingSum()).isEqualTo(12);
+        assertThat(statistics.getOneStar()).isEqualTo(1);
+        assertThat(statistics.getTwoStar()).isEqualTo(1);
+        assertThat(statistics.getThreeStar()).isZero();
+        assertThat(statistics.getFourStar()).isZero();
+        assertThat(statistics.getFiveStar()).isEqualTo(1);
+        assertThat(statistics.getAverageRating()).isEqualTo(4.0);
+    }
+
+    @Test
+    void applyDelta_MissingRow_UpdatesNothing() {
+        // Act
+        int updated = statisticsRepository.applyDelta(RESTAURANT_ID, 1, 5, 0, 0, 0, 0, 1);
+
+        // Assert
+        assertThat(updated).isZero();
+        assertThat(statisticsRepository.existsById(RESTAURANT_ID)).isFalse();
+    }
+
+    @Test
+    void getRatingDistributionForRestaurant_CountsOnlyApprovedReviews() {
+        // Arrange
+        reviewRepository.saveAll(List.of(
+                review(RESTAURANT_ID, 5, ReviewStatus.APPROVED),
+                review(RESTAURANT_ID, 5, ReviewStatus.APPROVED),
+                review(RESTAURANT_ID, 3, ReviewStatus.APPROVED),
+                review(RESTAURANT_ID, 1, ReviewStatus.PENDING),
+                review(RESTAURANT_ID, 2, ReviewStatus.REJECTED),
+                review("restaurant-2", 4, ReviewStatus.APPROVED)));
+        entityManager.flush();
+
+        // Act
+        Map<Integer, Long> distribution = reviewRepository.getRatingDistributionForRestaurant(RESTAURANT_ID).stream()
+                .collect(Collectors.toMap(row -> ((Number) row[0]).intValue(), row -> ((Number) row[1]).longValue()));
+
+        // Assert
+        assertThat(distribution).containsExactlyInAnyOrderEntriesOf(Map.of(5, 2L, 3, 1L));
+    }
+
+    private static Review review(String restaurantId, int rating, ReviewStatus status) {
+        return Review.builder()
+                .restaurantId(restaurantId)
+                .userId("user-" + rating)
+                .orderId("order-" + rating)
+                .rating(rating)
+                .status(status)
+                .visitDate(LocalDateTime.now().minusDays(1))
+                .build();
+    }
+}
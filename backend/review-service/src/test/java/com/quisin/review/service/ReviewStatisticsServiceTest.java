@@ -0,0 +1,241 @@
+package com.quisin.review.service;
+
+import com.quisin.review.model.Review;
+import com.quisin.review.model.ReviewStatistics;
+import com.quisin.review.model.ReviewStatus;
+import com.quisin.review.repository.ReviewRepository;
+import com.quisin.review.repository.ReviewStatisticsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewStatisticsServiceTest {
+
+    @Mock
+    private ReviewStatisticsRepository statisticsRepository;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    private ReviewStatisticsService statisticsService;
+
+    private static final String RESTAURANT_ID = "restaurant-1";
+
+    @BeforeEach
+    void setUp() {
+        statisticsService = new ReviewStatisticsService(statisticsRepository, reviewRepository, Duration.ofMinutes(5), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getStatistics_SeedsMissingRowFromApprovedReviews() {
+        // Arrange
+        ReviewStatistics seeded = statistics(3, 13);
+        when(statisticsRepository.findById(RESTAURANT_ID)).thenReturn(Optional.empty(), Optional.of(seeded));
+        when(reviewRepository.getRatingDistributionForRestaurant(RESTAURANT_ID))
+                .thenReturn(List.of(new Object[]{5, 2L}, new Object[]{3, 1L}));
+
+        // Act
+        ReviewStatistics result = statisticsService.getStatistics(RESTAURANT_ID);
+
+        // Assert
+        assertThat(result).isSameAs(seeded);
+        verify(statisticsRepository).insertIfAbsent(RESTAURANT_ID, 3, 13, 0, 0, 1, 0, 2);
+    }
+
+    @Test
+    void getStatistics_IgnoresRatingsOutsideOneToFive() {
+        // Arrange
+        when(statisticsRepository.findById(RESTAURANT_ID)).thenReturn(Optional.empty(), Optional.of(statistics(1, 4)));
+        when(reviewRepository.getRatingDistributionForRestaurant(RESTAURANT_ID))
+                .thenReturn(List.of(new Object[]{0, 3L}, new Object[]{4, 1L}, new Object[]{6, 2L}));
+
+        // Act
+        statisticsService.getStatistics(RESTAURANT_ID);
+
+        // Assert
+        verify(statisticsRepository).insertIfAbsent(RESTAURANT_ID, 1, 4, 0, 0, 0, 1, 0);
+    }
+
+    @Test
+    void getStatistics_ServesCachedRowWithinTtl() {
+        // Arrange
+        ReviewStatistics stored = statistics(2, 9);
+        when(statisticsRepository.findById(RESTAURANT_ID)).thenReturn(Optional.of(stored));
+
+        // Act
+        statisticsService.getStatistics(RESTAURANT_ID);
+        ReviewStatistics result = statisticsService.getStatistics(RESTAURANT_ID);
+
+        // Assert
+        assertThat(result).isSameAs(stored);
+        verify(statisticsRepository, times(1)).findById(RESTAURANT_ID);
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void getStatistics_ReloadsOnceTtlHasPassed() {
+        // Arrange
+        statisticsService = new ReviewStatisticsService(statisticsRepository, reviewRepository, Duration.ZERO, 100);
+        when(statisticsRepository.findById(RESTAURANT_ID)).thenReturn(Optional.of(statistics(2, 9)));
+
+        // Act
+        statisticsService.getStatistics(RESTAURANT_ID);
+        statisticsService.getStatistics(RESTAURANT_ID);
+
+        // Assert
+        verify(statisticsRepository, times(2)).findById(RESTAURANT_ID);
+    }
+
+    @Test
+    void recordChange_ApprovalAddsReview() {
+        // Arrange
+        when(statisticsRepository.existsById(RESTAURANT_ID)).thenReturn(true);
+
+        // Act
+        statisticsService.recordChange(RESTAURANT_ID, ReviewStatus.PENDING, 4, ReviewStatus.APPROVED, 4);
+
+        // Assert
+        verify(statisticsRepository).applyDelta(RESTAURANT_ID, 1, 4, 0, 0, 0, 1, 0);
+    }
+
+    @Test
+    void recordChange_RatingEditMovesApprovedReview() {
+        // Arrange
+        when(statisticsRepository.existsById(RESTAURANT_ID)).thenReturn(true);
+
+        // Act
+        statisticsService.recordChange(RESTAURANT_ID, ReviewStatus.APPROVED, 2, ReviewStatus.APPROVED, 5);
+
+        // Assert
+        verify(statisticsRepository).applyDelta(RESTAURANT_ID, 0, 3, 0, -1, 0, 0, 1);
+    }
+
+    @Test
+    void recordChange_RemovalSubtractsReview() {
+        // Arrange
+        when(statisticsRepository.existsById(RESTAURANT_ID)).thenReturn(true);
+
+        // Act
+        statisticsService.recordChange(RESTAURANT_ID, ReviewStatus.APPROVED, 3, null, null);
+
+        // Assert
+        verify(statisticsRepository).applyDelta(RESTAURANT_ID, -1, -3, 0, 0, -1, 0, 0);
+    }
+
+    @Test
+    void recordChange_IgnoresChangesThatLeaveApprovedReviewsAlone() {
+        // Act
+        statisticsService.recordChange(RESTAURANT_ID, ReviewStatus.PENDING, 1, ReviewStatus.REJECTED, 1);
+        statisticsService.recordChange(RESTAURANT_ID, ReviewStatus.APPROVED, 4, ReviewStatus.APPROVED, 4);
+
+        // Assert
+        verifyNoInteractions(statisticsRepository, reviewRepository);
+    }
+
+    @Test
+    void recordChange_SeedsMissingRowInsteadOfApplyingDelta() {
+        // Arrange
+        // The seed reads the reviews after this change has been flushed, so it already counts it
+        when(statisticsRepository.existsById(RESTAURANT_ID)).thenReturn(false);
+        when(reviewRepository.getRatingDistributionForRestaurant(RESTAURANT_ID)).thenReturn(List.<Object[]>of(new Object[]{5, 1L}));
+        when(statisticsRepository.insertIfAbsent(RESTAURANT_ID, 1, 5, 0, 0, 0, 0, 1)).thenReturn(1);
+
+        // Act
+        statisticsService.recordChange(RESTAURANT_ID, null, null, ReviewStatus.APPROVED, 5);
+
+        // Assert
+        verify(statisticsRepository, never()).applyDelta(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void recordChange_AppliesDeltaWhenAnotherTransactionSeededFirst() {
+        // Arrange
+        when(statisticsRepository.existsById(RESTAURANT_ID)).thenReturn(false);
+        when(reviewRepository.getRatingDistributionForRestaurant(RESTAURANT_ID)).thenReturn(List.of());
+        when(statisticsRepository.insertIfAbsent(RESTAURANT_ID, 0, 0, 0, 0, 0, 0, 0)).thenReturn(0);
+
+        // Act
+        statisticsService.recordChange(RESTAURANT_ID, null, null, ReviewStatus.APPROVED, 5);
+
+        // Assert
+        verify(statisticsRepository).applyDelta(RESTAURANT_ID, 1, 5, 0, 0, 0, 0, 1);
+    }
+
+    @Test
+    void recordApproved_OneDeltaPerRestaurant() {
+        // Arrange
+        when(statisticsRepository.existsById(anyString())).thenReturn(true);
+
+        // Act
+        statisticsService.recordApproved(List.of(
+                review(RESTAURANT_ID, 5),
+                review("restaurant-2", 1),
+                review(RESTAURANT_ID, 4),
+                review(RESTAURANT_ID, 5)));
+
+        // Assert
+        verify(statisticsRepository).applyDelta(RESTAURANT_ID, 3, 14, 0, 0, 0, 1, 2);
+        verify(statisticsRepository).applyDelta("restaurant-2", 1, 1, 1, 0, 0, 0, 0);
+    }
+
+    @Test
+    void recordChange_EvictsCachedRowOnlyOnceCommitted() {
+        // Arrange
+        when(statisticsRepository.findById(RESTAURANT_ID)).thenReturn(Optional.of(statistics(1, 5)));
+        when(statisticsRepository.existsById(RESTAURANT_ID)).thenReturn(true);
+        statisticsService.getStatistics(RESTAURANT_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        statisticsService.recordChange(RESTAURANT_ID, null, null, ReviewStatus.APPROVED, 4);
+        statisticsService.getStatistics(RESTAURANT_ID);
+
+        // Assert
+        verify(statisticsRepository, times(1)).findById(RESTAURANT_ID);
+
+        // Act
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        statisticsService.getStatistics(RESTAURANT_ID);
+
+        // Assert
+        verify(statisticsRepository, times(2)).findById(RESTAURANT_ID);
+    }
+
+    private static ReviewStatistics statistics(long count, long sum) {
+        return ReviewStatistics.builder()
+                .restaurantId(RESTAURANT_ID)
+                .reviewCount(count)
+                .ratingSum(sum)
+                .build();
+    }
+
+    private static Review review(String restaurantId, int rating) {
+        return Review.builder()
+                .restaurantId(restaurantId)
+                .rating(rating)
+                .status(ReviewStatus.APPROVED)
+                .build();
+    }
+}
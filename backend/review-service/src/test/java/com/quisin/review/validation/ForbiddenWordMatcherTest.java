@@ -0,0 +1,140 @@
+package com.quisin.review.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForbiddenWordMatcherTest {
+
+    @Test
+    void containsAny_OverlappingWords() {
+        // Arrange
+        ForbiddenWordMatcher matcher = ForbiddenWordMatcher.compile(List.of("he", "she", "hers", "his"));
+
+        // Act & Assert
+        assertThat(matcher.containsAny("ushers")).isTrue();
+        assertThat(matcher.containsAny("ahishe")).isTrue();
+        assertThat(matcher.containsAny("hx sx hi")).isFalse();
+    }
+
+    @Test
+    void containsAny_WordEndingInsideLongerPrefix() {
+        // Arrange
+        // "bcd" only ends inside a walk down "abcx", so it is found through the failure links
+        ForbiddenWordMatcher matcher = ForbiddenWordMatcher.compile(List.of("abcx", "bcd"));
+
+        // Act & Assert
+        assertThat(matcher.containsAny("zabcd")).isTrue();
+        assertThat(matcher.containsAny("zabcx")).isTrue();
+        assertThat(matcher.containsAny("zabc bc d")).isFalse();
+    }
+
+    @Test
+    void containsAny_WordInsideAnotherWord() {
+        // Arrange
+        ForbiddenWordMatcher matcher = ForbiddenWordMatcher.compile(List.of("spam", "spammer"));
+
+        // Act & Assert
+        assertThat(matcher.containsAny("a spamme")).isTrue();
+        assertThat(matcher.containsAny("spa mmer")).isFalse();
+    }
+
+    @Test
+    void containsAny_IgnoresCase() {
+        // Arrange
+        ForbiddenWordMatcher matcher = ForbiddenWordMatcher.compile(List.of("Awful", "CRÈME"));
+
+        // Act & Assert
+        assertThat(matcher.containsAny("simply AWFUL food")).isTrue();
+        assertThat(matcher.containsAny("aWfUl")).isTrue();
+        assertThat(matcher.containsAny("the crème brûlée")).isTrue();
+        assertThat(matcher.containsAny("the CRÈME brûlée")).isTrue();
+        assertThat(matcher.containsAny("the creme brulee")).isFalse();
+    }
+
+    @Test
+    void containsAny_MatchesAcrossWordBoundaries() {
+        // Arrange
+        // Matching is by substring, as the String.contains check it replaced was
+        ForbiddenWordMatcher matcher = ForbiddenWordMatcher.compile(List.of("ass", "bad food"));
+
+        // Act & Assert
+        assertThat(matcher.containsAny("first class service")).isTrue();
+        assertThat(matcher.containsAny("ass")).isTrue();
+        assertThat(matcher.containsAny("a bad food place")).isTrue();
+        assertThat(matcher.containsAny("bad  food")).isFalse();
+        assertThat(matcher.containsAny("as s")).isFalse();
+    }
+
+    @Test
+    void compile_TrimsAndSkipsBlankWords() {
+        // Arrange
+        ForbiddenWordMatcher matcher = ForbiddenWordMatcher.compile(Arrays.asList("  rude ", "", "   ", null, "RUDE", "rude"));
+
+        // Act & Assert
+        assertThat(matcher.size()).isEqualTo(1);
+        assertThat(matcher.containsAny("so rude")).isTrue();
+        assertThat(matcher.containsAny("so  ")).isFalse();
+    }
+
+    @Test
+    void containsAny_EmptyDictionary() {
+        // Arrange
+        ForbiddenWordMatcher compiled = ForbiddenWordMatcher.compile(List.of());
+        ForbiddenWordMatcher blank = ForbiddenWordMatcher.compile(List.of(" ", ""));
+
+        // Act & Assert
+        for (ForbiddenWordMatcher matcher : List.of(ForbiddenWordMatcher.empty(), compiled, blank)) {
+            assertThat(matcher.size()).isZero();
+            assertThat(matcher.containsAny("anything at all")).isFalse();
+            assertThat(matcher.containsAny("")).isFalse();
+            assertThat(matcher.containsAny(null)).isFalse();
+        }
+    }
+
+    @Test
+    void containsAny_NullOrEmptyText() {
+        // Arrange
+        ForbiddenWordMatcher matcher = ForbiddenWordMatcher.compile(List.of("bad"));
+
+        // Act & Assert
+        assertThat(matcher.containsAny(null)).isFalse();
+        assertThat(matcher.containsAny("")).isFalse();
+    }
+
+    @Test
+    void containsAny_AgreesWithStringContains() {
+        // Arrange
+        // A small alphabet makes overlapping and repeated prefixes common
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            List<String> words = new ArrayList<>();
+            for (int i = random.nextInt(6); i > 0; i--) {
+                words.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            ForbiddenWordMatcher matcher = ForbiddenWordMatcher.compile(words);
+            String text = randomText(random, random.nextInt(30));
+
+            // Act
+            boolean matched = matcher.containsAny(text);
+
+            // Assert
+            boolean expected = words.stream().anyMatch(word -> text.toLowerCase().contains(word.toLowerCase()));
+            assertThat(matched).as("words %s in \"%s\"", words, text).isEqualTo(expected);
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        String alphabet = "abAB";
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}